@@ -0,0 +1,173 @@
+package com.bank.account.archive;
+
+import com.bank.account.model.ArchiveSegment;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.ArchiveSegmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Moves transactions older than age-days out of the table into segment files, oldest first and
+// segment-rows at a time. Each segment is catalogued as PENDING before its file is written and
+// its rows are only deleted once the file is complete on disk, so an interrupted run is either
+// finished or rolled back by the archive on the next startup.
+@Component
+public class ArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveJob.class);
+
+    private static final String OLDEST_TRANSACTIONS_SQL = "SELECT id, source_account, destination_account, amount, "
+            + "transaction_type, timestamp, status, description FROM transactions "
+            + "WHERE timestamp < ? ORDER BY timestamp, id LIMIT ?";
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    @Autowired
+    private TransactionArchive archive;
+
+    @Autowired
+    private ArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${account.archive.age-days:365}")
+    private int ageDays;
+
+    @Value("${account.archive.segment-rows:100000}")
+    private int segmentRows;
+
+    @Value("${account.archive.fetch-size:1000}")
+    private int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun;
+
+    @Scheduled(cron = "${account.archive.cron:-}")
+    public void archiveScheduled() {
+        if (!archive.isEnabled()) {
+            return;
+        }
+        try {
+            run();
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled transaction archive: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> run() {
+        if (!archive.isEnabled()) {
+            throw new IllegalStateException("The transaction archive is not enabled");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A transaction archive run is already in progress");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(ageDays);
+            int segments = 0;
+            long rows = 0;
+            long bytes = 0;
+            ArchiveSegment segment;
+            do {
+                segment = archiveOldest(cutoff);
+                if (segment != null) {
+                    segments++;
+                    rows += segment.getRowCount();
+                    bytes += segment.getBytes();
+                }
+            } while (segment != null && segment.getRowCount() == segmentRows);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("cutoff", cutoff.toString());
+            result.put("segments", segments);
+            result.put("rows", rows);
+            result.put("bytes", bytes);
+            result.put("elapsedMs", elapsedMs);
+            lastRun = result;
+            log.info("Archived {} transactions older than {} into {} segments ({} bytes) in {} ms",
+                    rows, cutoff, segments, bytes, elapsedMs);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Transaction archive run failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = archive.getStatus();
+        status.put("running", running.get());
+        status.put("lastRun", lastRun);
+        return status;
+    }
+
+    // Writes and publishes one segment of the oldest rows before cutoff; null when there are none.
+    private ArchiveSegment archiveOldest(LocalDateTime cutoff) throws IOException {
+        String fileName = "transactions-" + FILE_STAMP.format(LocalDateTime.now(ZoneOffset.UTC)) + ".seg";
+        ArchiveSegment record = segmentRepository.save(new ArchiveSegment(fileName));
+        Path target = archive.getDirectory().resolve(fileName);
+        SegmentWriter writer = new SegmentWriter(target);
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(OLDEST_TRANSACTIONS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setTimestamp(1, Timestamp.valueOf(cutoff));
+                ps.setInt(2, segmentRows);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.add(toTransaction(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            writer.abort();
+            segmentRepository.delete(record);
+            throw e;
+        }
+        if (writer.getRows() == 0) {
+            writer.abort();
+            segmentRepository.delete(record);
+            return null;
+        }
+
+        SegmentReader segment = SegmentReader.open(writer.finish());
+        record.setRowCount(segment.getRows());
+        record.setMinTimestamp(segment.getMinTimestamp());
+        record.setMaxTimestamp(segment.getMaxTimestamp());
+        record.setBytes(segment.getBytes());
+        archive.publish(record, segment, writer.getIds());
+        return record;
+    }
+
+    private static Transaction toTransaction(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction(rs.getString(2), rs.getString(3), rs.getBigDecimal(4), rs.getString(5));
+        transaction.setId(rs.getLong(1));
+        transaction.setTimestamp(rs.getTimestamp(6).toLocalDateTime());
+        transaction.setStatus(rs.getString(7));
+        transaction.setDescription(rs.getString(8));
+        return transaction;
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.account.archive;
+
+import com.bank.account.model.Transaction;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+// The archived rows as of one read of the archive catalog: every segment that has rows moved out
+// of the table, limited to the rows moved so far. Read in the same snapshot transaction as the
+// table, it holds exactly the rows the table no longer has.
+public final class ArchiveView {
+
+    public static final ArchiveView EMPTY = new ArchiveView(List.of(), new int[0]);
+
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getTimestamp)
+            .thenComparing(Transaction::getId).reversed();
+
+    private final List<SegmentReader> segments;
+    private final int[] visibleRows;
+
+    ArchiveView(List<SegmentReader> segments, int[] visibleRows) {
+        this.segments = segments;
+        this.visibleRows = visibleRows;
+    }
+
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    // Earliest timestamp in any visible segment, or null without archived rows.
+    public LocalDateTime getMinTimestamp() {
+        return segments.stream().map(SegmentReader::getMinTimestamp).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    // Every archived transaction of the account, oldest first.
+    public List<Transaction> findByAccount(String accountNumber) {
+        List<Transaction> found = new ArrayList<>();
+        for (int s = 0; s < segments.size(); s++) {
+            found.addAll(segments.get(s).findByAccount(accountNumber, null, null, visibleRows[s]));
+        }
+        return found;
+    }
+
+    // Up to limit of the account's archived transactions that come after (timestamp, id) in
+    // newest-first order, or the newest ones when timestamp is null. Segments are visited newest
+    // first and the search stops at the first segment too old to contribute.
+    public List<Transaction> findPageBefore(String accountNumber, LocalDateTime timestamp, Long id, int limit) {
+        List<Integer> newestFirst = new ArrayList<>(segments.size());
+        for (int s = 0; s < segments.size(); s++) {
+            newestFirst.add(s);
+        }
+        newestFirst.sort(Comparator.comparing((Integer s) -> segments.get(s).getMaxTimestamp()).reversed());
+        LocalDateTime to = timestamp == null ? null : timestamp.plusNanos(1000);
+        List<Transaction> found = new ArrayList<>();
+        for (int s : newestFirst) {
+            SegmentReader segment = segments.get(s);
+            if (found.size() >= limit) {
+                found.sort(NEWEST_FIRST);
+                found = new ArrayList<>(found.subList(0, limit));
+                if (segment.getMaxTimestamp().isBefore(found.get(limit - 1).getTimestamp())) {
+                    break;
+                }
+            }
+            for (Transaction transaction : segment.findByAccount(accountNumber, null, to, visibleRows[s])) {
+                if (timestamp == null || transaction.getTimestamp().isBefore(timestamp)
+                        || (transaction.getTimestamp().equals(timestamp) && transaction.getId() < id)) {
+                    found.add(transaction);
+                }
+            }
+        }
+        found.sort(NEWEST_FIRST);
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    // Archived transactions within [from, to) in segment order, optionally only one account's.
+    public void scan(String accountNumber, LocalDateTime from, LocalDateTime to, Consumer<Transaction> sink) {
+        for (int s = 0; s < segments.size(); s++) {
+            SegmentReader segment = segments.get(s);
+            if (accountNumber == null) {
+                segment.scan(from, to, visibleRows[s], sink);
+            } else {
+                segment.findByAccount(accountNumber, from, to, visibleRows[s]).forEach(sink);
+            }
+        }
+    }
+}
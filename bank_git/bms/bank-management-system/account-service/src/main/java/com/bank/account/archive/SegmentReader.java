@@ -0,0 +1,306 @@
+package com.bank.account.archive;
+
+import com.bank.account.model.Transaction;
+import com.bank.common.money.Money;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.InflaterInputStream;
+
+// Read side of a segment written by SegmentWriter. The file is memory-mapped and only its
+// footer is parsed up front; the account index is binary searched in place and a row group is
+// inflated only when one of its rows is wanted and its timestamp range overlaps the query.
+final class SegmentReader {
+
+    private static final int GROUP_FOOTER_SIZE = 36;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final long minId;
+    private final long maxId;
+    private final int[] groupFirstRow;
+    private final int[] groupRows;
+    private final long[] groupMinTimestamp;
+    private final long[] groupMaxTimestamp;
+    private final long[] groupOffset;
+    private final int[] groupLength;
+    private final int indexOffset;
+    private final int accounts;
+    private final int keyWidth;
+    private final int postingsOffset;
+
+    private SegmentReader(Path file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        int size = buffer.capacity();
+        if (size < 20 || buffer.getInt(0) != SegmentWriter.MAGIC || buffer.getInt(size - 4) != SegmentWriter.MAGIC) {
+            throw new IllegalStateException("Not a complete transaction segment: " + file);
+        }
+        if (buffer.getInt(4) != SegmentWriter.VERSION) {
+            throw new IllegalStateException("Unsupported segment version " + buffer.getInt(4) + " in " + file);
+        }
+        int footer = (int) buffer.getLong(size - 12);
+        rows = buffer.getInt(footer);
+        int groups = buffer.getInt(footer + 4);
+        minTimestamp = buffer.getLong(footer + 8);
+        maxTimestamp = buffer.getLong(footer + 16);
+        minId = buffer.getLong(footer + 24);
+        maxId = buffer.getLong(footer + 32);
+        groupFirstRow = new int[groups];
+        groupRows = new int[groups];
+        groupMinTimestamp = new long[groups];
+        groupMaxTimestamp = new long[groups];
+        groupOffset = new long[groups];
+        groupLength = new int[groups];
+        int position = footer + 40;
+        for (int g = 0; g < groups; g++) {
+            groupFirstRow[g] = buffer.getInt(position);
+            groupRows[g] = buffer.getInt(position + 4);
+            groupMinTimestamp[g] = buffer.getLong(position + 8);
+            groupMaxTimestamp[g] = buffer.getLong(position + 16);
+            groupOffset[g] = buffer.getLong(position + 24);
+            groupLength[g] = buffer.getInt(position + 32);
+            position += GROUP_FOOTER_SIZE;
+        }
+        indexOffset = (int) buffer.getLong(position);
+        accounts = buffer.getInt(position + 8);
+        keyWidth = buffer.getInt(position + 12);
+        postingsOffset = (int) buffer.getLong(position + 16);
+    }
+
+    static SegmentReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new SegmentReader(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    long getBytes() {
+        return buffer.capacity();
+    }
+
+    LocalDateTime getMinTimestamp() {
+        return fromMicros(minTimestamp);
+    }
+
+    LocalDateTime getMaxTimestamp() {
+        return fromMicros(maxTimestamp);
+    }
+
+    long getMinId() {
+        return minId;
+    }
+
+    long getMaxId() {
+        return maxId;
+    }
+
+    // from is inclusive and to exclusive; null leaves that side open.
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return overlaps(minTimestamp, maxTimestamp, from, to);
+    }
+
+    // The account's rows within [from, to) among the first visibleRows, oldest first.
+    List<Transaction> findByAccount(String accountNumber, LocalDateTime from, LocalDateTime to, int visibleRows) {
+        List<Transaction> found = new ArrayList<>();
+        if (!overlaps(from, to)) {
+            return found;
+        }
+        int entry = findAccount(accountNumber);
+        if (entry < 0) {
+            return found;
+        }
+        int entryOffset = indexOffset + entry * (keyWidth + 8);
+        int first = buffer.getInt(entryOffset + keyWidth);
+        int count = buffer.getInt(entryOffset + keyWidth + 4);
+        int group = -1;
+        Columns columns = null;
+        for (int i = 0; i < count; i++) {
+            int row = buffer.getInt(postingsOffset + (first + i) * 4);
+            if (row >= visibleRows) {
+                break;
+            }
+            if (group < 0 || row >= groupFirstRow[group] + groupRows[group]) {
+                group = groupOf(row);
+                columns = overlaps(groupMinTimestamp[group], groupMaxTimestamp[group], from, to) ? inflate(group) : null;
+            }
+            if (columns != null) {
+                Transaction transaction = columns.toTransaction(row - groupFirstRow[group]);
+                if (within(transaction.getTimestamp(), from, to)) {
+                    found.add(transaction);
+                }
+            }
+        }
+        return found;
+    }
+
+    // Every row within [from, to) among the first visibleRows, oldest first.
+    void scan(LocalDateTime from, LocalDateTime to, int visibleRows, Consumer<Transaction> sink) {
+        if (!overlaps(from, to)) {
+            return;
+        }
+        for (int g = 0; g < groupRows.length && groupFirstRow[g] < visibleRows; g++) {
+            if (!overlaps(groupMinTimestamp[g], groupMaxTimestamp[g], from, to)) {
+                continue;
+            }
+            Columns columns = inflate(g);
+            int rowsInGroup = Math.min(groupRows[g], visibleRows - groupFirstRow[g]);
+            for (int i = 0; i < rowsInGroup; i++) {
+                Transaction transaction = columns.toTransaction(i);
+                if (within(transaction.getTimestamp(), from, to)) {
+                    sink.accept(transaction);
+                }
+            }
+        }
+    }
+
+    long[] readIds() {
+        long[] ids = new long[rows];
+        for (int g = 0; g < groupRows.length; g++) {
+            System.arraycopy(inflate(g).ids, 0, ids, groupFirstRow[g], groupRows[g]);
+        }
+        return ids;
+    }
+
+    private int findAccount(String accountNumber) {
+        byte[] bytes = accountNumber.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > keyWidth) {
+            return -1;
+        }
+        byte[] key = Arrays.copyOf(bytes, keyWidth);
+        byte[] candidate = new byte[keyWidth];
+        int low = 0;
+        int high = accounts - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            buffer.get(indexOffset + mid * (keyWidth + 8), candidate);
+            int order = Arrays.compareUnsigned(candidate, key);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int groupOf(int row) {
+        int low = 0;
+        int high = groupFirstRow.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (groupFirstRow[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private Columns inflate(int group) {
+        byte[] compressed = new byte[groupLength[group]];
+        buffer.get((int) groupOffset[group], compressed);
+        int count = groupRows[group];
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+            Columns columns = new Columns(count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += in.readLong();
+                columns.ids[i] = previous;
+            }
+            previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += in.readLong();
+                columns.timestamps[i] = previous;
+            }
+            for (int i = 0; i < count; i++) {
+                columns.amounts[i] = in.readLong();
+            }
+            columns.sources = readDictionary(in, count);
+            columns.destinations = readDictionary(in, count);
+            columns.types = readDictionary(in, count);
+            columns.statuses = readDictionary(in, count);
+            columns.descriptions = readDictionary(in, count);
+            return columns;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read row group " + group + " of " + file, e);
+        }
+    }
+
+    private static String[] readDictionary(DataInputStream in, int count) throws IOException {
+        String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readUTF();
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int code = in.readInt();
+            values[i] = code < 0 ? null : dictionary[code];
+        }
+        return values;
+    }
+
+    private static boolean overlaps(long min, long max, LocalDateTime from, LocalDateTime to) {
+        return (from == null || max >= SegmentWriter.toMicros(from)) && (to == null || min < SegmentWriter.toMicros(to));
+    }
+
+    private static boolean within(LocalDateTime timestamp, LocalDateTime from, LocalDateTime to) {
+        return (from == null || !timestamp.isBefore(from)) && (to == null || timestamp.isBefore(to));
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static final class Columns {
+        private final long[] ids;
+        private final long[] timestamps;
+        private final long[] amounts;
+        private String[] sources;
+        private String[] destinations;
+        private String[] types;
+        private String[] statuses;
+        private String[] descriptions;
+
+        Columns(int count) {
+            ids = new long[count];
+            timestamps = new long[count];
+            amounts = new long[count];
+        }
+
+        Transaction toTransaction(int i) {
+            Transaction transaction = new Transaction(sources[i], destinations[i], Money.ofMinor(amounts[i]).toBigDecimal(), types[i]);
+            transaction.setId(ids[i]);
+            transaction.setTimestamp(fromMicros(timestamps[i]));
+            transaction.setStatus(statuses[i]);
+            transaction.setDescription(descriptions[i]);
+            return transaction;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.bank.account.archive;
+
+import com.bank.account.model.Transaction;
+import com.bank.common.money.Money;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Writes one immutable segment file from transactions added in (timestamp, id) order. Rows are
+// stored column by column in row groups of GROUP_ROWS, each group deflated on its own so a
+// reader only inflates the groups it needs. Segment layout (big endian):
+//   int   MAGIC                          int   VERSION
+//   row groups, each a deflated block of columns for its rows:
+//     long  id deltas                    long  timestamp deltas (epoch micros, UTC)
+//     long  amounts (minor units)
+//     dict  source, destination, type, status, description
+//     where dict = int size, size UTF strings, then one int code per row (-1 for null)
+//   account index: account count entries of (key bytes padded to keyWidth, int first, int count)
+//     sorted by key bytes, followed by the row numbers of every account in ascending order
+//   footer: int rows, int groups, long min/max timestamp, long min/max id,
+//     per group (int first row, int rows, long min/max timestamp, long offset, int length),
+//     long index offset, int accounts, int keyWidth, long postings offset
+//   long  footer offset                  int   MAGIC
+// The file is written under a temporary name, forced to disk and then renamed into place.
+final class SegmentWriter {
+
+    static final int MAGIC = 0x42545853;
+    static final int VERSION = 1;
+    static final int GROUP_ROWS = 16384;
+
+    private final Path target;
+    private final Path partial;
+    private final DataOutputStream out;
+    private final List<Transaction> group = new ArrayList<>(GROUP_ROWS);
+    private final List<long[]> groupFooters = new ArrayList<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private long[] ids = new long[1024];
+    private int rows;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    SegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.partial = target.resolveSibling(target.getFileName() + ".partial");
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    void add(Transaction transaction) throws IOException {
+        if (rows == ids.length) {
+            ids = Arrays.copyOf(ids, rows * 2);
+        }
+        ids[rows] = transaction.getId();
+        postings.computeIfAbsent(transaction.getSourceAccount(), k -> new IntList()).add(rows);
+        if (!transaction.getDestinationAccount().equals(transaction.getSourceAccount())) {
+            postings.computeIfAbsent(transaction.getDestinationAccount(), k -> new IntList()).add(rows);
+        }
+        long micros = toMicros(transaction.getTimestamp());
+        minTimestamp = Math.min(minTimestamp, micros);
+        maxTimestamp = Math.max(maxTimestamp, micros);
+        rows++;
+        group.add(transaction);
+        if (group.size() == GROUP_ROWS) {
+            writeGroup();
+        }
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    // Ids of every row written, in file order.
+    long[] getIds() {
+        return Arrays.copyOf(ids, rows);
+    }
+
+    Path finish() throws IOException {
+        if (!group.isEmpty()) {
+            writeGroup();
+        }
+        long indexOffset = out.size();
+        List<Map.Entry<byte[], IntList>> index = new ArrayList<>(postings.size());
+        int keyWidth = 0;
+        for (Map.Entry<String, IntList> entry : postings.entrySet()) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            keyWidth = Math.max(keyWidth, key.length);
+            index.add(Map.entry(key, entry.getValue()));
+        }
+        index.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+        int first = 0;
+        for (Map.Entry<byte[], IntList> entry : index) {
+            out.write(entry.getKey());
+            out.write(new byte[keyWidth - entry.getKey().length]);
+            out.writeInt(first);
+            out.writeInt(entry.getValue().size);
+            first += entry.getValue().size;
+        }
+        long postingsOffset = out.size();
+        for (Map.Entry<byte[], IntList> entry : index) {
+            IntList rowNumbers = entry.getValue();
+            for (int i = 0; i < rowNumbers.size; i++) {
+                out.writeInt(rowNumbers.values[i]);
+            }
+        }
+
+        long footerOffset = out.size();
+        out.writeInt(rows);
+        out.writeInt(groupFooters.size());
+        out.writeLong(minTimestamp);
+        out.writeLong(maxTimestamp);
+        out.writeLong(rows == 0 ? 0 : Arrays.stream(ids, 0, rows).min().getAsLong());
+        out.writeLong(rows == 0 ? 0 : Arrays.stream(ids, 0, rows).max().getAsLong());
+        for (long[] footer : groupFooters) {
+            out.writeInt((int) footer[0]);
+            out.writeInt((int) footer[1]);
+            out.writeLong(footer[2]);
+            out.writeLong(footer[3]);
+            out.writeLong(footer[4]);
+            out.writeInt((int) footer[5]);
+        }
+        out.writeLong(indexOffset);
+        out.writeInt(index.size());
+        out.writeInt(keyWidth);
+        out.writeLong(postingsOffset);
+        out.writeLong(footerOffset);
+        out.writeInt(MAGIC);
+        out.close();
+
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    void abort() {
+        try {
+            out.close();
+            Files.deleteIfExists(partial);
+        } catch (IOException e) {
+            // Nothing was archived from this file; a leftover .partial is ignored on startup.
+        }
+    }
+
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1000;
+    }
+
+    private void writeGroup() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long groupMin = Long.MAX_VALUE;
+        long groupMax = Long.MIN_VALUE;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream columns = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            long previous = 0;
+            for (Transaction transaction : group) {
+                columns.writeLong(transaction.getId() - previous);
+                previous = transaction.getId();
+            }
+            previous = 0;
+            for (Transaction transaction : group) {
+                long micros = toMicros(transaction.getTimestamp());
+                columns.writeLong(micros - previous);
+                previous = micros;
+                groupMin = Math.min(groupMin, micros);
+                groupMax = Math.max(groupMax, micros);
+            }
+            for (Transaction transaction : group) {
+                columns.writeLong(Money.of(transaction.getAmount()).getMinorUnits());
+            }
+            List<String> values = new ArrayList<>(group.size());
+            group.forEach(t -> values.add(t.getSourceAccount()));
+            writeDictionary(columns, values);
+            values.clear();
+            group.forEach(t -> values.add(t.getDestinationAccount()));
+            writeDictionary(columns, values);
+            values.clear();
+            group.forEach(t -> values.add(t.getTransactionType()));
+            writeDictionary(columns, values);
+            values.clear();
+            group.forEach(t -> values.add(t.getStatus()));
+            writeDictionary(columns, values);
+            values.clear();
+            group.forEach(t -> values.add(t.getDescription()));
+            writeDictionary(columns, values);
+        } finally {
+            deflater.end();
+        }
+        long offset = out.size();
+        bytes.writeTo(out);
+        groupFooters.add(new long[] {rows - group.size(), group.size(), groupMin, groupMax, offset, bytes.size()});
+        group.clear();
+    }
+
+    private static void writeDictionary(DataOutputStream columns, List<String> values) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[] codes = new int[values.size()];
+        for (int i = 0; i < codes.length; i++) {
+            String value = values.get(i);
+            codes[i] = value == null ? -1 : dictionary.computeIfAbsent(value, v -> dictionary.size());
+        }
+        columns.writeInt(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            columns.writeUTF(value);
+        }
+        for (int code : codes) {
+            columns.writeInt(code);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bank.account.archive;
+
+import com.bank.account.model.ArchiveSegment;
+import com.bank.account.repository.ArchiveSegmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// The cold tier of the transactions table: immutable segment files on local disk, listed in the
+// archive_segments catalog. A segment's rows leave the table in small batches, oldest first, and
+// each batch's transaction also records in the catalog how many of the segment's rows have
+// moved. A reader that reads the catalog and the table in one snapshot therefore sees every row
+// in exactly one tier, and nobody waits for anybody.
+@Component
+public class TransactionArchive implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchive.class);
+
+    private static final String DELETE_TRANSACTION_SQL = "DELETE FROM transactions WHERE id = ?";
+
+    private static final String MOVED_SEGMENTS_SQL =
+            "SELECT file_name, moved_rows FROM archive_segments WHERE moved_rows > 0 ORDER BY created_at, file_name";
+
+    private static final String MARK_MOVED_SQL = "UPDATE archive_segments SET moved_rows = ?, status = ? WHERE file_name = ?";
+
+    // Rows deleted per transaction; readers of the table never wait long behind one.
+    private static final int MOVE_BATCH_ROWS = 1000;
+
+    @Autowired
+    private ArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${account.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${account.archive.directory:data/archive}")
+    private String directory;
+
+    private final Map<String, SegmentReader> segments = new ConcurrentHashMap<>();
+    private TransactionTemplate snapshotTemplate;
+    private Path root;
+
+    // Opens the catalogued segments before the web server starts. A PENDING segment is the
+    // remains of an interrupted run: if its file is complete the rest of its rows are moved
+    // now, otherwise the rows never left the table and the file is discarded. Files that are
+    // not in the catalog belong to another database and are left alone.
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        // H2 gives every statement of a read-committed transaction its own snapshot; a
+        // serializable one reads the catalog and the table as of the same moment.
+        snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        root = Paths.get(directory).toAbsolutePath();
+        try {
+            Files.createDirectories(root);
+            for (ArchiveSegment pending : segmentRepository.findByStatusOrderByCreatedAt(ArchiveSegment.PENDING)) {
+                recover(pending);
+            }
+            for (ArchiveSegment archived : segmentRepository.findByStatusOrderByCreatedAt(ArchiveSegment.ARCHIVED)) {
+                segments.put(archived.getFileName(), SegmentReader.open(root.resolve(archived.getFileName())));
+            }
+            Set<Path> known = segments.values().stream().map(SegmentReader::getFile).collect(Collectors.toCollection(HashSet::new));
+            try (Stream<Path> files = Files.list(root)) {
+                long orphans = files.filter(file -> file.getFileName().toString().endsWith(".seg") && !known.contains(file)).count();
+                if (orphans > 0) {
+                    log.warn("{} segment files in {} are not in this database's archive catalog and are ignored", orphans, root);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the transaction archive in " + root, e);
+        }
+        log.info("Transaction archive: {} segments, {} rows", segments.size(), getRowCount());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs work in one transaction whose table reads agree with the view it is given. With the
+    // archive disabled that is a plain transaction and an empty view.
+    public <T> T inTransaction(Function<ArchiveView, T> work) {
+        if (!enabled) {
+            return transactionTemplate.execute(status -> work.apply(ArchiveView.EMPTY));
+        }
+        return snapshotTemplate.execute(status -> work.apply(view()));
+    }
+
+    // Like inTransaction, but with the archive disabled the reader runs as it is, outside any
+    // transaction.
+    public <T> T read(Function<ArchiveView, T> reader) {
+        return enabled ? inTransaction(reader) : reader.apply(ArchiveView.EMPTY);
+    }
+
+    // The archived rows as of now. Outside a snapshot transaction, read the table first and this
+    // afterwards: a row missing from the table is then in the view, and rows that moved in
+    // between are in both and have to be told apart by id.
+    public ArchiveView view() {
+        if (!enabled) {
+            return ArchiveView.EMPTY;
+        }
+        List<SegmentReader> visible = new ArrayList<>();
+        List<Integer> moved = new ArrayList<>();
+        jdbcTemplate.query(MOVED_SEGMENTS_SQL, rs -> {
+            SegmentReader segment = segments.get(rs.getString(1));
+            if (segment != null) {
+                visible.add(segment);
+                moved.add(rs.getInt(2));
+            }
+        });
+        return new ArchiveView(visible, moved.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("directory", root == null ? directory : root.toString());
+        status.put("segments", segments.size());
+        status.put("rows", getRowCount());
+        status.put("bytes", segments.values().stream().mapToLong(SegmentReader::getBytes).sum());
+        status.put("oldest", segments.values().stream().map(SegmentReader::getMinTimestamp).min(Comparator.naturalOrder())
+                .map(LocalDateTime::toString).orElse(null));
+        status.put("newest", segments.values().stream().map(SegmentReader::getMaxTimestamp).max(Comparator.naturalOrder())
+                .map(LocalDateTime::toString).orElse(null));
+        return status;
+    }
+
+    Path getDirectory() {
+        return root;
+    }
+
+    // Moves the segment's rows out of the table; it is ARCHIVED once the last batch commits.
+    void publish(ArchiveSegment record, SegmentReader segment, long[] ids) {
+        segmentRepository.save(record);
+        segments.put(record.getFileName(), segment);
+        moveRows(record, ids);
+    }
+
+    private void recover(ArchiveSegment pending) throws IOException {
+        Path file = root.resolve(pending.getFileName());
+        SegmentReader segment = null;
+        if (Files.exists(file)) {
+            try {
+                segment = SegmentReader.open(file);
+            } catch (IllegalStateException e) {
+                log.warn("Discarding incomplete archive segment {}", file, e);
+            }
+        }
+        if (segment == null) {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".partial"));
+            segmentRepository.delete(pending);
+            return;
+        }
+        long[] ids = segment.readIds();
+        segments.put(pending.getFileName(), segment);
+        moveRows(pending, ids);
+        log.info("Completed interrupted archive of {} ({} rows)", file.getFileName(), ids.length);
+    }
+
+    // Ids are in segment row order, so the rows moved so far are always a prefix of the segment.
+    private void moveRows(ArchiveSegment record, long[] ids) {
+        for (int from = record.getMovedRows(); from < ids.length; from += MOVE_BATCH_ROWS) {
+            int start = from;
+            int end = Math.min(ids.length, from + MOVE_BATCH_ROWS);
+            String status = end == ids.length ? ArchiveSegment.ARCHIVED : ArchiveSegment.PENDING;
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<Object[]> batch = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    batch.add(new Object[] {ids[i]});
+                }
+                jdbcTemplate.batchUpdate(DELETE_TRANSACTION_SQL, batch);
+                jdbcTemplate.update(MARK_MOVED_SQL, end, status, record.getFileName());
+            });
+            record.setMovedRows(end);
+            record.setStatus(status);
+        }
+    }
+
+    private long getRowCount() {
+        return segments.values().stream().mapToLong(SegmentReader::getRows).sum();
+    }
+}
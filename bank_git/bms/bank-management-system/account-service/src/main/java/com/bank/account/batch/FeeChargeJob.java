@@ -0,0 +1,79 @@
+package com.bank.account.batch;
+
+import com.bank.account.model.BatchJobChunk;
+import com.bank.account.model.Transaction;
+import com.bank.common.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.List;
+
+// Charges on current accounts for one business day, each debited as a FEE transaction:
+// overdraft interest of -balance * overdraft-rate% / day-count on accounts below zero, and the
+// account's maintenance fee on the last day of the month. Charges are taken even when they
+// push an account past its overdraft limit, as the bank charges them regardless.
+@Component
+public class FeeChargeJob extends PartitionedAccountJob {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Value("${account.jobs.fees.overdraft-rate:18}")
+    private BigDecimal overdraftRate;
+
+    @Value("${account.jobs.fees.day-count:365}")
+    private int dayCount;
+
+    @Override
+    public String getJobName() {
+        return "fee-charge";
+    }
+
+    @Override
+    protected String getAccountType() {
+        return "CURRENT";
+    }
+
+    @Scheduled(cron = "${account.jobs.fees.cron:-}")
+    public void chargeForPreviousDay() {
+        run(LocalDate.now().minusDays(1));
+    }
+
+    @Override
+    protected int processChunk(BatchJobChunk chunk, LocalDate businessDate, List<Posting> postings) {
+        boolean monthEnd = businessDate.getDayOfMonth() == businessDate.lengthOfMonth();
+        BigDecimal dailyRate = overdraftRate.divide(HUNDRED.multiply(BigDecimal.valueOf(dayCount)), MathContext.DECIMAL64);
+        String overdraftDescription = "Overdraft interest for " + businessDate;
+        String maintenanceDescription = "Maintenance fee for " + businessDate.getMonth() + " " + businessDate.getYear();
+        int[] accounts = {0};
+
+        streamChunk(chunk, "account_number, " + BALANCE + ", maintenance_fee",
+                monthEnd ? BALANCE + " < 0 OR maintenance_fee > 0" : BALANCE + " < 0",
+                (RowCallbackHandler) rs -> {
+                    accounts[0]++;
+                    String accountNumber = rs.getString(1);
+                    Money balance = Money.of(rs.getBigDecimal(2));
+                    if (balance.getMinorUnits() < 0) {
+                        Money interest = balance.negate().times(dailyRate, Money.DEFAULT_ROUNDING);
+                        if (interest.isPositive()) {
+                            postings.add(charge(accountNumber, interest, overdraftDescription));
+                        }
+                    }
+                    BigDecimal maintenanceFee = rs.getBigDecimal(3);
+                    if (monthEnd && maintenanceFee != null && maintenanceFee.signum() > 0) {
+                        postings.add(charge(accountNumber, Money.of(maintenanceFee), maintenanceDescription));
+                    }
+                });
+        return accounts[0];
+    }
+
+    private static Posting charge(String accountNumber, Money amount, String description) {
+        Transaction transaction = new Transaction(accountNumber, accountNumber, amount.toBigDecimal(), "FEE");
+        transaction.setStatus("SUCCESS");
+        transaction.setDescription(description);
+        return new Posting(accountNumber, amount.negate(), transaction);
+    }
+}
@@ -0,0 +1,62 @@
+package com.bank.account.batch;
+
+import com.bank.account.model.BatchJobChunk;
+import com.bank.account.model.Transaction;
+import com.bank.common.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.List;
+
+// Daily interest on savings accounts: balance * interestRate% / day-count for each business day,
+// rounded HALF_EVEN to the cent and credited as an INTEREST transaction.
+@Component
+public class InterestAccrualJob extends PartitionedAccountJob {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Value("${account.jobs.interest.day-count:365}")
+    private int dayCount;
+
+    @Override
+    public String getJobName() {
+        return "interest-accrual";
+    }
+
+    @Override
+    protected String getAccountType() {
+        return "SAVINGS";
+    }
+
+    @Scheduled(cron = "${account.jobs.interest.cron:-}")
+    public void accrueForPreviousDay() {
+        run(LocalDate.now().minusDays(1));
+    }
+
+    @Override
+    protected int processChunk(BatchJobChunk chunk, LocalDate businessDate, List<Posting> postings) {
+        String description = "Interest accrual for " + businessDate;
+        BigDecimal divisor = HUNDRED.multiply(BigDecimal.valueOf(dayCount));
+        int[] accounts = {0};
+
+        streamChunk(chunk, "account_number, " + BALANCE + ", interest_rate", BALANCE + " > 0 AND interest_rate > 0",
+                (RowCallbackHandler) rs -> {
+                    accounts[0]++;
+                    BigDecimal dailyRate = rs.getBigDecimal(3).divide(divisor, MathContext.DECIMAL64);
+                    Money interest = Money.of(rs.getBigDecimal(2)).times(dailyRate, Money.DEFAULT_ROUNDING);
+                    if (!interest.isPositive()) {
+                        return;
+                    }
+                    String accountNumber = rs.getString(1);
+                    Transaction transaction = new Transaction(accountNumber, accountNumber, interest.toBigDecimal(), "INTEREST");
+                    transaction.setStatus("SUCCESS");
+                    transaction.setDescription(description);
+                    postings.add(new Posting(accountNumber, interest, transaction));
+                });
+        return accounts[0];
+    }
+}
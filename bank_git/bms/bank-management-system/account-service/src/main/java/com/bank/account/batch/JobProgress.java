@@ -0,0 +1,70 @@
+package com.bank.account.batch;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live counters for one run of a partitioned job, updated by the worker threads.
+public class JobProgress {
+
+    private final String jobName;
+    private final LocalDate businessDate;
+    private final long startedNanos = System.nanoTime();
+    private final AtomicInteger completedChunks = new AtomicInteger();
+    private final LongAdder accountsProcessed = new LongAdder();
+    private final LongAdder postings = new LongAdder();
+    private volatile int totalChunks;
+    private volatile String status = "STARTING";
+    private volatile long finishedNanos;
+
+    public JobProgress(String jobName, LocalDate businessDate) {
+        this.jobName = jobName;
+        this.businessDate = businessDate;
+    }
+
+    void begin(int totalChunks, int alreadyCompleted) {
+        this.totalChunks = totalChunks;
+        this.completedChunks.set(alreadyCompleted);
+        this.status = "RUNNING";
+    }
+
+    // Returns the number of completed chunks including this one.
+    int chunkCompleted(int accounts, int chunkPostings) {
+        accountsProcessed.add(accounts);
+        postings.add(chunkPostings);
+        return completedChunks.incrementAndGet();
+    }
+
+    void finish(String finalStatus) {
+        finishedNanos = System.nanoTime();
+        status = finalStatus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Map<String, Object> toMap() {
+        long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(end - startedNanos);
+        long accounts = accountsProcessed.sum();
+        int total = totalChunks;
+        int completed = completedChunks.get();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("job", jobName);
+        map.put("businessDate", businessDate.toString());
+        map.put("status", status);
+        map.put("totalChunks", total);
+        map.put("completedChunks", completed);
+        map.put("percentComplete", total == 0 ? 0.0 : 100.0 * completed / total);
+        map.put("accountsProcessed", accounts);
+        map.put("postings", postings.sum());
+        map.put("elapsedMs", elapsedMs);
+        map.put("accountsPerSecond", elapsedMs == 0 ? 0.0 : accounts * 1000.0 / elapsedMs);
+        return map;
+    }
+}
@@ -0,0 +1,303 @@
+package com.bank.account.batch;
+
+import com.bank.account.model.BatchJobChunk;
+import com.bank.account.model.BatchJobRun;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.BatchJobChunkRepository;
+import com.bank.account.repository.BatchJobRunRepository;
+import com.bank.account.service.BalanceCache;
+import com.bank.account.service.HotAccountLedger;
+import com.bank.account.service.TransactionRecorder;
+import com.bank.common.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Base for jobs that post to every account of one type. A run splits the accounts into
+// account-number ranges of about chunk-size accounts and processes the ranges in parallel on a
+// fork-join pool. Each range is read with a streaming query and committed in its own database
+// transaction together with its checkpoint row, so an interrupted run resumes with the ranges
+// that are still pending and row locks are only ever held for one range per worker.
+public abstract class PartitionedAccountJob {
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private static final String RELATIVE_BALANCE_UPDATE_SQL =
+            "UPDATE bank_accounts SET balance = balance + ?, version = version + 1 WHERE account_number = ?";
+
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    // Balance of the row including the sub-ledger slots of a hot account, for the columns and
+    // conditions passed to streamChunk. The main row alone misses credits still in the slots.
+    protected static final String BALANCE = "(" + HotAccountLedger.COMBINED_BALANCE_SQL + ")";
+
+    private static final String COMPLETE_CHUNK_SQL =
+            "UPDATE batch_job_chunks SET status = ?, accounts_processed = ?, completed_at = ? WHERE id = ? AND status = ?";
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private BatchJobRunRepository runRepository;
+
+    @Autowired
+    private BatchJobChunkRepository chunkRepository;
+
+    @Value("${account.jobs.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${account.jobs.parallelism:0}")
+    private int parallelism;
+
+    @Value("${account.jobs.fetch-size:1000}")
+    private int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile JobProgress progress;
+
+    public abstract String getJobName();
+
+    protected abstract String getAccountType();
+
+    // Runs inside the chunk's transaction. Implementations read their accounts with streamChunk
+    // and write with post; the return value is the number of accounts examined.
+    protected abstract int processChunk(BatchJobChunk chunk, LocalDate businessDate, List<Posting> postings);
+
+    public JobProgress getProgress() {
+        return progress;
+    }
+
+    public JobProgress run(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException(getJobName() + " is already running");
+        }
+        try {
+            progress = new JobProgress(getJobName(), businessDate);
+            return execute(businessDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Starts a run on its own thread and returns its progress right away.
+    public JobProgress start(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException(getJobName() + " is already running");
+        }
+        JobProgress started = new JobProgress(getJobName(), businessDate);
+        progress = started;
+        Thread thread = new Thread(() -> {
+            try {
+                execute(businessDate);
+            } catch (RuntimeException e) {
+                log.error("{} run for {} failed", getJobName(), businessDate, e);
+            } finally {
+                running.set(false);
+            }
+        }, getJobName());
+        thread.start();
+        return started;
+    }
+
+    private JobProgress execute(LocalDate businessDate) {
+        JobProgress current = progress;
+        BatchJobRun run = runRepository.findByJobNameAndBusinessDate(getJobName(), businessDate).orElse(null);
+        if (run != null && BatchJobRun.COMPLETED.equals(run.getStatus())) {
+            log.info("{} already completed for {}", getJobName(), businessDate);
+            current.begin(run.getTotalChunks(), run.getTotalChunks());
+            current.finish(BatchJobRun.COMPLETED);
+            return current;
+        }
+        if (run == null) {
+            run = createRun(businessDate);
+        } else {
+            log.info("Resuming {} for {}", getJobName(), businessDate);
+            run.setStatus(BatchJobRun.RUNNING);
+            run = runRepository.save(run);
+        }
+
+        List<BatchJobChunk> pending = chunkRepository.findByRunIdAndStatusOrderByChunkIndex(run.getId(), BatchJobChunk.PENDING);
+        int total = run.getTotalChunks();
+        current.begin(total, total - pending.size());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        RuntimeException failure = null;
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(pending.size());
+            for (BatchJobChunk chunk : pending) {
+                tasks.add(pool.submit(() -> runChunk(chunk, businessDate, current, total)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                try {
+                    task.join();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        run.setStatus(failure == null ? BatchJobRun.COMPLETED : BatchJobRun.FAILED);
+        run.setFinishedAt(LocalDateTime.now());
+        runRepository.save(run);
+        current.finish(run.getStatus());
+        log.info("{} for {} finished: {}", getJobName(), businessDate, current.toMap());
+        if (failure != null) {
+            throw failure;
+        }
+        return current;
+    }
+
+    // Range boundaries come from one ordered scan of the primary key, keeping every
+    // chunk-size-th account number; the accounts themselves are never loaded here.
+    private BatchJobRun createRun(LocalDate businessDate) {
+        return transactionTemplate.execute(status -> {
+            List<String> boundaries = new ArrayList<>();
+            int[] seen = {0};
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT account_number FROM bank_accounts WHERE account_type = ? ORDER BY account_number",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setString(1, getAccountType());
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                if (seen[0] > 0 && seen[0] % chunkSize == 0) {
+                    boundaries.add(rs.getString(1));
+                }
+                seen[0]++;
+            });
+
+            BatchJobRun run = new BatchJobRun(getJobName(), businessDate);
+            run.setTotalChunks(boundaries.size() + 1);
+            run = runRepository.save(run);
+
+            List<BatchJobChunk> chunks = new ArrayList<>(boundaries.size() + 1);
+            String start = null;
+            for (int i = 0; i <= boundaries.size(); i++) {
+                String end = i < boundaries.size() ? boundaries.get(i) : null;
+                chunks.add(new BatchJobChunk(run.getId(), i, start, end));
+                start = end;
+            }
+            chunkRepository.saveAll(chunks);
+            log.info("Started {} for {}: {} accounts in {} chunks", getJobName(), businessDate, seen[0], chunks.size());
+            return run;
+        });
+    }
+
+    private void runChunk(BatchJobChunk chunk, LocalDate businessDate, JobProgress current, int total) {
+        int[] counts = transactionTemplate.execute(status -> {
+            List<Posting> postings = new ArrayList<>();
+            int accounts = processChunk(chunk, businessDate, postings);
+            post(postings);
+            int updated = jdbcTemplate.update(COMPLETE_CHUNK_SQL, BatchJobChunk.DONE, accounts,
+                    Timestamp.valueOf(LocalDateTime.now()), chunk.getId(), BatchJobChunk.PENDING);
+            if (updated == 0) {
+                // Completed by another instance in the meantime; discard this attempt.
+                status.setRollbackOnly();
+                return new int[] {0, 0};
+            }
+            return new int[] {accounts, postings.size()};
+        });
+
+        int completed = current.chunkCompleted(counts[0], counts[1]);
+        if (completed == total || completed % Math.max(1, total / 10) == 0) {
+            log.info("{} progress: {}", getJobName(), current.toMap());
+        }
+    }
+
+    // Streams the chunk's accounts of this job's type; extraCondition is ANDed to the range filter.
+    protected void streamChunk(BatchJobChunk chunk, String columns, String extraCondition, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns)
+                .append(" FROM bank_accounts WHERE account_type = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(getAccountType());
+        if (chunk.getRangeStart() != null) {
+            sql.append(" AND account_number >= ?");
+            params.add(chunk.getRangeStart());
+        }
+        if (chunk.getRangeEnd() != null) {
+            sql.append(" AND account_number < ?");
+            params.add(chunk.getRangeEnd());
+        }
+        if (extraCondition != null) {
+            sql.append(" AND (").append(extraCondition).append(")");
+        }
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    // Balances are changed with relative updates that bump the version, so a live request that
+    // read an account before this chunk commits fails its version check and retries on top of
+    // the posted amount instead of overwriting it.
+    private void post(List<Posting> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RELATIVE_BALANCE_UPDATE_SQL, postings, JDBC_BATCH_SIZE, (ps, posting) -> {
+            ps.setBigDecimal(1, posting.getDelta().toBigDecimal());
+            ps.setString(2, posting.getAccountNumber());
+        });
+
+        List<Transaction> records = new ArrayList<>(postings.size());
+        List<String> accountNumbers = new ArrayList<>(postings.size());
+        for (Posting posting : postings) {
+            records.add(posting.getTransaction());
+            accountNumbers.add(posting.getAccountNumber());
+        }
+        transactionRecorder.recordAll(records);
+        balanceCache.invalidateOnCommit(accountNumbers);
+    }
+
+    // A balance change for one account and the transaction row that records it.
+    protected static final class Posting {
+        private final String accountNumber;
+        private final Money delta;
+        private final Transaction transaction;
+
+        public Posting(String accountNumber, Money delta, Transaction transaction) {
+            this.accountNumber = accountNumber;
+            this.delta = delta;
+            this.transaction = transaction;
+        }
+
+        public String getAccountNumber() { return accountNumber; }
+
+        public Money getDelta() { return delta; }
+
+        public Transaction getTransaction() { return transaction; }
+    }
+}
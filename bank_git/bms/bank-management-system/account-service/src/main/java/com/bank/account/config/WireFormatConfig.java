@@ -0,0 +1,18 @@
+package com.bank.account.config;
+
+import com.bank.account.wire.BinaryOperationMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    // Added after the JSON converter so that clients without an Accept header keep getting JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BinaryOperationMessageConverter());
+    }
+}
@@ -1,27 +1,79 @@
 package com.bank.account.controller;
 
+import com.bank.account.dto.AmountRequest;
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.dto.TransferResult;
 import com.bank.account.model.BankAccount;
 import com.bank.account.model.Transaction;
+import com.bank.account.service.AccountLockManager;
 import com.bank.account.service.AccountService;
+import com.bank.account.service.BalanceCache;
+import com.bank.account.service.BalanceSnapshotService;
+import com.bank.account.service.BatchTransferService;
+import com.bank.account.service.GroupCommitExecutor;
+import com.bank.account.service.HotAccountLedger;
+import com.bank.account.service.IdempotencyService;
+import com.bank.account.service.OptimisticRetryPolicy;
+import com.bank.account.service.TransactionExportService;
+import com.bank.account.wire.BinaryOperationCodec;
 import com.bank.common.exception.AccountNotFoundException;
+import com.bank.common.exception.IdempotencyKeyReuseException;
+import com.bank.common.exception.InvalidIdempotencyKeyException;
 import com.bank.common.exception.InsufficientFundsException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
+// Replaced by ReactiveAccountController under the "reactive" profile
 @RestController
 @RequestMapping("/api/accounts")
-@CrossOrigin(origins = "*")
+@Profile("!reactive")
 public class AccountController {
     
     @Autowired
     private AccountService accountService;
     
+    @Autowired
+    private BatchTransferService batchTransferService;
+    
+    @Autowired
+    private AccountLockManager lockManager;
+    
+    @Autowired
+    private OptimisticRetryPolicy retryPolicy;
+    
+    @Autowired
+    private GroupCommitExecutor groupCommitExecutor;
+    
+    @Autowired
+    private TransactionExportService exportService;
+    
+    @Autowired
+    private BalanceCache balanceCache;
+    
+    @Autowired
+    private BalanceSnapshotService snapshotService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private HotAccountLedger hotAccountLedger;
+    
     @PostMapping
     public ResponseEntity<BankAccount> createAccount(@RequestBody Map<String, Object> accountData) {
         try {
@@ -44,6 +96,12 @@ public class AccountController {
         return ResponseEntity.ok(accounts);
     }
     
+    // Count and balance totals by account type, kept in memory; no table scan per request.
+    @GetMapping("/aggregates")
+    public ResponseEntity<Map<String, Object>> getAggregates() {
+        return ResponseEntity.ok(accountService.getAggregates());
+    }
+    
     @GetMapping("/{accountNumber}")
     public ResponseEntity<BankAccount> getAccountByNumber(@PathVariable String accountNumber) {
         Optional<BankAccount> account = accountService.getAccountByNumber(accountNumber);
@@ -58,65 +116,253 @@ public class AccountController {
     }
     
     @GetMapping("/{accountNumber}/balance")
-    public ResponseEntity<Map<String, BigDecimal>> getBalance(@PathVariable String accountNumber) {
+    public ResponseEntity<Map<String, BigDecimal>> getBalance(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
         try {
-            BigDecimal balance = accountService.getBalance(accountNumber);
+            BigDecimal balance = asOf == null
+                    ? accountService.getBalance(accountNumber)
+                    : snapshotService.getBalanceAsOf(accountNumber, asOf);
             return ResponseEntity.ok(Map.of("balance", balance));
         } catch (AccountNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
     
     @PostMapping("/transfer")
-    public ResponseEntity<Transaction> transferFunds(@RequestBody Map<String, Object> transferData) {
+    public ResponseEntity<Transaction> transferFunds(@RequestBody Map<String, Object> transferData,
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        TransferRequest transfer;
+        try {
+            transfer = new TransferRequest((String) transferData.get("sourceAccount"),
+                    (String) transferData.get("destinationAccount"), new BigDecimal(transferData.get("amount").toString()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        return transferFunds(transfer, idempotencyKey);
+    }
+    
+    // Same operation with a BinaryOperationCodec body, decoded straight into the request
+    @PostMapping(value = "/transfer", consumes = BinaryOperationCodec.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Transaction> transferFundsBinary(@RequestBody TransferRequest transfer,
+                                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return transferFunds(transfer, idempotencyKey);
+    }
+    
+    private ResponseEntity<Transaction> transferFunds(TransferRequest transfer, String idempotencyKey) {
         try {
-            String sourceAccount = (String) transferData.get("sourceAccount");
-            String destinationAccount = (String) transferData.get("destinationAccount");
-            BigDecimal amount = new BigDecimal(transferData.get("amount").toString());
+            String sourceAccount = transfer.getSourceAccount();
+            String destinationAccount = transfer.getDestinationAccount();
+            BigDecimal amount = transfer.getAmount();
             
-            Transaction transaction = accountService.transferFunds(sourceAccount, destinationAccount, amount);
+            String fingerprint = "TRANSFER|" + sourceAccount + "|" + destinationAccount + "|" + amount.toPlainString();
+            // Credits to hot accounts bypass group commit, which would serialize them on the main row
+            Transaction transaction = idempotencyService.execute(idempotencyKey, fingerprint, () -> useGroupCommit(destinationAccount, idempotencyKey)
+                    ? groupCommitExecutor.transferFunds(sourceAccount, destinationAccount, amount)
+                    : accountService.transferFunds(sourceAccount, destinationAccount, amount));
             return ResponseEntity.ok(transaction);
         } catch (AccountNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (InsufficientFundsException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (InvalidIdempotencyKeyException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<List<TransferResult>> transferFundsBatch(@RequestBody List<TransferRequest> transfers) {
+        try {
+            List<TransferResult> results = batchTransferService.transferAll(transfers);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     @PostMapping("/{accountNumber}/deposit")
-    public ResponseEntity<Transaction> deposit(@PathVariable String accountNumber, @RequestBody Map<String, Object> depositData) {
+    public ResponseEntity<Transaction> deposit(@PathVariable String accountNumber, @RequestBody Map<String, Object> depositData,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        BigDecimal amount;
         try {
-            BigDecimal amount = new BigDecimal(depositData.get("amount").toString());
-            Transaction transaction = accountService.deposit(accountNumber, amount);
+            amount = new BigDecimal(depositData.get("amount").toString());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return deposit(accountNumber, amount, idempotencyKey);
+    }
+    
+    @PostMapping(value = "/{accountNumber}/deposit", consumes = BinaryOperationCodec.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Transaction> depositBinary(@PathVariable String accountNumber, @RequestBody AmountRequest deposit,
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return deposit(accountNumber, deposit.getAmount(), idempotencyKey);
+    }
+    
+    private ResponseEntity<Transaction> deposit(String accountNumber, BigDecimal amount, String idempotencyKey) {
+        try {
+            String fingerprint = "DEPOSIT|" + accountNumber + "|" + amount.toPlainString();
+            Transaction transaction = idempotencyService.execute(idempotencyKey, fingerprint, () -> useGroupCommit(accountNumber, idempotencyKey)
+                    ? groupCommitExecutor.deposit(accountNumber, amount)
+                    : accountService.deposit(accountNumber, amount));
             return ResponseEntity.ok(transaction);
         } catch (AccountNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (InvalidIdempotencyKeyException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @PostMapping("/{accountNumber}/withdraw")
-    public ResponseEntity<Transaction> withdraw(@PathVariable String accountNumber, @RequestBody Map<String, Object> withdrawData) {
+    public ResponseEntity<Transaction> withdraw(@PathVariable String accountNumber, @RequestBody Map<String, Object> withdrawData,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(withdrawData.get("amount").toString());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        return withdraw(accountNumber, amount, idempotencyKey);
+    }
+    
+    @PostMapping(value = "/{accountNumber}/withdraw", consumes = BinaryOperationCodec.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Transaction> withdrawBinary(@PathVariable String accountNumber, @RequestBody AmountRequest withdrawal,
+                                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return withdraw(accountNumber, withdrawal.getAmount(), idempotencyKey);
+    }
+    
+    private ResponseEntity<Transaction> withdraw(String accountNumber, BigDecimal amount, String idempotencyKey) {
         try {
-            BigDecimal amount = new BigDecimal(withdrawData.get("amount").toString());
-            Transaction transaction = accountService.withdraw(accountNumber, amount);
+            String fingerprint = "WITHDRAWAL|" + accountNumber + "|" + amount.toPlainString();
+            Transaction transaction = idempotencyService.execute(idempotencyKey, fingerprint, () -> useGroupCommit(null, idempotencyKey)
+                    ? groupCommitExecutor.withdraw(accountNumber, amount)
+                    : accountService.withdraw(accountNumber, amount));
             return ResponseEntity.ok(transaction);
         } catch (AccountNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (InsufficientFundsException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (InvalidIdempotencyKeyException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
+    // Without limit or cursor the full history is returned as a plain list, as before.
     @GetMapping("/{accountNumber}/transactions")
-    public ResponseEntity<List<Transaction>> getTransactionHistory(@PathVariable String accountNumber) {
-        List<Transaction> transactions = accountService.getTransactionHistory(accountNumber);
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<?> getTransactionHistory(@PathVariable String accountNumber,
+                                                   @RequestParam(required = false) Integer limit,
+                                                   @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            List<Transaction> transactions = accountService.getTransactionHistory(accountNumber);
+            return ResponseEntity.ok(transactions);
+        }
+        try {
+            TransactionPage page = accountService.getTransactionHistoryPage(accountNumber, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = TransactionExportService.FORMAT_NDJSON) String format,
+            @RequestParam(required = false) String account,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        boolean csv = TransactionExportService.FORMAT_CSV.equals(format);
+        if (!csv && !TransactionExportService.FORMAT_NDJSON.equals(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024, true)) {
+                    exportService.export(compressed, format, account, from, to);
+                }
+            } else {
+                exportService.export(out, format, account, from, to);
+            }
+        };
+        
+        MediaType contentType = csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson");
+        String filename = "transactions." + format;
+        if (gzip) {
+            contentType = new MediaType("application", "gzip");
+            filename += ".gz";
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+    
+    @PutMapping("/{accountNumber}/hot")
+    public ResponseEntity<Void> setHotAccount(@PathVariable String accountNumber, @RequestParam boolean enabled) {
+        try {
+            accountService.setHotAccount(accountNumber, enabled);
+            return ResponseEntity.noContent().build();
+        } catch (AccountNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/hot-accounts/stats")
+    public ResponseEntity<Map<String, Object>> getHotAccountStats() {
+        return ResponseEntity.ok(hotAccountLedger.getStats());
+    }
+    
+    @GetMapping("/locks/contention")
+    public ResponseEntity<Map<String, Long>> getLockContention(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(lockManager.getContentionCounts(limit));
+    }
+    
+    @GetMapping("/retries/stats")
+    public ResponseEntity<Map<String, Object>> getRetryStats() {
+        return ResponseEntity.ok(retryPolicy.getStats());
+    }
+    
+    @GetMapping("/balance-cache/stats")
+    public ResponseEntity<Map<String, Object>> getBalanceCacheStats() {
+        return ResponseEntity.ok(balanceCache.getStats());
+    }
+    
+    @GetMapping("/idempotency/stats")
+    public ResponseEntity<Map<String, Object>> getIdempotencyStats() {
+        return ResponseEntity.ok(idempotencyService.getStats());
+    }
+    
+    @GetMapping("/group-commit/stats")
+    public ResponseEntity<Map<String, Object>> getGroupCommitStats() {
+        return ResponseEntity.ok(groupCommitExecutor.getStats());
     }
     
     @DeleteMapping("/{accountNumber}")
@@ -128,4 +374,12 @@ public class AccountController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    // A persistent Idempotency-Key is claimed in the posting's own transaction, which group
+    // commit would run on its worker thread.
+    private boolean useGroupCommit(String creditedAccount, String idempotencyKey) {
+        return groupCommitExecutor.isEnabled()
+                && !hotAccountLedger.isHot(creditedAccount)
+                && !idempotencyService.claimsInTransaction(idempotencyKey);
+    }
 }
@@ -0,0 +1,42 @@
+package com.bank.account.controller;
+
+import com.bank.account.archive.ArchiveJob;
+import com.bank.account.archive.TransactionArchive;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+// Transaction archive status and on-demand archive runs. Not served by the reactive edition;
+// its history still includes the rows the scheduled job archives.
+@RestController
+@RequestMapping("/api/accounts/archive")
+@Profile("!reactive")
+public class ArchiveController {
+
+    @Autowired
+    private TransactionArchive archive;
+
+    @Autowired
+    private ArchiveJob archiveJob;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(archiveJob.getStatus());
+    }
+
+    // Archives everything older than the configured age before answering; 409 while another run is in progress.
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> run() {
+        if (!archive.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(archiveJob.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.account.controller;
+
+import com.bank.account.batch.JobProgress;
+import com.bank.account.batch.PartitionedAccountJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Not served by the reactive edition; the jobs still run on their schedules there
+@RestController
+@RequestMapping("/api/accounts/jobs")
+@Profile("!reactive")
+public class BatchJobController {
+    
+    @Autowired
+    private List<PartitionedAccountJob> jobs;
+    
+    // Starts a run in the background; the business date defaults to yesterday.
+    @PostMapping("/{jobName}/run")
+    public ResponseEntity<Map<String, Object>> startJob(
+            @PathVariable String jobName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        Optional<PartitionedAccountJob> job = findJob(jobName);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            JobProgress progress = job.get().start(date != null ? date : LocalDate.now().minusDays(1));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress.toMap());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @GetMapping("/{jobName}/progress")
+    public ResponseEntity<Map<String, Object>> getProgress(@PathVariable String jobName) {
+        Optional<PartitionedAccountJob> job = findJob(jobName);
+        if (job.isEmpty() || job.get().getProgress() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.get().getProgress().toMap());
+    }
+    
+    private Optional<PartitionedAccountJob> findJob(String jobName) {
+        return jobs.stream().filter(j -> j.getJobName().equals(jobName)).findFirst();
+    }
+}
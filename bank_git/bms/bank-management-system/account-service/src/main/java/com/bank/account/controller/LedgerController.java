@@ -0,0 +1,60 @@
+package com.bank.account.controller;
+
+import com.bank.account.ledger.EventLedger;
+import com.bank.account.ledger.LedgerCheckResult;
+import com.bank.account.ledger.LedgerConsistencyCheck;
+import com.bank.account.ledger.LedgerSnapshotter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+// Ledger mode status, on-demand snapshots and the consistency check. Not served by the
+// reactive edition; its postings are still recorded and projected.
+@RestController
+@RequestMapping("/api/accounts/ledger")
+@Profile("!reactive")
+public class LedgerController {
+
+    @Autowired
+    private EventLedger eventLedger;
+
+    @Autowired
+    private LedgerSnapshotter snapshotter;
+
+    @Autowired
+    private LedgerConsistencyCheck consistencyCheck;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(snapshotter.getStatus());
+    }
+
+    @PostMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> takeSnapshot() {
+        if (!eventLedger.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(snapshotter.snapshot());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Runs the whole check before answering; 409 while another check is running.
+    @PostMapping("/verify")
+    public ResponseEntity<Map<String, Object>> verify() {
+        if (!eventLedger.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            LedgerCheckResult result = consistencyCheck.verify();
+            return ResponseEntity.ok(result.toMap());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
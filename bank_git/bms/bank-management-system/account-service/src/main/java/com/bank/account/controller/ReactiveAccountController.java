@@ -0,0 +1,151 @@
+package com.bank.account.controller;
+
+import com.bank.account.model.Transaction;
+import com.bank.account.service.BalanceSnapshotService;
+import com.bank.account.service.IdempotencyService;
+import com.bank.account.service.ReactiveAccountService;
+import com.bank.common.exception.AccountNotFoundException;
+import com.bank.common.exception.IdempotencyKeyReuseException;
+import com.bank.common.exception.InvalidIdempotencyKeyException;
+import com.bank.common.exception.InsufficientFundsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Reactive edition of the AccountController endpoints for deposit, withdraw, transfer, balance
+// and history, active with the "reactive" profile. Request bodies and status codes are the same
+// as the blocking controller. Idempotency keys and balances as of a past time go through the
+// blocking services on the bounded elastic scheduler so the event loop never waits on them.
+// WebFlux does not use CorsConfig, so the frontend origins are allowed here.
+@RestController
+@RequestMapping("/api/accounts")
+@CrossOrigin(origins = "${bank.cors.allowed-origins:}", allowCredentials = "true")
+@Profile("reactive")
+public class ReactiveAccountController {
+
+    @Autowired
+    private ReactiveAccountService accountService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BalanceSnapshotService snapshotService;
+
+    @GetMapping("/{accountNumber}/balance")
+    public Mono<ResponseEntity<Map<String, BigDecimal>>> getBalance(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        Mono<BigDecimal> balance = asOf == null
+                ? accountService.getBalance(accountNumber)
+                : Mono.fromCallable(() -> snapshotService.getBalanceAsOf(accountNumber, asOf)).subscribeOn(Schedulers.boundedElastic());
+        return balance
+                .map(value -> ResponseEntity.ok(Map.of("balance", value)))
+                .onErrorResume(AccountNotFoundException.class, e -> Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    @PostMapping("/transfer")
+    public Mono<ResponseEntity<Transaction>> transferFunds(@RequestBody Map<String, Object> transferData,
+                                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        String sourceAccount;
+        String destinationAccount;
+        BigDecimal amount;
+        try {
+            sourceAccount = (String) transferData.get("sourceAccount");
+            destinationAccount = (String) transferData.get("destinationAccount");
+            amount = new BigDecimal(transferData.get("amount").toString());
+        } catch (Exception e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        }
+        String fingerprint = "TRANSFER|" + sourceAccount + "|" + destinationAccount + "|" + amount.toPlainString();
+        return idempotent(idempotencyKey, fingerprint, () -> accountService.transferFunds(sourceAccount, destinationAccount, amount))
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(statusFor(e, HttpStatus.INTERNAL_SERVER_ERROR)).build()));
+    }
+
+    @PostMapping("/{accountNumber}/deposit")
+    public Mono<ResponseEntity<Transaction>> deposit(@PathVariable String accountNumber, @RequestBody Map<String, Object> depositData,
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(depositData.get("amount").toString());
+        } catch (Exception e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        String fingerprint = "DEPOSIT|" + accountNumber + "|" + amount.toPlainString();
+        return idempotent(idempotencyKey, fingerprint, () -> accountService.deposit(accountNumber, amount))
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(statusFor(e, HttpStatus.BAD_REQUEST)).build()));
+    }
+
+    @PostMapping("/{accountNumber}/withdraw")
+    public Mono<ResponseEntity<Transaction>> withdraw(@PathVariable String accountNumber, @RequestBody Map<String, Object> withdrawData,
+                                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(withdrawData.get("amount").toString());
+        } catch (Exception e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        }
+        String fingerprint = "WITHDRAWAL|" + accountNumber + "|" + amount.toPlainString();
+        return idempotent(idempotencyKey, fingerprint, () -> accountService.withdraw(accountNumber, amount))
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(statusFor(e, HttpStatus.INTERNAL_SERVER_ERROR)).build()));
+    }
+
+    // Without limit or cursor the full history is returned as a plain list, as before.
+    @GetMapping("/{accountNumber}/transactions")
+    public Mono<ResponseEntity<?>> getTransactionHistory(@PathVariable String accountNumber,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return accountService.getTransactionHistory(accountNumber).<ResponseEntity<?>>map(ResponseEntity::ok);
+        }
+        return accountService.getTransactionHistoryPage(accountNumber, cursor, limit)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    // IdempotencyService blocks while it coalesces duplicates and persists keys, so keyed
+    // requests run on the bounded elastic scheduler; requests without a key stay non-blocking.
+    private Mono<Transaction> idempotent(String key, String fingerprint, Supplier<Mono<Transaction>> operation) {
+        if (key == null || key.isBlank()) {
+            return operation.get();
+        }
+        return Mono.fromCallable(() -> idempotencyService.execute(key, fingerprint, () -> operation.get().block()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static HttpStatus statusFor(Throwable e, HttpStatus otherwise) {
+        if (e instanceof AccountNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (e instanceof InsufficientFundsException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (e instanceof InvalidIdempotencyKeyException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (e instanceof IdempotencyKeyReuseException) {
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return HttpStatus.CONFLICT;
+        }
+        return otherwise;
+    }
+}
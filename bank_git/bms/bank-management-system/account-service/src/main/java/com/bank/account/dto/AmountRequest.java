@@ -0,0 +1,19 @@
+package com.bank.account.dto;
+
+import java.math.BigDecimal;
+
+public class AmountRequest {
+
+    private BigDecimal amount;
+
+    // Constructors
+    public AmountRequest() {}
+
+    public AmountRequest(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    // Getters and Setters
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
@@ -0,0 +1,29 @@
+package com.bank.account.dto;
+
+import java.math.BigDecimal;
+
+public class TransferRequest {
+
+    private String sourceAccount;
+    private String destinationAccount;
+    private BigDecimal amount;
+
+    // Constructors
+    public TransferRequest() {}
+
+    public TransferRequest(String sourceAccount, String destinationAccount, BigDecimal amount) {
+        this.sourceAccount = sourceAccount;
+        this.destinationAccount = destinationAccount;
+        this.amount = amount;
+    }
+
+    // Getters and Setters
+    public String getSourceAccount() { return sourceAccount; }
+    public void setSourceAccount(String sourceAccount) { this.sourceAccount = sourceAccount; }
+
+    public String getDestinationAccount() { return destinationAccount; }
+    public void setDestinationAccount(String destinationAccount) { this.destinationAccount = destinationAccount; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
@@ -0,0 +1,10 @@
+package com.bank.account.journal;
+
+public enum FsyncPolicy {
+    // force the mapped segment to disk after every append call
+    EVERY_WRITE,
+    // force once every account.journal.fsync-batch-size records
+    BATCH,
+    // force from a background timer every account.journal.fsync-interval-ms
+    INTERVAL
+}
@@ -0,0 +1,52 @@
+package com.bank.account.journal;
+
+import com.bank.account.model.Transaction;
+import java.util.List;
+
+public final class JournalEntry {
+
+    public enum Kind {
+        // a transaction record, appended before its database transaction commits
+        POSTING,
+        // the database transactions of the listed postings committed
+        COMMIT,
+        // the database transactions of the listed postings rolled back
+        ABORT
+    }
+
+    private final Kind kind;
+    private final Transaction transaction;
+    private final List<Long> transactionIds;
+    private final JournalPosition start;
+    private final JournalPosition next;
+
+    private JournalEntry(Kind kind, Transaction transaction, List<Long> transactionIds,
+                         JournalPosition start, JournalPosition next) {
+        this.kind = kind;
+        this.transaction = transaction;
+        this.transactionIds = transactionIds;
+        this.start = start;
+        this.next = next;
+    }
+
+    public static JournalEntry posting(Transaction transaction, JournalPosition start, JournalPosition next) {
+        return new JournalEntry(Kind.POSTING, transaction, List.of(transaction.getId()), start, next);
+    }
+
+    public static JournalEntry outcome(boolean committed, List<Long> transactionIds, JournalPosition start, JournalPosition next) {
+        return new JournalEntry(committed ? Kind.COMMIT : Kind.ABORT, null, transactionIds, start, next);
+    }
+
+    public Kind getKind() { return kind; }
+
+    // Only set for POSTING entries.
+    public Transaction getTransaction() { return transaction; }
+
+    public List<Long> getTransactionIds() { return transactionIds; }
+
+    // Position of this record; a checkpoint stored here reads the record again.
+    public JournalPosition getStart() { return start; }
+
+    // Position right after this record; storing it as the checkpoint resumes at the next record.
+    public JournalPosition getNext() { return next; }
+}
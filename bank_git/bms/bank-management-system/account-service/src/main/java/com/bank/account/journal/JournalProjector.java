@@ -0,0 +1,187 @@
+package com.bank.account.journal;
+
+import com.bank.account.model.JournalCheckpoint;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.JournalCheckpointRepository;
+import com.bank.account.service.TransactionRecorder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Copies committed journal postings into the transactions table in the background. A posting is
+// held until its outcome marker is read: committed postings are inserted, aborted ones dropped.
+// The checkpoint row is updated in the same database transaction as the inserts and never moves
+// past a posting still waiting for its marker. Records after such a posting may be read again
+// after a restart, so the inserts are keyed on the transaction id and skip rows already there.
+@Component
+public class JournalProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalProjector.class);
+
+    @Autowired
+    private TransactionJournal journal;
+
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${account.journal.projector.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${account.journal.projector.interval-ms:200}")
+    private long intervalMs;
+
+    private ScheduledExecutorService scheduler;
+
+    // Postings read but not yet resolved, by transaction id in journal order, and the position
+    // reading continues from. Both are rebuilt from the checkpoint after a restart or a failure.
+    private final Map<Long, JournalEntry> pending = new LinkedHashMap<>();
+    private JournalPosition readPosition;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        int replayed = drain();
+        resolveInDoubt(journal.getRecoveredEnd());
+        log.info("Journal recovery read {} records in {} ms",
+                replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-projector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::projectQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+
+    public synchronized int drain() throws IOException {
+        int total = 0;
+        int projected;
+        while ((projected = projectOnce()) > 0) {
+            total += projected;
+        }
+        return total;
+    }
+
+    public JournalPosition getCheckpoint() {
+        return checkpointRepository.findById(JournalCheckpoint.SINGLETON_ID)
+                .map(c -> new JournalPosition(c.getSegment(), c.getSegmentOffset()))
+                .orElse(JournalPosition.START);
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private synchronized int projectOnce() throws IOException {
+        if (readPosition == null) {
+            readPosition = getCheckpoint();
+        }
+        List<JournalEntry> entries = journal.read(readPosition, batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            List<Transaction> committed = new ArrayList<>();
+            for (JournalEntry entry : entries) {
+                switch (entry.getKind()) {
+                    case POSTING -> pending.put(entry.getTransaction().getId(), entry);
+                    case COMMIT -> entry.getTransactionIds().forEach(id -> {
+                        JournalEntry posting = pending.remove(id);
+                        if (posting != null) {
+                            committed.add(posting.getTransaction());
+                        }
+                    });
+                    case ABORT -> entry.getTransactionIds().forEach(pending::remove);
+                }
+            }
+            JournalPosition next = entries.get(entries.size() - 1).getNext();
+            JournalPosition checkpoint = pending.isEmpty() ? next : pending.values().iterator().next().getStart();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                transactionRecorder.projectBatch(committed);
+                checkpointRepository.save(new JournalCheckpoint(checkpoint.getSegment(), checkpoint.getOffset()));
+            });
+            readPosition = next;
+            journal.deleteSegmentsBefore(checkpoint);
+            return entries.size();
+        } catch (RuntimeException e) {
+            pending.clear();
+            readPosition = null;
+            throw e;
+        }
+    }
+
+    // Postings before the given position with no outcome marker lost their process between the
+    // append and the marker, which may be after their database transaction committed. The
+    // journal_commits row written in that transaction decides: the missing marker is written so
+    // the decision is not made again, and each id is logged.
+    synchronized void resolveInDoubt(JournalPosition before) throws IOException {
+        List<Long> committed = new ArrayList<>();
+        List<Long> rolledBack = new ArrayList<>();
+        pending.values().forEach(entry -> {
+            if (entry.getStart().compareTo(before) < 0) {
+                long id = entry.getTransaction().getId();
+                (transactionRecorder.wasCommitted(id) ? committed : rolledBack).add(id);
+            }
+        });
+        if (committed.isEmpty() && rolledBack.isEmpty()) {
+            return;
+        }
+        if (!committed.isEmpty()) {
+            log.warn("Journal postings {} have no outcome marker but were committed; projecting them", committed);
+            journal.appendOutcome(committed, true);
+        }
+        if (!rolledBack.isEmpty()) {
+            log.warn("Journal postings {} have no outcome marker and were rolled back; dropping them", rolledBack);
+            journal.appendOutcome(rolledBack, false);
+        }
+        journal.force();
+        drain();
+    }
+
+    private void projectQuietly() {
+        try {
+            projectOnce();
+        } catch (Exception e) {
+            log.warn("Journal projection failed, will retry", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.account.journal;
+
+import com.bank.account.model.Transaction;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Payload layout (big endian):
+//   long  timestamp epoch second (UTC)    int   timestamp nanos
+//   long  amount unscaled value           byte  amount scale
+//   str   source account                  str   destination account
+//   str   transaction type                str   status
+//   str   description (nullable)
+// where str = short byte length (-1 for null) followed by UTF-8 bytes.
+public final class JournalRecordCodec {
+
+    public static final int MAX_PAYLOAD_SIZE = 4096;
+
+    private JournalRecordCodec() {}
+
+    public static void encode(Transaction transaction, ByteBuffer buffer) {
+        LocalDateTime timestamp = transaction.getTimestamp();
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+
+        BigDecimal amount = transaction.getAmount();
+        buffer.putLong(amount.unscaledValue().longValueExact());
+        buffer.put((byte) amount.scale());
+
+        putString(buffer, transaction.getSourceAccount());
+        putString(buffer, transaction.getDestinationAccount());
+        putString(buffer, transaction.getTransactionType());
+        putString(buffer, transaction.getStatus());
+        putString(buffer, transaction.getDescription());
+    }
+
+    // Bytes that encode writes for the transaction
+    public static int encodedSize(Transaction transaction) {
+        return Long.BYTES + Integer.BYTES + Long.BYTES + 1
+                + stringSize(transaction.getSourceAccount()) + stringSize(transaction.getDestinationAccount())
+                + stringSize(transaction.getTransactionType()) + stringSize(transaction.getStatus())
+                + stringSize(transaction.getDescription());
+    }
+
+    public static Transaction decode(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        int nanos = buffer.getInt();
+        long unscaled = buffer.getLong();
+        int scale = buffer.get();
+
+        Transaction transaction = new Transaction(getString(buffer), getString(buffer),
+                new BigDecimal(BigInteger.valueOf(unscaled), scale), getString(buffer));
+        transaction.setStatus(getString(buffer));
+        transaction.setDescription(getString(buffer));
+        transaction.setTimestamp(LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC));
+        return transaction;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static int stringSize(String value) {
+        return Short.BYTES + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,362 @@
+package com.bank.account.journal;
+
+import com.bank.account.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only log of Transaction records split into fixed-size memory-mapped segment files.
+// Each record is [int payload length][int CRC32 of payload][payload]; a zero length marks the
+// end of the written part of a segment. A payload is one of
+//   byte 1 (posting), long transaction id, JournalRecordCodec transaction payload
+//   byte 2 (commit) or 3 (abort), int count, count x long transaction id
+// Postings are appended while their database transaction is still open and the outcome marker
+// once it has completed, so only postings followed by a commit marker are projected.
+@Component
+public class TransactionJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionJournal.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+    private static final byte POSTING = 1;
+    private static final byte COMMIT = 2;
+    private static final byte ABORT = 3;
+    private static final int MAX_IDS_PER_MARKER = (JournalRecordCodec.MAX_PAYLOAD_SIZE - 5) / Long.BYTES;
+
+    @Value("${account.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${account.journal.directory:data/journal}")
+    private String directory;
+
+    @Value("${account.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${account.journal.fsync-policy:BATCH}")
+    private FsyncPolicy fsyncPolicy;
+
+    @Value("${account.journal.fsync-batch-size:64}")
+    private int fsyncBatchSize;
+
+    @Value("${account.journal.fsync-interval-ms:10}")
+    private long fsyncIntervalMs;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(HEADER_SIZE + JournalRecordCodec.MAX_PAYLOAD_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    private Path root;
+    private int segmentSize;
+    private long currentSegment;
+    private FileChannel currentChannel;
+    private MappedByteBuffer currentBuffer;
+    private int unsyncedRecords;
+    private volatile JournalPosition end = JournalPosition.START;
+    private JournalPosition recoveredEnd = JournalPosition.START;
+    private ScheduledExecutorService syncTimer;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory);
+        segmentSize = segmentSizeMb * 1024 * 1024;
+        Files.createDirectories(root);
+
+        List<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            mapSegment(0);
+        } else {
+            long last = segments.get(segments.size() - 1);
+            mapSegment(last);
+            currentBuffer.position(recoverEnd(currentBuffer));
+        }
+        end = new JournalPosition(currentSegment, currentBuffer.position());
+        recoveredEnd = end;
+        log.info("Transaction journal opened at {} (end {}, fsync {})", root.toAbsolutePath(), end, fsyncPolicy);
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            syncTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncTimer.scheduleWithFixedDelay(this::force, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (syncTimer != null) {
+            syncTimer.shutdown();
+        }
+        writeLock.lock();
+        try {
+            currentBuffer.force();
+            currentChannel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public JournalPosition getEnd() {
+        return end;
+    }
+
+    // End of the journal as found on startup; postings before it without an outcome marker
+    // belonged to a process that stopped before their transactions completed.
+    public JournalPosition getRecoveredEnd() {
+        return recoveredEnd;
+    }
+
+    // Every transaction must already carry the id it will be projected with.
+    public JournalPosition appendPostings(Collection<Transaction> transactions) {
+        writeLock.lock();
+        try {
+            for (Transaction transaction : transactions) {
+                startRecord(POSTING);
+                scratch.putLong(transaction.getId());
+                JournalRecordCodec.encode(transaction, scratch);
+                writeRecord();
+            }
+            return completeAppend();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to transaction journal", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public JournalPosition appendOutcome(List<Long> transactionIds, boolean committed) {
+        writeLock.lock();
+        try {
+            for (int from = 0; from < transactionIds.size(); from += MAX_IDS_PER_MARKER) {
+                int to = Math.min(from + MAX_IDS_PER_MARKER, transactionIds.size());
+                startRecord(committed ? COMMIT : ABORT);
+                scratch.putInt(to - from);
+                for (int i = from; i < to; i++) {
+                    scratch.putLong(transactionIds.get(i));
+                }
+                writeRecord();
+            }
+            return completeAppend();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to transaction journal", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Reads up to maxRecords records starting at from, never past the last completed append.
+    public List<JournalEntry> read(JournalPosition from, int maxRecords) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalPosition limit = end;
+        long segment = from.getSegment();
+        int offset = from.getOffset();
+
+        while (entries.size() < maxRecords && (segment < limit.getSegment()
+                || (segment == limit.getSegment() && offset < limit.getOffset()))) {
+            ByteBuffer view = readView(segment);
+            int segmentEnd = segment == limit.getSegment() ? limit.getOffset() : view.capacity();
+
+            while (entries.size() < maxRecords && offset + HEADER_SIZE <= segmentEnd) {
+                int length = view.getInt(offset);
+                if (length <= 0) {
+                    break;
+                }
+                ByteBuffer payload = view.duplicate();
+                payload.position(offset + HEADER_SIZE);
+                payload.limit(offset + HEADER_SIZE + length);
+                JournalPosition start = new JournalPosition(segment, offset);
+                offset += HEADER_SIZE + length;
+                entries.add(decode(payload, start, new JournalPosition(segment, offset)));
+            }
+
+            if (entries.size() < maxRecords && segment < limit.getSegment()) {
+                segment++;
+                offset = 0;
+            } else {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    // Deletes segments that lie entirely before the given position.
+    public void deleteSegmentsBefore(JournalPosition position) throws IOException {
+        for (long segment : listSegments()) {
+            if (segment < position.getSegment() && segment < currentSegment) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+    }
+
+    public void force() {
+        writeLock.lock();
+        try {
+            if (unsyncedRecords > 0) {
+                currentBuffer.force();
+                unsyncedRecords = 0;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void startRecord(byte kind) {
+        scratch.clear();
+        scratch.position(HEADER_SIZE);
+        scratch.put(kind);
+    }
+
+    private void writeRecord() throws IOException {
+        int payloadLength = scratch.position() - HEADER_SIZE;
+        crc.reset();
+        crc.update(scratch.array(), HEADER_SIZE, payloadLength);
+        scratch.putInt(0, payloadLength);
+        scratch.putInt(4, (int) crc.getValue());
+
+        int recordSize = HEADER_SIZE + payloadLength;
+        if (currentBuffer.remaining() < recordSize + HEADER_SIZE) {
+            roll();
+        }
+        currentBuffer.put(scratch.array(), 0, recordSize);
+        unsyncedRecords++;
+    }
+
+    private JournalPosition completeAppend() {
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE
+                || (fsyncPolicy == FsyncPolicy.BATCH && unsyncedRecords >= fsyncBatchSize)) {
+            currentBuffer.force();
+            unsyncedRecords = 0;
+        }
+        end = new JournalPosition(currentSegment, currentBuffer.position());
+        return end;
+    }
+
+    private static JournalEntry decode(ByteBuffer payload, JournalPosition start, JournalPosition next) {
+        byte kind = payload.get();
+        if (kind == POSTING) {
+            long id = payload.getLong();
+            Transaction transaction = JournalRecordCodec.decode(payload);
+            transaction.setId(id);
+            return JournalEntry.posting(transaction, start, next);
+        }
+        if (kind != COMMIT && kind != ABORT) {
+            throw new IllegalStateException("Unknown journal record type " + kind + " at " + start);
+        }
+        int count = payload.getInt();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(payload.getLong());
+        }
+        return JournalEntry.outcome(kind == COMMIT, ids, start, next);
+    }
+
+    private ByteBuffer readView(long segment) throws IOException {
+        writeLock.lock();
+        try {
+            if (segment == currentSegment) {
+                return currentBuffer.duplicate();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private void roll() throws IOException {
+        currentBuffer.force();
+        currentChannel.close();
+        unsyncedRecords = 0;
+        mapSegment(currentSegment + 1);
+    }
+
+    private void mapSegment(long segment) throws IOException {
+        currentChannel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        currentBuffer = currentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        currentSegment = segment;
+    }
+
+    // Finds the end of the last intact record after a crash and clears whatever follows it,
+    // so a torn write can never be mistaken for a record later on.
+    private int recoverEnd(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            crc.reset();
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(offset + HEADER_SIZE);
+            payload.limit(offset + HEADER_SIZE + length);
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                log.warn("Discarding torn journal record in segment {} at offset {}", currentSegment, offset);
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+
+        int dirtyEnd = buffer.capacity();
+        while (dirtyEnd > offset && buffer.get(dirtyEnd - 1) == 0) {
+            dirtyEnd--;
+        }
+        if (dirtyEnd > offset) {
+            for (int i = offset; i < dirtyEnd; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        return offset;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(root)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return root.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+}
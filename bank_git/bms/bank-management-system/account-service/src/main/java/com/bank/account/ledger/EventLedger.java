@@ -0,0 +1,151 @@
+package com.bank.account.ledger;
+
+import com.bank.account.model.LedgerEvent;
+import com.bank.account.model.Transaction;
+import com.bank.account.service.HotAccountLedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Ledger mode: every successful posting is also written as immutable events to ledger_events,
+// in the same database transaction as the balance change, and applied to the in-memory
+// projection once that transaction commits. Failed attempts produce no events. The table
+// balance is still maintained, so limit checks and locking work as before.
+@Component
+public class EventLedger {
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO ledger_events (sequence_number, account_number, event_type, amount, recorded_at, transaction_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String ALLOCATE_SEQUENCES_SQL = "SELECT NEXT VALUE FOR ledger_events_seq FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String COMBINED_BALANCE_SQL =
+            "SELECT " + HotAccountLedger.COMBINED_BALANCE_SQL + " FROM bank_accounts WHERE account_number = ?";
+
+    // Accounts that existed before ledger mode was switched on start from their table balance.
+    private static final String OPEN_MISSING_SQL =
+            "INSERT INTO ledger_events (sequence_number, account_number, event_type, amount, recorded_at, transaction_id) "
+                    + "SELECT NEXT VALUE FOR ledger_events_seq, account_number, '" + LedgerEvent.OPENED + "', "
+                    + HotAccountLedger.COMBINED_BALANCE_SQL + ", CURRENT_TIMESTAMP, NULL FROM bank_accounts "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM ledger_events e WHERE e.account_number = bank_accounts.account_number)";
+
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerProjection projection;
+
+    @Value("${account.ledger.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The projected balance, or null when ledger mode is off, the projection is still being
+    // rebuilt or the account is unknown to it; callers then read the table.
+    public BigDecimal getBalance(String accountNumber) {
+        return enabled ? projection.getBalance(accountNumber) : null;
+    }
+
+    public void append(Collection<Transaction> transactions) {
+        if (!enabled) {
+            return;
+        }
+        List<LedgerEvent> events = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if ("SUCCESS".equals(transaction.getStatus())) {
+                events.addAll(eventsFor(transaction));
+            }
+        }
+        appendEvents(events);
+    }
+
+    public void opened(String accountNumber, BigDecimal balance) {
+        if (enabled) {
+            appendEvents(List.of(new LedgerEvent(accountNumber, LedgerEvent.OPENED, balance, LocalDateTime.now(), null)));
+        }
+    }
+
+    // Closing takes the whole combined balance out, so a closed account's events sum to zero.
+    public void closed(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        BigDecimal balance = jdbcTemplate.queryForObject(COMBINED_BALANCE_SQL, BigDecimal.class, accountNumber);
+        appendEvents(List.of(new LedgerEvent(accountNumber, LedgerEvent.CLOSED, balance.negate(), LocalDateTime.now(), null)));
+    }
+
+    public int openMissing() {
+        return enabled ? jdbcTemplate.update(OPEN_MISSING_SQL) : 0;
+    }
+
+    // A transfer is two events, one per account; every other type names one account.
+    public static List<LedgerEvent> eventsFor(Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        LocalDateTime at = transaction.getTimestamp();
+        Long id = transaction.getId();
+        return switch (transaction.getTransactionType()) {
+            case "TRANSFER" -> List.of(
+                    new LedgerEvent(transaction.getSourceAccount(), LedgerEvent.TRANSFER_OUT, amount.negate(), at, id),
+                    new LedgerEvent(transaction.getDestinationAccount(), LedgerEvent.TRANSFER_IN, amount, at, id));
+            case "DEPOSIT" -> List.of(new LedgerEvent(transaction.getDestinationAccount(), LedgerEvent.DEPOSIT, amount, at, id));
+            case "INTEREST" -> List.of(new LedgerEvent(transaction.getDestinationAccount(), LedgerEvent.INTEREST, amount, at, id));
+            case "WITHDRAWAL" -> List.of(new LedgerEvent(transaction.getSourceAccount(), LedgerEvent.WITHDRAWAL, amount.negate(), at, id));
+            case "FEE" -> List.of(new LedgerEvent(transaction.getSourceAccount(), LedgerEvent.FEE, amount.negate(), at, id));
+            default -> throw new IllegalArgumentException("Unknown transaction type: " + transaction.getTransactionType());
+        };
+    }
+
+    // Called by writers that commit without Spring's transaction synchronization.
+    public void committed(List<LedgerEvent> events) {
+        projection.apply(events);
+    }
+
+    private void appendEvents(List<LedgerEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Long> sequences = jdbcTemplate.queryForList(ALLOCATE_SEQUENCES_SQL, Long.class, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            events.get(i).setSequenceNumber(sequences.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, JDBC_BATCH_SIZE, (ps, event) -> {
+            ps.setLong(1, event.getSequenceNumber());
+            ps.setString(2, event.getAccountNumber());
+            ps.setString(3, event.getEventType());
+            ps.setBigDecimal(4, event.getAmount());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getRecordedAt()));
+            if (event.getTransactionId() == null) {
+                ps.setNull(6, Types.BIGINT);
+            } else {
+                ps.setLong(6, event.getTransactionId());
+            }
+        });
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            projection.apply(events);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                projection.apply(events);
+            }
+        });
+    }
+}
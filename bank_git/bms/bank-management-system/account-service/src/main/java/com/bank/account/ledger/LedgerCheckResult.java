@@ -0,0 +1,83 @@
+package com.bank.account.ledger;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Outcome of one LedgerConsistencyCheck run. Only the first maxReported mismatches are kept
+// with their details; all of them are counted.
+public class LedgerCheckResult {
+
+    private final int ranges;
+    private final int maxReported;
+    private final long startedNanos = System.nanoTime();
+    private final LongAdder accountsChecked = new LongAdder();
+    private final LongAdder tableMismatches = new LongAdder();
+    private final LongAdder projectionMismatches = new LongAdder();
+    private final List<Map<String, Object>> mismatches = new ArrayList<>();
+    private volatile long finishedNanos;
+
+    LedgerCheckResult(int ranges, int maxReported) {
+        this.ranges = ranges;
+        this.maxReported = maxReported;
+    }
+
+    void checked(long accounts) {
+        accountsChecked.add(accounts);
+    }
+
+    void tableMismatch(String accountNumber, BigDecimal events, BigDecimal table) {
+        tableMismatches.increment();
+        report(accountNumber, "TABLE", events, table);
+    }
+
+    void projectionMismatch(String accountNumber, BigDecimal events, BigDecimal projected) {
+        projectionMismatches.increment();
+        report(accountNumber, "PROJECTION", events, projected);
+    }
+
+    void finish() {
+        finishedNanos = System.nanoTime();
+    }
+
+    public boolean isConsistent() {
+        return tableMismatches.sum() == 0 && projectionMismatches.sum() == 0;
+    }
+
+    public Map<String, Object> toMap() {
+        long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(end - startedNanos);
+        long accounts = accountsChecked.sum();
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("consistent", isConsistent());
+        map.put("ranges", ranges);
+        map.put("accountsChecked", accounts);
+        map.put("tableMismatches", tableMismatches.sum());
+        map.put("projectionMismatches", projectionMismatches.sum());
+        map.put("elapsedMs", elapsedMs);
+        map.put("accountsPerSecond", elapsedMs == 0 ? 0.0 : accounts * 1000.0 / elapsedMs);
+        synchronized (mismatches) {
+            map.put("mismatches", new ArrayList<>(mismatches));
+        }
+        return map;
+    }
+
+    private void report(String accountNumber, String kind, BigDecimal events, BigDecimal actual) {
+        synchronized (mismatches) {
+            if (mismatches.size() >= maxReported) {
+                return;
+            }
+            Map<String, Object> mismatch = new LinkedHashMap<>();
+            mismatch.put("accountNumber", accountNumber);
+            mismatch.put("kind", kind);
+            mismatch.put("eventBalance", events);
+            mismatch.put("actualBalance", actual);
+            mismatches.add(mismatch);
+        }
+    }
+}
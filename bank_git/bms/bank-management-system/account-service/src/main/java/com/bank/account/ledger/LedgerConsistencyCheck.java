@@ -0,0 +1,153 @@
+package com.bank.account.ledger;
+
+import com.bank.account.service.HotAccountLedger;
+import com.bank.common.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Verifies that every account's balance equals the sum of its ledger events, both in the table
+// and in the projection. Accounts are split into account-number ranges of about chunk-size and
+// the ranges are checked in parallel on a fork-join pool, as the partitioned account jobs do.
+// Each range compares table and events in one statement, so the two always agree on which
+// postings have committed. The projection moves after commit, so an account that disagrees
+// with it is read again once before it is reported.
+@Component
+public class LedgerConsistencyCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerConsistencyCheck.class);
+
+    private static final String RANGE_SQL = "SELECT account_number, " + HotAccountLedger.COMBINED_BALANCE_SQL + " AS balance, "
+            + "(SELECT COALESCE(SUM(e.amount), 0) FROM ledger_events e WHERE e.account_number = bank_accounts.account_number) "
+            + "AS event_balance FROM bank_accounts WHERE account_number >= ?";
+
+    private static final String EVENT_BALANCE_SQL =
+            "SELECT COALESCE(SUM(amount), 0) FROM ledger_events WHERE account_number = ?";
+
+    @Autowired
+    private EventLedger ledger;
+
+    @Autowired
+    private LedgerProjection projection;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${account.ledger.verify.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${account.ledger.verify.parallelism:0}")
+    private int parallelism;
+
+    @Value("${account.ledger.verify.max-reported:100}")
+    private int maxReported;
+
+    @Value("${account.ledger.fetch-size:1000}")
+    private int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LedgerCheckResult verify() {
+        if (!ledger.isEnabled()) {
+            throw new IllegalStateException("Ledger mode is not enabled");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A ledger check is already running");
+        }
+        try {
+            return execute();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private LedgerCheckResult execute() {
+        List<String> boundaries = boundaries();
+        LedgerCheckResult result = new LedgerCheckResult(boundaries.size() + 1, maxReported);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(boundaries.size() + 1);
+            String start = "";
+            for (int i = 0; i <= boundaries.size(); i++) {
+                String from = start;
+                String to = i < boundaries.size() ? boundaries.get(i) : null;
+                tasks.add(pool.submit(() -> checkRange(from, to, result)));
+                start = to;
+            }
+            tasks.forEach(ForkJoinTask::join);
+        } finally {
+            pool.shutdown();
+        }
+        result.finish();
+        log.info("Ledger consistency check finished: {}", result.toMap());
+        return result;
+    }
+
+    // Every chunk-size-th account number, from one ordered scan of the primary key.
+    private List<String> boundaries() {
+        List<String> boundaries = new ArrayList<>();
+        int[] seen = {0};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT account_number FROM bank_accounts ORDER BY account_number",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            if (seen[0] > 0 && seen[0] % chunkSize == 0) {
+                boundaries.add(rs.getString(1));
+            }
+            seen[0]++;
+        });
+        return boundaries;
+    }
+
+    // The last range has no upper bound.
+    private void checkRange(String from, String to, LedgerCheckResult result) {
+        List<String> suspects = new ArrayList<>();
+        long[] checked = {0};
+        String sql = to == null ? RANGE_SQL : RANGE_SQL + " AND account_number < ?";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setString(1, from);
+            if (to != null) {
+                ps.setString(2, to);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            String accountNumber = rs.getString(1);
+            BigDecimal table = rs.getBigDecimal(2);
+            BigDecimal events = rs.getBigDecimal(3);
+            long eventMinorUnits = Money.of(events).getMinorUnits();
+            if (Money.of(table).getMinorUnits() != eventMinorUnits) {
+                result.tableMismatch(accountNumber, events, table);
+            }
+            Long projected = projection.getMinorUnits(accountNumber);
+            if (projection.isReady() && (projected == null || projected != eventMinorUnits)) {
+                suspects.add(accountNumber);
+            }
+            checked[0]++;
+        });
+        for (String accountNumber : suspects) {
+            BigDecimal events = jdbcTemplate.queryForObject(EVENT_BALANCE_SQL, BigDecimal.class, accountNumber);
+            Long projected = projection.getMinorUnits(accountNumber);
+            if (projected == null || projected != Money.of(events).getMinorUnits()) {
+                result.projectionMismatch(accountNumber, events, projected == null ? null : Money.ofMinor(projected).toBigDecimal());
+            }
+        }
+        result.checked(checked[0]);
+    }
+}
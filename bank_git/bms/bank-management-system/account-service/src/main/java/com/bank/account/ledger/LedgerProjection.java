@@ -0,0 +1,72 @@
+package com.bank.account.ledger;
+
+import com.bank.account.model.LedgerEvent;
+import com.bank.common.money.Money;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Balances served to readers in ledger mode, kept in memory and moved by the events of each
+// committed posting. Events are deltas, so postings that commit concurrently can be applied in
+// any order. Until the startup state is installed, events are held back and afterwards only
+// the ones that state does not already contain are applied.
+@Component
+public class LedgerProjection {
+
+    private final Map<String, Long> balances = new ConcurrentHashMap<>();
+    private final List<LedgerEvent> held = new ArrayList<>();
+    private volatile boolean ready;
+
+    public void apply(List<LedgerEvent> events) {
+        if (!ready) {
+            synchronized (this) {
+                if (!ready) {
+                    held.addAll(events);
+                    return;
+                }
+            }
+        }
+        events.forEach(this::applyOne);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Null until the projection is ready and for accounts it does not know.
+    public BigDecimal getBalance(String accountNumber) {
+        Long minorUnits = getMinorUnits(accountNumber);
+        return minorUnits == null ? null : Money.ofMinor(minorUnits).toBigDecimal();
+    }
+
+    public int getAccountCount() {
+        return balances.size();
+    }
+
+    Long getMinorUnits(String accountNumber) {
+        return ready ? balances.get(accountNumber) : null;
+    }
+
+    synchronized void install(LedgerState state) {
+        balances.clear();
+        balances.putAll(state.copyBalances());
+        for (LedgerEvent event : held) {
+            if (!state.covers(event.getSequenceNumber())) {
+                applyOne(event);
+            }
+        }
+        held.clear();
+        ready = true;
+    }
+
+    private void applyOne(LedgerEvent event) {
+        if (LedgerEvent.CLOSED.equals(event.getEventType())) {
+            balances.remove(event.getAccountNumber());
+        } else {
+            balances.merge(event.getAccountNumber(), Money.of(event.getAmount()).getMinorUnits(), Long::sum);
+        }
+    }
+}
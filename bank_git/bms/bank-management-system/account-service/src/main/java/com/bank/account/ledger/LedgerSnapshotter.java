@@ -0,0 +1,192 @@
+package com.bank.account.ledger;
+
+import com.bank.account.model.LedgerSnapshot;
+import com.bank.account.repository.LedgerSnapshotRepository;
+import com.bank.common.money.Money;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Rebuilds the ledger projection on startup from the newest snapshot plus the events after it,
+// then folds new events into its own copy of the state and saves it as a compact snapshot every
+// interval, so the next startup only replays the tail. Recovery runs before the web server
+// starts taking requests; accounts that have no events yet (ledger mode just switched on) are
+// opened from their table balance first.
+@Component
+public class LedgerSnapshotter implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotter.class);
+
+    private static final String EVENTS_FROM_SQL = "SELECT sequence_number, account_number, event_type, amount "
+            + "FROM ledger_events WHERE sequence_number >= ? ORDER BY sequence_number";
+
+    @Autowired
+    private EventLedger ledger;
+
+    @Autowired
+    private LedgerProjection projection;
+
+    @Autowired
+    private LedgerSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${account.ledger.snapshot-interval-ms:60000}")
+    private long intervalMs;
+
+    @Value("${account.ledger.snapshot-retain:3}")
+    private int retain;
+
+    @Value("${account.ledger.gap-horizon-ms:60000}")
+    private long gapHorizonMs;
+
+    @Value("${account.ledger.fetch-size:1000}")
+    private int fetchSize;
+
+    private LedgerState state;
+    private ScheduledExecutorService scheduler;
+    private volatile long position;
+    private volatile int pendingCount;
+    private volatile Map<String, Object> lastRecovery;
+    private volatile Map<String, Object> lastSnapshot;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!ledger.isEnabled()) {
+            return;
+        }
+        recover();
+        if (intervalMs <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ledger-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        if (state == null) {
+            throw new IllegalStateException("Ledger mode is not enabled");
+        }
+        long started = System.nanoTime();
+        long folded = fold(state);
+        LedgerSnapshot saved = snapshotRepository.save(state.toSnapshot());
+        List<Long> ids = snapshotRepository.findIdsNewestFirst();
+        if (ids.size() > retain) {
+            snapshotRepository.deleteOlderThan(ids.get(Math.max(1, retain) - 1));
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("id", saved.getId());
+        snapshot.put("position", saved.getPosition());
+        snapshot.put("pendingSequences", state.getPendingCount());
+        snapshot.put("accounts", saved.getAccountCount());
+        snapshot.put("events", saved.getEventCount());
+        snapshot.put("foldedEvents", folded);
+        snapshot.put("bytes", saved.getPayload().length);
+        snapshot.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        snapshot.put("createdAt", saved.getCreatedAt().toString());
+        lastSnapshot = snapshot;
+        log.debug("Ledger snapshot {}", snapshot);
+        return snapshot;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", ledger.isEnabled());
+        status.put("projectionReady", projection.isReady());
+        status.put("projectedAccounts", projection.getAccountCount());
+        status.put("snapshotPosition", position);
+        status.put("pendingSequences", pendingCount);
+        status.put("lastRecovery", lastRecovery);
+        status.put("lastSnapshot", lastSnapshot);
+        return status;
+    }
+
+    private synchronized void recover() {
+        long started = System.nanoTime();
+        int opened = ledger.openMissing();
+        LedgerSnapshot snapshot = snapshotRepository.findTopByOrderByIdDesc().orElse(null);
+        LedgerState recovered = snapshot == null ? new LedgerState() : LedgerState.fromSnapshot(snapshot);
+        long snapshotPosition = recovered.getPosition();
+        long replayed = fold(recovered);
+        state = recovered;
+        projection.install(recovered);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Map<String, Object> recovery = new LinkedHashMap<>();
+        recovery.put("snapshotId", snapshot == null ? null : snapshot.getId());
+        recovery.put("snapshotPosition", snapshotPosition);
+        recovery.put("replayedEvents", replayed);
+        recovery.put("openedAccounts", opened);
+        recovery.put("accounts", recovered.getAccountCount());
+        recovery.put("elapsedMs", elapsedMs);
+        lastRecovery = recovery;
+        log.info("Ledger recovery replayed {} events after snapshot position {} ({} accounts opened from table balances) in {} ms",
+                replayed, snapshotPosition, opened, elapsedMs);
+    }
+
+    // Streams every event the state has not folded yet, in sequence order.
+    private long fold(LedgerState target) {
+        long now = System.currentTimeMillis();
+        long from = target.readFrom();
+        long[] folded = {0};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EVENTS_FROM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, from);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            if (target.fold(rs.getLong(1), rs.getString(2), rs.getString(3), Money.of(rs.getBigDecimal(4)).getMinorUnits(), now)) {
+                folded[0]++;
+            }
+        });
+        int expired = target.expirePending(now - gapHorizonMs);
+        if (expired > 0) {
+            log.debug("Gave up on {} ledger sequence numbers older than {} ms", expired, gapHorizonMs);
+        }
+        position = target.getPosition();
+        pendingCount = target.getPendingCount();
+        return folded[0];
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.warn("Ledger snapshot failed, will retry", e);
+        }
+    }
+}
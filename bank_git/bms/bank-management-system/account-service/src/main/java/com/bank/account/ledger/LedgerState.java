@@ -0,0 +1,142 @@
+package com.bank.account.ledger;
+
+import com.bank.account.model.LedgerEvent;
+import com.bank.account.model.LedgerSnapshot;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Balances folded from the event log up to position, in minor units. Sequence numbers are
+// allocated before the posting commits, so a number at or below position may become visible
+// later; those are kept in pending with the time they were first found missing and folded when
+// they appear. Numbers used by rolled back postings never appear and are given up once they
+// are older than the gap horizon.
+final class LedgerState {
+
+    private final Map<String, Long> balances;
+    private final TreeMap<Long, Long> pending;
+    private long position;
+    private long eventCount;
+
+    LedgerState() {
+        this(new HashMap<>(), new TreeMap<>(), 0, 0);
+    }
+
+    private LedgerState(Map<String, Long> balances, TreeMap<Long, Long> pending, long position, long eventCount) {
+        this.balances = balances;
+        this.pending = pending;
+        this.position = position;
+        this.eventCount = eventCount;
+    }
+
+    // Returns false for an event that is already part of the state.
+    boolean fold(long sequence, String accountNumber, String eventType, long minorUnits, long nowMillis) {
+        if (sequence <= position) {
+            if (pending.remove(sequence) == null) {
+                return false;
+            }
+        } else {
+            for (long gap = position + 1; gap < sequence; gap++) {
+                pending.put(gap, nowMillis);
+            }
+            position = sequence;
+        }
+        if (LedgerEvent.CLOSED.equals(eventType)) {
+            balances.remove(accountNumber);
+        } else {
+            balances.merge(accountNumber, minorUnits, Long::sum);
+        }
+        eventCount++;
+        return true;
+    }
+
+    int expirePending(long cutoffMillis) {
+        int before = pending.size();
+        pending.values().removeIf(firstSeen -> firstSeen < cutoffMillis);
+        return before - pending.size();
+    }
+
+    boolean covers(long sequence) {
+        return sequence <= position && !pending.containsKey(sequence);
+    }
+
+    // Where the next fold has to start reading: the oldest sequence still missing, if any.
+    long readFrom() {
+        return pending.isEmpty() ? position + 1 : pending.firstKey();
+    }
+
+    long getPosition() {
+        return position;
+    }
+
+    long getEventCount() {
+        return eventCount;
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    int getAccountCount() {
+        return balances.size();
+    }
+
+    Map<String, Long> copyBalances() {
+        return new HashMap<>(balances);
+    }
+
+    LedgerSnapshot toSnapshot() {
+        String encodedPending = pending.entrySet().stream()
+                .map(e -> e.getKey() + ":" + e.getValue())
+                .collect(Collectors.joining(","));
+        return new LedgerSnapshot(position, encodedPending, balances.size(), eventCount, encodeBalances());
+    }
+
+    static LedgerState fromSnapshot(LedgerSnapshot snapshot) {
+        TreeMap<Long, Long> pending = new TreeMap<>();
+        if (!snapshot.getPending().isEmpty()) {
+            for (String entry : snapshot.getPending().split(",")) {
+                int colon = entry.indexOf(':');
+                pending.put(Long.parseLong(entry.substring(0, colon)), Long.parseLong(entry.substring(colon + 1)));
+            }
+        }
+        Map<String, Long> balances = decodeBalances(snapshot.getPayload());
+        return new LedgerState(balances, pending, snapshot.getPosition(), snapshot.getEventCount());
+    }
+
+    private byte[] encodeBalances() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(balances.size());
+            for (Map.Entry<String, Long> entry : balances.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode ledger snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Map<String, Long> decodeBalances(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            int count = in.readInt();
+            Map<String, Long> balances = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                balances.put(in.readUTF(), in.readLong());
+            }
+            return balances;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode ledger snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+// One credit slot of a hot account. Credits are spread over the account's slots and folded
+// into bank_accounts.balance by the sweeper; the account's balance is its own plus its slots.
+@Entity
+@Table(name = "account_sub_ledgers", uniqueConstraints = @UniqueConstraint(
+        name = "uk_account_sub_ledgers_account_slot", columnNames = {"account_number", "slot"}))
+public class AccountSubLedger {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_sub_ledgers_seq")
+    @SequenceGenerator(name = "account_sub_ledgers_seq", sequenceName = "account_sub_ledgers_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "account_number", length = 20, nullable = false)
+    private String accountNumber;
+    
+    @Column(name = "slot", nullable = false)
+    private int slot;
+    
+    @Column(name = "balance", precision = 12, scale = 2, nullable = false)
+    private BigDecimal balance;
+    
+    // Constructors
+    public AccountSubLedger() {}
+    
+    public AccountSubLedger(String accountNumber, int slot) {
+        this.accountNumber = accountNumber;
+        this.slot = slot;
+        this.balance = BigDecimal.ZERO;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    
+    public int getSlot() { return slot; }
+    public void setSlot(int slot) { this.slot = slot; }
+    
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
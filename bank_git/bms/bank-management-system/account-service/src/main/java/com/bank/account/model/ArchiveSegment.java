@@ -0,0 +1,75 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Catalog row of one transaction archive segment file. A segment is PENDING from before its
+// file is written until the rows it holds are deleted from the transactions table. Rows are
+// deleted in batches, oldest first, and movedRows is advanced in each batch's transaction; the
+// last batch marks the segment ARCHIVED.
+@Entity
+@Table(name = "archive_segments")
+public class ArchiveSegment {
+    
+    public static final String PENDING = "PENDING";
+    public static final String ARCHIVED = "ARCHIVED";
+    
+    @Id
+    @Column(name = "file_name", length = 100)
+    private String fileName;
+    
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+    
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+    
+    @Column(name = "min_timestamp")
+    private LocalDateTime minTimestamp;
+    
+    @Column(name = "max_timestamp")
+    private LocalDateTime maxTimestamp;
+    
+    @Column(name = "bytes", nullable = false)
+    private long bytes;
+    
+    @Column(name = "moved_rows", nullable = false)
+    private int movedRows;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ArchiveSegment() {}
+    
+    public ArchiveSegment(String fileName) {
+        this.fileName = fileName;
+        this.status = PENDING;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public int getRowCount() { return rowCount; }
+    public void setRowCount(int rowCount) { this.rowCount = rowCount; }
+    
+    public LocalDateTime getMinTimestamp() { return minTimestamp; }
+    public void setMinTimestamp(LocalDateTime minTimestamp) { this.minTimestamp = minTimestamp; }
+    
+    public LocalDateTime getMaxTimestamp() { return maxTimestamp; }
+    public void setMaxTimestamp(LocalDateTime maxTimestamp) { this.maxTimestamp = maxTimestamp; }
+    
+    public long getBytes() { return bytes; }
+    public void setBytes(long bytes) { this.bytes = bytes; }
+    
+    public int getMovedRows() { return movedRows; }
+    public void setMovedRows(int movedRows) { this.movedRows = movedRows; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
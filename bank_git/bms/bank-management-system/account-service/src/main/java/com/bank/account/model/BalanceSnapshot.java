@@ -0,0 +1,56 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Balance of an account at the end of snapshotDate, after every transaction stamped that day.
+@Entity
+@Table(name = "balance_snapshots", uniqueConstraints = @UniqueConstraint(
+        name = "uk_balance_snapshots_account_date", columnNames = {"account_number", "snapshot_date"}))
+public class BalanceSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshots_seq")
+    @SequenceGenerator(name = "balance_snapshots_seq", sequenceName = "balance_snapshots_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "account_number", length = 20, nullable = false)
+    private String accountNumber;
+    
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+    
+    @Column(name = "balance", precision = 12, scale = 2, nullable = false)
+    private BigDecimal balance;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public BalanceSnapshot() {}
+    
+    public BalanceSnapshot(String accountNumber, LocalDate snapshotDate, BigDecimal balance) {
+        this.accountNumber = accountNumber;
+        this.snapshotDate = snapshotDate;
+        this.balance = balance;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public void setSnapshotDate(LocalDate snapshotDate) { this.snapshotDate = snapshotDate; }
+    
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,8 +1,11 @@
 package com.bank.account.model;
 
+import com.bank.common.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bank_accounts")
@@ -19,35 +22,66 @@ public abstract class BankAccount {
     @Column(name = "account_holder_name", length = 100, nullable = false)
     private String accountHolderName;
     
-    @NotNull(message = "Balance is required")
-    @DecimalMin(value = "0.0", message = "Balance cannot be negative")
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "balance", precision = 12, scale = 2, nullable = false)
-    private BigDecimal balance;
+    private Money balance;
     
     @Column(name = "customer_ssn", length = 7)
     private String customerSsn;
     
+    @Version
+    @Column(name = "version")
+    private Long version;
+    
+    @Column(name = "opened_at")
+    private LocalDateTime openedAt;
+    
+    // Credits are spread over sub-ledger slots; see HotAccountLedger.
+    @Column(name = "hot_account", nullable = false)
+    private boolean hotAccount;
+    
     // Constructors
     public BankAccount() {}
     
     public BankAccount(String accountNumber, String accountHolderName, BigDecimal balance, String customerSsn) {
         this.accountNumber = accountNumber;
         this.accountHolderName = accountHolderName;
-        this.balance = balance;
+        this.balance = Money.of(balance);
         this.customerSsn = customerSsn;
+        this.openedAt = LocalDateTime.now();
     }
     
     // Abstract methods for different account types
-    public abstract void deposit(BigDecimal amount);
-    public abstract void withdraw(BigDecimal amount);
+    public abstract void deposit(Money amount);
+    public abstract void withdraw(Money amount);
     public abstract String getAccountType();
     
     // Common methods
+    public void deposit(BigDecimal amount) {
+        deposit(Money.of(amount));
+    }
+    
+    public void withdraw(BigDecimal amount) {
+        withdraw(Money.of(amount));
+    }
+    
+    // BigDecimal accessors are the API edge; validation and JSON go through them.
+    @NotNull(message = "Balance is required")
+    @DecimalMin(value = "0.0", message = "Balance cannot be negative")
     public BigDecimal getBalance() {
-        return balance;
+        return balance == null ? null : balance.toBigDecimal();
     }
     
     public void setBalance(BigDecimal balance) {
+        this.balance = Money.of(balance);
+    }
+    
+    @JsonIgnore
+    public Money getBalanceMoney() {
+        return balance;
+    }
+    
+    public void setBalanceMoney(Money balance) {
         this.balance = balance;
     }
     
@@ -60,4 +94,13 @@ public abstract class BankAccount {
     
     public String getCustomerSsn() { return customerSsn; }
     public void setCustomerSsn(String customerSsn) { this.customerSsn = customerSsn; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public LocalDateTime getOpenedAt() { return openedAt; }
+    public void setOpenedAt(LocalDateTime openedAt) { this.openedAt = openedAt; }
+    
+    public boolean isHotAccount() { return hotAccount; }
+    public void setHotAccount(boolean hotAccount) { this.hotAccount = hotAccount; }
 }
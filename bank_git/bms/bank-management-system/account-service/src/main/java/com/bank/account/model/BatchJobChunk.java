@@ -0,0 +1,76 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One account-number range of a batch job run. rangeStart is inclusive and rangeEnd exclusive;
+// a null bound is open.
+@Entity
+@Table(name = "batch_job_chunks", indexes = @Index(name = "idx_batch_job_chunks_run", columnList = "run_id, status"))
+public class BatchJobChunk {
+    
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_job_chunks_seq")
+    @SequenceGenerator(name = "batch_job_chunks_seq", sequenceName = "batch_job_chunks_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+    
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+    
+    @Column(name = "range_start", length = 20)
+    private String rangeStart;
+    
+    @Column(name = "range_end", length = 20)
+    private String rangeEnd;
+    
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+    
+    @Column(name = "accounts_processed", nullable = false)
+    private int accountsProcessed;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public BatchJobChunk() {}
+    
+    public BatchJobChunk(Long runId, int chunkIndex, String rangeStart, String rangeEnd) {
+        this.runId = runId;
+        this.chunkIndex = chunkIndex;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.status = PENDING;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+    
+    public int getChunkIndex() { return chunkIndex; }
+    public void setChunkIndex(int chunkIndex) { this.chunkIndex = chunkIndex; }
+    
+    public String getRangeStart() { return rangeStart; }
+    public void setRangeStart(String rangeStart) { this.rangeStart = rangeStart; }
+    
+    public String getRangeEnd() { return rangeEnd; }
+    public void setRangeEnd(String rangeEnd) { this.rangeEnd = rangeEnd; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public int getAccountsProcessed() { return accountsProcessed; }
+    public void setAccountsProcessed(int accountsProcessed) { this.accountsProcessed = accountsProcessed; }
+    
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,70 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "batch_job_runs", uniqueConstraints = @UniqueConstraint(
+        name = "uk_batch_job_runs_job_date", columnNames = {"job_name", "business_date"}))
+public class BatchJobRun {
+    
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batch_job_runs_seq")
+    @SequenceGenerator(name = "batch_job_runs_seq", sequenceName = "batch_job_runs_seq", allocationSize = 1)
+    private Long id;
+    
+    @Column(name = "job_name", length = 50, nullable = false)
+    private String jobName;
+    
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+    
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+    
+    @Column(name = "total_chunks", nullable = false)
+    private int totalChunks;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    // Constructors
+    public BatchJobRun() {}
+    
+    public BatchJobRun(String jobName, LocalDate businessDate) {
+        this.jobName = jobName;
+        this.businessDate = businessDate;
+        this.status = RUNNING;
+        this.startedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+    
+    public LocalDate getBusinessDate() { return businessDate; }
+    public void setBusinessDate(LocalDate businessDate) { this.businessDate = businessDate; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public int getTotalChunks() { return totalChunks; }
+    public void setTotalChunks(int totalChunks) { this.totalChunks = totalChunks; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -1,6 +1,7 @@
 package com.bank.account.model;
 
 import com.bank.common.exception.InsufficientFundsException;
+import com.bank.common.money.Money;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
@@ -8,11 +9,13 @@ import java.math.BigDecimal;
 @DiscriminatorValue("CURRENT")
 public class CurrentAccount extends BankAccount {
     
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "overdraft_limit", precision = 12, scale = 2)
-    private BigDecimal overdraftLimit = BigDecimal.valueOf(10000); // Default overdraft limit
+    private Money overdraftLimit = Money.ofMajor(10000); // Default overdraft limit
     
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "maintenance_fee", precision = 12, scale = 2)
-    private BigDecimal maintenanceFee = BigDecimal.valueOf(500); // Default maintenance fee
+    private Money maintenanceFee = Money.ofMajor(500); // Default maintenance fee
     
     // Constructors
     public CurrentAccount() {
@@ -24,27 +27,27 @@ public class CurrentAccount extends BankAccount {
     }
     
     @Override
-    public void deposit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void deposit(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        setBalance(getBalance().add(amount));
+        setBalanceMoney(getBalanceMoney().plus(amount));
     }
     
     @Override
-    public void withdraw(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void withdraw(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
         
-        BigDecimal newBalance = getBalance().subtract(amount);
-        BigDecimal minimumAllowedBalance = overdraftLimit.negate();
+        Money newBalance = getBalanceMoney().minus(amount);
         
-        if (newBalance.compareTo(minimumAllowedBalance) < 0) {
+        // Compared in minor units so the negated limit is never materialised
+        if (newBalance.getMinorUnits() < -overdraftLimit.getMinorUnits()) {
             throw new InsufficientFundsException("Insufficient funds. Overdraft limit of " + overdraftLimit + " exceeded");
         }
         
-        setBalance(newBalance);
+        setBalanceMoney(newBalance);
     }
     
     @Override
@@ -53,9 +56,9 @@ public class CurrentAccount extends BankAccount {
     }
     
     // Getters and Setters
-    public BigDecimal getOverdraftLimit() { return overdraftLimit; }
-    public void setOverdraftLimit(BigDecimal overdraftLimit) { this.overdraftLimit = overdraftLimit; }
+    public BigDecimal getOverdraftLimit() { return overdraftLimit == null ? null : overdraftLimit.toBigDecimal(); }
+    public void setOverdraftLimit(BigDecimal overdraftLimit) { this.overdraftLimit = Money.of(overdraftLimit); }
     
-    public BigDecimal getMaintenanceFee() { return maintenanceFee; }
-    public void setMaintenanceFee(BigDecimal maintenanceFee) { this.maintenanceFee = maintenanceFee; }
+    public BigDecimal getMaintenanceFee() { return maintenanceFee == null ? null : maintenanceFee.toBigDecimal(); }
+    public void setMaintenanceFee(BigDecimal maintenanceFee) { this.maintenanceFee = Money.of(maintenanceFee); }
 }
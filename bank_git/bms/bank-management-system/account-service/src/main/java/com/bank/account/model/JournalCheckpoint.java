@@ -0,0 +1,38 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "journal_checkpoint")
+public class JournalCheckpoint {
+    
+    public static final int SINGLETON_ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "segment", nullable = false)
+    private long segment;
+    
+    @Column(name = "segment_offset", nullable = false)
+    private int segmentOffset;
+    
+    // Constructors
+    public JournalCheckpoint() {}
+    
+    public JournalCheckpoint(long segment, int segmentOffset) {
+        this.id = SINGLETON_ID;
+        this.segment = segment;
+        this.segmentOffset = segmentOffset;
+    }
+    
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    
+    public long getSegment() { return segment; }
+    public void setSegment(long segment) { this.segment = segment; }
+    
+    public int getSegmentOffset() { return segmentOffset; }
+    public void setSegmentOffset(int segmentOffset) { this.segmentOffset = segmentOffset; }
+}
@@ -0,0 +1,26 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+
+// Evidence that the database transaction of a journaled posting committed. The row is written in
+// that transaction and removed once the posting is projected, so after a crash a posting without
+// an outcome marker is committed exactly when its row is here.
+@Entity
+@Table(name = "journal_commits")
+public class JournalCommit {
+
+    @Id
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    // Constructors
+    public JournalCommit() {}
+
+    public JournalCommit(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    // Getters and Setters
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+}
@@ -0,0 +1,75 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One immutable posting to one account. Amounts are signed: credits are positive, debits
+// negative, so an account's balance is the sum of its events. Sequence numbers come one at a
+// time from ledger_events_seq and are only ever inserted, never updated or deleted.
+@Entity
+@Table(name = "ledger_events", indexes = {
+        @Index(name = "idx_ledger_events_account", columnList = "account_number, sequence_number")
+})
+public class LedgerEvent {
+    
+    public static final String OPENED = "OPENED";
+    public static final String CLOSED = "CLOSED";
+    public static final String DEPOSIT = "DEPOSIT";
+    public static final String WITHDRAWAL = "WITHDRAWAL";
+    public static final String TRANSFER_IN = "TRANSFER_IN";
+    public static final String TRANSFER_OUT = "TRANSFER_OUT";
+    public static final String INTEREST = "INTEREST";
+    public static final String FEE = "FEE";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_events_seq")
+    @SequenceGenerator(name = "ledger_events_seq", sequenceName = "ledger_events_seq", allocationSize = 1)
+    @Column(name = "sequence_number")
+    private Long sequenceNumber;
+    
+    @Column(name = "account_number", length = 20, nullable = false)
+    private String accountNumber;
+    
+    @Column(name = "event_type", length = 20, nullable = false)
+    private String eventType;
+    
+    @Column(name = "amount", precision = 12, scale = 2, nullable = false)
+    private BigDecimal amount;
+    
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+    
+    @Column(name = "transaction_id")
+    private Long transactionId;
+    
+    // Constructors
+    public LedgerEvent() {}
+    
+    public LedgerEvent(String accountNumber, String eventType, BigDecimal amount, LocalDateTime recordedAt, Long transactionId) {
+        this.accountNumber = accountNumber;
+        this.eventType = eventType;
+        this.amount = amount;
+        this.recordedAt = recordedAt;
+        this.transactionId = transactionId;
+    }
+    
+    // Getters and Setters
+    public Long getSequenceNumber() { return sequenceNumber; }
+    public void setSequenceNumber(Long sequenceNumber) { this.sequenceNumber = sequenceNumber; }
+    
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+    
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+}
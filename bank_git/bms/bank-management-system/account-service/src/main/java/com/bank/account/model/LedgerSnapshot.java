@@ -0,0 +1,71 @@
+package com.bank.account.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Compact copy of the ledger projection: every open account's balance after all events up to
+// position, except the sequence numbers still listed in pending (allocated but not committed
+// when the snapshot was folded). The payload is deflated (account number, minor units) pairs.
+@Entity
+@Table(name = "ledger_snapshots")
+public class LedgerSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_snapshots_seq")
+    @SequenceGenerator(name = "ledger_snapshots_seq", sequenceName = "ledger_snapshots_seq", allocationSize = 1)
+    private Long id;
+    
+    @Column(name = "position", nullable = false)
+    private long position;
+    
+    @Lob
+    @Column(name = "pending", nullable = false)
+    private String pending;
+    
+    @Column(name = "account_count", nullable = false)
+    private int accountCount;
+    
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+    
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public LedgerSnapshot() {}
+    
+    public LedgerSnapshot(long position, String pending, int accountCount, long eventCount, byte[] payload) {
+        this.position = position;
+        this.pending = pending;
+        this.accountCount = accountCount;
+        this.eventCount = eventCount;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+    
+    public String getPending() { return pending; }
+    public void setPending(String pending) { this.pending = pending; }
+    
+    public int getAccountCount() { return accountCount; }
+    public void setAccountCount(int accountCount) { this.accountCount = accountCount; }
+    
+    public long getEventCount() { return eventCount; }
+    public void setEventCount(long eventCount) { this.eventCount = eventCount; }
+    
+    public byte[] getPayload() { return payload; }
+    public void setPayload(byte[] payload) { this.payload = payload; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
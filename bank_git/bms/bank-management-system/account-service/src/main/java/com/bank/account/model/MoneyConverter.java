@@ -0,0 +1,24 @@
+package com.bank.account.model;
+
+import com.bank.common.money.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+
+// Money is immutable, so Hibernate can snapshot and compare values by reference and equals
+// instead of falling back to copying them through serialization.
+@Converter
+@Immutable
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+    
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+    
+    @Override
+    public Money convertToEntityAttribute(BigDecimal value) {
+        return Money.of(value);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bank.account.model;
 
 import com.bank.common.exception.InsufficientFundsException;
+import com.bank.common.money.Money;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
@@ -8,8 +9,9 @@ import java.math.BigDecimal;
 @DiscriminatorValue("SAVINGS")
 public class SavingsAccount extends BankAccount {
     
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "minimum_balance", precision = 12, scale = 2)
-    private BigDecimal minimumBalance = BigDecimal.valueOf(1000); // Default minimum balance
+    private Money minimumBalance = Money.ofMajor(1000); // Default minimum balance
     
     @Column(name = "interest_rate", precision = 5, scale = 2)
     private BigDecimal interestRate = BigDecimal.valueOf(3.5); // Default interest rate
@@ -24,25 +26,25 @@ public class SavingsAccount extends BankAccount {
     }
     
     @Override
-    public void deposit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void deposit(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        setBalance(getBalance().add(amount));
+        setBalanceMoney(getBalanceMoney().plus(amount));
     }
     
     @Override
-    public void withdraw(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void withdraw(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
         
-        BigDecimal newBalance = getBalance().subtract(amount);
-        if (newBalance.compareTo(minimumBalance) < 0) {
+        Money newBalance = getBalanceMoney().minus(amount);
+        if (newBalance.isLessThan(minimumBalance)) {
             throw new InsufficientFundsException("Insufficient funds. Minimum balance of " + minimumBalance + " must be maintained");
         }
         
-        setBalance(newBalance);
+        setBalanceMoney(newBalance);
     }
     
     @Override
@@ -51,8 +53,8 @@ public class SavingsAccount extends BankAccount {
     }
     
     // Getters and Setters
-    public BigDecimal getMinimumBalance() { return minimumBalance; }
-    public void setMinimumBalance(BigDecimal minimumBalance) { this.minimumBalance = minimumBalance; }
+    public BigDecimal getMinimumBalance() { return minimumBalance == null ? null : minimumBalance.toBigDecimal(); }
+    public void setMinimumBalance(BigDecimal minimumBalance) { this.minimumBalance = Money.of(minimumBalance); }
     
     public BigDecimal getInterestRate() { return interestRate; }
     public void setInterestRate(BigDecimal interestRate) { this.interestRate = interestRate; }
@@ -6,11 +6,16 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_source_time", columnList = "source_account, timestamp, id"),
+        @Index(name = "idx_transactions_destination_time", columnList = "destination_account, timestamp, id"),
+        @Index(name = "idx_transactions_timestamp", columnList = "timestamp, id")
+})
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Source account number is required")
@@ -0,0 +1,12 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, String> {
+    
+    List<ArchiveSegment> findByStatusOrderByCreatedAt(String status);
+}
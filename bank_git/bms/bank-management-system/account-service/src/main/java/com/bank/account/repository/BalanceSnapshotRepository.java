@@ -0,0 +1,22 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    
+    Optional<BalanceSnapshot> findTopByAccountNumberAndSnapshotDateLessThanOrderBySnapshotDateDesc(String accountNumber, LocalDate date);
+    
+    Optional<BalanceSnapshot> findTopByAccountNumberAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(String accountNumber, LocalDate date);
+    
+    @Query("SELECT MIN(s.snapshotDate) FROM BalanceSnapshot s")
+    Optional<LocalDate> findEarliestSnapshotDate();
+    
+    @Query("SELECT MAX(s.snapshotDate) FROM BalanceSnapshot s")
+    Optional<LocalDate> findLatestSnapshotDate();
+}
@@ -1,12 +1,19 @@
 package com.bank.account.repository;
 
 import com.bank.account.model.BankAccount;
+import com.bank.common.money.Money;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankAccount, String> {
     
     List<BankAccount> findByCustomerSsn(String customerSsn);
+    
+    @Query("SELECT a.balance FROM BankAccount a WHERE a.accountNumber = :accountNumber")
+    Optional<Money> findBalanceByAccountNumber(@Param("accountNumber") String accountNumber);
 }
@@ -0,0 +1,12 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.BatchJobChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface BatchJobChunkRepository extends JpaRepository<BatchJobChunk, Long> {
+    
+    List<BatchJobChunk> findByRunIdAndStatusOrderByChunkIndex(Long runId, String status);
+}
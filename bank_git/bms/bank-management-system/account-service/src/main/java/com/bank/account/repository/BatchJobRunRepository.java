@@ -0,0 +1,13 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.BatchJobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface BatchJobRunRepository extends JpaRepository<BatchJobRun, Long> {
+    
+    Optional<BatchJobRun> findByJobNameAndBusinessDate(String jobName, LocalDate businessDate);
+}
@@ -0,0 +1,25 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+    
+    Optional<LedgerSnapshot> findTopByOrderByIdDesc();
+    
+    @Query("SELECT s.id FROM LedgerSnapshot s ORDER BY s.id DESC")
+    List<Long> findIdsNewestFirst();
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LedgerSnapshot s WHERE s.id < :id")
+    int deleteOlderThan(@Param("id") Long id);
+}
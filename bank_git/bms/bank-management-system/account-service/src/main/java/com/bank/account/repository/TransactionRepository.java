@@ -1,14 +1,33 @@
 package com.bank.account.repository;
 
 import com.bank.account.model.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
-    List<Transaction> findBySourceAccountOrDestinationAccountOrderByTimestampDesc(String sourceAccount, String destinationAccount);
     List<Transaction> findBySourceAccountOrderByTimestampDesc(String sourceAccount);
     List<Transaction> findByDestinationAccountOrderByTimestampDesc(String destinationAccount);
+    
+    // Keyset pages, one per side of a transaction so each can be served from its own index
+    List<Transaction> findBySourceAccountOrderByTimestampDescIdDesc(String sourceAccount, Pageable pageable);
+    List<Transaction> findByDestinationAccountOrderByTimestampDescIdDesc(String destinationAccount, Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.sourceAccount = :account "
+            + "AND (t.timestamp < :timestamp OR (t.timestamp = :timestamp AND t.id < :id)) "
+            + "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findSourcePageBefore(@Param("account") String account, @Param("timestamp") LocalDateTime timestamp,
+                                           @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.destinationAccount = :account "
+            + "AND (t.timestamp < :timestamp OR (t.timestamp = :timestamp AND t.id < :id)) "
+            + "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findDestinationPageBefore(@Param("account") String account, @Param("timestamp") LocalDateTime timestamp,
+                                                @Param("id") Long id, Pageable pageable);
 }
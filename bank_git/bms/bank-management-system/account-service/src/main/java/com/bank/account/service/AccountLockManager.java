@@ -0,0 +1,135 @@
+package com.bank.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class AccountLockManager {
+
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final ConcurrentHashMap<String, LongAdder> contention = new ConcurrentHashMap<>();
+    private final LongAdder acquisitions = new LongAdder();
+
+    public AccountLockManager(@Value("${account.lock.enabled:true}") boolean enabled,
+                              @Value("${account.lock.stripes:256}") int stripeCount) {
+        this.enabled = enabled;
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Locks the given accounts until the current Spring transaction completes, so no other
+    // writer can read a balance that has been changed but not yet committed.
+    public void lockForTransaction(String... accountNumbers) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Account locks require an active transaction");
+        }
+        int[] order = acquire(accountNumbers);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(order);
+            }
+        });
+    }
+
+    public AccountLock lock(String... accountNumbers) {
+        if (!enabled) {
+            return () -> { };
+        }
+        int[] order = acquire(accountNumbers);
+        return () -> release(order);
+    }
+
+    public Map<String, Long> getContentionCounts(int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        contention.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    public long getContentionCount(String accountNumber) {
+        LongAdder counter = contention.get(accountNumber);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public long getAcquisitionCount() {
+        return acquisitions.sum();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    // Stripes are always taken in ascending stripe index. Sorting by account number alone is
+    // not enough: two accounts can hash to stripes in the opposite order and deadlock.
+    private int[] acquire(String... accountNumbers) {
+        int[] order = Arrays.stream(accountNumbers)
+                .filter(accountNumber -> accountNumber != null)
+                .mapToInt(this::stripeFor)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int stripe : order) {
+            ReentrantLock lock = stripes[stripe];
+            if (!lock.tryLock()) {
+                recordContention(stripe, accountNumbers);
+                lock.lock();
+            }
+        }
+        acquisitions.increment();
+        return order;
+    }
+
+    private void release(int[] order) {
+        for (int i = order.length - 1; i >= 0; i--) {
+            stripes[order[i]].unlock();
+        }
+    }
+
+    private void recordContention(int stripe, String... accountNumbers) {
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber != null && stripeFor(accountNumber) == stripe) {
+                contention.computeIfAbsent(accountNumber, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    private int stripeFor(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    public interface AccountLock extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -1,16 +1,33 @@
 package com.bank.account.service;
 
+import com.bank.account.archive.TransactionArchive;
+import com.bank.account.dto.TransactionCursor;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.ledger.EventLedger;
 import com.bank.account.model.*;
 import com.bank.account.repository.BankAccountRepository;
 import com.bank.account.repository.TransactionRepository;
 import com.bank.common.exception.AccountNotFoundException;
 import com.bank.common.exception.InsufficientFundsException;
+import com.bank.common.metrics.OperationMetrics;
+import com.bank.common.money.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -22,6 +39,45 @@ public class AccountService {
     @Autowired
     private TransactionRepository transactionRepository;
     
+    @Autowired
+    private AccountLockManager lockManager;
+    
+    @Autowired
+    private OptimisticRetryPolicy retryPolicy;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+    
+    @Autowired
+    private BalanceCache balanceCache;
+    
+    @Autowired
+    private HotAccountLedger hotAccountLedger;
+    
+    @Autowired
+    private OperationMetrics operationMetrics;
+    
+    @Autowired
+    private EventLedger eventLedger;
+    
+    @Autowired
+    private TransactionArchive transactionArchive;
+    
+    @Autowired
+    private AccountTotals accountTotals;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Value("${account.history.default-page-size:50}")
+    private int defaultHistoryPageSize;
+    
+    @Value("${account.history.max-page-size:500}")
+    private int maxHistoryPageSize;
+    
     public BankAccount createAccount(String accountType, String accountNumber, String accountHolderName, 
                                    BigDecimal initialBalance, String customerSsn) {
         BankAccount account;
@@ -34,7 +90,10 @@ public class AccountService {
             throw new IllegalArgumentException("Invalid account type: " + accountType);
         }
         
-        return accountRepository.save(account);
+        BankAccount saved = accountRepository.save(account);
+        eventLedger.opened(saved.getAccountNumber(), saved.getBalance());
+        accountTotals.opened(saved);
+        return saved;
     }
     
     public Optional<BankAccount> getAccountByNumber(String accountNumber) {
@@ -45,40 +104,112 @@ public class AccountService {
         return accountRepository.findAll();
     }
     
+    public Map<String, Object> getAggregates() {
+        return accountTotals.getAggregates();
+    }
+    
     public List<BankAccount> getAccountsByCustomerSsn(String customerSsn) {
         return accountRepository.findByCustomerSsn(customerSsn);
     }
     
+    // Cache hits are answered without opening a transaction or touching the database.
+    // Hot accounts change with every credit and are always read with their sub-ledgers.
+    // In ledger mode the event projection answers instead, hot accounts included.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public BigDecimal getBalance(String accountNumber) {
-        BankAccount account = accountRepository.findById(accountNumber)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
-        return account.getBalance();
+        BigDecimal projected = eventLedger.getBalance(accountNumber);
+        if (projected != null) {
+            return projected;
+        }
+        if (hotAccountLedger.isHot(accountNumber)) {
+            return hotAccountLedger.getBalance(accountNumber);
+        }
+        return balanceCache.getOrLoad(accountNumber, number -> accountRepository.findBalanceByAccountNumber(number)
+                .map(Money::toBigDecimal)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + number)));
+    }
+    
+    public void setHotAccount(String accountNumber, boolean hot) {
+        if (hot) {
+            hotAccountLedger.enable(accountNumber);
+        } else {
+            hotAccountLedger.disable(accountNumber);
+        }
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Transaction transferFunds(String sourceAccountNumber, String destinationAccountNumber, BigDecimal amount) {
+        return operationMetrics.record("transfer", () -> {
+            Money money = Money.ofExact(amount);
+            return withRetry("transfer", () -> doTransferFunds(sourceAccountNumber, destinationAccountNumber, money));
+        });
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Transaction deposit(String accountNumber, BigDecimal amount) {
+        return operationMetrics.record("deposit", () -> {
+            Money money = Money.ofExact(amount);
+            return withRetry("deposit", () -> doDeposit(accountNumber, money));
+        });
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Transaction withdraw(String accountNumber, BigDecimal amount) {
+        return operationMetrics.record("withdraw", () -> {
+            Money money = Money.ofExact(amount);
+            return withRetry("withdraw", () -> doWithdraw(accountNumber, money));
+        });
+    }
+    
+    // Each attempt runs in its own transaction so a version conflict detected at commit
+    // can be retried from a fresh read of the account rows. A keyed request claims its
+    // Idempotency-Key in the same transaction.
+    private Transaction withRetry(String operation, Supplier<Transaction> work) {
+        return retryPolicy.execute(operation, () -> transactionTemplate.execute(status -> idempotencyService.claimInTransaction(work)));
+    }
+    
+    private Transaction doTransferFunds(String sourceAccountNumber, String destinationAccountNumber, Money amount) {
         // Create transaction record
-        Transaction transaction = new Transaction(sourceAccountNumber, destinationAccountNumber, amount, "TRANSFER");
+        Transaction transaction = new Transaction(sourceAccountNumber, destinationAccountNumber, amount.toBigDecimal(), "TRANSFER");
         
         try {
+            // A hot destination is credited through its sub-ledger and is not locked
+            boolean hotDestination = hotAccountLedger.isHot(destinationAccountNumber)
+                    && !destinationAccountNumber.equals(sourceAccountNumber);
+            if (hotDestination) {
+                lockManager.lockForTransaction(sourceAccountNumber);
+            } else {
+                lockManager.lockForTransaction(sourceAccountNumber, destinationAccountNumber);
+            }
+            hotAccountLedger.fold(sourceAccountNumber);
+            
             // Get source and destination accounts
             BankAccount sourceAccount = accountRepository.findById(sourceAccountNumber)
                     .orElseThrow(() -> new AccountNotFoundException("Source account not found: " + sourceAccountNumber));
             
-            BankAccount destinationAccount = accountRepository.findById(destinationAccountNumber)
+            BankAccount destinationAccount = hotDestination ? null : accountRepository.findById(destinationAccountNumber)
                     .orElseThrow(() -> new AccountNotFoundException("Destination account not found: " + destinationAccountNumber));
             
             // Validate amount
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            if (!amount.isPositive()) {
                 throw new IllegalArgumentException("Transfer amount must be positive");
             }
             
             // Perform transfer
             sourceAccount.withdraw(amount);
-            destinationAccount.deposit(amount);
+            if (hotDestination) {
+                hotAccountLedger.credit(destinationAccountNumber, amount);
+            } else {
+                destinationAccount.deposit(amount);
+            }
             
             // Save updated accounts
             accountRepository.save(sourceAccount);
-            accountRepository.save(destinationAccount);
+            balanceCache.writeThrough(sourceAccountNumber, sourceAccount.getBalance());
+            if (!hotDestination) {
+                accountRepository.save(destinationAccount);
+                balanceCache.writeThrough(destinationAccountNumber, destinationAccount.getBalance());
+            }
             
             // Update transaction status
             transaction.setStatus("SUCCESS");
@@ -89,21 +220,30 @@ public class AccountService {
             transaction.setDescription("Fund transfer failed: " + e.getMessage());
             throw e;
         } finally {
-            transactionRepository.save(transaction);
+            transactionRecorder.record(transaction);
         }
         
         return transaction;
     }
     
-    public Transaction deposit(String accountNumber, BigDecimal amount) {
-        Transaction transaction = new Transaction(accountNumber, accountNumber, amount, "DEPOSIT");
+    private Transaction doDeposit(String accountNumber, Money amount) {
+        Transaction transaction = new Transaction(accountNumber, accountNumber, amount.toBigDecimal(), "DEPOSIT");
         
         try {
-            BankAccount account = accountRepository.findById(accountNumber)
-                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
-            
-            account.deposit(amount);
-            accountRepository.save(account);
+            if (hotAccountLedger.isHot(accountNumber)) {
+                if (!amount.isPositive()) {
+                    throw new IllegalArgumentException("Deposit amount must be positive");
+                }
+                hotAccountLedger.credit(accountNumber, amount);
+            } else {
+                lockManager.lockForTransaction(accountNumber);
+                BankAccount account = accountRepository.findById(accountNumber)
+                        .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+                
+                account.deposit(amount);
+                accountRepository.save(account);
+                balanceCache.writeThrough(accountNumber, account.getBalance());
+            }
             
             transaction.setStatus("SUCCESS");
             transaction.setDescription("Deposit successful");
@@ -113,21 +253,24 @@ public class AccountService {
             transaction.setDescription("Deposit failed: " + e.getMessage());
             throw e;
         } finally {
-            transactionRepository.save(transaction);
+            transactionRecorder.record(transaction);
         }
         
         return transaction;
     }
     
-    public Transaction withdraw(String accountNumber, BigDecimal amount) {
-        Transaction transaction = new Transaction(accountNumber, accountNumber, amount, "WITHDRAWAL");
+    private Transaction doWithdraw(String accountNumber, Money amount) {
+        Transaction transaction = new Transaction(accountNumber, accountNumber, amount.toBigDecimal(), "WITHDRAWAL");
         
         try {
+            lockManager.lockForTransaction(accountNumber);
+            hotAccountLedger.fold(accountNumber);
             BankAccount account = accountRepository.findById(accountNumber)
                     .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
             
             account.withdraw(amount);
             accountRepository.save(account);
+            balanceCache.writeThrough(accountNumber, account.getBalance());
             
             transaction.setStatus("SUCCESS");
             transaction.setDescription("Withdrawal successful");
@@ -137,20 +280,109 @@ public class AccountService {
             transaction.setDescription("Withdrawal failed: " + e.getMessage());
             throw e;
         } finally {
-            transactionRepository.save(transaction);
+            transactionRecorder.record(transaction);
         }
         
         return transaction;
     }
     
+    // Read in the archive's transaction rather than the class-level one, so the table and the
+    // archive are seen as of the same moment.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Transaction> getTransactionHistory(String accountNumber) {
-        return transactionRepository.findBySourceAccountOrDestinationAccountOrderByTimestampDesc(accountNumber, accountNumber);
+        Map<Long, Transaction> history = new LinkedHashMap<>();
+        transactionArchive.inTransaction(archive -> {
+            transactionRepository.findBySourceAccountOrderByTimestampDesc(accountNumber).forEach(t -> history.put(t.getId(), t));
+            transactionRepository.findByDestinationAccountOrderByTimestampDesc(accountNumber).forEach(t -> history.putIfAbsent(t.getId(), t));
+            archive.findByAccount(accountNumber).forEach(t -> history.putIfAbsent(t.getId(), t));
+            return null;
+        });
+        List<Transaction> transactions = new ArrayList<>(history.values());
+        transactions.sort(Comparator.comparing(Transaction::getTimestamp).reversed());
+        return transactions;
+    }
+    
+    // The source and destination sides are read separately, newest first, each bounded by the
+    // page size, and merged here. Deposits and withdrawals appear on both sides and are kept once.
+    // Archived rows are added to the side they belong to before the merge. Both sides and the
+    // archive are read in one transaction, which sees the two tiers as of the same moment.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransactionPage getTransactionHistoryPage(String accountNumber, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultHistoryPageSize : limit;
+        if (pageSize <= 0 || pageSize > maxHistoryPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxHistoryPageSize);
+        }
+        
+        Comparator<Transaction> newestFirst = Comparator.comparing(Transaction::getTimestamp)
+                .thenComparing(Transaction::getId).reversed();
+        TransactionCursor position = cursor == null ? null : TransactionCursor.decode(cursor);
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+        List<List<Transaction>> sides = transactionArchive.inTransaction(archive -> {
+            List<Transaction> outgoing;
+            List<Transaction> incoming;
+            if (position == null) {
+                outgoing = transactionRepository.findBySourceAccountOrderByTimestampDescIdDesc(accountNumber, fetch);
+                incoming = transactionRepository.findByDestinationAccountOrderByTimestampDescIdDesc(accountNumber, fetch);
+            } else {
+                outgoing = transactionRepository.findSourcePageBefore(accountNumber, position.getTimestamp(), position.getId(), fetch);
+                incoming = transactionRepository.findDestinationPageBefore(accountNumber, position.getTimestamp(), position.getId(), fetch);
+            }
+            if (!archive.isEmpty()) {
+                List<Transaction> archived = position == null
+                        ? archive.findPageBefore(accountNumber, null, null, pageSize + 1)
+                        : archive.findPageBefore(accountNumber, position.getTimestamp(), position.getId(), pageSize + 1);
+                outgoing = withArchived(outgoing, archived, t -> accountNumber.equals(t.getSourceAccount()), newestFirst, pageSize + 1);
+                incoming = withArchived(incoming, archived, t -> accountNumber.equals(t.getDestinationAccount()), newestFirst, pageSize + 1);
+            }
+            return List.of(outgoing, incoming);
+        });
+        List<Transaction> outgoing = sides.get(0);
+        List<Transaction> incoming = sides.get(1);
+        
+        List<Transaction> page = new ArrayList<>(pageSize);
+        int i = 0;
+        int j = 0;
+        boolean hasMore = false;
+        while (i < outgoing.size() || j < incoming.size()) {
+            Transaction next;
+            if (j >= incoming.size()) {
+                next = outgoing.get(i++);
+            } else if (i >= outgoing.size()) {
+                next = incoming.get(j++);
+            } else {
+                int order = newestFirst.compare(outgoing.get(i), incoming.get(j));
+                next = order <= 0 ? outgoing.get(i++) : incoming.get(j++);
+                if (order == 0) {
+                    j++;
+                }
+            }
+            if (page.size() == pageSize) {
+                hasMore = true;
+                break;
+            }
+            page.add(next);
+        }
+        
+        String nextCursor = hasMore ? TransactionCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new TransactionPage(page, nextCursor);
+    }
+    
+    private static List<Transaction> withArchived(List<Transaction> live, List<Transaction> archived,
+            Predicate<Transaction> side, Comparator<Transaction> order, int limit) {
+        List<Transaction> merged = new ArrayList<>(live);
+        archived.stream().filter(side).forEach(merged::add);
+        merged.sort(order);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
     }
     
     public void deleteAccount(String accountNumber) {
         if (!accountRepository.existsById(accountNumber)) {
             throw new AccountNotFoundException("Account not found: " + accountNumber);
         }
+        eventLedger.closed(accountNumber);
+        accountTotals.closed(accountNumber);
+        hotAccountLedger.remove(accountNumber);
         accountRepository.deleteById(accountNumber);
+        balanceCache.invalidate(accountNumber);
     }
 }
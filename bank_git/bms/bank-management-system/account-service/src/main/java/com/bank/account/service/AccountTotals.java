@@ -0,0 +1,136 @@
+package com.bank.account.service;
+
+import com.bank.account.model.BankAccount;
+import com.bank.account.model.Transaction;
+import com.bank.common.aggregate.GroupedTotals;
+import com.bank.common.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Account count and balance totals by account type for the manager dashboard. Openings and
+// closings adjust the count, and every successful posting recorded through TransactionRecorder
+// (or committed by the reactive edition) adjusts the balance of the types it touches, looked
+// up in an in-memory account-number -> type map. Everything is recomputed from the table on
+// startup and every recompute interval, which also picks up balance changes made outside
+// these paths.
+@Component
+public class AccountTotals implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountTotals.class);
+
+    private static final String RECOMPUTE_SQL = "SELECT account_number, account_type, "
+            + HotAccountLedger.COMBINED_BALANCE_SQL + " FROM bank_accounts";
+
+    private static final String CLOSING_SQL = "SELECT account_type, " + HotAccountLedger.COMBINED_BALANCE_SQL
+            + " FROM bank_accounts WHERE account_number = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${account.aggregates.fetch-size:1000}")
+    private int fetchSize;
+
+    private final GroupedTotals totals = new GroupedTotals();
+    private final Map<String, String> accountTypes = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recompute();
+    }
+
+    // Types are only added here; closings remove them, so an account opened while the scan
+    // runs keeps its entry.
+    @Scheduled(fixedDelayString = "${account.aggregates.recompute-interval-ms:300000}",
+            initialDelayString = "${account.aggregates.recompute-interval-ms:300000}")
+    public void recompute() {
+        long started = System.nanoTime();
+        Map<String, long[]> recomputed = new HashMap<>();
+        Map<String, String> types = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(RECOMPUTE_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            String type = rs.getString(2);
+            long[] group = recomputed.computeIfAbsent(type, k -> new long[2]);
+            group[0]++;
+            group[1] += Money.of(rs.getBigDecimal(3)).getMinorUnits();
+            types.put(rs.getString(1), type);
+        });
+        accountTypes.putAll(types);
+        totals.replaceAll(recomputed);
+        log.debug("Recomputed account totals over {} accounts in {} ms", types.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public Map<String, Object> getAggregates() {
+        return totals.toMap("totalBalance", "countsByAccountType", "balanceByAccountType");
+    }
+
+    public void opened(BankAccount account) {
+        String accountNumber = account.getAccountNumber();
+        String type = account.getAccountType();
+        long balance = Money.of(account.getBalance()).getMinorUnits();
+        GroupedTotals.afterCommit(() -> {
+            accountTypes.put(accountNumber, type);
+            totals.add(type, balance);
+        });
+    }
+
+    // Called before the row is deleted, inside the deleting transaction.
+    public void closed(String accountNumber) {
+        jdbcTemplate.query(CLOSING_SQL, rs -> {
+            String type = rs.getString(1);
+            long balance = Money.of(rs.getBigDecimal(2)).getMinorUnits();
+            GroupedTotals.afterCommit(() -> {
+                accountTypes.remove(accountNumber);
+                totals.remove(type, balance);
+            });
+        }, accountNumber);
+    }
+
+    public void posted(Collection<Transaction> transactions) {
+        List<Transaction> successful = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            if ("SUCCESS".equals(transaction.getStatus())) {
+                successful.add(transaction);
+            }
+        }
+        if (!successful.isEmpty()) {
+            GroupedTotals.afterCommit(() -> successful.forEach(this::apply));
+        }
+    }
+
+    // An account missing from the type map (opened by another instance) is left to the next
+    // recompute.
+    private void apply(Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        if (TransactionEffects.creditsDestination(transaction.getTransactionType())) {
+            String type = accountTypes.get(transaction.getDestinationAccount());
+            if (type != null) {
+                totals.adjust(type, Money.of(amount).getMinorUnits());
+            }
+        }
+        if (TransactionEffects.debitsSource(transaction.getTransactionType())) {
+            String type = accountTypes.get(transaction.getSourceAccount());
+            if (type != null) {
+                totals.adjust(type, -Money.of(amount).getMinorUnits());
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.bank.account.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Bounded cache of account balances with a time-to-live, backed by Caffeine so that hits take no
+// lock. Writers invalidate an account as soon as they change it and publish the new balance once
+// their transaction commits.
+//
+// Every invalidation bumps a generation counter for the account's stripe. A value may only be
+// stored if the stripe's generation is unchanged since the value was read, which keeps a slow
+// reader or an out-of-order commit from putting an older balance back into the cache. The check
+// and the store run in one compute on the account's key, and invalidation removes the key after
+// bumping the generation, so the two cannot interleave.
+@Component
+public class BalanceCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final Cache<String, BigDecimal> cache;
+    private final ConcurrentMap<String, BigDecimal> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BalanceCache(@Value("${account.balance-cache.enabled:true}") boolean enabled,
+                        @Value("${account.balance-cache.max-size:100000}") int maxSize,
+                        @Value("${account.balance-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((String accountNumber, BigDecimal balance, RemovalCause cause) -> {
+                    if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    } else if (cause == RemovalCause.SIZE) {
+                        sizeEvictions.increment();
+                    }
+                })
+                .build();
+        this.entries = cache.asMap();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The loader runs outside any cache lock and should throw if the account does not exist.
+    public BigDecimal getOrLoad(String accountNumber, Function<String, BigDecimal> loader) {
+        if (!enabled) {
+            return loader.apply(accountNumber);
+        }
+        BigDecimal cached = cache.getIfPresent(accountNumber);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long generation = generations.get(stripe(accountNumber));
+        BigDecimal balance = loader.apply(accountNumber);
+        putIfCurrent(accountNumber, balance, generation);
+        return balance;
+    }
+
+    // Call from inside the writing transaction, after the balance has been changed.
+    public void writeThrough(String accountNumber, BigDecimal balance) {
+        if (!enabled) {
+            return;
+        }
+        long generation = invalidateEntry(accountNumber);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putIfCurrent(accountNumber, balance, generation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putIfCurrent(accountNumber, balance, generation);
+            }
+        });
+    }
+
+    public void invalidate(String accountNumber) {
+        if (enabled) {
+            invalidateEntry(accountNumber);
+        }
+    }
+
+    // For writers that change balances without knowing the resulting values.
+    public void invalidateOnCommit(Collection<String> accountNumbers) {
+        if (!enabled) {
+            return;
+        }
+        accountNumbers.forEach(this::invalidateEntry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accountNumbers.forEach(BalanceCache.this::invalidateEntry);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+        invalidations.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("enabled", enabled);
+        stats.put("size", cache.estimatedSize());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("sizeEvictions", sizeEvictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    // Runs pending expirations and size evictions now instead of on a later cache operation.
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private long invalidateEntry(String accountNumber) {
+        long generation = generations.incrementAndGet(stripe(accountNumber));
+        entries.remove(accountNumber);
+        invalidations.increment();
+        return generation;
+    }
+
+    private void putIfCurrent(String accountNumber, BigDecimal balance, long generation) {
+        if (generations.get(stripe(accountNumber)) != generation) {
+            return;
+        }
+        entries.compute(accountNumber, (key, current) ->
+                generations.get(stripe(accountNumber)) == generation ? balance : current);
+    }
+
+    private static int stripe(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+}
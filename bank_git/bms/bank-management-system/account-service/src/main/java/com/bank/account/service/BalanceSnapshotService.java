@@ -0,0 +1,250 @@
+package com.bank.account.service;
+
+import com.bank.account.archive.ArchiveView;
+import com.bank.account.archive.TransactionArchive;
+import com.bank.account.journal.JournalProjector;
+import com.bank.account.model.BalanceSnapshot;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.BalanceSnapshotRepository;
+import com.bank.common.exception.AccountNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// End-of-day balance snapshots. Each day's snapshot is the previous day's snapshot plus that
+// day's transactions; an account without a previous snapshot gets its first one by walking back
+// from its current balance. Snapshots reach back to the day of the earliest transaction, so a
+// historical balance is the nearest earlier snapshot plus the transactions between it and the
+// requested time, or for the first day the next snapshot minus them: either way at most one
+// day of transactions. Net changes include archived transactions, read in the archive's
+// snapshot transaction together with the table.
+@Service
+public class BalanceSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotService.class);
+
+    private static final String CREDITS_BY_ACCOUNT_SQL =
+            "SELECT destination_account, SUM(amount) FROM transactions WHERE status = 'SUCCESS' "
+                    + "AND transaction_type IN " + TransactionEffects.CREDIT_TYPES_SQL
+                    + " AND timestamp >= ? AND timestamp < ? GROUP BY destination_account";
+
+    private static final String DEBITS_BY_ACCOUNT_SQL =
+            "SELECT source_account, SUM(amount) FROM transactions WHERE status = 'SUCCESS' "
+                    + "AND transaction_type IN " + TransactionEffects.DEBIT_TYPES_SQL
+                    + " AND timestamp >= ? AND timestamp < ? GROUP BY source_account";
+
+    private static final String ACCOUNT_CREDITS_SQL =
+            "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE destination_account = ? "
+                    + "AND timestamp >= ? AND timestamp < ? AND status = 'SUCCESS' "
+                    + "AND transaction_type IN " + TransactionEffects.CREDIT_TYPES_SQL;
+
+    private static final String ACCOUNT_DEBITS_SQL =
+            "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE source_account = ? "
+                    + "AND timestamp >= ? AND timestamp < ? AND status = 'SUCCESS' "
+                    + "AND transaction_type IN " + TransactionEffects.DEBIT_TYPES_SQL;
+
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO balance_snapshots (id, account_number, snapshot_date, balance, created_at) "
+                    + "VALUES (NEXT VALUE FOR balance_snapshots_seq, ?, ?, ?, ?)";
+
+    // Upper bound for "everything after" windows.
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private BalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JournalProjector journalProjector;
+
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionArchive transactionArchive;
+
+    @Value("${account.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${account.snapshot.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    // Snapshots every completed day that does not have one yet, oldest first. The first run,
+    // and any run that finds transactions older than the first snapshot, backfills from the day
+    // of the earliest transaction.
+    @Scheduled(cron = "${account.snapshot.cron:0 5 0 * * *}")
+    public void snapshotPendingDays() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate earliest = findEarliestTransactionDay().orElse(yesterday);
+        Optional<LocalDate> first = snapshotRepository.findEarliestSnapshotDate();
+        if (first.isPresent() && earliest.isBefore(first.get())) {
+            snapshotDays(earliest, first.get().minusDays(1));
+        }
+        snapshotDays(snapshotRepository.findLatestSnapshotDate().map(d -> d.plusDays(1)).orElse(earliest), yesterday);
+    }
+
+    private void snapshotDays(LocalDate from, LocalDate to) {
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long started = System.nanoTime();
+            int written = snapshotDay(day);
+            log.info("Wrote {} balance snapshots for {} in {} ms", written, day, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    public int snapshotDay(LocalDate day) {
+        drainJournal();
+        Integer written = transactionArchive.inTransaction(archive -> writeSnapshots(day, archive));
+        return written == null ? 0 : written;
+    }
+
+    public BigDecimal getBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        Map<String, Object> account = jdbcTemplate.queryForList(
+                "SELECT " + HotAccountLedger.COMBINED_BALANCE_SQL + " AS balance, opened_at FROM bank_accounts WHERE account_number = ?",
+                accountNumber)
+                .stream().findFirst()
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+        Timestamp openedAt = (Timestamp) account.get("opened_at");
+        if (openedAt != null && asOf.isBefore(openedAt.toLocalDateTime())) {
+            throw new IllegalArgumentException("Account " + accountNumber + " was opened after " + asOf);
+        }
+
+        Optional<BalanceSnapshot> snapshot = snapshotRepository
+                .findTopByAccountNumberAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountNumber, asOf.toLocalDate());
+        if (snapshot.isPresent()) {
+            LocalDateTime replayFrom = snapshot.get().getSnapshotDate().plusDays(1).atStartOfDay();
+            return snapshot.get().getBalance().add(transactionArchive.read(archive -> netChange(archive, accountNumber, replayFrom, asOf)));
+        }
+
+        // The requested day comes before the account's first snapshot: step back from that one
+        Optional<BalanceSnapshot> next = snapshotRepository
+                .findTopByAccountNumberAndSnapshotDateGreaterThanEqualOrderBySnapshotDateAsc(accountNumber, asOf.toLocalDate());
+        if (next.isPresent()) {
+            LocalDateTime closedAt = next.get().getSnapshotDate().plusDays(1).atStartOfDay();
+            return next.get().getBalance().subtract(transactionArchive.read(archive -> netChange(archive, accountNumber, asOf, closedAt)));
+        }
+
+        // No snapshot of the account yet: walk back from the current balance.
+        BigDecimal current = (BigDecimal) account.get("balance");
+        return current.subtract(transactionArchive.read(archive -> netChange(archive, accountNumber, asOf, END_OF_TIME)));
+    }
+
+    private int writeSnapshots(LocalDate day, ArchiveView archive) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+
+        Map<String, BigDecimal> previous = new HashMap<>();
+        jdbcTemplate.query("SELECT account_number, balance FROM balance_snapshots WHERE snapshot_date = ?",
+                rs -> { previous.put(rs.getString(1), rs.getBigDecimal(2)); }, Date.valueOf(day.minusDays(1)));
+        Map<String, BigDecimal> dayNet = netChangeByAccount(archive, dayStart, dayEnd);
+        Map<String, BigDecimal> laterNet = null;
+
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map<String, Object>> accounts = jdbcTemplate.queryForList(
+                "SELECT account_number, " + HotAccountLedger.COMBINED_BALANCE_SQL + " AS balance FROM bank_accounts "
+                        + "WHERE opened_at IS NULL OR opened_at < ?",
+                Timestamp.valueOf(dayEnd));
+        for (Map<String, Object> account : accounts) {
+            String accountNumber = (String) account.get("account_number");
+            BigDecimal closing;
+            BigDecimal before = previous.get(accountNumber);
+            if (before != null) {
+                closing = before.add(dayNet.getOrDefault(accountNumber, BigDecimal.ZERO));
+            } else {
+                if (laterNet == null) {
+                    laterNet = netChangeByAccount(archive, dayEnd, END_OF_TIME);
+                }
+                closing = ((BigDecimal) account.get("balance")).subtract(laterNet.getOrDefault(accountNumber, BigDecimal.ZERO));
+            }
+            rows.add(new Object[] {accountNumber, Date.valueOf(day), closing, now});
+        }
+
+        jdbcTemplate.update("DELETE FROM balance_snapshots WHERE snapshot_date = ?", Date.valueOf(day));
+        for (int from = 0; from < rows.size(); from += jdbcBatchSize) {
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, rows.subList(from, Math.min(rows.size(), from + jdbcBatchSize)));
+        }
+        return rows.size();
+    }
+
+    private Optional<LocalDate> findEarliestTransactionDay() {
+        return Optional.ofNullable(transactionArchive.read(archive -> {
+            Timestamp table = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM transactions", Timestamp.class);
+            LocalDateTime earliest = table == null ? null : table.toLocalDateTime();
+            LocalDateTime archived = archive.getMinTimestamp();
+            if (archived != null && (earliest == null || archived.isBefore(earliest))) {
+                earliest = archived;
+            }
+            return earliest == null ? null : earliest.toLocalDate();
+        }));
+    }
+
+    private Map<String, BigDecimal> netChangeByAccount(ArchiveView archive, LocalDateTime from, LocalDateTime to) {
+        Map<String, BigDecimal> net = new HashMap<>();
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        jdbcTemplate.query(CREDITS_BY_ACCOUNT_SQL,
+                rs -> { net.merge(rs.getString(1), rs.getBigDecimal(2), BigDecimal::add); }, start, end);
+        jdbcTemplate.query(DEBITS_BY_ACCOUNT_SQL,
+                rs -> { net.merge(rs.getString(1), rs.getBigDecimal(2).negate(), BigDecimal::add); }, start, end);
+        archive.scan(null, from, to, t -> addEffect(net, t));
+        return net;
+    }
+
+    private BigDecimal netChange(ArchiveView archive, String accountNumber, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return BigDecimal.ZERO;
+        }
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        Map<String, BigDecimal> archived = new HashMap<>();
+        BigDecimal credits = jdbcTemplate.queryForObject(ACCOUNT_CREDITS_SQL, BigDecimal.class, accountNumber, start, end);
+        BigDecimal debits = jdbcTemplate.queryForObject(ACCOUNT_DEBITS_SQL, BigDecimal.class, accountNumber, start, end);
+        archive.scan(accountNumber, from, to, t -> addEffect(archived, t));
+        return credits.subtract(debits).add(archived.getOrDefault(accountNumber, BigDecimal.ZERO));
+    }
+
+    private static void addEffect(Map<String, BigDecimal> net, Transaction transaction) {
+        if (!"SUCCESS".equals(transaction.getStatus())) {
+            return;
+        }
+        if (TransactionEffects.creditsDestination(transaction.getTransactionType())) {
+            net.merge(transaction.getDestinationAccount(), transaction.getAmount(), BigDecimal::add);
+        }
+        if (TransactionEffects.debitsSource(transaction.getTransactionType())) {
+            net.merge(transaction.getSourceAccount(), transaction.getAmount().negate(), BigDecimal::add);
+        }
+    }
+
+    // Walking back from current balances needs every committed transaction in the table.
+    private void drainJournal() {
+        if (!transactionRecorder.isJournaling()) {
+            return;
+        }
+        try {
+            journalProjector.drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.dto.TransferResult;
+import com.bank.account.model.BankAccount;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.BankAccountRepository;
+import com.bank.common.exception.AccountNotFoundException;
+import com.bank.common.exception.InsufficientFundsException;
+import com.bank.common.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Service
+public class BatchTransferService {
+
+    private static final String UPDATE_BALANCE_SQL =
+            "UPDATE bank_accounts SET balance = ?, version = version + 1 WHERE account_number = ? AND version = ?";
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountLockManager lockManager;
+
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+
+    @Autowired
+    private OptimisticRetryPolicy retryPolicy;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private HotAccountLedger hotAccountLedger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${account.batch.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    @Value("${account.batch.max-transfers:50000}")
+    private int maxTransfers;
+
+    public List<TransferResult> transferAll(List<TransferRequest> transfers) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transfer");
+        }
+        if (transfers.size() > maxTransfers) {
+            throw new IllegalArgumentException("Batch exceeds the maximum of " + maxTransfers + " transfers");
+        }
+        return retryPolicy.execute("batch-transfer",
+                () -> transactionTemplate.execute(status -> applyBatch(transfers)));
+    }
+
+    private List<TransferResult> applyBatch(List<TransferRequest> transfers) {
+        TreeSet<String> accountNumbers = new TreeSet<>();
+        for (TransferRequest transfer : transfers) {
+            if (transfer.getSourceAccount() != null) {
+                accountNumbers.add(transfer.getSourceAccount());
+            }
+            if (transfer.getDestinationAccount() != null) {
+                accountNumbers.add(transfer.getDestinationAccount());
+            }
+        }
+        lockManager.lockForTransaction(accountNumbers.toArray(new String[0]));
+        hotAccountLedger.foldAll(accountNumbers);
+
+        Map<String, BankAccount> accounts = loadAccounts(accountNumbers);
+        Map<String, BankAccount> touched = new LinkedHashMap<>();
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        List<Transaction> records = new ArrayList<>(transfers.size());
+        List<TransferResult> recordedResults = new ArrayList<>(transfers.size());
+
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            Transaction transaction = new Transaction(transfer.getSourceAccount(), transfer.getDestinationAccount(),
+                    transfer.getAmount(), "TRANSFER");
+            TransferResult result;
+
+            try {
+                BankAccount source = requireAccount(accounts, transfer.getSourceAccount(), "Source");
+                BankAccount destination = requireAccount(accounts, transfer.getDestinationAccount(), "Destination");
+
+                Money amount = Money.ofExact(transfer.getAmount());
+                if (amount == null || !amount.isPositive()) {
+                    throw new IllegalArgumentException("Transfer amount must be positive");
+                }
+                transaction.setAmount(amount.toBigDecimal());
+
+                source.withdraw(amount);
+                destination.deposit(amount);
+                touched.put(source.getAccountNumber(), source);
+                touched.put(destination.getAccountNumber(), destination);
+
+                transaction.setStatus("SUCCESS");
+                transaction.setDescription("Fund transfer successful");
+                result = new TransferResult(i, TransferResult.SUCCESS, null);
+            } catch (InsufficientFundsException e) {
+                transaction.setStatus("FAILED");
+                transaction.setDescription("Fund transfer failed: " + e.getMessage());
+                result = new TransferResult(i, TransferResult.INSUFFICIENT_FUNDS, e.getMessage());
+            } catch (RuntimeException e) {
+                transaction.setStatus("FAILED");
+                transaction.setDescription("Fund transfer failed: " + e.getMessage());
+                result = new TransferResult(i, TransferResult.FAILED, e.getMessage());
+            }
+
+            results.add(result);
+            if (transaction.getSourceAccount() != null && transaction.getDestinationAccount() != null
+                    && transaction.getAmount() != null) {
+                records.add(transaction);
+                recordedResults.add(result);
+            }
+        }
+
+        writeBalances(touched.values());
+        touched.values().forEach(a -> balanceCache.writeThrough(a.getAccountNumber(), a.getBalance()));
+        transactionRecorder.recordAll(records);
+        for (int i = 0; i < records.size(); i++) {
+            recordedResults.get(i).setTransactionId(records.get(i).getId());
+        }
+        return results;
+    }
+
+    // Accounts are detached right after loading: balances are written back with JDBC batches
+    // below, so Hibernate must not flush the same changes a second time at commit.
+    private Map<String, BankAccount> loadAccounts(TreeSet<String> accountNumbers) {
+        Map<String, BankAccount> accounts = new HashMap<>(accountNumbers.size() * 2);
+        List<String> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+        for (String accountNumber : accountNumbers) {
+            chunk.add(accountNumber);
+            if (chunk.size() == LOAD_CHUNK_SIZE) {
+                accountRepository.findAllById(chunk).forEach(a -> accounts.put(a.getAccountNumber(), a));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            accountRepository.findAllById(chunk).forEach(a -> accounts.put(a.getAccountNumber(), a));
+        }
+        entityManager.clear();
+        return accounts;
+    }
+
+    private BankAccount requireAccount(Map<String, BankAccount> accounts, String accountNumber, String role) {
+        BankAccount account = accountNumber == null ? null : accounts.get(accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(role + " account not found: " + accountNumber);
+        }
+        return account;
+    }
+
+    private void writeBalances(Iterable<BankAccount> accounts) {
+        List<BankAccount> updates = new ArrayList<>();
+        accounts.forEach(updates::add);
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, updates, jdbcBatchSize, (ps, account) -> {
+            ps.setBigDecimal(1, account.getBalance());
+            ps.setString(2, account.getAccountNumber());
+            ps.setLong(3, account.getVersion());
+        });
+
+        // A zero count means the version moved since the accounts were loaded; drivers that
+        // report SUCCESS_NO_INFO (-2) cannot be checked and are trusted.
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new OptimisticLockingFailureException(
+                            "Account " + updates.get(index).getAccountNumber() + " was modified concurrently");
+                }
+                index++;
+            }
+        }
+    }
+}
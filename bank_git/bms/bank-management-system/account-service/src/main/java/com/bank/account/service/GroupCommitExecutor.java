@@ -0,0 +1,327 @@
+package com.bank.account.service;
+
+import com.bank.account.model.BankAccount;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.BankAccountRepository;
+import com.bank.common.exception.AccountNotFoundException;
+import com.bank.common.exception.BankException;
+import com.bank.common.money.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Funnels deposits, withdrawals and transfers through one writer thread that applies them in
+// micro-batches, one database transaction (and one commit) per batch.
+@Component
+public class GroupCommitExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitExecutor.class);
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Autowired
+    private AccountLockManager lockManager;
+
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private HotAccountLedger hotAccountLedger;
+
+    @Value("${account.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${account.group-commit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${account.group-commit.max-wait-ms:2}")
+    private long maxWaitMs;
+
+    @Value("${account.group-commit.queue-capacity:8192}")
+    private int queueCapacity;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private ArrayBlockingQueue<PendingOperation> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::runWriter, "group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        PendingOperation leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.future.completeExceptionally(new BankException("Service is shutting down"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<Transaction> submitDeposit(String accountNumber, BigDecimal amount) {
+        return submit(new PendingOperation("DEPOSIT", accountNumber, accountNumber, amount));
+    }
+
+    public CompletableFuture<Transaction> submitWithdraw(String accountNumber, BigDecimal amount) {
+        return submit(new PendingOperation("WITHDRAWAL", accountNumber, accountNumber, amount));
+    }
+
+    public CompletableFuture<Transaction> submitTransfer(String sourceAccount, String destinationAccount, BigDecimal amount) {
+        return submit(new PendingOperation("TRANSFER", sourceAccount, destinationAccount, amount));
+    }
+
+    public Transaction deposit(String accountNumber, BigDecimal amount) {
+        return await(submitDeposit(accountNumber, amount));
+    }
+
+    public Transaction withdraw(String accountNumber, BigDecimal amount) {
+        return await(submitWithdraw(accountNumber, amount));
+    }
+
+    public Transaction transferFunds(String sourceAccount, String destinationAccount, BigDecimal amount) {
+        return await(submitTransfer(sourceAccount, destinationAccount, amount));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batchCount = batches.sum();
+        long operationCount = operations.sum();
+        stats.put("enabled", enabled);
+        stats.put("batches", batchCount);
+        stats.put("operations", operationCount);
+        stats.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) operationCount / batchCount);
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("queued", queue == null ? 0 : queue.size());
+        return stats;
+    }
+
+    private CompletableFuture<Transaction> submit(PendingOperation operation) {
+        if (!running) {
+            throw new IllegalStateException("Group commit is not running");
+        }
+        try {
+            // A full queue blocks the caller, which is the backpressure we want under overload.
+            queue.put(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BankException("Interrupted while queueing operation", e);
+        }
+        return operation.future;
+    }
+
+    private static Transaction await(CompletableFuture<Transaction> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void runWriter() {
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        List<PendingOperation> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOperation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingOperation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Group commit writer failed", e);
+                batch.forEach(op -> op.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commitBatch(List<PendingOperation> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(batch));
+        } catch (RuntimeException e) {
+            // The batch could not commit as a whole, typically a version conflict with a request
+            // that did not go through this writer. Run each operation on the regular path instead.
+            log.debug("Group commit of {} operations failed, falling back to individual commits", batch.size(), e);
+            fallbacks.increment();
+            batch.forEach(this::runIndividually);
+            return;
+        }
+
+        batches.increment();
+        operations.add(batch.size());
+        for (PendingOperation operation : batch) {
+            if (operation.error != null) {
+                operation.future.completeExceptionally(operation.error);
+            } else {
+                operation.future.complete(operation.result);
+            }
+        }
+    }
+
+    private void applyBatch(List<PendingOperation> batch) {
+        TreeSet<String> accountNumbers = new TreeSet<>();
+        for (PendingOperation operation : batch) {
+            operation.result = null;
+            operation.error = null;
+            if (operation.sourceAccount != null) {
+                accountNumbers.add(operation.sourceAccount);
+            }
+            if (operation.destinationAccount != null) {
+                accountNumbers.add(operation.destinationAccount);
+            }
+        }
+        lockManager.lockForTransaction(accountNumbers.toArray(new String[0]));
+        hotAccountLedger.foldAll(accountNumbers);
+
+        Map<String, BankAccount> accounts = new HashMap<>();
+        accountRepository.findAllById(accountNumbers).forEach(a -> accounts.put(a.getAccountNumber(), a));
+
+        List<Transaction> records = new ArrayList<>(batch.size());
+        for (PendingOperation operation : batch) {
+            try {
+                operation.result = apply(operation, accounts);
+                records.add(operation.result);
+            } catch (RuntimeException e) {
+                operation.error = e;
+            }
+        }
+        transactionRecorder.recordAll(records);
+        accounts.values().forEach(a -> balanceCache.writeThrough(a.getAccountNumber(), a.getBalance()));
+    }
+
+    private Transaction apply(PendingOperation operation, Map<String, BankAccount> accounts) {
+        Transaction transaction = new Transaction(operation.sourceAccount, operation.destinationAccount,
+                operation.money.toBigDecimal(), operation.type);
+
+        switch (operation.type) {
+            case "DEPOSIT" -> {
+                requireAccount(accounts, operation.destinationAccount, "Account").deposit(operation.money);
+                transaction.setDescription("Deposit successful");
+            }
+            case "WITHDRAWAL" -> {
+                requireAccount(accounts, operation.sourceAccount, "Account").withdraw(operation.money);
+                transaction.setDescription("Withdrawal successful");
+            }
+            default -> {
+                BankAccount source = requireAccount(accounts, operation.sourceAccount, "Source account");
+                BankAccount destination = requireAccount(accounts, operation.destinationAccount, "Destination account");
+                if (!operation.money.isPositive()) {
+                    throw new IllegalArgumentException("Transfer amount must be positive");
+                }
+                source.withdraw(operation.money);
+                destination.deposit(operation.money);
+                transaction.setDescription("Fund transfer successful");
+            }
+        }
+        transaction.setStatus("SUCCESS");
+        return transaction;
+    }
+
+    private BankAccount requireAccount(Map<String, BankAccount> accounts, String accountNumber, String role) {
+        BankAccount account = accountNumber == null ? null : accounts.get(accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(role + " not found: " + accountNumber);
+        }
+        return account;
+    }
+
+    private void runIndividually(PendingOperation operation) {
+        try {
+            Transaction transaction = switch (operation.type) {
+                case "DEPOSIT" -> accountService.deposit(operation.destinationAccount, operation.amount);
+                case "WITHDRAWAL" -> accountService.withdraw(operation.sourceAccount, operation.amount);
+                default -> accountService.transferFunds(operation.sourceAccount, operation.destinationAccount, operation.amount);
+            };
+            operation.future.complete(transaction);
+        } catch (RuntimeException e) {
+            operation.future.completeExceptionally(e);
+        }
+    }
+
+    private static final class PendingOperation {
+        private final String type;
+        private final String sourceAccount;
+        private final String destinationAccount;
+        private final BigDecimal amount;
+        private final Money money;
+        private final CompletableFuture<Transaction> future = new CompletableFuture<>();
+        private Transaction result;
+        private RuntimeException error;
+
+        private PendingOperation(String type, String sourceAccount, String destinationAccount, BigDecimal amount) {
+            this.type = type;
+            this.sourceAccount = sourceAccount;
+            this.destinationAccount = destinationAccount;
+            this.amount = amount;
+            this.money = Money.ofExact(amount);
+        }
+    }
+}
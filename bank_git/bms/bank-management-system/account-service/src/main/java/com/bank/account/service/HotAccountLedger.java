@@ -0,0 +1,203 @@
+package com.bank.account.service;
+
+import com.bank.common.exception.AccountNotFoundException;
+import com.bank.common.money.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Opt-in sub-ledgers for accounts that receive a large share of all credits. Credits to a hot
+// account are added to one of its slot rows, round-robin, instead of its bank_accounts row, so
+// concurrent credits do not serialize on one row lock or on the account's lock stripe. The
+// sweeper folds the slots into the main balance under the account lock.
+//
+// Debits fold the account's slots first, under the same lock, so funds are always checked
+// against the combined balance. Credits that land after the fold only add to it.
+@Component
+public class HotAccountLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(HotAccountLedger.class);
+
+    // Combined balance of a bank_accounts row, for queries that read balances directly.
+    public static final String COMBINED_BALANCE_SQL = "balance + COALESCE((SELECT SUM(s.balance) "
+            + "FROM account_sub_ledgers s WHERE s.account_number = bank_accounts.account_number), 0)";
+
+    private static final String CREDIT_SLOT_SQL =
+            "UPDATE account_sub_ledgers SET balance = balance + ? WHERE account_number = ? AND slot = ?";
+
+    private static final String CREDIT_ACCOUNT_SQL =
+            "UPDATE bank_accounts SET balance = balance + ?, version = version + 1 WHERE account_number = ?";
+
+    private static final String SET_HOT_FLAG_SQL =
+            "UPDATE bank_accounts SET hot_account = ?, version = version + 1 WHERE account_number = ?";
+
+    private static final String INSERT_SLOT_SQL =
+            "INSERT INTO account_sub_ledgers (id, account_number, slot, balance) "
+                    + "VALUES (NEXT VALUE FOR account_sub_ledgers_seq, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AccountLockManager lockManager;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Value("${account.hot.slots:16}")
+    private int slotCount;
+
+    // Slot count of each hot account, as stored; changing account.hot.slots only affects
+    // accounts flagged afterwards.
+    private final Map<String, Integer> hotAccounts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    private final LongAdder slotCredits = new LongAdder();
+    private final LongAdder folds = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHotAccounts() {
+        jdbcTemplate.query("SELECT account_number, COUNT(*) FROM account_sub_ledgers GROUP BY account_number",
+                rs -> { hotAccounts.put(rs.getString(1), rs.getInt(2)); });
+        if (!hotAccounts.isEmpty()) {
+            log.info("Loaded {} hot accounts", hotAccounts.size());
+        }
+    }
+
+    public boolean isHot(String accountNumber) {
+        return accountNumber != null && hotAccounts.containsKey(accountNumber);
+    }
+
+    public void enable(String accountNumber) {
+        if (isHot(accountNumber)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lockManager.lockForTransaction(accountNumber);
+            if (jdbcTemplate.update(SET_HOT_FLAG_SQL, true, accountNumber) == 0) {
+                throw new AccountNotFoundException("Account not found: " + accountNumber);
+            }
+            List<Object[]> slots = new ArrayList<>(slotCount);
+            for (int slot = 0; slot < slotCount; slot++) {
+                slots.add(new Object[] {accountNumber, slot});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, slots);
+        });
+        hotAccounts.put(accountNumber, slotCount);
+        balanceCache.invalidate(accountNumber);
+    }
+
+    // Credits that raced with the flag removal find their slot gone and go to the main row.
+    public void disable(String accountNumber) {
+        hotAccounts.remove(accountNumber);
+        transactionTemplate.executeWithoutResult(status -> {
+            lockManager.lockForTransaction(accountNumber);
+            if (jdbcTemplate.update(SET_HOT_FLAG_SQL, false, accountNumber) == 0) {
+                throw new AccountNotFoundException("Account not found: " + accountNumber);
+            }
+            BigDecimal total = lockSlots(accountNumber);
+            jdbcTemplate.update("DELETE FROM account_sub_ledgers WHERE account_number = ?", accountNumber);
+            if (total.signum() != 0) {
+                jdbcTemplate.update(CREDIT_ACCOUNT_SQL, total, accountNumber);
+            }
+        });
+        balanceCache.invalidate(accountNumber);
+    }
+
+    // For account deletion: the slots go with the account.
+    public void remove(String accountNumber) {
+        if (hotAccounts.remove(accountNumber) != null) {
+            jdbcTemplate.update("DELETE FROM account_sub_ledgers WHERE account_number = ?", accountNumber);
+        }
+    }
+
+    // Call from inside the crediting transaction, without the account lock.
+    public void credit(String accountNumber, Money amount) {
+        Integer slots = hotAccounts.get(accountNumber);
+        if (slots != null) {
+            int slot = Math.floorMod(nextSlot.getAndIncrement(), slots);
+            if (jdbcTemplate.update(CREDIT_SLOT_SQL, amount.toBigDecimal(), accountNumber, slot) == 1) {
+                slotCredits.increment();
+                return;
+            }
+        }
+        if (jdbcTemplate.update(CREDIT_ACCOUNT_SQL, amount.toBigDecimal(), accountNumber) == 0) {
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
+        balanceCache.invalidateOnCommit(List.of(accountNumber));
+    }
+
+    // Call with the account lock held, before the account row is read.
+    public void fold(String accountNumber) {
+        if (!isHot(accountNumber)) {
+            return;
+        }
+        BigDecimal total = lockSlots(accountNumber);
+        if (total.signum() == 0) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE account_sub_ledgers SET balance = 0 WHERE account_number = ?", accountNumber);
+        jdbcTemplate.update(CREDIT_ACCOUNT_SQL, total, accountNumber);
+        folds.increment();
+    }
+
+    public void foldAll(Collection<String> accountNumbers) {
+        accountNumbers.forEach(this::fold);
+    }
+
+    public BigDecimal getBalance(String accountNumber) {
+        return jdbcTemplate.queryForList("SELECT " + COMBINED_BALANCE_SQL + " FROM bank_accounts WHERE account_number = ?",
+                BigDecimal.class, accountNumber)
+                .stream().findFirst()
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+    }
+
+    @Scheduled(fixedDelayString = "${account.hot.sweep-interval-ms:1000}")
+    public void sweep() {
+        for (String accountNumber : hotAccounts.keySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    lockManager.lockForTransaction(accountNumber);
+                    fold(accountNumber);
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not sweep sub-ledgers of {}", accountNumber, e);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hotAccounts", hotAccounts.size());
+        stats.put("slotsPerAccount", slotCount);
+        stats.put("slotCredits", slotCredits.sum());
+        stats.put("folds", folds.sum());
+        return stats;
+    }
+
+    // Row-locks the slots so no credit can land between reading and zeroing them.
+    private BigDecimal lockSlots(String accountNumber) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM account_sub_ledgers WHERE account_number = ? FOR UPDATE", BigDecimal.class, accountNumber);
+        return balances.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
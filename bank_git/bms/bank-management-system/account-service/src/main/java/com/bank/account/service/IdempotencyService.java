@@ -0,0 +1,295 @@
+package com.bank.account.service;
+
+import com.bank.account.model.IdempotencyRecord;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.IdempotencyRecordRepository;
+import com.bank.common.exception.BankException;
+import com.bank.common.exception.IdempotencyKeyReuseException;
+import com.bank.common.exception.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Remembers the Transaction returned for each Idempotency-Key so a retried request gets the
+// original response instead of moving money again. Requests that arrive while the first one
+// with the same key is still running wait for its result. Failed requests are not remembered,
+// so a client may retry them. With persistent keys, blocking postings claim the key by inserting
+// its row in their own database transaction, so the key and the money movement commit together.
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    // Length of the idempotency_keys.idempotency_key column.
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys (idempotency_key, request_fingerprint, response, created_at) VALUES (?, ?, '', ?)";
+
+    private static final String RESPONSE_SQL = "UPDATE idempotency_keys SET response = ? WHERE idempotency_key = ?";
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int maxKeys;
+    private final long ttlNanos;
+    private final long ttlSeconds;
+    private final boolean persistent;
+    private final Map<String, Entry> entries;
+    private final ThreadLocal<Claim> currentClaim = new ThreadLocal<>();
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public IdempotencyService(@Value("${account.idempotency.max-keys:100000}") int maxKeys,
+                              @Value("${account.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${account.idempotency.persistent:false}") boolean persistent) {
+        this.maxKeys = maxKeys;
+        this.ttlSeconds = ttlSeconds;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.persistent = persistent;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                // Never evict a request that is still running; its waiters hold the future anyway.
+                return size() > IdempotencyService.this.maxKeys && eldest.getValue().result.isDone();
+            }
+        };
+    }
+
+    public Transaction execute(String key, String fingerprint, Supplier<Transaction> operation) {
+        if (key == null || key.isBlank()) {
+            return operation.get();
+        }
+        validate(key);
+
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt > 0) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(fingerprint, System.nanoTime() + ttlNanos);
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key " + key + " was already used for a different request");
+        }
+        if (!owner) {
+            if (entry.result.isDone()) {
+                replays.increment();
+            } else {
+                coalesced.increment();
+            }
+            return await(entry.result);
+        }
+
+        try {
+            Transaction transaction = loadPersisted(key, fingerprint).orElse(null);
+            if (transaction != null) {
+                replays.increment();
+            } else {
+                transaction = runClaimed(key, fingerprint, operation);
+            }
+            entry.result.complete(transaction);
+            return transaction;
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Whether a posting for this key must run in a transaction opened on the calling thread, so
+    // that claimInTransaction can insert the key there. Group commit would post it on another
+    // thread.
+    public boolean claimsInTransaction(String key) {
+        return persistent && key != null && !key.isBlank();
+    }
+
+    // Called by AccountService inside the transaction of each posting attempt. When the calling
+    // thread is running a keyed request, the key row is inserted before the posting and its
+    // response filled in after it, so both commit or roll back with the money movement. A key
+    // committed by another instance in the meantime fails the insert and rolls the attempt back.
+    public Transaction claimInTransaction(Supplier<Transaction> posting) {
+        Claim claim = currentClaim.get();
+        if (claim == null) {
+            return posting.get();
+        }
+        try {
+            jdbcTemplate.update(CLAIM_SQL, claim.key, claim.fingerprint, LocalDateTime.now());
+        } catch (DuplicateKeyException e) {
+            throw new KeyClaimedException(e);
+        }
+        Transaction transaction = posting.get();
+        jdbcTemplate.update(RESPONSE_SQL, toJson(claim.key, transaction), claim.key);
+        claim.recorded = true;
+        return transaction;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("keys", entries.size());
+        }
+        stats.put("maxKeys", maxKeys);
+        stats.put("persistent", persistent);
+        stats.put("replays", replays.sum());
+        stats.put("coalesced", coalesced.sum());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${account.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        synchronized (entries) {
+            long now = System.nanoTime();
+            entries.values().removeIf(e -> e.result.isDone() && now - e.expiresAt > 0);
+        }
+        if (persistent) {
+            int purged = recordRepository.deleteCreatedBefore(LocalDateTime.now().minusSeconds(ttlSeconds));
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        }
+    }
+
+    private static void validate(String key) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x21 || c > 0x7e) {
+                throw new InvalidIdempotencyKeyException("Idempotency-Key must be printable ASCII without spaces");
+            }
+        }
+    }
+
+    private Transaction runClaimed(String key, String fingerprint, Supplier<Transaction> operation) {
+        if (!persistent) {
+            return operation.get();
+        }
+        Claim claim = new Claim(key, fingerprint);
+        currentClaim.set(claim);
+        try {
+            Transaction transaction = operation.get();
+            if (!claim.recorded) {
+                persist(key, fingerprint, transaction);
+            }
+            return transaction;
+        } catch (KeyClaimedException e) {
+            Transaction transaction = loadPersisted(key, fingerprint).orElseThrow(() ->
+                    new OptimisticLockingFailureException("Idempotency-Key " + key + " is held by another request", e));
+            replays.increment();
+            return transaction;
+        } finally {
+            currentClaim.remove();
+        }
+    }
+
+    private Optional<Transaction> loadPersisted(String key, String fingerprint) {
+        if (!persistent) {
+            return Optional.empty();
+        }
+        return recordRepository.findById(key).map(record -> {
+            if (!record.getRequestFingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReuseException("Idempotency-Key " + key + " was already used for a different request");
+            }
+            try {
+                return objectMapper.readValue(record.getResponse(), Transaction.class);
+            } catch (JsonProcessingException e) {
+                throw new BankException("Stored response for Idempotency-Key " + key + " is unreadable", e);
+            }
+        });
+    }
+
+    // Fallback for postings that did not run through claimInTransaction (the reactive edition),
+    // written after the money movement has committed. A crash between the two commits leaves the
+    // key unrecorded, so that narrow window is covered only by the in-memory store.
+    private void persist(String key, String fingerprint, Transaction transaction) {
+        try {
+            recordRepository.save(new IdempotencyRecord(key, fingerprint, toJson(key, transaction)));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Could not store response for Idempotency-Key {}", key, e);
+        }
+    }
+
+    private String toJson(String key, Transaction transaction) {
+        try {
+            return objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException e) {
+            throw new BankException("Could not serialize response for Idempotency-Key " + key, e);
+        }
+    }
+
+    private static Transaction await(CompletableFuture<Transaction> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Claim {
+        private final String key;
+        private final String fingerprint;
+        private boolean recorded;
+
+        private Claim(String key, String fingerprint) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static final class KeyClaimedException extends RuntimeException {
+        private KeyClaimedException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.bank.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Component
+public class OptimisticRetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> conflictsByOperation = new ConcurrentHashMap<>();
+
+    public OptimisticRetryPolicy(@Value("${account.retry.max-attempts:5}") int maxAttempts,
+                                 @Value("${account.retry.initial-backoff-ms:2}") long initialBackoffMs,
+                                 @Value("${account.retry.max-backoff-ms:100}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+    }
+
+    // The action must open and commit its own transaction, since version conflicts
+    // only surface when the update is flushed.
+    public <T> T execute(String operation, Supplier<T> action) {
+        executions.increment();
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                conflictsByOperation.computeIfAbsent(operation, key -> new LongAdder()).increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                backoff(attempt, e);
+                attempt++;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("executions", executions.sum());
+        stats.put("conflicts", conflicts.sum());
+        stats.put("retries", retries.sum());
+        stats.put("exhausted", exhausted.sum());
+        Map<String, Long> byOperation = new LinkedHashMap<>();
+        conflictsByOperation.forEach((operation, count) -> byOperation.put(operation, count.sum()));
+        stats.put("conflictsByOperation", byOperation);
+        return stats;
+    }
+
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    // Exponential backoff with "equal jitter": half of the window is fixed, half is random,
+    // so colliding writers spread out without ever retrying immediately.
+    private void backoff(int attempt, OptimisticLockingFailureException cause) {
+        long window = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long half = window / 2;
+        long delay = half + ThreadLocalRandom.current().nextLong(window - half + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.bank.account.service;
+
+import com.bank.account.archive.ArchiveView;
+import com.bank.account.archive.TransactionArchive;
+import com.bank.account.dto.TransactionCursor;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.journal.TransactionJournal;
+import com.bank.account.ledger.EventLedger;
+import com.bank.account.model.LedgerEvent;
+import com.bank.account.model.Transaction;
+import com.bank.common.exception.AccountNotFoundException;
+import com.bank.common.exception.InsufficientFundsException;
+import com.bank.common.money.Money;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// Non-blocking counterpart of AccountService for deposit, withdraw, transfer, balance and
+// history. Balances are changed with relative UPDATEs whose WHERE clause enforces the savings
+// minimum balance or current account overdraft limit against the combined balance, so no
+// in-process lock is needed; transfers lock both rows in account number order first. Results,
+// error types and messages match AccountService. History includes archived transactions, read
+// through JDBC on the bounded elastic scheduler once the table has answered.
+@Service
+@Profile("reactive")
+public class ReactiveAccountService {
+
+    private static final String BALANCE_SQL =
+            "SELECT " + HotAccountLedger.COMBINED_BALANCE_SQL + " AS balance FROM bank_accounts WHERE account_number = :account";
+
+    private static final String EXISTS_SQL = "SELECT account_number FROM bank_accounts WHERE account_number = :account";
+
+    private static final String LOCK_PAIR_SQL = "SELECT account_number FROM bank_accounts "
+            + "WHERE account_number IN (:first, :second) ORDER BY account_number FOR UPDATE";
+
+    private static final String CREDIT_SQL =
+            "UPDATE bank_accounts SET balance = balance + :amount, version = version + 1 WHERE account_number = :account";
+
+    private static final String DEBIT_SQL = "UPDATE bank_accounts SET balance = balance - :amount, version = version + 1 "
+            + "WHERE account_number = :account AND ("
+            + "(account_type = 'SAVINGS' AND " + HotAccountLedger.COMBINED_BALANCE_SQL + " - :amount >= minimum_balance) OR "
+            + "(account_type = 'CURRENT' AND " + HotAccountLedger.COMBINED_BALANCE_SQL + " - :amount >= -overdraft_limit))";
+
+    private static final String LIMITS_SQL =
+            "SELECT account_type, minimum_balance, overdraft_limit FROM bank_accounts WHERE account_number = :account";
+
+    private static final String NEXT_ID_SQL = "SELECT NEXT VALUE FOR transactions_seq";
+
+    private static final String INSERT_COMMIT_SQL = "INSERT INTO journal_commits (transaction_id) VALUES (:id)";
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (id, source_account, destination_account, amount, transaction_type, timestamp, status, description) "
+                    + "VALUES (:id, :source, :destination, :amount, :type, :timestamp, :status, :description)";
+
+    private static final String NEXT_EVENT_SEQUENCE_SQL = "SELECT NEXT VALUE FOR ledger_events_seq";
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO ledger_events (sequence_number, account_number, event_type, amount, recorded_at, transaction_id) "
+                    + "VALUES (:sequence, :account, :type, :amount, :recordedAt, :transactionId)";
+
+    private static final String TRANSACTION_COLUMNS =
+            "id, source_account, destination_account, amount, transaction_type, timestamp, status, description";
+
+    private static final String HISTORY_SQL = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions "
+            + "WHERE source_account = :account OR destination_account = :account ORDER BY timestamp DESC, id DESC";
+
+    private static final String HISTORY_PAGE_SQL = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions "
+            + "WHERE (source_account = :account OR destination_account = :account) "
+            + "AND (timestamp < :timestamp OR (timestamp = :timestamp AND id < :id)) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT :limit";
+
+    private static final String FIRST_PAGE_SQL = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions "
+            + "WHERE source_account = :account OR destination_account = :account "
+            + "ORDER BY timestamp DESC, id DESC LIMIT :limit";
+
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getTimestamp)
+            .thenComparing(Transaction::getId).reversed();
+
+    @Autowired
+    private ReactiveDatabase database;
+
+    @Autowired
+    private BalanceCache balanceCache;
+
+    @Autowired
+    private TransactionJournal journal;
+
+    @Autowired
+    private EventLedger eventLedger;
+
+    @Autowired
+    private TransactionArchive transactionArchive;
+
+    @Autowired
+    private AccountTotals accountTotals;
+
+    @Value("${account.history.default-page-size:50}")
+    private int defaultHistoryPageSize;
+
+    @Value("${account.history.max-page-size:500}")
+    private int maxHistoryPageSize;
+
+    public Mono<BigDecimal> getBalance(String accountNumber) {
+        BigDecimal projected = eventLedger.getBalance(accountNumber);
+        if (projected != null) {
+            return Mono.just(projected);
+        }
+        return database.getClient().sql(BALANCE_SQL)
+                .bind("account", accountNumber)
+                .map(row -> row.get("balance", BigDecimal.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException("Account not found: " + accountNumber)));
+    }
+
+    public Mono<Transaction> deposit(String accountNumber, BigDecimal amount) {
+        return Mono.defer(() -> {
+            Money money = Money.ofExact(amount);
+            Transaction transaction = new Transaction(accountNumber, accountNumber, money.toBigDecimal(), "DEPOSIT");
+            Mono<Void> work = requirePositive(money, "Deposit amount must be positive", accountNumber)
+                    .then(credit(accountNumber, money, "Account not found: " + accountNumber));
+            return execute(transaction, work, "Deposit successful", List.of(accountNumber));
+        });
+    }
+
+    public Mono<Transaction> withdraw(String accountNumber, BigDecimal amount) {
+        return Mono.defer(() -> {
+            Money money = Money.ofExact(amount);
+            Transaction transaction = new Transaction(accountNumber, accountNumber, money.toBigDecimal(), "WITHDRAWAL");
+            Mono<Void> work = requirePositive(money, "Withdrawal amount must be positive", accountNumber)
+                    .then(debit(accountNumber, money, "Account not found: " + accountNumber));
+            return execute(transaction, work, "Withdrawal successful", List.of(accountNumber));
+        });
+    }
+
+    public Mono<Transaction> transferFunds(String sourceAccountNumber, String destinationAccountNumber, BigDecimal amount) {
+        return Mono.defer(() -> {
+            Money money = Money.ofExact(amount);
+            Transaction transaction = new Transaction(sourceAccountNumber, destinationAccountNumber, money.toBigDecimal(), "TRANSFER");
+            Mono<Void> work = database.getClient().sql(LOCK_PAIR_SQL)
+                    .bind("first", sourceAccountNumber)
+                    .bind("second", destinationAccountNumber)
+                    .map(row -> row.get("account_number", String.class))
+                    .all()
+                    .collectList()
+                    .flatMap(locked -> {
+                        if (!locked.contains(sourceAccountNumber)) {
+                            return Mono.error(new AccountNotFoundException("Source account not found: " + sourceAccountNumber));
+                        }
+                        if (!locked.contains(destinationAccountNumber)) {
+                            return Mono.error(new AccountNotFoundException("Destination account not found: " + destinationAccountNumber));
+                        }
+                        if (!money.isPositive()) {
+                            return Mono.error(new IllegalArgumentException("Transfer amount must be positive"));
+                        }
+                        return debit(sourceAccountNumber, money, "Source account not found: " + sourceAccountNumber)
+                                .then(credit(destinationAccountNumber, money,
+                                        "Destination account not found: " + destinationAccountNumber));
+                    });
+            return execute(transaction, work, "Fund transfer successful", List.of(sourceAccountNumber, destinationAccountNumber));
+        });
+    }
+
+    public Mono<List<Transaction>> getTransactionHistory(String accountNumber) {
+        return database.getClient().sql(HISTORY_SQL)
+                .bind("account", accountNumber)
+                .map(ReactiveAccountService::toTransaction)
+                .all()
+                .collectList()
+                .flatMap(rows -> withArchived(rows, archive -> archive.findByAccount(accountNumber), Integer.MAX_VALUE));
+    }
+
+    public Mono<TransactionPage> getTransactionHistoryPage(String accountNumber, String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = limit == null ? defaultHistoryPageSize : limit;
+            if (pageSize <= 0 || pageSize > maxHistoryPageSize) {
+                return Mono.error(new IllegalArgumentException("Page size must be between 1 and " + maxHistoryPageSize));
+            }
+            TransactionCursor position = cursor == null ? null : TransactionCursor.decode(cursor);
+            DatabaseClient.GenericExecuteSpec query;
+            if (position == null) {
+                query = database.getClient().sql(FIRST_PAGE_SQL);
+            } else {
+                query = database.getClient().sql(HISTORY_PAGE_SQL)
+                        .bind("timestamp", position.getTimestamp())
+                        .bind("id", position.getId());
+            }
+            return query.bind("account", accountNumber)
+                    .bind("limit", pageSize + 1)
+                    .map(ReactiveAccountService::toTransaction)
+                    .all()
+                    .collectList()
+                    .flatMap(rows -> withArchived(rows, archive -> position == null
+                            ? archive.findPageBefore(accountNumber, null, null, pageSize + 1)
+                            : archive.findPageBefore(accountNumber, position.getTimestamp(), position.getId(), pageSize + 1),
+                            pageSize + 1))
+                    .map(rows -> {
+                        boolean hasMore = rows.size() > pageSize;
+                        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+                        String nextCursor = hasMore ? TransactionCursor.after(page.get(page.size() - 1)).encode() : null;
+                        return new TransactionPage(page, nextCursor);
+                    });
+        });
+    }
+
+    // The archive is read after the table, so a row missing from the table is in the archive;
+    // one that moved in between is in both and is kept once. The newest limit rows are kept.
+    private Mono<List<Transaction>> withArchived(List<Transaction> live, Function<ArchiveView, List<Transaction>> read, int limit) {
+        if (!transactionArchive.isEnabled()) {
+            return Mono.just(live);
+        }
+        return Mono.fromCallable(() -> read.apply(transactionArchive.view()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(archived -> {
+                    if (archived.isEmpty()) {
+                        return live;
+                    }
+                    Map<Long, Transaction> merged = new LinkedHashMap<>();
+                    live.forEach(t -> merged.put(t.getId(), t));
+                    archived.forEach(t -> merged.putIfAbsent(t.getId(), t));
+                    List<Transaction> rows = new ArrayList<>(merged.values());
+                    rows.sort(NEWEST_FIRST);
+                    return rows.size() > limit ? rows.subList(0, limit) : rows;
+                });
+    }
+
+    // Runs the balance changes and the transaction row in one database transaction. As in
+    // AccountService a failed operation leaves no row behind; with the journal enabled the
+    // transaction gets its id from the sequence and a journal_commits row, its posting is appended
+    // as the last step before the commit and the outcome marker once the transaction has
+    // completed, both off the event loop. In ledger mode the posting's events are written in the same transaction and
+    // projected after it commits; the dashboard totals also move once it has committed.
+    private Mono<Transaction> execute(Transaction transaction, Mono<Void> work, String successMessage,
+                                      List<String> accounts) {
+        boolean journaling = journal.isEnabled();
+        List<LedgerEvent> events = new ArrayList<>();
+        AtomicBoolean appended = new AtomicBoolean();
+        Mono<Transaction> recorded = work.then(Mono.fromSupplier(() -> {
+            transaction.setStatus("SUCCESS");
+            transaction.setDescription(successMessage);
+            return transaction;
+        })).flatMap(t -> journaling ? allocateId(t).flatMap(this::insertCommit) : insert(t))
+                .flatMap(t -> eventLedger.isEnabled() ? appendEvents(t, events).thenReturn(t) : Mono.just(t))
+                .flatMap(t -> journaling
+                        ? onJournalThread(() -> {
+                            journal.appendPostings(List.of(t));
+                            appended.set(true);
+                        }).thenReturn(t)
+                        : Mono.just(t));
+
+        return database.getTransactions().transactional(recorded)
+                .onErrorResume(e -> appended.get()
+                        ? onJournalThread(() -> journal.appendOutcome(List.of(transaction.getId()), false)).then(Mono.error(e))
+                        : Mono.error(e))
+                .flatMap(t -> journaling
+                        ? onJournalThread(() -> journal.appendOutcome(List.of(t.getId()), true)).thenReturn(t)
+                        : Mono.just(t))
+                .doOnSuccess(t -> {
+                    if (!events.isEmpty()) {
+                        eventLedger.committed(events);
+                    }
+                    accountTotals.posted(List.of(t));
+                    accounts.forEach(balanceCache::invalidate);
+                });
+    }
+
+    private Mono<Void> appendEvents(Transaction transaction, List<LedgerEvent> events) {
+        DatabaseClient client = database.getClient();
+        return Flux.fromIterable(EventLedger.eventsFor(transaction))
+                .concatMap(event -> client.sql(NEXT_EVENT_SEQUENCE_SQL)
+                        .map(row -> row.get(0, Long.class))
+                        .one()
+                        .flatMap(sequence -> {
+                            event.setSequenceNumber(sequence);
+                            DatabaseClient.GenericExecuteSpec insert = client.sql(INSERT_EVENT_SQL)
+                                    .bind("sequence", sequence)
+                                    .bind("account", event.getAccountNumber())
+                                    .bind("type", event.getEventType())
+                                    .bind("amount", event.getAmount())
+                                    .bind("recordedAt", event.getRecordedAt());
+                            insert = event.getTransactionId() == null
+                                    ? insert.bindNull("transactionId", Long.class)
+                                    : insert.bind("transactionId", event.getTransactionId());
+                            return insert.then();
+                        })
+                        .thenReturn(event))
+                .doOnNext(events::add)
+                .then();
+    }
+
+    private static Mono<Void> onJournalThread(Runnable append) {
+        return Mono.fromRunnable(append).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private Mono<Transaction> allocateId(Transaction transaction) {
+        return database.getClient().sql(NEXT_ID_SQL)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .doOnNext(transaction::setId)
+                .thenReturn(transaction);
+    }
+
+    private Mono<Transaction> insertCommit(Transaction transaction) {
+        return database.getClient().sql(INSERT_COMMIT_SQL)
+                .bind("id", transaction.getId())
+                .then()
+                .thenReturn(transaction);
+    }
+
+    private Mono<Transaction> insert(Transaction transaction) {
+        DatabaseClient client = database.getClient();
+        return client.sql(NEXT_ID_SQL)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    transaction.setId(id);
+                    DatabaseClient.GenericExecuteSpec insert = client.sql(INSERT_TRANSACTION_SQL)
+                            .bind("id", id)
+                            .bind("source", transaction.getSourceAccount())
+                            .bind("destination", transaction.getDestinationAccount())
+                            .bind("amount", transaction.getAmount())
+                            .bind("type", transaction.getTransactionType())
+                            .bind("timestamp", transaction.getTimestamp())
+                            .bind("status", transaction.getStatus());
+                    insert = transaction.getDescription() == null
+                            ? insert.bindNull("description", String.class)
+                            : insert.bind("description", transaction.getDescription());
+                    return insert.then();
+                })
+                .thenReturn(transaction);
+    }
+
+    private Mono<Void> credit(String accountNumber, Money amount, String notFoundMessage) {
+        return database.getClient().sql(CREDIT_SQL)
+                .bind("amount", amount.toBigDecimal())
+                .bind("account", accountNumber)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new AccountNotFoundException(notFoundMessage))
+                        : Mono.empty());
+    }
+
+    // When no row was updated the account is either missing or would break its limit; the
+    // limits are read back to tell the two apart and word the error like the account model.
+    private Mono<Void> debit(String accountNumber, Money amount, String notFoundMessage) {
+        DatabaseClient client = database.getClient();
+        return client.sql(DEBIT_SQL)
+                .bind("amount", amount.toBigDecimal())
+                .bind("account", accountNumber)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated > 0 ? Mono.<Void>empty() : client.sql(LIMITS_SQL)
+                        .bind("account", accountNumber)
+                        .map(ReactiveAccountService::insufficientFunds)
+                        .one()
+                        .switchIfEmpty(Mono.error(() -> new AccountNotFoundException(notFoundMessage)))
+                        .flatMap(e -> Mono.<Void>error(e)));
+    }
+
+    // AccountService looks the account up before it validates the amount, so a missing account
+    // is reported first here as well.
+    private Mono<Void> requirePositive(Money amount, String message, String accountNumber) {
+        if (amount.isPositive()) {
+            return Mono.empty();
+        }
+        return database.getClient().sql(EXISTS_SQL)
+                .bind("account", accountNumber)
+                .map(row -> row.get("account_number", String.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new AccountNotFoundException("Account not found: " + accountNumber)))
+                .then(Mono.<Void>error(new IllegalArgumentException(message)));
+    }
+
+    private static InsufficientFundsException insufficientFunds(Readable row) {
+        if ("SAVINGS".equals(row.get("account_type", String.class))) {
+            return new InsufficientFundsException("Insufficient funds. Minimum balance of "
+                    + Money.of(row.get("minimum_balance", BigDecimal.class)) + " must be maintained");
+        }
+        return new InsufficientFundsException("Insufficient funds. Overdraft limit of "
+                + Money.of(row.get("overdraft_limit", BigDecimal.class)) + " exceeded");
+    }
+
+    private static Transaction toTransaction(Readable row) {
+        Transaction transaction = new Transaction(row.get("source_account", String.class),
+                row.get("destination_account", String.class), row.get("amount", BigDecimal.class),
+                row.get("transaction_type", String.class));
+        transaction.setId(row.get("id", Long.class));
+        transaction.setTimestamp(row.get("timestamp", LocalDateTime.class));
+        transaction.setStatus(row.get("status", String.class));
+        transaction.setDescription(row.get("description", String.class));
+        return transaction;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bank.account.service;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import java.time.Duration;
+
+// R2DBC access to the account database for the reactive edition. The H2 URL names the same
+// in-memory database the JPA side creates and initialises. Neither the connection factory nor
+// its transaction manager is exposed as a bean: Spring Boot would then back off its JDBC
+// DataSource and JPA transaction manager, which the rest of the service still uses.
+@Component
+@Profile("reactive")
+public class ReactiveDatabase implements DisposableBean {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final TransactionalOperator transactions;
+
+    public ReactiveDatabase(@Value("${account.reactive.r2dbc-url:r2dbc:h2:mem:///accountdb}") String url,
+                            @Value("${spring.datasource.username:sa}") String username,
+                            @Value("${spring.datasource.password:}") String password,
+                            @Value("${account.reactive.pool-size:20}") int poolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(Math.min(poolSize, 4))
+                .maxSize(poolSize)
+                .maxAcquireTime(Duration.ofSeconds(30))
+                .build());
+        this.client = DatabaseClient.create(pool);
+        this.transactions = TransactionalOperator.create(new R2dbcTransactionManager(pool));
+    }
+
+    public DatabaseClient getClient() {
+        return client;
+    }
+
+    public TransactionalOperator getTransactions() {
+        return transactions;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
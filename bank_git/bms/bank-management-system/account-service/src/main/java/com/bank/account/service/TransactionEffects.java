@@ -0,0 +1,25 @@
+package com.bank.account.service;
+
+import java.util.Set;
+
+// Which side of a transaction row gains or loses its amount. A transfer debits the source and
+// credits the destination; deposits and withdrawals name the same account on both sides.
+public final class TransactionEffects {
+
+    public static final String CREDIT_TYPES_SQL = "('DEPOSIT', 'TRANSFER', 'INTEREST')";
+    public static final String DEBIT_TYPES_SQL = "('WITHDRAWAL', 'TRANSFER', 'FEE')";
+
+    // The same sets for rows read outside the database, such as archived ones.
+    private static final Set<String> CREDIT_TYPES = Set.of("DEPOSIT", "TRANSFER", "INTEREST");
+    private static final Set<String> DEBIT_TYPES = Set.of("WITHDRAWAL", "TRANSFER", "FEE");
+
+    private TransactionEffects() {}
+
+    public static boolean creditsDestination(String transactionType) {
+        return CREDIT_TYPES.contains(transactionType);
+    }
+
+    public static boolean debitsSource(String transactionType) {
+        return DEBIT_TYPES.contains(transactionType);
+    }
+}
@@ -0,0 +1,252 @@
+package com.bank.account.service;
+
+import com.bank.account.archive.TransactionArchive;
+import com.bank.account.model.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes transaction rows to an output stream as they come off a forward-only result set, so
+// memory use does not depend on how many rows are exported. Rows are in storage order: archived
+// rows first, segment by segment, then the live table. With the archive enabled both tiers are
+// read in one snapshot transaction, so a row that moves while the export runs is written once.
+@Service
+public class TransactionExportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final String COLUMNS =
+            "id, source_account, destination_account, amount, transaction_type, timestamp, status, description";
+
+    private static final String CSV_HEADER =
+            "id,sourceAccount,destinationAccount,amount,transactionType,timestamp,status,description";
+
+    // Rows written between explicit flushes once the first row has gone out.
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionArchive transactionArchive;
+
+    @Value("${account.export.fetch-size:500}")
+    private int fetchSize;
+
+    public void export(OutputStream out, String format, String accountNumber,
+                       LocalDateTime from, LocalDateTime to) throws IOException {
+        if (!FORMAT_NDJSON.equals(format) && !FORMAT_CSV.equals(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(accountNumber, from, to, params);
+        RowWriter writer = FORMAT_NDJSON.equals(format) ? new NdjsonWriter(out) : new CsvWriter(out);
+
+        try {
+            transactionArchive.read(archive -> {
+                archive.scan(accountNumber, from, to, transaction -> {
+                    try {
+                        writer.write(transaction);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                stream(sql, params, writer);
+                return null;
+            });
+            writer.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void stream(String sql, List<Object> params, RowWriter writer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Filtering by account is done as two UNION ALL branches so each can use its own index; the
+    // second branch skips deposits and withdrawals, which the first already returned.
+    private String buildQuery(String accountNumber, LocalDateTime from, LocalDateTime to, List<Object> params) {
+        String timeFilter = "";
+        List<Object> timeParams = new ArrayList<>();
+        if (from != null) {
+            timeFilter += " AND timestamp >= ?";
+            timeParams.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            timeFilter += " AND timestamp < ?";
+            timeParams.add(Timestamp.valueOf(to));
+        }
+
+        if (accountNumber == null) {
+            params.addAll(timeParams);
+            return "SELECT " + COLUMNS + " FROM transactions WHERE 1 = 1" + timeFilter;
+        }
+
+        params.add(accountNumber);
+        params.addAll(timeParams);
+        params.add(accountNumber);
+        params.add(accountNumber);
+        params.addAll(timeParams);
+        return "SELECT " + COLUMNS + " FROM transactions WHERE source_account = ?" + timeFilter
+                + " UNION ALL SELECT " + COLUMNS + " FROM transactions WHERE destination_account = ?"
+                + " AND source_account <> ?" + timeFilter;
+    }
+
+    private abstract static class RowWriter {
+        private long rows;
+
+        void write(ResultSet rs) throws SQLException, IOException {
+            writeRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4).toPlainString(),
+                    rs.getString(5), rs.getTimestamp(6).toLocalDateTime().toString(), rs.getString(7), rs.getString(8));
+            written();
+        }
+
+        void write(Transaction t) throws IOException {
+            writeRow(t.getId(), t.getSourceAccount(), t.getDestinationAccount(), t.getAmount().toPlainString(),
+                    t.getTransactionType(), t.getTimestamp().toString(), t.getStatus(), t.getDescription());
+            written();
+        }
+
+        private void written() throws IOException {
+            rows++;
+            // The first row is flushed immediately so the client starts receiving data at once.
+            if (rows == 1 || rows % FLUSH_EVERY_ROWS == 0) {
+                flush();
+            }
+        }
+
+        abstract void writeRow(long id, String source, String destination, String amount, String type,
+                               String timestamp, String status, String description) throws IOException;
+
+        abstract void flush() throws IOException;
+
+        abstract void close() throws IOException;
+    }
+
+    private class NdjsonWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        // Rows are separated by the newline alone; Jackson would put a space before every root
+        // value after the first.
+        NdjsonWriter(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeRow(long id, String source, String destination, String amount, String type,
+                      String timestamp, String status, String description) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", id);
+            generator.writeStringField("sourceAccount", source);
+            generator.writeStringField("destinationAccount", destination);
+            generator.writeFieldName("amount");
+            generator.writeNumber(amount);
+            generator.writeStringField("transactionType", type);
+            generator.writeStringField("timestamp", timestamp);
+            generator.writeStringField("status", status);
+            generator.writeStringField("description", description);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        void close() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvWriter extends RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(long id, String source, String destination, String amount, String type,
+                      String timestamp, String status, String description) throws IOException {
+            writer.write(Long.toString(id));
+            writer.write(',');
+            writeField(source);
+            writer.write(',');
+            writeField(destination);
+            writer.write(',');
+            writer.write(amount);
+            writer.write(',');
+            writeField(type);
+            writer.write(',');
+            writer.write(timestamp);
+            writer.write(',');
+            writeField(status);
+            writer.write(',');
+            writeField(description);
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
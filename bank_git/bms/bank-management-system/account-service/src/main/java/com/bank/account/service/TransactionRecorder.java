@@ -0,0 +1,163 @@
+package com.bank.account.service;
+
+import com.bank.account.journal.TransactionJournal;
+import com.bank.account.ledger.EventLedger;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+public class TransactionRecorder {
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (id, source_account, destination_account, amount, transaction_type, timestamp, status, description) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String MERGE_TRANSACTION_SQL =
+            "MERGE INTO transactions (id, source_account, destination_account, amount, transaction_type, timestamp, status, description) "
+                    + "KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ALLOCATE_IDS_SQL = "SELECT NEXT VALUE FOR transactions_seq FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String INSERT_COMMIT_SQL = "INSERT INTO journal_commits (transaction_id) VALUES (?)";
+
+    private static final String DELETE_COMMIT_SQL = "DELETE FROM journal_commits WHERE transaction_id = ?";
+
+    private static final String COUNT_COMMIT_SQL = "SELECT COUNT(*) FROM journal_commits WHERE transaction_id = ?";
+
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionJournal journal;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventLedger eventLedger;
+
+    @Autowired
+    private AccountTotals accountTotals;
+
+    public boolean isJournaling() {
+        return journal.isEnabled();
+    }
+
+    public void record(Transaction transaction) {
+        if (journal.isEnabled()) {
+            appendBeforeCommit(List.of(transaction));
+        } else {
+            transactionRepository.save(transaction);
+        }
+        eventLedger.append(List.of(transaction));
+        accountTotals.posted(List.of(transaction));
+    }
+
+    public void recordAll(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        if (journal.isEnabled()) {
+            appendBeforeCommit(new ArrayList<>(transactions));
+        } else {
+            insertBatch(new ArrayList<>(transactions));
+        }
+        eventLedger.append(transactions);
+        accountTotals.posted(transactions);
+    }
+
+    // Ids for the whole batch come from a single sequence query, so the inserts can be sent
+    // as JDBC batches and the ids still reported back to the caller.
+    public void insertBatch(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        allocateIds(transactions);
+        write(INSERT_TRANSACTION_SQL, transactions);
+    }
+
+    // Inserts journal postings with the ids they were given when appended, skipping any row
+    // already projected before a restart. Their commit evidence is no longer needed once the
+    // row is there.
+    public void projectBatch(List<Transaction> transactions) {
+        if (!transactions.isEmpty()) {
+            write(MERGE_TRANSACTION_SQL, transactions);
+            jdbcTemplate.batchUpdate(DELETE_COMMIT_SQL, transactions, JDBC_BATCH_SIZE,
+                    (ps, transaction) -> ps.setLong(1, transaction.getId()));
+        }
+    }
+
+    // Whether the database transaction of a journaled posting committed, for postings whose
+    // outcome marker was never written.
+    public boolean wasCommitted(long transactionId) {
+        Integer rows = jdbcTemplate.queryForObject(COUNT_COMMIT_SQL, Integer.class, transactionId);
+        return rows != null && rows > 0;
+    }
+
+    private void allocateIds(List<Transaction> transactions) {
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            transactions.get(i).setId(ids.get(i));
+        }
+    }
+
+    private void write(String sql, List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(sql, transactions, JDBC_BATCH_SIZE, (ps, transaction) -> {
+            ps.setLong(1, transaction.getId());
+            ps.setString(2, transaction.getSourceAccount());
+            ps.setString(3, transaction.getDestinationAccount());
+            ps.setBigDecimal(4, transaction.getAmount());
+            ps.setString(5, transaction.getTransactionType());
+            ps.setTimestamp(6, Timestamp.valueOf(transaction.getTimestamp()));
+            ps.setString(7, transaction.getStatus());
+            ps.setString(8, transaction.getDescription());
+        });
+    }
+
+    // Journaled transactions get their ids now, so callers and the idempotency store see them
+    // before the row is projected. The postings are appended (and forced, per the fsync policy)
+    // just before the database transaction commits, so a failed append rolls the balance change
+    // back; the commit or abort marker follows once the outcome is known, and only committed
+    // postings are projected, which matches the table path where a rolled back operation leaves
+    // no row behind. The ids also go into journal_commits within the transaction, which is how
+    // a restart tells whether a posting left without a marker was committed.
+    private void appendBeforeCommit(List<Transaction> transactions) {
+        allocateIds(transactions);
+        List<Long> ids = transactions.stream().map(Transaction::getId).toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journal.appendPostings(transactions);
+            journal.appendOutcome(ids, true);
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_COMMIT_SQL, ids, JDBC_BATCH_SIZE, (ps, id) -> ps.setLong(1, id));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean appended;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                journal.appendPostings(transactions);
+                appended = true;
+            }
+
+            // With STATUS_UNKNOWN no marker is written; the postings stay in doubt until the
+            // next restart resolves them from journal_commits.
+            @Override
+            public void afterCompletion(int status) {
+                if (appended && status != STATUS_UNKNOWN) {
+                    journal.appendOutcome(ids, status == STATUS_COMMITTED);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package com.bank.account.wire;
+
+import com.bank.account.dto.AmountRequest;
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.journal.JournalRecordCodec;
+import com.bank.account.model.Transaction;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Binary bodies for transfer, deposit and withdraw (big endian), sent as
+// application/x-bank-operation:
+//   transfer request:  byte version, long amount unscaled value, byte amount scale,
+//                      str source account, str destination account
+//   amount request:    byte version, long amount unscaled value, byte amount scale
+//   transaction reply: byte version, long id (-1 when unsaved), then the JournalRecordCodec payload
+// where str = short byte length followed by UTF-8 bytes. Requests decode straight into the DTOs.
+public final class BinaryOperationCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-bank-operation";
+    public static final byte VERSION = 1;
+    public static final int MAX_MESSAGE_SIZE = JournalRecordCodec.MAX_PAYLOAD_SIZE + 16;
+
+    private static final int AMOUNT_SIZE = Long.BYTES + 1;
+
+    private BinaryOperationCodec() {}
+
+    public static void encodeTransfer(TransferRequest transfer, ByteBuffer buffer) {
+        buffer.put(VERSION);
+        putAmount(buffer, transfer.getAmount());
+        putString(buffer, transfer.getSourceAccount());
+        putString(buffer, transfer.getDestinationAccount());
+    }
+
+    public static int encodedSize(TransferRequest transfer) {
+        return 1 + AMOUNT_SIZE + stringSize(transfer.getSourceAccount()) + stringSize(transfer.getDestinationAccount());
+    }
+
+    public static TransferRequest decodeTransfer(ByteBuffer buffer) {
+        checkVersion(buffer);
+        BigDecimal amount = getAmount(buffer);
+        String sourceAccount = getString(buffer);
+        String destinationAccount = getString(buffer);
+        checkFullyRead(buffer);
+        return new TransferRequest(sourceAccount, destinationAccount, amount);
+    }
+
+    public static void encodeAmount(AmountRequest request, ByteBuffer buffer) {
+        buffer.put(VERSION);
+        putAmount(buffer, request.getAmount());
+    }
+
+    public static int encodedSize(AmountRequest request) {
+        return 1 + AMOUNT_SIZE;
+    }
+
+    public static AmountRequest decodeAmount(ByteBuffer buffer) {
+        checkVersion(buffer);
+        BigDecimal amount = getAmount(buffer);
+        checkFullyRead(buffer);
+        return new AmountRequest(amount);
+    }
+
+    public static void encodeTransaction(Transaction transaction, ByteBuffer buffer) {
+        buffer.put(VERSION);
+        buffer.putLong(transaction.getId() == null ? -1 : transaction.getId());
+        JournalRecordCodec.encode(transaction, buffer);
+    }
+
+    public static int encodedSize(Transaction transaction) {
+        return 1 + Long.BYTES + JournalRecordCodec.encodedSize(transaction);
+    }
+
+    public static Transaction decodeTransaction(ByteBuffer buffer) {
+        checkVersion(buffer);
+        long id = buffer.getLong();
+        Transaction transaction = JournalRecordCodec.decode(buffer);
+        transaction.setId(id < 0 ? null : id);
+        return transaction;
+    }
+
+    private static void putAmount(ByteBuffer buffer, BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        if (amount.unscaledValue().bitLength() > 63 || amount.scale() != (byte) amount.scale()) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString()
+                    + " cannot be encoded: its unscaled value must fit a long and its scale a byte");
+        }
+        buffer.putLong(amount.unscaledValue().longValue());
+        buffer.put((byte) amount.scale());
+    }
+
+    private static BigDecimal getAmount(ByteBuffer buffer) {
+        long unscaled = buffer.getLong();
+        return BigDecimal.valueOf(unscaled, buffer.get());
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long to encode");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static int stringSize(String value) {
+        return Short.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void checkVersion(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported message version " + version);
+        }
+    }
+
+    private static void checkFullyRead(ByteBuffer buffer) {
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException(buffer.remaining() + " unexpected trailing bytes");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.bank.account.wire;
+
+import com.bank.account.dto.AmountRequest;
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.model.Transaction;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+// Reads TransferRequest and AmountRequest bodies and writes Transaction replies in the
+// BinaryOperationCodec layout.
+public class BinaryOperationMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(BinaryOperationCodec.MEDIA_TYPE_VALUE);
+
+    public BinaryOperationMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TransferRequest.class || clazz == AmountRequest.class || clazz == Transaction.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return mediaType != null && super.canRead(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        byte[] body = inputMessage.getBody().readNBytes(BinaryOperationCodec.MAX_MESSAGE_SIZE + 1);
+        if (body.length > BinaryOperationCodec.MAX_MESSAGE_SIZE) {
+            throw new HttpMessageNotReadableException("Message larger than " + BinaryOperationCodec.MAX_MESSAGE_SIZE + " bytes", inputMessage);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        try {
+            if (clazz == TransferRequest.class) {
+                return BinaryOperationCodec.decodeTransfer(buffer);
+            }
+            if (clazz == AmountRequest.class) {
+                return BinaryOperationCodec.decodeAmount(buffer);
+            }
+            return BinaryOperationCodec.decodeTransaction(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Malformed " + clazz.getSimpleName() + " message", e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        // Sized to the message: a buffer kept per thread would pin MAX_MESSAGE_SIZE bytes on
+        // every request thread, and with virtual threads there is one of those per request
+        ByteBuffer buffer;
+        if (value instanceof TransferRequest transfer) {
+            buffer = ByteBuffer.allocate(BinaryOperationCodec.encodedSize(transfer));
+            BinaryOperationCodec.encodeTransfer(transfer, buffer);
+        } else if (value instanceof AmountRequest request) {
+            buffer = ByteBuffer.allocate(BinaryOperationCodec.encodedSize(request));
+            BinaryOperationCodec.encodeAmount(request, buffer);
+        } else {
+            Transaction transaction = (Transaction) value;
+            buffer = ByteBuffer.allocate(BinaryOperationCodec.encodedSize(transaction));
+            BinaryOperationCodec.encodeTransaction(transaction, buffer);
+        }
+        outputMessage.getBody().write(buffer.array(), 0, buffer.position());
+    }
+}
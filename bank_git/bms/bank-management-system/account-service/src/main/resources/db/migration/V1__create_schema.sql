@@ -0,0 +1,97 @@
+-- Schema for the persistent profile, matching the JPA entities (validated at startup)
+
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE account_sub_ledgers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE balance_snapshots_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE batch_job_runs_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE batch_job_chunks_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE bank_accounts (
+    account_type VARCHAR(31) NOT NULL,
+    account_number VARCHAR(20) NOT NULL,
+    account_holder_name VARCHAR(100) NOT NULL,
+    balance NUMERIC(12,2) NOT NULL,
+    customer_ssn VARCHAR(7),
+    version BIGINT,
+    opened_at TIMESTAMP(6),
+    hot_account BOOLEAN NOT NULL,
+    minimum_balance NUMERIC(12,2),
+    interest_rate NUMERIC(5,2),
+    overdraft_limit NUMERIC(12,2),
+    maintenance_fee NUMERIC(12,2),
+    PRIMARY KEY (account_number)
+);
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL,
+    source_account VARCHAR(20) NOT NULL,
+    destination_account VARCHAR(20) NOT NULL,
+    amount NUMERIC(12,2) NOT NULL,
+    transaction_type VARCHAR(20) NOT NULL,
+    timestamp TIMESTAMP(6) NOT NULL,
+    status VARCHAR(20),
+    description VARCHAR(255),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_transactions_source_time ON transactions (source_account, timestamp, id);
+CREATE INDEX idx_transactions_destination_time ON transactions (destination_account, timestamp, id);
+
+CREATE TABLE account_sub_ledgers (
+    id BIGINT NOT NULL,
+    account_number VARCHAR(20) NOT NULL,
+    slot INTEGER NOT NULL,
+    balance NUMERIC(12,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_account_sub_ledgers_account_slot UNIQUE (account_number, slot)
+);
+
+CREATE TABLE balance_snapshots (
+    id BIGINT NOT NULL,
+    account_number VARCHAR(20) NOT NULL,
+    snapshot_date DATE NOT NULL,
+    balance NUMERIC(12,2) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_balance_snapshots_account_date UNIQUE (account_number, snapshot_date)
+);
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_fingerprint VARCHAR(200) NOT NULL,
+    response CLOB NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_at);
+
+CREATE TABLE journal_checkpoint (
+    id INTEGER NOT NULL,
+    segment BIGINT NOT NULL,
+    segment_offset INTEGER NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE batch_job_runs (
+    id BIGINT NOT NULL,
+    job_name VARCHAR(50) NOT NULL,
+    business_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_chunks INTEGER NOT NULL,
+    started_at TIMESTAMP(6) NOT NULL,
+    finished_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_batch_job_runs_job_date UNIQUE (job_name, business_date)
+);
+
+CREATE TABLE batch_job_chunks (
+    id BIGINT NOT NULL,
+    run_id BIGINT NOT NULL,
+    chunk_index INTEGER NOT NULL,
+    range_start VARCHAR(20),
+    range_end VARCHAR(20),
+    status VARCHAR(20) NOT NULL,
+    accounts_processed INTEGER NOT NULL,
+    completed_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_batch_job_chunks_run ON batch_job_chunks (run_id, status);
@@ -0,0 +1,27 @@
+-- Event-sourced ledger (account.ledger.enabled=true): immutable posting events and compact
+-- snapshots of the balance projection folded from them
+
+CREATE SEQUENCE ledger_events_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE ledger_snapshots_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE ledger_events (
+    sequence_number BIGINT NOT NULL,
+    account_number VARCHAR(20) NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    amount NUMERIC(12,2) NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL,
+    transaction_id BIGINT,
+    PRIMARY KEY (sequence_number)
+);
+CREATE INDEX idx_ledger_events_account ON ledger_events (account_number, sequence_number);
+
+CREATE TABLE ledger_snapshots (
+    id BIGINT NOT NULL,
+    position BIGINT NOT NULL,
+    pending CLOB NOT NULL,
+    account_count INTEGER NOT NULL,
+    event_count BIGINT NOT NULL,
+    payload BLOB NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
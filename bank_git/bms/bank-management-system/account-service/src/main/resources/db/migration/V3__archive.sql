@@ -0,0 +1,15 @@
+-- Transaction archive (account.archive.enabled=true): catalog of the segment files that old
+-- transactions are moved into, and the index the archive job uses to find the oldest rows
+
+CREATE TABLE archive_segments (
+    file_name VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    row_count INTEGER NOT NULL,
+    min_timestamp TIMESTAMP(6),
+    max_timestamp TIMESTAMP(6),
+    bytes BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (file_name)
+);
+
+CREATE INDEX idx_transactions_timestamp ON transactions (timestamp, id);
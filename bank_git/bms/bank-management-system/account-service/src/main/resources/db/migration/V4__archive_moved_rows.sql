@@ -0,0 +1,6 @@
+-- Transaction archive: how many of a segment's rows have left the transactions table. Rows are
+-- moved in batches and readers use this count to see every row in exactly one place
+
+ALTER TABLE archive_segments ADD COLUMN moved_rows INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE archive_segments SET moved_rows = row_count WHERE status = 'ARCHIVED';
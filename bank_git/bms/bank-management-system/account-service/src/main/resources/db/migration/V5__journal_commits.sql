@@ -0,0 +1,8 @@
+-- Transaction journal (account.journal.enabled=true): ids of postings whose database transaction
+-- committed, kept until the posting is projected so restarts can resolve postings left without
+-- an outcome marker
+
+CREATE TABLE journal_commits (
+    transaction_id BIGINT NOT NULL,
+    PRIMARY KEY (transaction_id)
+);
@@ -0,0 +1,62 @@
+package com.bank.account;
+
+import com.bank.account.service.AccountService;
+import com.bank.common.storage.StorageReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The "persistent" profile against a file database in a temporary directory: Flyway creates a
+// schema Hibernate validates, data survives a restart, and a lost database file comes back
+// from the snapshot written at shutdown.
+class PersistentProfileTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void migratesSurvivesRestartsAndRestoresFromTheShutdownSnapshot() throws Exception {
+        int migrations;
+        try (ConfigurableApplicationContext first = start()) {
+            migrations = (int) first.getBean(StorageReport.class).toMap().get("migrationsApplied");
+            assertThat(migrations).isPositive();
+            first.getBean(AccountService.class).createAccount("SAVINGS", "PP-1", "Persistent", new BigDecimal("250.00"), "1000001");
+        }
+
+        try (ConfigurableApplicationContext second = start()) {
+            assertThat(second.getBean(StorageReport.class).toMap())
+                    .containsEntry("migrationsApplied", 0)
+                    .containsEntry("restoredFrom", null);
+            assertThat(second.getBean(AccountService.class).getBalance("PP-1")).isEqualByComparingTo("250.00");
+        }
+
+        Files.delete(dir.resolve("accountdb.mv.db"));
+
+        try (ConfigurableApplicationContext restored = start()) {
+            assertThat(restored.getBean(StorageReport.class).toMap())
+                    .containsEntry("migrationsApplied", 0)
+                    .hasEntrySatisfying("restoredFrom", from -> assertThat((String) from).startsWith("accountdb-"));
+            assertThat(restored.getBean(AccountService.class).getBalance("PP-1")).isEqualByComparingTo("250.00");
+            assertThat(restored.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" AND \"type\" = 'SQL'", Integer.class)).isEqualTo(migrations);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(AccountServiceApplication.class)
+                .profiles("persistent")
+                .run("--server.port=0",
+                        "--eureka.client.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:file:" + dir.resolve("accountdb") + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--bank.storage.snapshot.directory=" + dir.resolve("snapshots"),
+                        "--bank.storage.snapshot.interval-minutes=0");
+    }
+}
@@ -0,0 +1,144 @@
+package com.bank.account.archive;
+
+import com.bank.account.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentFilesTest {
+
+    // More than two row groups
+    private static final int ROWS = 40_000;
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        SegmentReader segment = write("a.seg", 1, ROWS, START);
+
+        assertThat(segment.getRows()).isEqualTo(ROWS);
+        assertThat(segment.getMinId()).isEqualTo(1);
+        assertThat(segment.getMaxId()).isEqualTo(ROWS);
+        assertThat(segment.getMinTimestamp()).isEqualTo(START);
+        assertThat(segment.getMaxTimestamp()).isEqualTo(START.plusSeconds(ROWS - 1).plusNanos(123_000));
+        assertThat(segment.readIds()).containsExactly(LongStream.rangeClosed(1, ROWS).toArray());
+        assertThat(dir.resolve("a.seg.partial")).doesNotExist();
+
+        // Every fourth row is a transfer from AR-0 to AR-1, the others stay on one account
+        List<Transaction> transfersIn = segment.findByAccount("AR-1", null, null, ROWS);
+        assertThat(transfersIn).hasSize(ROWS / 4 * 2);
+        Transaction transfer = transfersIn.get(0);
+        assertThat(transfer.getId()).isEqualTo(1);
+        assertThat(transfer.getSourceAccount()).isEqualTo("AR-0");
+        assertThat(transfer.getDestinationAccount()).isEqualTo("AR-1");
+        assertThat(transfer.getTransactionType()).isEqualTo("TRANSFER");
+        assertThat(transfer.getAmount()).isEqualByComparingTo("1.01");
+        assertThat(transfer.getStatus()).isEqualTo("SUCCESS");
+        assertThat(transfer.getDescription()).isNull();
+        assertThat(transfer.getTimestamp()).isEqualTo(START);
+        Transaction deposit = transfersIn.get(1);
+        assertThat(deposit.getSourceAccount()).isEqualTo("AR-1").isEqualTo(deposit.getDestinationAccount());
+        assertThat(deposit.getDescription()).isEqualTo("Deposit 3");
+        assertThat(segment.findByAccount("AR-9", null, null, ROWS)).isEmpty();
+        assertThat(segment.findByAccount("AN-ACCOUNT-NUMBER-LONGER-THAN-ANY-KEY", null, null, ROWS)).isEmpty();
+    }
+
+    @Test
+    void timeRangesAndVisibleRowsLimitWhatIsRead() throws IOException {
+        SegmentReader segment = write("a.seg", 1, ROWS, START);
+        LocalDateTime from = START.plusSeconds(20_000);
+        LocalDateTime to = START.plusSeconds(20_100);
+
+        List<Transaction> inRange = new ArrayList<>();
+        segment.scan(from, to, ROWS, inRange::add);
+        assertThat(inRange).hasSize(100).allMatch(t -> !t.getTimestamp().isBefore(from) && t.getTimestamp().isBefore(to));
+        assertThat(segment.findByAccount("AR-1", from, to, ROWS)).hasSize(50);
+        assertThat(segment.overlaps(START.minusDays(2), START.minusDays(1))).isFalse();
+        assertThat(segment.overlaps(null, START.plusNanos(1000))).isTrue();
+
+        // Only the rows that have left the table so far, which are always the first ones
+        List<Transaction> visible = new ArrayList<>();
+        segment.scan(null, null, 20_050, visible::add);
+        assertThat(visible).hasSize(20_050).extracting(Transaction::getId).endsWith(20_050L);
+        assertThat(segment.findByAccount("AR-1", from, to, 20_050)).hasSize(25);
+        segment.scan(null, null, 0, visible::add);
+        assertThat(visible).hasSize(20_050);
+    }
+
+    @Test
+    void viewPagesNewestFirstAcrossSegments() throws IOException {
+        SegmentReader older = write("a.seg", 1, 100, START);
+        SegmentReader newer = write("b.seg", 101, 100, START.plusDays(1));
+        ArchiveView view = new ArchiveView(List.of(older, newer), new int[] {100, 60});
+
+        List<Transaction> first = view.findPageBefore("AR-1", null, null, 10);
+        assertThat(first).extracting(Transaction::getId).containsExactly(159L, 157L, 155L, 153L, 151L, 149L, 147L, 145L, 143L, 141L);
+        List<Transaction> next = view.findPageBefore("AR-1", first.get(9).getTimestamp(), first.get(9).getId(), 1000);
+        assertThat(next).hasSize(20 + 50).extracting(Transaction::getId).startsWith(139L).endsWith(1L);
+
+        assertThat(view.findByAccount("AR-1")).hasSize(80);
+        List<Transaction> scanned = new ArrayList<>();
+        view.scan("AR-0", START.plusDays(1), null, scanned::add);
+        assertThat(scanned).hasSize(45);
+        assertThat(ArchiveView.EMPTY.isEmpty()).isTrue();
+        assertThat(ArchiveView.EMPTY.findPageBefore("AR-1", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void incompleteFilesAreRejected() throws IOException {
+        Path file = write("a.seg", 1, 1000, START).getFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        assertThatThrownBy(() -> SegmentReader.open(file))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not a complete transaction segment");
+
+        SegmentWriter aborted = new SegmentWriter(dir.resolve("b.seg"));
+        aborted.add(transaction(1, START));
+        aborted.abort();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    private SegmentReader write(String name, long firstId, int rows, LocalDateTime start) throws IOException {
+        SegmentWriter writer = new SegmentWriter(dir.resolve(name));
+        for (int i = 0; i < rows; i++) {
+            writer.add(transaction(firstId + i, start.plusSeconds(i).plusNanos(i == rows - 1 ? 123_000 : 0)));
+        }
+        assertThat(writer.getRows()).isEqualTo(rows);
+        return SegmentReader.open(writer.finish());
+    }
+
+    private static Transaction transaction(long id, LocalDateTime timestamp) {
+        Transaction transaction;
+        if (id % 4 == 1) {
+            transaction = new Transaction("AR-0", "AR-1", new BigDecimal("1.01"), "TRANSFER");
+        } else {
+            String account = "AR-" + (id % 2);
+            transaction = new Transaction(account, account, new BigDecimal(id + ".50"), "DEPOSIT");
+            transaction.setDescription("Deposit " + id);
+        }
+        transaction.setId(id);
+        transaction.setTimestamp(timestamp);
+        transaction.setStatus("SUCCESS");
+        return transaction;
+    }
+}
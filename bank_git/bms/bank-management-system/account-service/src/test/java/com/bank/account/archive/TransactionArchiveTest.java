@@ -0,0 +1,167 @@
+package com.bank.account.archive;
+
+import com.bank.account.AccountServiceApplication;
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.model.Transaction;
+import com.bank.account.service.AccountService;
+import com.bank.account.service.BalanceSnapshotService;
+import com.bank.account.service.ReactiveAccountService;
+import com.bank.account.service.TransactionExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Both editions with the archive enabled, each on its own in-memory database and directory.
+class TransactionArchiveTest {
+
+    private static final int OLD_ROWS = 2500;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void readersSeeEveryRowOnceWhileRowsMove() throws Exception {
+        try (ConfigurableApplicationContext context = start("archiveblocking")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            BalanceSnapshotService snapshotService = context.getBean(BalanceSnapshotService.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            accountService.createAccount("SAVINGS", "AR-1", "Archive", new BigDecimal("1000.00"), "1000001");
+            insertOldRows(jdbcTemplate, "AR-1", 700_000_000L);
+            accountService.deposit("AR-1", new BigDecimal("25.00"));
+            LocalDateTime asOf = LocalDateTime.now().minusMonths(18);
+
+            List<Long> history = ids(accountService.getTransactionHistory("AR-1"));
+            List<Long> pages = pageThrough(cursor -> accountService.getTransactionHistoryPage("AR-1", cursor, 200));
+            List<String> export = export(context.getBean(TransactionExportService.class));
+            BigDecimal balanceAsOf = snapshotService.getBalanceAsOf("AR-1", asOf);
+            assertThat(history).hasSize(OLD_ROWS + 1).isEqualTo(pages);
+
+            // Read over and over while the rows move, batch by batch; a row seen twice or missed
+            // shows in the sums and the export
+            AtomicBoolean archiving = new AtomicBoolean(true);
+            CompletableFuture<List<String>> reader = CompletableFuture.supplyAsync(() -> {
+                List<String> wrong = new ArrayList<>();
+                while (archiving.get()) {
+                    try {
+                        BigDecimal balance = snapshotService.getBalanceAsOf("AR-1", asOf);
+                        if (balance.compareTo(balanceAsOf) != 0) {
+                            wrong.add("balance " + balance);
+                        }
+                        int exported = export(context.getBean(TransactionExportService.class)).size();
+                        if (exported != export.size()) {
+                            wrong.add("exported " + exported);
+                        }
+                    } catch (Exception e) {
+                        wrong.add(e.toString());
+                    }
+                }
+                return wrong;
+            });
+            Map<String, Object> run;
+            try {
+                run = context.getBean(ArchiveJob.class).run();
+            } finally {
+                archiving.set(false);
+            }
+
+            assertThat(reader.get()).isEmpty();
+            assertThat(run).containsEntry("segments", 1);
+            assertThat((long) run.get("rows")).isGreaterThanOrEqualTo(OLD_ROWS);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE destination_account = 'AR-1'",
+                    Integer.class)).isEqualTo(1);
+            Map<String, Object> segment = jdbcTemplate.queryForMap("SELECT status, moved_rows, row_count FROM archive_segments");
+            assertThat(segment.get("status")).isEqualTo("ARCHIVED");
+            assertThat(segment.get("moved_rows")).isEqualTo(segment.get("row_count"));
+
+            assertThat(ids(accountService.getTransactionHistory("AR-1"))).isEqualTo(history);
+            assertThat(pageThrough(cursor -> accountService.getTransactionHistoryPage("AR-1", cursor, 200))).isEqualTo(pages);
+            assertThat(export(context.getBean(TransactionExportService.class))).isEqualTo(export);
+            assertThat(snapshotService.getBalanceAsOf("AR-1", asOf)).isEqualByComparingTo(balanceAsOf);
+        }
+    }
+
+    @Test
+    void reactiveHistoryIncludesArchivedRows() {
+        try (ConfigurableApplicationContext context = start("archivereactive", "reactive")) {
+            context.getBean(AccountService.class).createAccount("SAVINGS", "AR-2", "Archive", new BigDecimal("1000.00"), "1000001");
+            insertOldRows(context.getBean(JdbcTemplate.class), "AR-2", 710_000_000L);
+            ReactiveAccountService service = context.getBean(ReactiveAccountService.class);
+            service.deposit("AR-2", new BigDecimal("25.00")).block();
+            List<Long> history = ids(service.getTransactionHistory("AR-2").block());
+            List<Long> pages = pageThrough(cursor -> service.getTransactionHistoryPage("AR-2", cursor, 300).block());
+
+            context.getBean(ArchiveJob.class).run();
+
+            assertThat(history).hasSize(OLD_ROWS + 1).isEqualTo(pages);
+            assertThat(ids(service.getTransactionHistory("AR-2").block())).isEqualTo(history);
+            assertThat(pageThrough(cursor -> service.getTransactionHistoryPage("AR-2", cursor, 300).block())).isEqualTo(pages);
+        }
+    }
+
+    private ConfigurableApplicationContext start(String database, String... profiles) {
+        return new SpringApplicationBuilder(AccountServiceApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--eureka.client.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database,
+                        "--account.reactive.r2dbc-url=r2dbc:h2:mem:///" + database,
+                        "--account.archive.enabled=true",
+                        "--account.archive.directory=" + dir.resolve(database));
+    }
+
+    // Deposits two years old, a minute apart, with ids far from the ones the services allocate.
+    // The account is backdated so balances as of that time can be asked for.
+    private static void insertOldRows(JdbcTemplate jdbcTemplate, String accountNumber, long firstId) {
+        LocalDateTime start = LocalDateTime.now().minusYears(2);
+        jdbcTemplate.update("UPDATE bank_accounts SET opened_at = ? WHERE account_number = ?",
+                Timestamp.valueOf(start.minusDays(1)), accountNumber);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < OLD_ROWS; i++) {
+            rows.add(new Object[] {firstId + i, accountNumber, accountNumber, new BigDecimal((i % 90 + 10) + ".25"),
+                    Timestamp.valueOf(start.plusMinutes(i)), i % 3 == 0 ? null : "Deposit " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, source_account, destination_account, amount, transaction_type, "
+                + "timestamp, status, description) VALUES (?, ?, ?, ?, 'DEPOSIT', ?, 'SUCCESS', ?)", rows);
+    }
+
+    private static List<Long> pageThrough(Function<String, TransactionPage> page) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage next = page.apply(cursor);
+            ids.addAll(ids(next.getTransactions()));
+            cursor = next.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+
+    private static List<String> export(TransactionExportService exportService) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out, TransactionExportService.FORMAT_CSV, "AR-1", null, null);
+        List<String> lines = new ArrayList<>(Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n")));
+        lines.sort(null);
+        return lines;
+    }
+}
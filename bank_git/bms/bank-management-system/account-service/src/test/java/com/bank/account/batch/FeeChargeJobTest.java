@@ -0,0 +1,98 @@
+package com.bank.account.batch;
+
+import com.bank.account.service.AccountService;
+import com.bank.account.service.HotAccountLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:fees",
+        "account.jobs.chunk-size=2",
+        "account.jobs.parallelism=1",
+        "account.hot.sweep-interval-ms=3600000"
+})
+class FeeChargeJobTest {
+
+    @Autowired
+    private FeeChargeJob job;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private HotAccountLedger hotAccountLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Overdraft interest at the default 18% over 365 days is 1.80 a day on -3650.00.
+    @Test
+    void chargesOverdraftInterestDailyAndMaintenanceAtMonthEnd() {
+        open("FC-1", "-3650.00");
+        open("FC-2", "100.00");
+        open("FC-3", "-9999.00");
+
+        job.run(LocalDate.of(2030, 2, 14));
+
+        assertThat(accountService.getBalance("FC-1")).isEqualByComparingTo("-3651.80");
+        assertThat(accountService.getBalance("FC-2")).isEqualByComparingTo("100.00");
+        // 9999.00 * 18 / 36500 = 4.931
+        assertThat(accountService.getBalance("FC-3")).isEqualByComparingTo("-10003.93");
+
+        job.run(LocalDate.of(2030, 2, 28));
+
+        // 3651.80 * 18 / 36500 = 1.8009, plus the 5.00 maintenance fee
+        assertThat(accountService.getBalance("FC-1")).isEqualByComparingTo("-3658.60");
+        assertThat(accountService.getBalance("FC-2")).isEqualByComparingTo("95.00");
+        // Charged past the 10000.00 overdraft limit: 10003.93 * 18 / 36500 = 4.9334
+        assertThat(accountService.getBalance("FC-3")).isEqualByComparingTo("-10013.86");
+
+        List<String> descriptions = jdbcTemplate.queryForList(
+                "SELECT description FROM transactions WHERE transaction_type = 'FEE' AND source_account = 'FC-1' ORDER BY id",
+                String.class);
+        assertThat(descriptions).containsExactly(
+                "Overdraft interest for 2030-02-14",
+                "Overdraft interest for 2030-02-28",
+                "Maintenance fee for FEBRUARY 2030");
+    }
+
+    @Test
+    void repeatedRunForTheSameDayChargesOnce() {
+        open("FC-4", "-3650.00");
+        LocalDate businessDate = LocalDate.of(2030, 3, 10);
+
+        job.run(businessDate);
+        job.run(businessDate);
+
+        assertThat(accountService.getBalance("FC-4")).isEqualByComparingTo("-3651.80");
+    }
+
+    @Test
+    void hotAccountInCreditOverallIsNotChargedOverdraftInterest() {
+        // The main row is overdrawn, the credits waiting in its slots more than cover it
+        open("FH-1", "-3650.00");
+        hotAccountLedger.enable("FH-1");
+        accountService.deposit("FH-1", new BigDecimal("7300.00"));
+
+        job.run(LocalDate.of(2030, 4, 10));
+
+        assertThat(accountService.getBalance("FH-1")).isEqualByComparingTo("3650.00");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE transaction_type = 'FEE' AND source_account = 'FH-1'", Integer.class))
+                .isZero();
+    }
+
+    private void open(String accountNumber, String balance) {
+        accountService.createAccount("CURRENT", accountNumber, "Fees", BigDecimal.ZERO, "1000001");
+        jdbcTemplate.update("UPDATE bank_accounts SET balance = ?, maintenance_fee = 5.00 WHERE account_number = ?",
+                new BigDecimal(balance), accountNumber);
+    }
+}
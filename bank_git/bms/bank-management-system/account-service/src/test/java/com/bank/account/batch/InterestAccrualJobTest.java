@@ -0,0 +1,109 @@
+package com.bank.account.batch;
+
+import com.bank.account.model.BatchJobChunk;
+import com.bank.account.model.BatchJobRun;
+import com.bank.account.repository.BatchJobChunkRepository;
+import com.bank.account.repository.BatchJobRunRepository;
+import com.bank.account.service.AccountService;
+import com.bank.account.service.HotAccountLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:interest",
+        "account.jobs.chunk-size=2",
+        "account.jobs.parallelism=1",
+        "account.hot.sweep-interval-ms=3600000"
+})
+class InterestAccrualJobTest {
+
+    private static final String INTEREST_COUNT_SQL =
+            "SELECT COUNT(*) FROM transactions WHERE transaction_type = 'INTEREST' AND destination_account = ? AND description = ?";
+
+    @Autowired
+    private InterestAccrualJob job;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BatchJobRunRepository runRepository;
+
+    @Autowired
+    private BatchJobChunkRepository chunkRepository;
+
+    @Autowired
+    private HotAccountLedger hotAccountLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 3650.00 at the default 3.5% over 365 days earns 0.35 a day.
+    @Test
+    void interruptedRunResumesWithOnlyThePendingChunks() {
+        LocalDate businessDate = LocalDate.of(2030, 1, 15);
+        for (int i = 1; i <= 6; i++) {
+            accountService.createAccount("SAVINGS", "IA-" + i, "Interest", new BigDecimal("3650.00"), "1000001");
+        }
+        // Its interest does not fit DECIMAL(12,2), which fails the chunk holding it
+        accountService.createAccount("SAVINGS", "IA-9", "Interest", new BigDecimal("9999999999.00"), "1000001");
+
+        assertThatThrownBy(() -> job.run(businessDate)).isInstanceOf(RuntimeException.class);
+
+        BatchJobRun run = runRepository.findByJobNameAndBusinessDate(job.getJobName(), businessDate).orElseThrow();
+        assertThat(run.getStatus()).isEqualTo(BatchJobRun.FAILED);
+        List<BatchJobChunk> pendingChunks = chunkRepository.findByRunIdAndStatusOrderByChunkIndex(run.getId(), BatchJobChunk.PENDING);
+        assertThat(pendingChunks).hasSize(1);
+        BatchJobChunk pending = pendingChunks.get(0);
+        assertThat(inRange(pending, "IA-9")).isTrue();
+        for (int i = 1; i <= 6; i++) {
+            assertThat(accountService.getBalance("IA-" + i)).isEqualByComparingTo(inRange(pending, "IA-" + i) ? "3650.00" : "3650.35");
+        }
+        assertThat(accountService.getBalance("IA-9")).isEqualByComparingTo("9999999999.00");
+
+        jdbcTemplate.update("UPDATE bank_accounts SET balance = 3650.00 WHERE account_number = 'IA-9'");
+        JobProgress resumed = job.run(businessDate);
+
+        assertThat(resumed.getStatus()).isEqualTo(BatchJobRun.COMPLETED);
+        assertThat((long) resumed.toMap().get("accountsProcessed")).isLessThanOrEqualTo(2);
+        assertThat(accountService.getBalance("IA-9")).isEqualByComparingTo("3650.35");
+        for (int i = 1; i <= 6; i++) {
+            assertThat(accountService.getBalance("IA-" + i)).isEqualByComparingTo("3650.35");
+            assertThat(jdbcTemplate.queryForObject(INTEREST_COUNT_SQL, Integer.class, "IA-" + i, "Interest accrual for " + businessDate))
+                    .isEqualTo(1);
+        }
+
+        JobProgress again = job.run(businessDate);
+        assertThat(again.getStatus()).isEqualTo(BatchJobRun.COMPLETED);
+        assertThat(accountService.getBalance("IA-1")).isEqualByComparingTo("3650.35");
+    }
+
+    @Test
+    void hotAccountEarnsInterestOnItsCombinedBalance() {
+        LocalDate businessDate = LocalDate.of(2030, 1, 16);
+        accountService.createAccount("SAVINGS", "IH-1", "Interest", new BigDecimal("1000.00"), "1000001");
+        hotAccountLedger.enable("IH-1");
+        accountService.deposit("IH-1", new BigDecimal("2650.00"));
+        assertThat(jdbcTemplate.queryForObject("SELECT balance FROM bank_accounts WHERE account_number = 'IH-1'", BigDecimal.class))
+                .isEqualByComparingTo("1000.00");
+
+        job.run(businessDate);
+
+        // 0.35 on the combined 3650.00; the main row alone would have earned 0.10
+        assertThat(accountService.getBalance("IH-1")).isEqualByComparingTo("3650.35");
+    }
+
+    private static boolean inRange(BatchJobChunk chunk, String accountNumber) {
+        return (chunk.getRangeStart() == null || chunk.getRangeStart().compareTo(accountNumber) <= 0)
+                && (chunk.getRangeEnd() == null || chunk.getRangeEnd().compareTo(accountNumber) > 0);
+    }
+}
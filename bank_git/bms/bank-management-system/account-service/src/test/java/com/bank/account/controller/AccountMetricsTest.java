@@ -0,0 +1,75 @@
+package com.bank.account.controller;
+
+import com.bank.account.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Metrics export is off in tests unless observability is auto-configured explicitly.
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:metrics"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AccountMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void operationsRecordTotalAndDbTimeAndFailuresByCause() throws Exception {
+        accountService.createAccount("SAVINGS", "MT-1", "Metrics", new BigDecimal("10.00"), "1000001");
+
+        mockMvc.perform(post("/api/accounts/MT-1/deposit").contentType(MediaType.APPLICATION_JSON).content("{\"amount\":\"5.00\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/accounts/MT-1/withdraw").contentType(MediaType.APPLICATION_JSON).content("{\"amount\":\"500.00\"}"))
+                .andExpect(status().isBadRequest());
+
+        Timer deposit = registry.get("bank.operation").tags("operation", "deposit", "outcome", "success").timer();
+        Timer depositDb = registry.get("bank.operation.db").tags("operation", "deposit", "outcome", "success").timer();
+        assertThat(deposit.count()).isPositive();
+        assertThat(depositDb.totalTime(TimeUnit.NANOSECONDS)).isPositive()
+                .isLessThanOrEqualTo((long) deposit.totalTime(TimeUnit.NANOSECONDS));
+        assertThat(registry.get("bank.operation.failures")
+                .tags("operation", "withdraw", "cause", "InsufficientFundsException").counter().count()).isPositive();
+        assertThat(registry.get("http.server.requests")
+                .tags("uri", "/api/accounts/{accountNumber}/deposit", "outcome", "SUCCESS").timer().count()).isPositive();
+    }
+
+    @Test
+    void prometheusEndpointServesTheBankMeters() throws Exception {
+        accountService.createAccount("SAVINGS", "MT-2", "Metrics", new BigDecimal("10.00"), "1000001");
+        accountService.deposit("MT-2", new BigDecimal("1.00"));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("bank_operation_seconds_bucket{")
+                .contains("operation=\"deposit\"")
+                .contains("application=\"account-service\"")
+                .contains("bank_db_pool_saturation{")
+                .contains("bank_db_pool_awaiting{");
+    }
+}
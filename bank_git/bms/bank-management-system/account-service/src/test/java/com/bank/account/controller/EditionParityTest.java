@@ -0,0 +1,141 @@
+package com.bank.account.controller;
+
+import com.bank.account.AccountServiceApplication;
+import com.bank.account.service.AccountService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the same requests against the blocking and the reactive edition, each on its own
+// in-memory database, and expects the same status codes and bodies. Ids, timestamps and
+// cursors differ between the editions and are masked.
+class EditionParityTest {
+
+    // Decimals are compared with their scale
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    private static ConfigurableApplicationContext blocking;
+
+    private static ConfigurableApplicationContext reactive;
+
+    @BeforeAll
+    static void start() {
+        blocking = start("parityblocking");
+        reactive = start("parityreactive", "reactive");
+    }
+
+    @AfterAll
+    static void stop() {
+        blocking.close();
+        reactive.close();
+    }
+
+    @Test
+    void bothEditionsAnswerTheSameSequenceAlike() throws Exception {
+        List<String> blockingReplies = run(blocking);
+        List<String> reactiveReplies = run(reactive);
+
+        assertThat(reactiveReplies).containsExactlyElementsOf(blockingReplies);
+        assertThat(blockingReplies).extracting(reply -> reply.substring(0, 3)).containsExactly(
+                "200", "200", "200", "400", "400", "400", "404", "404", "404", "404", "200", "200", "200", "400",
+                "400", "400", "400", "200");
+        assertThat(blockingReplies.get(10)).endsWith("{\"balance\":1020.00}");
+        assertThat(blockingReplies.get(17)).endsWith("{\"balance\":1020.00}");
+        assertThat(blockingReplies.get(11).split("<id>")).hasSize(4);
+        assertThat(blockingReplies.get(12)).contains("\"nextCursor\":\"<cursor>\"");
+    }
+
+    private static List<String> run(ConfigurableApplicationContext context) throws Exception {
+        AccountService accountService = context.getBean(AccountService.class);
+        accountService.createAccount("SAVINGS", "PS-1", "Parity", new BigDecimal("1000.00"), "1000001");
+        accountService.createAccount("CURRENT", "PC-1", "Parity", new BigDecimal("100.00"), "1000001");
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/accounts";
+
+        List<String> replies = new ArrayList<>();
+        replies.add(post(base + "/PS-1/deposit", "{\"amount\":\"50.00\"}"));
+        replies.add(post(base + "/PS-1/withdraw", "{\"amount\":\"20.00\"}"));
+        replies.add(post(base + "/transfer", "{\"sourceAccount\":\"PS-1\",\"destinationAccount\":\"PC-1\",\"amount\":\"10.00\"}"));
+        // Below the savings minimum balance, past the current account overdraft, not positive
+        replies.add(post(base + "/PS-1/withdraw", "{\"amount\":\"100000.00\"}"));
+        replies.add(post(base + "/transfer", "{\"sourceAccount\":\"PC-1\",\"destinationAccount\":\"PS-1\",\"amount\":\"100000.00\"}"));
+        replies.add(post(base + "/PS-1/deposit", "{\"amount\":\"-5.00\"}"));
+        replies.add(post(base + "/NOPE-1/deposit", "{\"amount\":\"5.00\"}"));
+        replies.add(post(base + "/NOPE-1/withdraw", "{\"amount\":\"5.00\"}"));
+        replies.add(post(base + "/transfer", "{\"sourceAccount\":\"PS-1\",\"destinationAccount\":\"NOPE-1\",\"amount\":\"5.00\"}"));
+        replies.add(get(base + "/NOPE-1/balance"));
+        replies.add(get(base + "/PS-1/balance"));
+        replies.add(get(base + "/PS-1/transactions"));
+        replies.add(get(base + "/PS-1/transactions?limit=2"));
+        replies.add(get(base + "/PS-1/transactions?limit=0"));
+        // Fractions of a cent are refused, not rounded
+        replies.add(post(base + "/PS-1/deposit", "{\"amount\":\"10.005\"}"));
+        replies.add(post(base + "/PS-1/withdraw", "{\"amount\":\"10.005\"}"));
+        replies.add(post(base + "/transfer", "{\"sourceAccount\":\"PS-1\",\"destinationAccount\":\"PC-1\",\"amount\":\"10.005\"}"));
+        replies.add(get(base + "/PS-1/balance"));
+        return replies;
+    }
+
+    private static ConfigurableApplicationContext start(String database, String... profiles) {
+        return new SpringApplicationBuilder(AccountServiceApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--eureka.client.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database,
+                        "--account.reactive.r2dbc-url=r2dbc:h2:mem:///" + database);
+    }
+
+    private static String post(String url, String json) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    private static String get(String url) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(url)).GET().build());
+    }
+
+    private static String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        String body = response.body().isEmpty() ? "" : MAPPER.writeValueAsString(mask(MAPPER.readTree(response.body())));
+        return response.statusCode() + " " + body;
+    }
+
+    private static JsonNode mask(JsonNode node) {
+        if (node.isArray()) {
+            node.forEach(EditionParityTest::mask);
+        } else if (node instanceof ObjectNode object) {
+            object.remove("timestamp");
+            if (object.hasNonNull("id")) {
+                object.set("id", TextNode.valueOf("<id>"));
+            }
+            if (object.hasNonNull("nextCursor")) {
+                object.set("nextCursor", TextNode.valueOf("<cursor>"));
+            }
+            object.forEach(EditionParityTest::mask);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,140 @@
+package com.bank.account.journal;
+
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.TransactionRepository;
+import com.bank.account.service.AccountService;
+import com.bank.account.service.TransactionRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:journal",
+        "account.journal.enabled=true",
+        "account.journal.fsync-policy=EVERY_WRITE",
+        "account.journal.projector.interval-ms=3600000"
+})
+class JournalProjectorTest {
+
+    private static final long IN_DOUBT_ID = 900_000_001L;
+    private static final long COMMITTED_IN_DOUBT_ID = 900_000_002L;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRecorder transactionRecorder;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JournalProjector projector;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransactionJournal journal;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The journal directory starts with a posting whose process stopped before writing its
+    // outcome marker.
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        try {
+            Path directory = Files.createTempDirectory("journal");
+            TransactionJournal journal = new TransactionJournal();
+            ReflectionTestUtils.setField(journal, "enabled", true);
+            ReflectionTestUtils.setField(journal, "directory", directory.toString());
+            ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+            ReflectionTestUtils.setField(journal, "fsyncPolicy", FsyncPolicy.EVERY_WRITE);
+            journal.open();
+            Transaction inDoubt = new Transaction("J-0", "J-0", new BigDecimal("1.00"), "DEPOSIT");
+            inDoubt.setId(IN_DOUBT_ID);
+            journal.appendPostings(List.of(inDoubt));
+            journal.close();
+            registry.add("account.journal.directory", directory::toString);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void inDoubtPostingFromBeforeRestartWithoutCommitIsRolledBack() {
+        assertThat(transactionRepository.findById(IN_DOUBT_ID)).isEmpty();
+        assertThat(projector.getPendingCount()).isZero();
+    }
+
+    @Test
+    void inDoubtPostingWhoseTransactionCommittedIsProjected() throws IOException {
+        // As left by a process that stopped after the database commit but before the marker
+        Transaction posting = new Transaction("J-3", "J-3", new BigDecimal("2.00"), "DEPOSIT");
+        posting.setId(COMMITTED_IN_DOUBT_ID);
+        posting.setStatus("SUCCESS");
+        jdbcTemplate.update("INSERT INTO journal_commits (transaction_id) VALUES (?)", COMMITTED_IN_DOUBT_ID);
+        journal.appendPostings(List.of(posting));
+        projector.drain();
+        assertThat(projector.getPendingCount()).isEqualTo(1);
+
+        projector.resolveInDoubt(journal.getEnd());
+
+        assertThat(transactionRepository.findById(COMMITTED_IN_DOUBT_ID))
+                .hasValueSatisfying(t -> assertThat(t.getAmount()).isEqualByComparingTo("2.00"));
+        assertThat(projector.getPendingCount()).isZero();
+        assertThat(commitRows(COMMITTED_IN_DOUBT_ID)).isZero();
+    }
+
+    @Test
+    void committedPostingHasItsIdBeforeProjection() throws IOException {
+        accountService.createAccount("SAVINGS", "J-1", "Journal", new BigDecimal("1000.00"), "1000001");
+
+        Transaction deposit = accountService.deposit("J-1", new BigDecimal("50.00"));
+
+        assertThat(deposit.getId()).isNotNull();
+        assertThat(transactionRepository.findById(deposit.getId())).isEmpty();
+        assertThat(commitRows(deposit.getId())).isEqualTo(1);
+        projector.drain();
+        assertThat(transactionRepository.findById(deposit.getId()))
+                .hasValueSatisfying(t -> assertThat(t.getAmount()).isEqualByComparingTo("50.00"));
+        assertThat(commitRows(deposit.getId())).isZero();
+    }
+
+    @Test
+    void rolledBackPostingIsNeverProjected() throws IOException {
+        Transaction transaction = new Transaction("J-2", "J-2", new BigDecimal("5.00"), "DEPOSIT");
+        transaction.setStatus("SUCCESS");
+        transactionTemplate.executeWithoutResult(status -> {
+            transactionRecorder.record(transaction);
+            status.setRollbackOnly();
+        });
+
+        projector.drain();
+
+        assertThat(transaction.getId()).isNotNull();
+        assertThat(transactionRepository.findById(transaction.getId())).isEmpty();
+        assertThat(commitRows(transaction.getId())).isZero();
+        assertThat(projector.getPendingCount()).isZero();
+    }
+
+    private int commitRows(long transactionId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM journal_commits WHERE transaction_id = ?",
+                Integer.class, transactionId);
+    }
+}
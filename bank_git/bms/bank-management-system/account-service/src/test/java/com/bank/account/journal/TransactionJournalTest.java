@@ -0,0 +1,93 @@
+package com.bank.account.journal;
+
+import com.bank.account.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TransactionJournal journal;
+
+    @AfterEach
+    void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void readsPostingsAndOutcomeMarkersInOrder() throws IOException {
+        journal = open();
+        journal.appendPostings(List.of(transaction(11L, "10.00"), transaction(12L, "20.00")));
+        journal.appendOutcome(List.of(11L), true);
+        journal.appendOutcome(List.of(12L), false);
+
+        List<JournalEntry> entries = journal.read(JournalPosition.START, 10);
+
+        assertThat(entries).extracting(JournalEntry::getKind).containsExactly(
+                JournalEntry.Kind.POSTING, JournalEntry.Kind.POSTING, JournalEntry.Kind.COMMIT, JournalEntry.Kind.ABORT);
+        assertThat(entries.get(0).getTransaction().getId()).isEqualTo(11L);
+        assertThat(entries.get(1).getTransaction().getAmount()).isEqualByComparingTo("20.00");
+        assertThat(entries.get(2).getTransactionIds()).containsExactly(11L);
+        assertThat(entries.get(3).getTransactionIds()).containsExactly(12L);
+        assertThat(entries.get(1).getStart()).isEqualByComparingTo(entries.get(0).getNext());
+        assertThat(entries.get(3).getNext()).isEqualByComparingTo(journal.getEnd());
+    }
+
+    @Test
+    void splitsLargeOutcomeMarkers() throws IOException {
+        journal = open();
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1200; id++) {
+            ids.add(id);
+        }
+        journal.appendOutcome(ids, true);
+
+        List<Long> read = new ArrayList<>();
+        journal.read(JournalPosition.START, 10).forEach(entry -> read.addAll(entry.getTransactionIds()));
+
+        assertThat(read).isEqualTo(ids);
+    }
+
+    @Test
+    void reopenedJournalRemembersWhereItEnded() throws IOException {
+        journal = open();
+        journal.appendPostings(List.of(transaction(21L, "5.00")));
+        JournalPosition end = journal.getEnd();
+        journal.close();
+
+        journal = open();
+
+        assertThat(journal.getRecoveredEnd()).isEqualByComparingTo(end);
+        assertThat(journal.read(JournalPosition.START, 10)).hasSize(1);
+    }
+
+    private TransactionJournal open() throws IOException {
+        TransactionJournal opened = new TransactionJournal();
+        ReflectionTestUtils.setField(opened, "enabled", true);
+        ReflectionTestUtils.setField(opened, "directory", directory.toString());
+        ReflectionTestUtils.setField(opened, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(opened, "fsyncPolicy", FsyncPolicy.EVERY_WRITE);
+        opened.open();
+        return opened;
+    }
+
+    private static Transaction transaction(long id, String amount) {
+        Transaction transaction = new Transaction("ACC1", "ACC2", new BigDecimal(amount), "TRANSFER");
+        transaction.setId(id);
+        transaction.setStatus("SUCCESS");
+        return transaction;
+    }
+}
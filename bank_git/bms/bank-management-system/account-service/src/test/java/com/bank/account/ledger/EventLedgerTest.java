@@ -0,0 +1,149 @@
+package com.bank.account.ledger;
+
+import com.bank.account.model.LedgerEvent;
+import com.bank.account.repository.LedgerSnapshotRepository;
+import com.bank.account.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Ledger mode on its own in-memory database, so the consistency check sees only these accounts
+// and the demo data.
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:ledger",
+        "account.ledger.enabled=true",
+        "account.ledger.snapshot-interval-ms=0",
+        "account.ledger.gap-horizon-ms=3600000"
+})
+class EventLedgerTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EventLedger ledger;
+
+    @Autowired
+    private LedgerProjection projection;
+
+    @Autowired
+    private LedgerSnapshotter snapshotter;
+
+    @Autowired
+    private LedgerConsistencyCheck consistencyCheck;
+
+    @Autowired
+    private LedgerSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void projectionMovesWithEveryCommittedPosting() {
+        accountService.createAccount("SAVINGS", "LG-1", "Ledger", new BigDecimal("1000.00"), "1000001");
+        accountService.createAccount("CURRENT", "LG-2", "Ledger", new BigDecimal("100.00"), "1000001");
+
+        accountService.deposit("LG-1", new BigDecimal("50.00"));
+        accountService.withdraw("LG-1", new BigDecimal("20.00"));
+        accountService.transferFunds("LG-1", "LG-2", new BigDecimal("10.00"));
+        assertThatThrownBy(() -> accountService.withdraw("LG-1", new BigDecimal("100000.00")));
+
+        assertThat(ledger.getBalance("LG-1")).isEqualByComparingTo("1020.00");
+        assertThat(ledger.getBalance("LG-2")).isEqualByComparingTo("110.00");
+        assertThat(accountService.getBalance("LG-1")).isEqualByComparingTo("1020.00");
+        // The failed withdrawal left no event
+        assertThat(jdbcTemplate.queryForList("SELECT event_type FROM ledger_events WHERE account_number = 'LG-1' "
+                + "ORDER BY sequence_number", String.class))
+                .containsExactly(LedgerEvent.OPENED, LedgerEvent.DEPOSIT, LedgerEvent.WITHDRAWAL, LedgerEvent.TRANSFER_OUT);
+    }
+
+    @Test
+    void rebuildsFromTheNewestSnapshotPlusTheEventsAfterIt() {
+        accountService.createAccount("SAVINGS", "LG-3", "Ledger", new BigDecimal("500.00"), "1000001");
+        Object snapshotId = snapshotter.snapshot().get("id");
+        accountService.deposit("LG-3", new BigDecimal("25.00"));
+
+        LedgerProjection rebuilt = new LedgerProjection();
+        LedgerSnapshotter restarted = restartedSnapshotter(rebuilt);
+        restarted.afterSingletonsInstantiated();
+
+        assertThat(rebuilt.isReady()).isTrue();
+        assertThat(rebuilt.getBalance("LG-3")).isEqualByComparingTo("525.00");
+        assertThat(rebuilt.getAccountCount()).isEqualTo(projection.getAccountCount());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> recovery = (Map<String, Object>) restarted.getStatus().get("lastRecovery");
+        assertThat(recovery).containsEntry("snapshotId", snapshotId).containsEntry("openedAccounts", 0);
+        assertThat((long) recovery.get("replayedEvents")).isPositive();
+    }
+
+    // A sequence number allocated by a posting that has not committed yet
+    @Test
+    void lateSequenceIsFoldedWhenItAppears() {
+        accountService.createAccount("SAVINGS", "LG-4", "Ledger", new BigDecimal("100.00"), "1000001");
+        int pendingBefore = (int) snapshotter.snapshot().get("pendingSequences");
+        long late = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR ledger_events_seq", Long.class);
+        accountService.deposit("LG-4", new BigDecimal("5.00"));
+
+        assertThat(snapshotter.snapshot()).containsEntry("pendingSequences", pendingBefore + 1);
+
+        LedgerEvent event = new LedgerEvent("LG-4", LedgerEvent.DEPOSIT, new BigDecimal("1.00"), LocalDateTime.now(), null);
+        event.setSequenceNumber(late);
+        jdbcTemplate.update("INSERT INTO ledger_events (sequence_number, account_number, event_type, amount, recorded_at) "
+                + "VALUES (?, 'LG-4', 'DEPOSIT', 1.00, CURRENT_TIMESTAMP)", late);
+        jdbcTemplate.update("UPDATE bank_accounts SET balance = balance + 1.00 WHERE account_number = 'LG-4'");
+        ledger.committed(List.of(event));
+
+        assertThat(snapshotter.snapshot()).containsEntry("pendingSequences", pendingBefore);
+        LedgerState saved = LedgerState.fromSnapshot(snapshotRepository.findTopByOrderByIdDesc().orElseThrow());
+        assertThat(saved.covers(late)).isTrue();
+        assertThat(saved.copyBalances()).containsEntry("LG-4", 10_600L);
+        assertThat(ledger.getBalance("LG-4")).isEqualByComparingTo("106.00");
+    }
+
+    @Test
+    void consistencyCheckReportsTableAndProjectionMismatches() {
+        accountService.createAccount("SAVINGS", "LG-5", "Ledger", new BigDecimal("300.00"), "1000001");
+        accountService.createAccount("SAVINGS", "LG-6", "Ledger", new BigDecimal("300.00"), "1000001");
+        assertThat(consistencyCheck.verify().isConsistent()).isTrue();
+
+        jdbcTemplate.update("UPDATE bank_accounts SET balance = balance + 1.00 WHERE account_number = 'LG-5'");
+        projection.apply(List.of(new LedgerEvent("LG-6", LedgerEvent.DEPOSIT, new BigDecimal("2.00"), LocalDateTime.now(), null)));
+
+        Map<String, Object> result = consistencyCheck.verify().toMap();
+        assertThat(result)
+                .containsEntry("consistent", false)
+                .containsEntry("tableMismatches", 1L)
+                .containsEntry("projectionMismatches", 1L);
+        assertThat(result.get("mismatches")).asList().containsExactlyInAnyOrder(
+                Map.of("accountNumber", "LG-5", "kind", "TABLE",
+                        "eventBalance", new BigDecimal("300.00"), "actualBalance", new BigDecimal("301.00")),
+                Map.of("accountNumber", "LG-6", "kind", "PROJECTION",
+                        "eventBalance", new BigDecimal("300.00"), "actualBalance", new BigDecimal("302.00")));
+
+        jdbcTemplate.update("UPDATE bank_accounts SET balance = balance - 1.00 WHERE account_number = 'LG-5'");
+        projection.apply(List.of(new LedgerEvent("LG-6", LedgerEvent.DEPOSIT, new BigDecimal("-2.00"), LocalDateTime.now(), null)));
+        assertThat(consistencyCheck.verify().isConsistent()).isTrue();
+    }
+
+    private LedgerSnapshotter restartedSnapshotter(LedgerProjection rebuilt) {
+        LedgerSnapshotter restarted = new LedgerSnapshotter();
+        ReflectionTestUtils.setField(restarted, "ledger", ledger);
+        ReflectionTestUtils.setField(restarted, "projection", rebuilt);
+        ReflectionTestUtils.setField(restarted, "snapshotRepository", snapshotRepository);
+        ReflectionTestUtils.setField(restarted, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(restarted, "retain", 3);
+        ReflectionTestUtils.setField(restarted, "gapHorizonMs", 3_600_000L);
+        ReflectionTestUtils.setField(restarted, "fetchSize", 100);
+        return restarted;
+    }
+}
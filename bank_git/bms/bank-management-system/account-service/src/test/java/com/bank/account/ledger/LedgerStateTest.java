@@ -0,0 +1,83 @@
+package com.bank.account.ledger;
+
+import com.bank.account.model.LedgerEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerStateTest {
+
+    @Test
+    void foldsEventsOnceAndRemembersTheGapsBehindThem() {
+        LedgerState state = new LedgerState();
+
+        assertThat(state.fold(1, "LG-1", LedgerEvent.OPENED, 10_000, 0)).isTrue();
+        assertThat(state.fold(4, "LG-1", LedgerEvent.DEPOSIT, 500, 100)).isTrue();
+        assertThat(state.fold(4, "LG-1", LedgerEvent.DEPOSIT, 500, 100)).isFalse();
+
+        assertThat(state.getPosition()).isEqualTo(4);
+        assertThat(state.getPendingCount()).isEqualTo(2);
+        assertThat(state.covers(1)).isTrue();
+        assertThat(state.covers(2)).isFalse();
+        assertThat(state.covers(5)).isFalse();
+        assertThat(state.readFrom()).isEqualTo(2);
+        assertThat(state.copyBalances()).containsEntry("LG-1", 10_500L);
+    }
+
+    // A sequence number that commits late is folded when it appears, one that never does is given up
+    @Test
+    void foldsLateSequencesAndExpiresTheOnesThatNeverAppear() {
+        LedgerState state = new LedgerState();
+        state.fold(1, "LG-1", LedgerEvent.OPENED, 10_000, 0);
+        state.fold(4, "LG-1", LedgerEvent.DEPOSIT, 500, 100);
+
+        assertThat(state.fold(3, "LG-1", LedgerEvent.WITHDRAWAL, -200, 200)).isTrue();
+        assertThat(state.fold(3, "LG-1", LedgerEvent.WITHDRAWAL, -200, 200)).isFalse();
+        assertThat(state.getPendingCount()).isEqualTo(1);
+        assertThat(state.readFrom()).isEqualTo(2);
+
+        assertThat(state.expirePending(100)).isZero();
+        assertThat(state.expirePending(101)).isEqualTo(1);
+        assertThat(state.getPendingCount()).isZero();
+        assertThat(state.readFrom()).isEqualTo(5);
+        assertThat(state.covers(2)).isTrue();
+        // Given up, so a very late arrival is ignored
+        assertThat(state.fold(2, "LG-1", LedgerEvent.DEPOSIT, 1, 300)).isFalse();
+
+        assertThat(state.copyBalances()).containsEntry("LG-1", 10_300L);
+        assertThat(state.getEventCount()).isEqualTo(3);
+    }
+
+    @Test
+    void closingRemovesTheAccount() {
+        LedgerState state = new LedgerState();
+        state.fold(1, "LG-1", LedgerEvent.OPENED, 10_000, 0);
+        state.fold(2, "LG-2", LedgerEvent.OPENED, 700, 0);
+        state.fold(3, "LG-1", LedgerEvent.CLOSED, -10_000, 0);
+
+        assertThat(state.copyBalances()).containsOnlyKeys("LG-2");
+        assertThat(state.getAccountCount()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotKeepsBalancesPositionAndPendingSequences() {
+        LedgerState state = new LedgerState();
+        state.fold(1, "LG-1", LedgerEvent.OPENED, 10_000, 0);
+        state.fold(2, "LG-2", LedgerEvent.OPENED, -2_500, 0);
+        state.fold(5, "LG-1", LedgerEvent.FEE, -125, 42);
+
+        LedgerState restored = LedgerState.fromSnapshot(state.toSnapshot());
+
+        assertThat(restored.copyBalances()).isEqualTo(state.copyBalances());
+        assertThat(restored.getPosition()).isEqualTo(5);
+        assertThat(restored.getEventCount()).isEqualTo(3);
+        assertThat(restored.getPendingCount()).isEqualTo(2);
+        assertThat(restored.expirePending(42)).isZero();
+        assertThat(restored.fold(4, "LG-2", LedgerEvent.DEPOSIT, 2_500, 50)).isTrue();
+        assertThat(restored.copyBalances()).containsEntry("LG-2", 0L);
+
+        LedgerState empty = LedgerState.fromSnapshot(new LedgerState().toSnapshot());
+        assertThat(empty.getPosition()).isZero();
+        assertThat(empty.copyBalances()).isEmpty();
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.account.repository;
+
+import com.bank.account.model.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class TransactionBatchingTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // 120 rows at batch_size=50 are three insert batches, and pooled-lo ids at allocationSize=50
+    // are three sequence calls. With IDENTITY ids every row would be its own statement.
+    @Test
+    void insertsTransactionsInJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(new Transaction("ACC" + i, "ACC" + (i + 1), new BigDecimal("10.00"), "TRANSFER"));
+        }
+        transactionRepository.saveAll(transactions);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(transactions).allSatisfy(t -> assertThat(t.getId()).isNotNull());
+    }
+}
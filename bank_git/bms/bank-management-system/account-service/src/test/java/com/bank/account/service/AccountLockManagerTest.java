@@ -0,0 +1,85 @@
+package com.bank.account.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountLockManagerTest {
+
+    @Test
+    void roundsStripeCountUpToPowerOfTwo() {
+        assertThat(new AccountLockManager(true, 100).getStripeCount()).isEqualTo(128);
+        assertThat(new AccountLockManager(true, 256).getStripeCount()).isEqualTo(256);
+    }
+
+    // Opposite-order transfers between the same accounts must neither deadlock nor interleave.
+    @Test
+    void opposingLockOrdersDoNotDeadlock() throws Exception {
+        AccountLockManager locks = new AccountLockManager(true, 4);
+        int[] balance = new int[1];
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                boolean forward = i % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    for (int n = 0; n < 2_000; n++) {
+                        try (AccountLockManager.AccountLock lock = forward ? locks.lock("ACC1", "ACC2") : locks.lock("ACC2", "ACC1")) {
+                            balance[0]++;
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(balance[0]).isEqualTo(16_000);
+        assertThat(locks.getAcquisitionCount()).isEqualTo(16_000);
+    }
+
+    @Test
+    void recordsContentionForTheWaitingAccount() throws Exception {
+        AccountLockManager locks = new AccountLockManager(true, 16);
+        CountDownLatch waiting = new CountDownLatch(1);
+        Thread other;
+        try (AccountLockManager.AccountLock held = locks.lock("HOT")) {
+            other = new Thread(() -> {
+                waiting.countDown();
+                locks.lock("HOT").close();
+            });
+            other.start();
+            waiting.await();
+            while (other.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+        }
+        other.join(10_000);
+        assertThat(locks.getContentionCount("HOT")).isEqualTo(1);
+        assertThat(locks.getContentionCounts(5)).containsEntry("HOT", 1L);
+    }
+
+    @Test
+    void disabledManagerDoesNotLock() {
+        AccountLockManager locks = new AccountLockManager(false, 16);
+        locks.lock("ACC1").close();
+        locks.lockForTransaction("ACC1");
+        assertThat(locks.getAcquisitionCount()).isZero();
+    }
+
+    @Test
+    void transactionLocksRequireATransaction() {
+        AccountLockManager locks = new AccountLockManager(true, 16);
+        assertThatThrownBy(() -> locks.lockForTransaction("ACC1")).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bank.account.service;
+
+import com.bank.account.AccountServiceApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Openings, postings and closings move the dashboard totals in both editions, a rejected
+// posting does not, and a recompute from the table arrives at the same figures.
+class AccountTotalsTest {
+
+    @Test
+    void blockingPostingsMoveTheTotals() {
+        try (ConfigurableApplicationContext context = start("totalsblocking")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            open(accountService);
+
+            accountService.deposit("AT-1", new BigDecimal("50.00"));
+            accountService.withdraw("AT-2", new BigDecimal("20.00"));
+            accountService.transferFunds("AT-1", "AT-2", new BigDecimal("10.00"));
+            assertThatThrownBy(() -> accountService.withdraw("AT-1", new BigDecimal("100000.00")));
+            accountService.deleteAccount("AT-3");
+
+            verify(context.getBean(AccountTotals.class));
+        }
+    }
+
+    @Test
+    void reactivePostingsMoveTheTotals() {
+        try (ConfigurableApplicationContext context = start("totalsreactive", "reactive")) {
+            AccountService accountService = context.getBean(AccountService.class);
+            ReactiveAccountService reactiveAccountService = context.getBean(ReactiveAccountService.class);
+            open(accountService);
+
+            reactiveAccountService.deposit("AT-1", new BigDecimal("50.00")).block();
+            reactiveAccountService.withdraw("AT-2", new BigDecimal("20.00")).block();
+            reactiveAccountService.transferFunds("AT-1", "AT-2", new BigDecimal("10.00")).block();
+            assertThatThrownBy(() -> reactiveAccountService.withdraw("AT-1", new BigDecimal("100000.00")).block());
+            accountService.deleteAccount("AT-3");
+
+            verify(context.getBean(AccountTotals.class));
+        }
+    }
+
+    private static void open(AccountService accountService) {
+        accountService.createAccount("SAVINGS", "AT-1", "Totals", new BigDecimal("1000.00"), "1000001");
+        accountService.createAccount("CURRENT", "AT-2", "Totals", new BigDecimal("100.00"), "1000001");
+        accountService.createAccount("CURRENT", "AT-3", "Totals", new BigDecimal("500.00"), "1000001");
+    }
+
+    private static void verify(AccountTotals accountTotals) {
+        Map<String, Object> running = new HashMap<>(accountTotals.getAggregates());
+        assertThat(running).containsEntry("count", 2L).containsEntry("totalBalance", new BigDecimal("1130.00"));
+        assertThat(running.get("countsByAccountType")).isEqualTo(Map.of("SAVINGS", 1L, "CURRENT", 1L));
+        assertThat(running.get("balanceByAccountType"))
+                .isEqualTo(Map.of("SAVINGS", new BigDecimal("1040.00"), "CURRENT", new BigDecimal("90.00")));
+
+        accountTotals.recompute();
+        Map<String, Object> recomputed = new HashMap<>(accountTotals.getAggregates());
+        running.remove("recomputedAt");
+        recomputed.remove("recomputedAt");
+        assertThat(recomputed).isEqualTo(running);
+    }
+
+    private static ConfigurableApplicationContext start(String database, String... profiles) {
+        return new SpringApplicationBuilder(AccountServiceApplication.class)
+                .profiles(profiles)
+                .run("--server.port=0",
+                        "--eureka.client.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database,
+                        "--account.reactive.r2dbc-url=r2dbc:h2:mem:///" + database);
+    }
+}
@@ -0,0 +1,97 @@
+package com.bank.account.service;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceCacheTest {
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        BalanceCache cache = new BalanceCache(true, 100, 30);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.getOrLoad("C-1", a -> {
+                loads.incrementAndGet();
+                return new BigDecimal("10.00");
+            })).isEqualByComparingTo("10.00");
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getStats()).containsEntry("hits", 2L).containsEntry("misses", 1L);
+    }
+
+    // A writer that invalidates the account while a reader is loading makes the reader's value
+    // stale; it must not be stored.
+    @Test
+    void discardsValuesLoadedAcrossAnInvalidation() {
+        BalanceCache cache = new BalanceCache(true, 100, 30);
+
+        BigDecimal stale = cache.getOrLoad("C-2", a -> {
+            cache.invalidate("C-2");
+            return new BigDecimal("1.00");
+        });
+        BigDecimal fresh = cache.getOrLoad("C-2", a -> new BigDecimal("2.00"));
+
+        assertThat(stale).isEqualByComparingTo("1.00");
+        assertThat(fresh).isEqualByComparingTo("2.00");
+    }
+
+    @Test
+    void writeThroughOutsideATransactionReplacesTheValue() {
+        BalanceCache cache = new BalanceCache(true, 100, 30);
+        cache.getOrLoad("C-3", a -> new BigDecimal("5.00"));
+
+        cache.writeThrough("C-3", new BigDecimal("7.00"));
+
+        assertThat(cache.getOrLoad("C-3", a -> BigDecimal.ZERO)).isEqualByComparingTo("7.00");
+    }
+
+    @Test
+    void staysWithinItsMaximumSize() {
+        BalanceCache cache = new BalanceCache(true, 100, 30);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.getOrLoad("C-" + i, a -> BigDecimal.ONE);
+        }
+        cache.cleanUp();
+
+        assertThat((long) cache.getStats().get("size")).isLessThanOrEqualTo(100);
+        assertThat((long) cache.getStats().get("sizeEvictions")).isGreaterThan(0);
+    }
+
+    @Test
+    void expiresEntriesAfterTheirTimeToLive() throws InterruptedException {
+        BalanceCache cache = new BalanceCache(true, 100, 1);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("C-4", a -> BigDecimal.valueOf(loads.incrementAndGet()));
+
+        Thread.sleep(1_100);
+
+        assertThat(cache.getOrLoad("C-4", a -> BigDecimal.valueOf(loads.incrementAndGet()))).isEqualByComparingTo("2");
+    }
+
+    @Test
+    void invalidateAllEmptiesTheCache() {
+        BalanceCache cache = new BalanceCache(true, 100, 30);
+        cache.getOrLoad("C-5", a -> BigDecimal.ONE);
+
+        cache.invalidateAll();
+
+        assertThat(cache.getOrLoad("C-5", a -> BigDecimal.TEN)).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        BalanceCache cache = new BalanceCache(false, 100, 30);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("C-6", a -> BigDecimal.valueOf(loads.incrementAndGet()));
+        cache.getOrLoad("C-6", a -> BigDecimal.valueOf(loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,128 @@
+package com.bank.account.service;
+
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.TransactionRepository;
+import com.bank.common.exception.AccountNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// SN-1 opens on 2024-01-01 with 100.00 and ends at 105.00:
+//   01-02 10:00 deposit +50 (150), 01-03 09:00 withdrawal -30 (120),
+//   01-03 12:00 transfer out -20 (100), 01-04 08:00 transfer in +5 (105).
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:snapshots"
+})
+class BalanceSnapshotServiceTest {
+
+    private static final LocalDate OPENED = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private BalanceSnapshotService snapshotService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (accountService.getAccountByNumber("SN-1").isPresent()) {
+            return;
+        }
+        accountService.createAccount("CURRENT", "SN-1", "Snapshot", new BigDecimal("105.00"), "1000001");
+        accountService.createAccount("CURRENT", "SN-2", "Snapshot", new BigDecimal("15.00"), "1000002");
+        jdbcTemplate.update("UPDATE bank_accounts SET opened_at = ? WHERE account_number IN ('SN-1', 'SN-2')",
+                Timestamp.valueOf(OPENED.atStartOfDay()));
+
+        Transaction failed = transaction("SN-1", "SN-1", "999.00", "DEPOSIT", at(2, 11));
+        failed.setStatus("FAILED");
+        transactionRepository.saveAll(List.of(
+                transaction("SN-1", "SN-1", "50.00", "DEPOSIT", at(2, 10)),
+                failed,
+                transaction("SN-1", "SN-1", "30.00", "WITHDRAWAL", at(3, 9)),
+                transaction("SN-1", "SN-2", "20.00", "TRANSFER", at(3, 12)),
+                transaction("SN-2", "SN-1", "5.00", "TRANSFER", at(4, 8))));
+    }
+
+    @Test
+    void walksBackFromTheCurrentBalanceWithoutSnapshots() {
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(2, 0))).isEqualByComparingTo("100.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(3, 10))).isEqualByComparingTo("120.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(3, 12))).isEqualByComparingTo("120.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(5, 0))).isEqualByComparingTo("105.00");
+    }
+
+    @Test
+    void replaysForwardFromTheNearestEarlierSnapshot() {
+        snapshotService.snapshotDay(LocalDate.of(2024, 1, 2));
+        snapshotService.snapshotDay(LocalDate.of(2024, 1, 3));
+
+        assertThat(snapshotBalance("SN-1", 2)).isEqualByComparingTo("150.00");
+        assertThat(snapshotBalance("SN-1", 3)).isEqualByComparingTo("100.00");
+        assertThat(snapshotBalance("SN-2", 3)).isEqualByComparingTo("20.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(3, 10))).isEqualByComparingTo("120.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(4, 12))).isEqualByComparingTo("105.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-2", at(4, 12))).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void firstRunBackfillsEveryDayFromTheEarliestTransaction() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        snapshotService.snapshotPendingDays();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT MIN(snapshot_date) FROM balance_snapshots", Date.class))
+                .isEqualTo(Date.valueOf(OPENED.withDayOfMonth(2)));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT snapshot_date) FROM balance_snapshots", Long.class))
+                .isEqualTo(ChronoUnit.DAYS.between(OPENED.withDayOfMonth(2), yesterday) + 1);
+        assertThat(snapshotBalance("SN-1", 4)).isEqualByComparingTo("105.00");
+        // The first snapshot day is answered from that day's snapshot
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(2, 0))).isEqualByComparingTo("100.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-1", at(2, 11))).isEqualByComparingTo("150.00");
+        assertThat(snapshotService.getBalanceAsOf("SN-2", at(3, 13))).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void rejectsTimesBeforeTheAccountWasOpened() {
+        assertThatThrownBy(() -> snapshotService.getBalanceAsOf("SN-1", OPENED.minusDays(1).atStartOfDay()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> snapshotService.getBalanceAsOf("SN-404", at(2, 0)))
+                .isInstanceOf(AccountNotFoundException.class);
+    }
+
+    private BigDecimal snapshotBalance(String accountNumber, int day) {
+        return jdbcTemplate.queryForObject(
+                "SELECT balance FROM balance_snapshots WHERE account_number = ? AND snapshot_date = ?",
+                BigDecimal.class, accountNumber, Date.valueOf(OPENED.withDayOfMonth(day)));
+    }
+
+    private static LocalDateTime at(int day, int hour) {
+        return OPENED.withDayOfMonth(day).atTime(hour, 0);
+    }
+
+    private static Transaction transaction(String source, String destination, String amount, String type,
+                                           LocalDateTime timestamp) {
+        Transaction transaction = new Transaction(source, destination, new BigDecimal(amount), type);
+        transaction.setTimestamp(timestamp);
+        transaction.setStatus("SUCCESS");
+        return transaction;
+    }
+}
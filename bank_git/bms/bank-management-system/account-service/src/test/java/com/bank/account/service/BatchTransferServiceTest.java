@@ -0,0 +1,170 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.dto.TransferResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:batchtransfer"
+})
+class BatchTransferServiceTest {
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private OptimisticRetryPolicy retryPolicy;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void appliesEveryTransferAndReturnsTheirTransactionIds() {
+        open("BT-1", "100.00");
+        open("BT-2", "50.00");
+        open("BT-3", "0.00");
+
+        List<TransferResult> results = batchTransferService.transferAll(List.of(
+                transfer("BT-1", "BT-2", "30.00"),
+                transfer("BT-2", "BT-3", "70.00"),
+                transfer("BT-3", "BT-1", "5.00")));
+
+        assertThat(results).extracting(TransferResult::getStatus).containsOnly(TransferResult.SUCCESS);
+        assertThat(results).extracting(TransferResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(TransferResult::getTransactionId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(balance("BT-1")).isEqualByComparingTo("75.00");
+        assertThat(balance("BT-2")).isEqualByComparingTo("10.00");
+        assertThat(balance("BT-3")).isEqualByComparingTo("65.00");
+        assertThat(accountService.getBalance("BT-2")).isEqualByComparingTo("10.00");
+        assertThat(status(results.get(1).getTransactionId())).isEqualTo("SUCCESS");
+    }
+
+    @Test
+    void aMissingAccountFailsOnlyItsOwnTransfer() {
+        open("BT-4", "100.00");
+        open("BT-5", "0.00");
+
+        List<TransferResult> results = batchTransferService.transferAll(List.of(
+                transfer("BT-4", "BT-5", "10.00"),
+                transfer("BT-4", "BT-MISSING", "20.00"),
+                transfer("BT-4", "BT-5", "30.00")));
+
+        assertThat(results).extracting(TransferResult::getStatus)
+                .containsExactly(TransferResult.SUCCESS, TransferResult.FAILED, TransferResult.SUCCESS);
+        assertThat(results.get(1).getMessage()).contains("BT-MISSING");
+        assertThat(status(results.get(1).getTransactionId())).isEqualTo("FAILED");
+        assertThat(balance("BT-4")).isEqualByComparingTo("60.00");
+        assertThat(balance("BT-5")).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void anAmountWithFractionsOfACentFailsInsteadOfBeingRounded() {
+        open("BT-10", "100.00");
+        open("BT-11", "0.00");
+
+        List<TransferResult> results = batchTransferService.transferAll(List.of(
+                transfer("BT-10", "BT-11", "10.005"),
+                transfer("BT-10", "BT-11", "10.00")));
+
+        assertThat(results).extracting(TransferResult::getStatus)
+                .containsExactly(TransferResult.FAILED, TransferResult.SUCCESS);
+        assertThat(results.get(0).getMessage()).contains("10.005");
+        assertThat(balance("BT-10")).isEqualByComparingTo("90.00");
+        assertThat(balance("BT-11")).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void insufficientFundsOnOneLegLeavesTheOthersApplied() {
+        // Savings accounts keep a minimum balance of 1000.00; the second transfer would break it
+        accountService.createAccount("SAVINGS", "BT-6", "Batch", new BigDecimal("1025.00"), "1000001");
+        open("BT-7", "0.00");
+
+        List<TransferResult> results = batchTransferService.transferAll(List.of(
+                transfer("BT-6", "BT-7", "20.00"),
+                transfer("BT-6", "BT-7", "10.00"),
+                transfer("BT-7", "BT-6", "5.00")));
+
+        assertThat(results).extracting(TransferResult::getStatus)
+                .containsExactly(TransferResult.SUCCESS, TransferResult.INSUFFICIENT_FUNDS, TransferResult.SUCCESS);
+        assertThat(status(results.get(1).getTransactionId())).isEqualTo("FAILED");
+        assertThat(balance("BT-6")).isEqualByComparingTo("1010.00");
+        assertThat(balance("BT-7")).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void aConcurrentUpdateIsRetriedWithoutLosingIt() {
+        open("BT-8", "100.00");
+        open("BT-9", "0.00");
+        long conflictsBefore = batchConflicts();
+
+        // Another writer commits a deposit to BT-8 after the batch has loaded it and before the
+        // balances are written, so the batch's versioned UPDATE matches no row on the first attempt.
+        AtomicBoolean interfered = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (interfered.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                        "UPDATE bank_accounts SET balance = balance + 5, version = version + 1 WHERE account_number = ?",
+                        "BT-8")).join();
+            }
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).batchUpdate(startsWith("UPDATE bank_accounts SET balance"), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        try {
+            List<TransferResult> results = batchTransferService.transferAll(List.of(transfer("BT-8", "BT-9", "40.00")));
+
+            assertThat(results).extracting(TransferResult::getStatus).containsExactly(TransferResult.SUCCESS);
+        } finally {
+            reset(jdbcTemplate);
+        }
+
+        assertThat(batchConflicts()).isEqualTo(conflictsBefore + 1);
+        assertThat(balance("BT-8")).isEqualByComparingTo("65.00");
+        assertThat(balance("BT-9")).isEqualByComparingTo("40.00");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE source_account = 'BT-8'", Integer.class)).isEqualTo(1);
+    }
+
+    private void open(String accountNumber, String balance) {
+        accountService.createAccount("CURRENT", accountNumber, "Batch", new BigDecimal(balance), "1000001");
+    }
+
+    private TransferRequest transfer(String source, String destination, String amount) {
+        return new TransferRequest(source, destination, new BigDecimal(amount));
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM bank_accounts WHERE account_number = ?", BigDecimal.class, accountNumber);
+    }
+
+    private String status(Long transactionId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM transactions WHERE id = ?", String.class, transactionId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private long batchConflicts() {
+        Map<String, Long> byOperation = (Map<String, Long>) retryPolicy.getStats().get("conflictsByOperation");
+        return byOperation.getOrDefault("batch-transfer", 0L);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.account.service;
+
+import com.bank.account.model.Transaction;
+import com.bank.common.exception.InsufficientFundsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:groupcommit",
+        "account.group-commit.enabled=true",
+        "account.group-commit.max-wait-ms=200"
+})
+class GroupCommitExecutorTest {
+
+    @Autowired
+    private GroupCommitExecutor groupCommit;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void appliesQueuedOperationsInSharedCommits() {
+        accountService.createAccount("SAVINGS", "GC-1", "Group", new BigDecimal("1000.00"), "1000001");
+        long batchesBefore = (long) groupCommit.getStats().get("batches");
+
+        List<CompletableFuture<Transaction>> deposits = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            deposits.add(groupCommit.submitDeposit("GC-1", new BigDecimal("2.00")));
+        }
+        deposits.forEach(CompletableFuture::join);
+
+        assertThat(deposits).allSatisfy(f -> assertThat(f.join().getStatus()).isEqualTo("SUCCESS"));
+        assertThat((long) groupCommit.getStats().get("batches") - batchesBefore).isLessThan(50);
+        assertThat(accountService.getBalance("GC-1")).isEqualByComparingTo("1100.00");
+    }
+
+    @Test
+    void failedOperationDoesNotFailTheRestOfItsBatch() {
+        accountService.createAccount("SAVINGS", "GC-2", "Group", new BigDecimal("1000.00"), "1000002");
+
+        CompletableFuture<Transaction> overdrawn = groupCommit.submitWithdraw("GC-2", new BigDecimal("5000.00"));
+        CompletableFuture<Transaction> deposit = groupCommit.submitDeposit("GC-2", new BigDecimal("10.00"));
+
+        assertThatThrownBy(overdrawn::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(InsufficientFundsException.class);
+        assertThat(deposit.join().getStatus()).isEqualTo("SUCCESS");
+        assertThat(accountService.getBalance("GC-2")).isEqualByComparingTo("1010.00");
+    }
+
+    // A balance past the DECIMAL(12,2) column fails the batch at flush; each operation is then
+    // retried on its own so only the offending one fails.
+    @Test
+    void batchThatCannotCommitFallsBackToIndividualCommits() {
+        accountService.createAccount("CURRENT", "GC-3", "Group", new BigDecimal("1000.00"), "1000003");
+        accountService.createAccount("CURRENT", "GC-4", "Group", new BigDecimal("1000.00"), "1000004");
+        long fallbacksBefore = (long) groupCommit.getStats().get("fallbacks");
+
+        CompletableFuture<Transaction> tooLarge = groupCommit.submitDeposit("GC-3", new BigDecimal("9999999999.00"));
+        CompletableFuture<Transaction> deposit = groupCommit.submitDeposit("GC-4", new BigDecimal("25.00"));
+
+        assertThatThrownBy(tooLarge::join).isInstanceOf(CompletionException.class);
+        assertThat(deposit.join().getStatus()).isEqualTo("SUCCESS");
+        assertThat((long) groupCommit.getStats().get("fallbacks")).isEqualTo(fallbacksBefore + 1);
+        assertThat(accountService.getBalance("GC-3")).isEqualByComparingTo("1000.00");
+        assertThat(accountService.getBalance("GC-4")).isEqualByComparingTo("1025.00");
+    }
+}
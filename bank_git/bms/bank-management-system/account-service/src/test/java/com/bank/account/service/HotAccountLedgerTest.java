@@ -0,0 +1,104 @@
+package com.bank.account.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The sweeper is pushed out of the way so slot balances stay put until a test folds them.
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:hotaccounts",
+        "account.hot.sweep-interval-ms=3600000"
+})
+class HotAccountLedgerTest {
+
+    @Autowired
+    private HotAccountLedger hotAccountLedger;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void creditsLandInSlotsAndDebitsFoldThemFirst() {
+        open("HA-1", "100.00");
+        hotAccountLedger.enable("HA-1");
+
+        for (int i = 0; i < 16; i++) {
+            accountService.deposit("HA-1", new BigDecimal("1.00"));
+        }
+
+        assertThat(mainBalance("HA-1")).isEqualByComparingTo("100.00");
+        assertThat(slotBalances("HA-1")).hasSize(16).allSatisfy(slot -> assertThat(slot).isEqualByComparingTo("1.00"));
+        assertThat(accountService.getBalance("HA-1")).isEqualByComparingTo("116.00");
+
+        // Only the combined balance covers it
+        accountService.withdraw("HA-1", new BigDecimal("110.00"));
+
+        assertThat(mainBalance("HA-1")).isEqualByComparingTo("6.00");
+        assertThat(slotBalances("HA-1")).allSatisfy(slot -> assertThat(slot).isEqualByComparingTo("0.00"));
+        assertThat(accountService.getBalance("HA-1")).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void concurrentCreditsAreNotLost() throws Exception {
+        open("HA-2", "0.00");
+        hotAccountLedger.enable("HA-2");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<?>> deposits = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                deposits.add(CompletableFuture.runAsync(() -> accountService.deposit("HA-2", new BigDecimal("0.50")), pool));
+            }
+            CompletableFuture.allOf(deposits.toArray(new CompletableFuture[0])).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(accountService.getBalance("HA-2")).isEqualByComparingTo("100.00");
+        hotAccountLedger.sweep();
+        assertThat(mainBalance("HA-2")).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void disablingFoldsTheSlotsIntoTheMainRow() {
+        open("HA-3", "10.00");
+        hotAccountLedger.enable("HA-3");
+        accountService.deposit("HA-3", new BigDecimal("5.00"));
+        accountService.deposit("HA-3", new BigDecimal("7.00"));
+
+        hotAccountLedger.disable("HA-3");
+
+        assertThat(hotAccountLedger.isHot("HA-3")).isFalse();
+        assertThat(slotBalances("HA-3")).isEmpty();
+        assertThat(mainBalance("HA-3")).isEqualByComparingTo("22.00");
+
+        accountService.deposit("HA-3", new BigDecimal("1.00"));
+        assertThat(mainBalance("HA-3")).isEqualByComparingTo("23.00");
+    }
+
+    private void open(String accountNumber, String balance) {
+        accountService.createAccount("CURRENT", accountNumber, "Hot", new BigDecimal(balance), "1000001");
+    }
+
+    private BigDecimal mainBalance(String accountNumber) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM bank_accounts WHERE account_number = ?", BigDecimal.class, accountNumber);
+    }
+
+    private List<BigDecimal> slotBalances(String accountNumber) {
+        return jdbcTemplate.queryForList("SELECT balance FROM account_sub_ledgers WHERE account_number = ? ORDER BY slot",
+                BigDecimal.class, accountNumber);
+    }
+}
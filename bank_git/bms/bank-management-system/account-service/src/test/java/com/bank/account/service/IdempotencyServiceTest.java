@@ -0,0 +1,128 @@
+package com.bank.account.service;
+
+import com.bank.account.controller.AccountController;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.IdempotencyRecordRepository;
+import com.bank.common.exception.InsufficientFundsException;
+import com.bank.common.exception.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:idempotency",
+        "account.idempotency.persistent=true"
+})
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountController accountController;
+
+    @BeforeEach
+    void seed() {
+        if (accountService.getAccountByNumber("ID-1").isEmpty()) {
+            accountService.createAccount("SAVINGS", "ID-1", "Idempotent", new BigDecimal("100.00"), "1000001");
+        }
+    }
+
+    @Test
+    void storesTheResponseWithThePostingAndReplaysIt() {
+        BigDecimal before = accountService.getBalance("ID-1");
+
+        Transaction first = idempotencyService.execute("id-replay", "DEPOSIT|ID-1|10.00",
+                () -> accountService.deposit("ID-1", new BigDecimal("10.00")));
+        Transaction second = idempotencyService.execute("id-replay", "DEPOSIT|ID-1|10.00",
+                () -> accountService.deposit("ID-1", new BigDecimal("10.00")));
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(accountService.getBalance("ID-1")).isEqualByComparingTo(before.add(new BigDecimal("10.00")));
+        assertThat(recordRepository.findById("id-replay")).hasValueSatisfying(record ->
+                assertThat(record.getResponse()).contains("\"id\":" + first.getId()));
+    }
+
+    @Test
+    void failedPostingLeavesTheKeyUnclaimed() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute("id-failed", "WITHDRAWAL|ID-1|5000.00", () -> {
+            attempts.incrementAndGet();
+            return accountService.withdraw("ID-1", new BigDecimal("5000.00"));
+        })).isInstanceOf(InsufficientFundsException.class);
+        assertThat(recordRepository.findById("id-failed")).isEmpty();
+
+        Transaction retried = idempotencyService.execute("id-failed", "DEPOSIT|ID-1|1.00", () -> {
+            attempts.incrementAndGet();
+            return accountService.deposit("ID-1", new BigDecimal("1.00"));
+        });
+        assertThat(attempts).hasValue(2);
+        assertThat(recordRepository.findById("id-failed")).hasValueSatisfying(record ->
+                assertThat(record.getResponse()).contains("\"id\":" + retried.getId()));
+    }
+
+    // Another instance commits the key after this one checked the table; the claim insert then
+    // fails, the deposit rolls back and the other instance's response is returned.
+    @Test
+    void keyCommittedElsewhereRollsThePostingBack() throws Exception {
+        BigDecimal before = accountService.getBalance("ID-1");
+        Transaction stored = new Transaction("ID-1", "ID-1", new BigDecimal("7.00"), "DEPOSIT");
+        stored.setId(987654321L);
+        String response = objectMapper.writeValueAsString(stored);
+
+        Transaction result = idempotencyService.execute("id-elsewhere", "DEPOSIT|ID-1|7.00", () -> {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, request_fingerprint, response, created_at) VALUES (?, ?, ?, ?)",
+                    "id-elsewhere", "DEPOSIT|ID-1|7.00", response, LocalDateTime.now());
+            return accountService.deposit("ID-1", new BigDecimal("7.00"));
+        });
+
+        assertThat(result.getId()).isEqualTo(987654321L);
+        assertThat(accountService.getBalance("ID-1")).isEqualByComparingTo(before);
+    }
+
+    @Test
+    void rejectsKeysThatDoNotFitTheColumn() {
+        BigDecimal before = accountService.getBalance("ID-1");
+        String tooLong = "k".repeat(IdempotencyService.MAX_KEY_LENGTH + 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute(tooLong, "DEPOSIT|ID-1|1.00", () -> {
+            attempts.incrementAndGet();
+            return accountService.deposit("ID-1", new BigDecimal("1.00"));
+        })).isInstanceOf(InvalidIdempotencyKeyException.class);
+        assertThatThrownBy(() -> idempotencyService.execute("has space", "DEPOSIT|ID-1|1.00", () -> null))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+        assertThat(attempts).hasValue(0);
+
+        assertThat(accountController.withdraw("ID-1", Map.of("amount", "1.00"), tooLong).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(accountController.transferFunds(Map.of("sourceAccount", "ID-1", "destinationAccount", "ID-1", "amount", "1.00"), tooLong)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(accountService.getBalance("ID-1")).isEqualByComparingTo(before);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bank.account.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.MAP;
+
+class OptimisticRetryPolicyTest {
+
+    private final OptimisticRetryPolicy policy = new OptimisticRetryPolicy(3, 1, 2);
+
+    @Test
+    void retriesVersionConflictsUntilTheActionSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = policy.execute("deposit", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(policy.getConflictCount()).isEqualTo(2);
+        assertThat(policy.getRetryCount()).isEqualTo(2);
+        assertThat(policy.getExhaustedCount()).isZero();
+    }
+
+    @Test
+    void rethrowsOnceAttemptsAreExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> policy.execute("transfer", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale version");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(policy.getExhaustedCount()).isEqualTo(1);
+        assertThat(policy.getStats()).extractingByKey("conflictsByOperation")
+                .asInstanceOf(MAP).containsEntry("transfer", 3L);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> policy.execute("withdraw", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("bad amount");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+        assertThat(policy.getConflictCount()).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bank.account.service;
+
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:export"
+})
+class TransactionExportServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2023, 6, 1, 10, 0);
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        if (!transactionRepository.findBySourceAccountOrderByTimestampDesc("EX-1").isEmpty()) {
+            return;
+        }
+        transactionRepository.saveAll(List.of(
+                transaction("EX-1", "EX-2", "10.00", "TRANSFER", DAY, "Rent, \"June\""),
+                transaction("EX-2", "EX-1", "4.50", "TRANSFER", DAY.plusHours(1), "Refund"),
+                transaction("EX-1", "EX-1", "100.00", "DEPOSIT", DAY.plusDays(1), "Deposit successful"),
+                transaction("EX-3", "EX-3", "7.00", "DEPOSIT", DAY, "Other account")));
+    }
+
+    // The deposit has EX-1 on both sides and must be exported once.
+    @Test
+    void ndjsonExportHasOneObjectPerTransactionOfTheAccount() throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : export("ndjson", "EX-1", null, null).split("\n")) {
+            assertThat(line).startsWith("{").endsWith("}");
+            rows.add(objectMapper.readTree(line));
+        }
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows).extracting(row -> row.get("amount").decimalValue())
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(new BigDecimal("10.00"), new BigDecimal("4.50"), new BigDecimal("100.00"));
+        assertThat(rows).allSatisfy(row -> assertThat(row.get("id").isNumber()).isTrue());
+    }
+
+    @Test
+    void csvExportQuotesFieldsAndAppliesTheTimeRange() throws IOException {
+        String csv = export("csv", "EX-1", DAY, DAY.plusHours(2));
+        String[] lines = csv.split("\r\n");
+
+        assertThat(lines[0]).isEqualTo("id,sourceAccount,destinationAccount,amount,transactionType,timestamp,status,description");
+        assertThat(lines).hasSize(3);
+        assertThat(csv).contains(",EX-1,EX-2,10.00,TRANSFER,2023-06-01T10:00,SUCCESS,\"Rent, \"\"June\"\"\"\r\n");
+        assertThat(csv).doesNotContain("DEPOSIT");
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        assertThatThrownBy(() -> export("xml", null, null, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String export(String format, String account, LocalDateTime from, LocalDateTime to) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(out, format, account, from, to);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Transaction transaction(String source, String destination, String amount, String type,
+                                           LocalDateTime timestamp, String description) {
+        Transaction transaction = new Transaction(source, destination, new BigDecimal(amount), type);
+        transaction.setTimestamp(timestamp);
+        transaction.setStatus("SUCCESS");
+        transaction.setDescription(description);
+        return transaction;
+    }
+}
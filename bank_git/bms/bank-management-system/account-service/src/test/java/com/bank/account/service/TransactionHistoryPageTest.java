@@ -0,0 +1,87 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.TransactionPage;
+import com.bank.account.model.Transaction;
+import com.bank.account.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:historypage"
+})
+class TransactionHistoryPageTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    // Transfers in both directions and deposits, several sharing a timestamp, read back page by
+    // page must give the full history once each, newest first.
+    @Test
+    void pagesWalkTheWholeHistoryWithoutGapsOrDuplicates() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Transaction transaction = switch (i % 3) {
+                case 0 -> new Transaction("KS-1", "KS-2", new BigDecimal("1.00"), "TRANSFER");
+                case 1 -> new Transaction("KS-2", "KS-1", new BigDecimal("2.00"), "TRANSFER");
+                default -> new Transaction("KS-1", "KS-1", new BigDecimal("3.00"), "DEPOSIT");
+            };
+            transaction.setTimestamp(base.plusMinutes(i / 4));
+            transaction.setStatus("SUCCESS");
+            rows.add(transaction);
+        }
+        transactionRepository.saveAll(rows);
+
+        List<Long> expected = accountService.getTransactionHistory("KS-1").stream()
+                .sorted(Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .toList();
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = accountService.getTransactionHistoryPage("KS-1", cursor, 7);
+            assertThat(page.getTransactions()).hasSizeLessThanOrEqualTo(7);
+            page.getTransactions().forEach(t -> paged.add(t.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(expected).hasSize(40);
+        assertThat(paged).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(6);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        Transaction only = new Transaction("KS-3", "KS-3", new BigDecimal("5.00"), "DEPOSIT");
+        only.setStatus("SUCCESS");
+        transactionRepository.save(only);
+
+        TransactionPage page = accountService.getTransactionHistoryPage("KS-3", null, 1);
+
+        assertThat(page.getTransactions()).extracting(Transaction::getId).containsExactly(only.getId());
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsPageSizesOutsideTheConfiguredRange() {
+        assertThatThrownBy(() -> accountService.getTransactionHistoryPage("KS-1", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> accountService.getTransactionHistoryPage("KS-1", null, 501))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,196 @@
+package com.bank.account.wire;
+
+import com.bank.account.dto.AmountRequest;
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryOperationCodecTest {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BinaryOperationCodec.MAX_MESSAGE_SIZE);
+
+    @Test
+    void transferRoundTrips() {
+        BinaryOperationCodec.encodeTransfer(new TransferRequest("ACC-Ü1", "ACC-2", new BigDecimal("-1234.567")), buffer);
+
+        TransferRequest decoded = BinaryOperationCodec.decodeTransfer(buffer.flip());
+
+        assertThat(decoded.getSourceAccount()).isEqualTo("ACC-Ü1");
+        assertThat(decoded.getDestinationAccount()).isEqualTo("ACC-2");
+        assertThat(decoded.getAmount()).isEqualTo(new BigDecimal("-1234.567"));
+    }
+
+    @Test
+    void amountRoundTripsKeepingTheScale() {
+        for (String amount : new String[] {"0", "0.01", "250.00", "1E+3", "92233720368547758.07"}) {
+            buffer.clear();
+            BinaryOperationCodec.encodeAmount(new AmountRequest(new BigDecimal(amount)), buffer);
+
+            assertThat(BinaryOperationCodec.decodeAmount(buffer.flip()).getAmount()).isEqualTo(new BigDecimal(amount));
+        }
+    }
+
+    @Test
+    void transactionReplyRoundTrips() {
+        Transaction transaction = new Transaction("ACC-1", "ACC-2", new BigDecimal("10.50"), "TRANSFER");
+        transaction.setId(42L);
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 1, 12, 30));
+        BinaryOperationCodec.encodeTransaction(transaction, buffer);
+
+        Transaction decoded = BinaryOperationCodec.decodeTransaction(buffer.flip());
+
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.getSourceAccount()).isEqualTo("ACC-1");
+        assertThat(decoded.getDestinationAccount()).isEqualTo("ACC-2");
+        assertThat(decoded.getAmount()).isEqualByComparingTo("10.50");
+        assertThat(decoded.getTransactionType()).isEqualTo("TRANSFER");
+
+        buffer.clear();
+        transaction.setId(null);
+        BinaryOperationCodec.encodeTransaction(transaction, buffer);
+        assertThat(BinaryOperationCodec.decodeTransaction(buffer.flip()).getId()).isNull();
+    }
+
+    @Test
+    void rejectsAmountsThatDoNotFitTheLayout() {
+        assertThatThrownBy(() -> BinaryOperationCodec.encodeAmount(new AmountRequest(new BigDecimal("92233720368547758.08")), buffer))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("92233720368547758.08");
+        assertThatThrownBy(() -> BinaryOperationCodec.encodeAmount(new AmountRequest(new BigDecimal("1E-200")), buffer))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BinaryOperationCodec.encodeAmount(new AmountRequest(null), buffer))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTruncatedMessages() {
+        byte[] full = transfer("ACC-1", "ACC-2");
+
+        for (int length = 0; length < full.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(full, length));
+            assertThatThrownBy(() -> BinaryOperationCodec.decodeTransfer(truncated))
+                    .isInstanceOfAny(BufferUnderflowException.class, IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsBadStringLengths() {
+        byte[] negative = transfer("ACC-1", "ACC-2");
+        // The source account length follows the version, amount and scale
+        negative[10] = (byte) 0xFF;
+        negative[11] = (byte) 0xFE;
+        assertThatThrownBy(() -> BinaryOperationCodec.decodeTransfer(ByteBuffer.wrap(negative)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("-2");
+
+        byte[] oversized = transfer("ACC-1", "ACC-2");
+        oversized[11] = 100;
+        assertThatThrownBy(() -> BinaryOperationCodec.decodeTransfer(ByteBuffer.wrap(oversized)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("100");
+    }
+
+    @Test
+    void rejectsTrailingBytesAndOtherVersions() {
+        byte[] message = transfer("ACC-1", "ACC-2");
+        byte[] trailing = Arrays.copyOf(message, message.length + 3);
+        assertThatThrownBy(() -> BinaryOperationCodec.decodeTransfer(ByteBuffer.wrap(trailing)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("3 unexpected trailing bytes");
+
+        message[0] = 2;
+        assertThatThrownBy(() -> BinaryOperationCodec.decodeTransfer(ByteBuffer.wrap(message)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version 2");
+    }
+
+    @Test
+    void converterTurnsMalformedBodiesIntoUnreadableMessages() throws Exception {
+        BinaryOperationMessageConverter converter = new BinaryOperationMessageConverter();
+
+        AmountRequest read = (AmountRequest) converter.read(AmountRequest.class, body(amount("5.00")));
+        assertThat(read.getAmount()).isEqualTo(new BigDecimal("5.00"));
+
+        byte[] truncated = Arrays.copyOf(amount("5.00"), 4);
+        assertThatThrownBy(() -> converter.read(AmountRequest.class, body(truncated)))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+        assertThatThrownBy(() -> converter.read(TransferRequest.class, body(amount("5.00"))))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+        assertThatThrownBy(() -> converter.read(AmountRequest.class, body(new byte[BinaryOperationCodec.MAX_MESSAGE_SIZE + 1])))
+                .isInstanceOf(HttpMessageNotReadableException.class)
+                .hasMessageContaining("larger than");
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(new TransferRequest("ACC-1", "ACC-2", BigDecimal.ONE), BinaryOperationMessageConverter.MEDIA_TYPE, output);
+        assertThat(output.getBodyAsBytes()).isEqualTo(transfer("ACC-1", "ACC-2"));
+    }
+
+    @Test
+    void encodedSizeIsWhatEncodingWrites() {
+        TransferRequest transfer = new TransferRequest("ACC-Ü1", "ACC-2", new BigDecimal("10.00"));
+        BinaryOperationCodec.encodeTransfer(transfer, buffer);
+        assertThat(BinaryOperationCodec.encodedSize(transfer)).isEqualTo(buffer.position());
+
+        buffer.clear();
+        AmountRequest amount = new AmountRequest(new BigDecimal("10.00"));
+        BinaryOperationCodec.encodeAmount(amount, buffer);
+        assertThat(BinaryOperationCodec.encodedSize(amount)).isEqualTo(buffer.position());
+
+        buffer.clear();
+        Transaction transaction = new Transaction("ACC-1", "ACC-€", new BigDecimal("10.50"), "TRANSFER");
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 1, 12, 30));
+        BinaryOperationCodec.encodeTransaction(transaction, buffer);
+        assertThat(BinaryOperationCodec.encodedSize(transaction)).isEqualTo(buffer.position());
+    }
+
+    @Test
+    void converterWritesEachReplyInAFreshBufferOfItsOwnSize() throws Exception {
+        BinaryOperationMessageConverter converter = new BinaryOperationMessageConverter();
+        Transaction transaction = new Transaction("ACC-1", "ACC-2", new BigDecimal("10.50"), "TRANSFER");
+        transaction.setId(7L);
+        transaction.setTimestamp(LocalDateTime.of(2024, 3, 1, 12, 30));
+        transaction.setDescription("Fund transfer successful");
+
+        MockHttpOutputMessage first = new MockHttpOutputMessage();
+        converter.write(transaction, BinaryOperationMessageConverter.MEDIA_TYPE, first);
+        transaction.setDescription(null);
+        MockHttpOutputMessage second = new MockHttpOutputMessage();
+        converter.write(transaction, BinaryOperationMessageConverter.MEDIA_TYPE, second);
+
+        assertThat(first.getBodyAsBytes()).hasSize(BinaryOperationCodec.encodedSize(transaction) + 24);
+        assertThat(second.getBodyAsBytes()).hasSize(BinaryOperationCodec.encodedSize(transaction));
+        Transaction decoded = BinaryOperationCodec.decodeTransaction(ByteBuffer.wrap(second.getBodyAsBytes()));
+        assertThat(decoded.getId()).isEqualTo(7L);
+        assertThat(decoded.getDescription()).isNull();
+    }
+
+    private static byte[] transfer(String source, String destination) {
+        ByteBuffer out = ByteBuffer.allocate(BinaryOperationCodec.MAX_MESSAGE_SIZE);
+        BinaryOperationCodec.encodeTransfer(new TransferRequest(source, destination, BigDecimal.ONE), out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    private static byte[] amount(String amount) {
+        ByteBuffer out = ByteBuffer.allocate(BinaryOperationCodec.MAX_MESSAGE_SIZE);
+        BinaryOperationCodec.encodeAmount(new AmountRequest(new BigDecimal(amount)), out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    private static HttpInputMessage body(byte[] bytes) {
+        MockHttpInputMessage message = new MockHttpInputMessage(bytes);
+        message.getHeaders().setContentType(BinaryOperationMessageConverter.MEDIA_TYPE);
+        return message;
+    }
+}
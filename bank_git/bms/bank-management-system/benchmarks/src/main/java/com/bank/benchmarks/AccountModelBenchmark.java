@@ -0,0 +1,62 @@
+package com.bank.benchmarks;
+
+import com.bank.account.model.BankAccount;
+import com.bank.account.model.CurrentAccount;
+import com.bank.account.model.SavingsAccount;
+import com.bank.common.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// BankAccount.deposit and withdraw on both account types, without persistence. The balance is
+// reset before every operation so withdrawals never run into the minimum balance or overdraft
+// limit and both methods measure their success path.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class AccountModelBenchmark {
+
+    @Param({"SAVINGS", "CURRENT"})
+    private String accountType;
+
+    private BankAccount account;
+    private Money openingBalance;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        BigDecimal balance = new BigDecimal("25000.00");
+        account = "SAVINGS".equals(accountType)
+                ? new SavingsAccount("BENCH0001", "Benchmark Holder", balance, "1234567")
+                : new CurrentAccount("BENCH0001", "Benchmark Holder", balance, "1234567");
+        openingBalance = Money.of(balance);
+        amount = Money.of(new BigDecimal("125.50"));
+    }
+
+    @Benchmark
+    public Money deposit() {
+        account.setBalanceMoney(openingBalance);
+        account.deposit(amount);
+        return account.getBalanceMoney();
+    }
+
+    @Benchmark
+    public Money withdraw() {
+        account.setBalanceMoney(openingBalance);
+        account.withdraw(amount);
+        return account.getBalanceMoney();
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.benchmarks;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+// Entry point of benchmarks.jar. Takes the usual JMH command line and, after the run, writes
+// the results with ResultsFile to -Dbenchmark.results (default benchmark-results.tsv) so two
+// commits can be compared with ResultsDiff or a plain diff.
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        Collection<RunResult> results = new Runner(options).run();
+        Path file = Paths.get(System.getProperty("benchmark.results", "benchmark-results.tsv"));
+        ResultsFile.write(file, results);
+        System.out.println("Results written to " + file.toAbsolutePath());
+    }
+}
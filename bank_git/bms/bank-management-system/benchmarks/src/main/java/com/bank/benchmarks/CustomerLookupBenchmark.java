@@ -0,0 +1,85 @@
+package com.bank.benchmarks;
+
+import com.bank.customer.CustomerServiceApplication;
+import com.bank.customer.model.Customer;
+import com.bank.customer.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// CustomerService.getCustomerByAccountNumber for random existing account numbers, at two table
+// sizes and with one or several concurrent readers.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerLookupBenchmark {
+
+    private static final String INSERT_CUSTOMER_SQL =
+            "INSERT INTO customers (ssn_id, customer_name, email, address, contact_number, aadhar_number, pan_number, "
+                    + "account_number, initial_deposit, balance, account_type, age, city, gender) "
+                    + "VALUES (?, ?, ?, 'Benchmark Street 1', '9000000000', ?, ?, ?, 1000.00, 1000.00, 'Savings', 30, 'Pune', 'F')";
+
+    @Param({"1000", "100000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private String[] accountNumbers;
+
+    @Setup
+    public void setUp() {
+        context = SpringContexts.boot(CustomerServiceApplication.class, "customer-benchmark");
+        customerService = context.getBean(CustomerService.class);
+
+        accountNumbers = new String[customers];
+        List<Object[]> rows = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            accountNumbers[i] = String.format("ACC%09d", i);
+            rows.add(new Object[] {String.format("%07d", i), "Customer " + i, "customer" + i + "@bank.com",
+                    String.format("%012d", i), String.format("PAN%07d", i), accountNumbers[i]});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(INSERT_CUSTOMER_SQL, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Picker {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Customer> lookup(Picker picker) {
+        return customerService.getCustomerByAccountNumber(accountNumbers[picker.random.nextInt(accountNumbers.length)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<Customer> lookupConcurrent(Picker picker) {
+        return customerService.getCustomerByAccountNumber(accountNumbers[picker.random.nextInt(accountNumbers.length)]);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.benchmarks;
+
+import com.bank.employee.EmployeeServiceApplication;
+import com.bank.employee.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// EmployeeRepository.updateSalaryByPercentage for one designation, which is a third of the
+// seeded employees. Each update is rolled back so every invocation sees the same data; the
+// score therefore includes the rollback.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeSalaryBenchmark {
+
+    private static final String[] DESIGNATIONS = {"Clerk", "Manager", "Accountant"};
+
+    private static final String INSERT_EMPLOYEE_SQL =
+            "INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) "
+                    + "VALUES (NEXT VALUE FOR employees_seq, ?, 'Benchmark', ?, '9000000000', ?, 50000.00)";
+
+    @Param({"1000", "100000"})
+    private int employees;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private TransactionTemplate transactionTemplate;
+    private BigDecimal percentage;
+
+    @Setup
+    public void setUp() {
+        context = SpringContexts.boot(EmployeeServiceApplication.class, "employee-benchmark");
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        percentage = new BigDecimal("2.5");
+
+        List<Object[]> rows = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            rows.add(new Object[] {"Employee" + i, "employee" + i + "@bank.com", DESIGNATIONS[i % DESIGNATIONS.length]});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(INSERT_EMPLOYEE_SQL, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer updateSalaryByPercentage() {
+        return transactionTemplate.execute(status -> {
+            int updated = employeeRepository.updateSalaryByPercentage("Clerk", percentage);
+            status.setRollbackOnly();
+            return updated;
+        });
+    }
+}
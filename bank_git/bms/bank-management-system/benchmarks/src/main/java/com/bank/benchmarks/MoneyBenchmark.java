@@ -0,0 +1,90 @@
+package com.bank.benchmarks;
+
+import com.bank.common.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Deposit followed by withdrawal on a current account, once with the BigDecimal arithmetic the
+// account model used before Money and once with Money. Run with -prof gc to compare allocation
+// per operation as well as time:
+//   java -jar benchmarks/target/benchmarks.jar MoneyBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private BigDecimal decimalBalance;
+    private BigDecimal decimalOverdraftLimit;
+    private BigDecimal decimalAmount;
+
+    private Money moneyBalance;
+    private Money moneyOverdraftLimit;
+    private Money moneyAmount;
+
+    @Setup
+    public void setUp() {
+        decimalBalance = new BigDecimal("2500.00");
+        decimalOverdraftLimit = BigDecimal.valueOf(10000);
+        decimalAmount = new BigDecimal("125.50");
+
+        moneyBalance = Money.of(decimalBalance);
+        moneyOverdraftLimit = Money.of(decimalOverdraftLimit);
+        moneyAmount = Money.of(decimalAmount);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDepositWithdraw() {
+        if (decimalAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        decimalBalance = decimalBalance.add(decimalAmount);
+
+        if (decimalAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        BigDecimal newBalance = decimalBalance.subtract(decimalAmount);
+        BigDecimal minimumAllowedBalance = decimalOverdraftLimit.negate();
+        if (newBalance.compareTo(minimumAllowedBalance) < 0) {
+            throw new IllegalStateException("Overdraft limit exceeded");
+        }
+        decimalBalance = newBalance;
+        return decimalBalance;
+    }
+
+    @Benchmark
+    public Money moneyDepositWithdraw() {
+        if (!moneyAmount.isPositive()) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        moneyBalance = moneyBalance.plus(moneyAmount);
+
+        if (!moneyAmount.isPositive()) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        Money newBalance = moneyBalance.minus(moneyAmount);
+        if (newBalance.getMinorUnits() < -moneyOverdraftLimit.getMinorUnits()) {
+            throw new IllegalStateException("Overdraft limit exceeded");
+        }
+        moneyBalance = newBalance;
+        return moneyBalance;
+    }
+
+    // Cost of the API edge: parsing a request amount and rendering the resulting balance.
+    @Benchmark
+    public BigDecimal moneyRoundTrip() {
+        return Money.of(decimalAmount).plus(moneyBalance).toBigDecimal();
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.benchmarks;
+
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+
+// Compares two ResultsFile outputs, typically from the base and head of a change:
+//
+//   java -cp benchmarks/target/benchmarks.jar com.bank.benchmarks.ResultsDiff base.tsv head.tsv
+//
+// A change only counts when the two scores' error intervals do not overlap. The exit status is
+// 1 if any benchmark got worse, so the comparison can gate a build.
+public final class ResultsDiff {
+
+    private ResultsDiff() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: ResultsDiff <base results> <new results>");
+            System.exit(2);
+        }
+        Map<String, String[]> base = ResultsFile.read(Paths.get(args[0]));
+        Map<String, String[]> head = ResultsFile.read(Paths.get(args[1]));
+
+        int regressions = compare(base, head, System.out);
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed");
+            System.exit(1);
+        }
+    }
+
+    // Prints one line per benchmark and returns the number that regressed.
+    static int compare(Map<String, String[]> base, Map<String, String[]> head, PrintStream out) {
+        int regressions = 0;
+        out.println(String.format(Locale.ROOT, "%-70s %14s %14s %9s  %s", "benchmark", "base", "new", "change", ""));
+        for (Map.Entry<String, String[]> entry : head.entrySet()) {
+            String[] now = entry.getValue();
+            String label = now[0] + " [" + now[1] + "] " + now[2];
+            String[] before = base.get(entry.getKey());
+            if (before == null) {
+                out.println(String.format(Locale.ROOT, "%-70s %14s %14s %9s  %s", label, "-", now[4], "", "new"));
+                continue;
+            }
+
+            double oldScore = parse(before[4]);
+            double newScore = parse(now[4]);
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100;
+            boolean significant = Math.abs(newScore - oldScore) > errorOf(before) + errorOf(now);
+            // Throughput is better when higher; every other mode reports time per operation.
+            boolean better = "thrpt".equals(now[2]) ? newScore > oldScore : newScore < oldScore;
+            String verdict = !significant ? "" : better ? "improved" : "REGRESSED";
+            if (significant && !better) {
+                regressions++;
+            }
+            out.println(String.format(Locale.ROOT, "%-70s %14s %14s %+8.1f%%  %s",
+                    label, before[4], now[4], change, verdict));
+        }
+        for (String key : base.keySet()) {
+            if (!head.containsKey(key)) {
+                String[] old = base.get(key);
+                out.println(String.format(Locale.ROOT, "%-70s %14s %14s %9s  %s",
+                        old[0] + " [" + old[1] + "] " + old[2], old[4], "-", "", "removed"));
+            }
+        }
+
+        return regressions;
+    }
+
+    private static double errorOf(String[] row) {
+        double error = parse(row[5]);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static double parse(String value) {
+        return "NaN".equals(value) ? Double.NaN : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,99 @@
+package com.bank.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Tab-separated benchmark results with one line per benchmark and parameter combination,
+// sorted and with fixed formatting so runs from two commits diff line by line:
+//
+//   # java=17.0.9 os=Linux cores=8
+//   benchmark<TAB>params<TAB>mode<TAB>cnt<TAB>score<TAB>error<TAB>units
+//   AccountModelBenchmark.deposit<TAB>accountType=CURRENT<TAB>avgt<TAB>10<TAB>9.412<TAB>0.118<TAB>ns/op
+//
+// Lines starting with # describe the machine and are ignored when comparing.
+final class ResultsFile {
+
+    static final String HEADER = "benchmark\tparams\tmode\tcnt\tscore\terror\tunits";
+
+    private static final String PACKAGE_PREFIX = "com.bank.benchmarks.";
+
+    private ResultsFile() {
+    }
+
+    static void write(Path file, Collection<RunResult> results) throws IOException {
+        Map<String, String> lines = new TreeMap<>();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            Result<?> primary = result.getPrimaryResult();
+            String key = name(params) + "\t" + paramString(params) + "\t" + params.getMode().shortLabel();
+            lines.put(key, key + "\t" + primary.getSampleCount()
+                    + "\t" + format(primary.getScore())
+                    + "\t" + format(primary.getScoreError())
+                    + "\t" + primary.getScoreUnit());
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# java=" + System.getProperty("java.version") + " os=" + System.getProperty("os.name")
+                    + " cores=" + Runtime.getRuntime().availableProcessors());
+            out.newLine();
+            out.write(HEADER);
+            out.newLine();
+            for (String line : lines.values()) {
+                out.write(line);
+                out.newLine();
+            }
+        }
+    }
+
+    // Rows keyed by benchmark, params and mode; the value is the whole row split on tabs.
+    static Map<String, String[]> read(Path file) throws IOException {
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#") || line.equals(HEADER)) {
+                continue;
+            }
+            String[] columns = line.split("\t", -1);
+            if (columns.length != 7) {
+                throw new IOException("Malformed line in " + file + ": " + line);
+            }
+            rows.put(columns[0] + "\t" + columns[1] + "\t" + columns[2], columns);
+        }
+        return rows;
+    }
+
+    private static String name(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        return benchmark.startsWith(PACKAGE_PREFIX) ? benchmark.substring(PACKAGE_PREFIX.length()) : benchmark;
+    }
+
+    private static String paramString(BenchmarkParams params) {
+        List<String> pairs = new ArrayList<>();
+        for (String key : new TreeSet<>(params.getParamsKeys())) {
+            pairs.add(key + "=" + params.getParam(key));
+        }
+        pairs.add("threads=" + params.getThreads());
+        return String.join(",", pairs);
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "NaN" : String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.bank.benchmarks;
+
+import com.bank.account.AccountServiceApplication;
+import com.bank.account.model.Transaction;
+import com.bank.account.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// AccountService.transferFunds end to end against the service's in-memory H2 database, from
+// several threads. With contention=uniform transfers pick any two of the seeded accounts; with
+// contention=hot they all move money between the same few accounts, so every transfer waits
+// for the account locks. Use -t to change the thread count.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    private static final int HOT_ACCOUNTS = 4;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private static final String INSERT_ACCOUNT_SQL =
+            "INSERT INTO bank_accounts (account_number, account_type, account_holder_name, balance, customer_ssn, "
+                    + "version, opened_at, overdraft_limit, maintenance_fee, hot_account) "
+                    + "VALUES (?, 'CURRENT', ?, 1000000.00, '1234567', 0, ?, 10000.00, 0, FALSE)";
+
+    @Param({"1000", "100000"})
+    private int accounts;
+
+    @Param({"uniform", "hot"})
+    private String contention;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private String[] accountNumbers;
+    private int range;
+
+    @Setup
+    public void setUp() {
+        context = SpringContexts.boot(AccountServiceApplication.class, "account-benchmark");
+        accountService = context.getBean(AccountService.class);
+
+        accountNumbers = new String[accounts];
+        Timestamp openedAt = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        List<Object[]> rows = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = String.format("BENCH%07d", i);
+            rows.add(new Object[] {accountNumbers[i], "Holder " + i, openedAt});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(INSERT_ACCOUNT_SQL, rows);
+        range = "hot".equals(contention) ? HOT_ACCOUNTS : accounts;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Picker {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public Transaction transfer(Picker picker) {
+        int from = picker.random.nextInt(range);
+        int to = picker.random.nextInt(range - 1);
+        if (to >= from) {
+            to++;
+        }
+        return accountService.transferFunds(accountNumbers[from], accountNumbers[to], AMOUNT);
+    }
+}
@@ -0,0 +1,90 @@
+package com.bank.benchmarks;
+
+import com.bank.account.dto.TransferRequest;
+import com.bank.account.model.Transaction;
+import com.bank.account.wire.BinaryOperationCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Transfer request parsing and reply serialization, once the way the JSON endpoint does it (a
+// Map body, then string conversion of the amount) and once with BinaryOperationCodec. Run with
+// -prof gc to compare allocation as well as time:
+//   java -jar benchmarks/target/benchmarks.jar WireFormatBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private byte[] jsonRequest;
+    private byte[] binaryRequest;
+    private Transaction transaction;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sourceAccount", "ACC1000000001");
+        body.put("destinationAccount", "ACC1000000002");
+        body.put("amount", 125.50);
+        jsonRequest = objectMapper.writeValueAsBytes(body);
+
+        buffer = ByteBuffer.allocate(BinaryOperationCodec.MAX_MESSAGE_SIZE);
+        BinaryOperationCodec.encodeTransfer(
+                new TransferRequest("ACC1000000001", "ACC1000000002", new BigDecimal("125.50")), buffer);
+        binaryRequest = Arrays.copyOf(buffer.array(), buffer.position());
+
+        transaction = new Transaction("ACC1000000001", "ACC1000000002", new BigDecimal("125.50"), "TRANSFER");
+        transaction.setId(4242L);
+        transaction.setStatus("SUCCESS");
+        transaction.setDescription("Fund transfer successful");
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public TransferRequest parseJson() throws IOException {
+        Map<String, Object> body = objectMapper.readValue(jsonRequest, Map.class);
+        return new TransferRequest((String) body.get("sourceAccount"), (String) body.get("destinationAccount"),
+                new BigDecimal(body.get("amount").toString()));
+    }
+
+    @Benchmark
+    public TransferRequest parseBinary() {
+        return BinaryOperationCodec.decodeTransfer(ByteBuffer.wrap(binaryRequest));
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public int writeBinary() {
+        buffer.clear();
+        BinaryOperationCodec.encodeTransaction(transaction, buffer);
+        return buffer.position();
+    }
+}
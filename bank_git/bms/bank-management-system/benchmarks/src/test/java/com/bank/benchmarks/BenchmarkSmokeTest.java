@@ -0,0 +1,59 @@
+package com.bank.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs every benchmark once, in this JVM and at the smallest sizes, so a benchmark whose setup
+// or hot path breaks fails the build of the benchmarks profile rather than a later JMH run.
+class BenchmarkSmokeTest {
+
+    @Test
+    void everyBenchmarkRunsAndItsResultsRoundTrip(@TempDir Path dir) throws Exception {
+        Options options = new OptionsBuilder()
+                .include("com\\.bank\\.benchmarks\\..*")
+                .forks(0)
+                .warmupIterations(0)
+                .measurementIterations(1)
+                .measurementTime(TimeValue.milliseconds(100))
+                .param("customers", "1000")
+                .param("employees", "1000")
+                .param("accounts", "1000")
+                .param("contention", "uniform")
+                .shouldFailOnError(true)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertThat(results).extracting(r -> r.getParams().getBenchmark().replace("com.bank.benchmarks.", ""))
+                .contains("AccountModelBenchmark.deposit", "AccountModelBenchmark.withdraw",
+                        "CustomerLookupBenchmark.lookup", "CustomerLookupBenchmark.lookupConcurrent",
+                        "EmployeeSalaryBenchmark.updateSalaryByPercentage",
+                        "MoneyBenchmark.bigDecimalDepositWithdraw", "MoneyBenchmark.moneyDepositWithdraw",
+                        "TransferBenchmark.transfer",
+                        "WireFormatBenchmark.parseJson", "WireFormatBenchmark.parseBinary");
+        assertThat(results).allSatisfy(r -> assertThat(r.getPrimaryResult().getScore()).isPositive());
+
+        Path file = dir.resolve("results.tsv");
+        ResultsFile.write(file, results);
+        Map<String, String[]> rows = ResultsFile.read(file);
+        // One row per benchmark, parameter combination and mode
+        assertThat(rows).hasSize(results.size());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(ResultsDiff.compare(rows, rows, new PrintStream(out, true, StandardCharsets.UTF_8))).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).doesNotContain("REGRESSED");
+    }
+}
@@ -0,0 +1,69 @@
+package com.bank.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResultsDiffTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void readsRowsAndSkipsCommentsAndHeader() throws IOException {
+        Map<String, String[]> rows = ResultsFile.read(write("base.tsv",
+                "# java=17 os=Linux cores=8",
+                ResultsFile.HEADER,
+                "MoneyBenchmark.moneyDepositWithdraw\tthreads=1\tavgt\t10\t9.412\t0.118\tns/op",
+                ""));
+
+        assertThat(rows).containsOnlyKeys("MoneyBenchmark.moneyDepositWithdraw\tthreads=1\tavgt");
+        assertThat(rows.values().iterator().next()[4]).isEqualTo("9.412");
+    }
+
+    @Test
+    void rejectsMalformedLines() throws IOException {
+        Path file = write("bad.tsv", ResultsFile.HEADER, "MoneyBenchmark.moneyDepositWithdraw\tavgt\t9.412");
+
+        assertThatThrownBy(() -> ResultsFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("Malformed");
+    }
+
+    // Only changes larger than both error bars count; lower is better for avgt, higher for thrpt.
+    @Test
+    void countsOnlySignificantRegressions() throws IOException {
+        Map<String, String[]> base = ResultsFile.read(write("base.tsv",
+                "A.time\tthreads=1\tavgt\t10\t100.000\t2.000\tns/op",
+                "B.time\tthreads=1\tavgt\t10\t100.000\t2.000\tns/op",
+                "C.ops\tthreads=1\tthrpt\t10\t5000.000\t50.000\tops/s",
+                "D.time\tthreads=1\tavgt\t10\t100.000\t2.000\tns/op",
+                "Gone.time\tthreads=1\tavgt\t10\t1.000\tNaN\tns/op"));
+        Map<String, String[]> head = ResultsFile.read(write("head.tsv",
+                "A.time\tthreads=1\tavgt\t10\t103.000\t2.000\tns/op",
+                "B.time\tthreads=1\tavgt\t10\t110.000\t2.000\tns/op",
+                "C.ops\tthreads=1\tthrpt\t10\t4000.000\t50.000\tops/s",
+                "D.time\tthreads=1\tavgt\t10\t80.000\t2.000\tns/op",
+                "New.time\tthreads=1\tavgt\t10\t1.000\tNaN\tns/op"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int regressions = ResultsDiff.compare(base, head, new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        // B is slower and C has lower throughput; A is within the error bars and D improved
+        assertThat(regressions).isEqualTo(2);
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertThat(report.lines().filter(line -> line.endsWith("REGRESSED"))).hasSize(2);
+        assertThat(report).contains("improved", "new", "removed");
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(dir.resolve(name), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.common.aggregate;
+
+import com.bank.common.money.Money;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Row count and amount sum, overall and per group (account type, designation), kept in memory
+// and adjusted as rows change so dashboards read them without a query. Sums are in minor units.
+// Changes are applied after their database transaction commits. A full recompute replaces
+// everything; a change that commits while the recompute query runs may be counted twice or
+// missed until the next recompute, which is the drift the periodic recompute corrects.
+public final class GroupedTotals {
+
+    public static final String UNSPECIFIED = "UNSPECIFIED";
+
+    private final Map<String, long[]> groups = new TreeMap<>();
+    private long count;
+    private long sum;
+    private LocalDateTime recomputedAt;
+
+    public synchronized void add(String group, long minorUnits) {
+        long[] totals = groups.computeIfAbsent(key(group), k -> new long[2]);
+        totals[0]++;
+        totals[1] += minorUnits;
+        count++;
+        sum += minorUnits;
+    }
+
+    public synchronized void remove(String group, long minorUnits) {
+        long[] totals = groups.computeIfAbsent(key(group), k -> new long[2]);
+        totals[0]--;
+        totals[1] -= minorUnits;
+        count--;
+        sum -= minorUnits;
+    }
+
+    // A change of amount that leaves the row in its group.
+    public synchronized void adjust(String group, long minorUnits) {
+        groups.computeIfAbsent(key(group), k -> new long[2])[1] += minorUnits;
+        sum += minorUnits;
+    }
+
+    public synchronized void move(String fromGroup, long fromMinorUnits, String toGroup, long toMinorUnits) {
+        remove(fromGroup, fromMinorUnits);
+        add(toGroup, toMinorUnits);
+    }
+
+    // Installs the result of a full recompute: group -> {count, sum}.
+    public synchronized void replaceAll(Map<String, long[]> recomputed) {
+        groups.clear();
+        count = 0;
+        sum = 0;
+        recomputed.forEach((group, totals) -> {
+            groups.put(key(group), new long[] {totals[0], totals[1]});
+            count += totals[0];
+            sum += totals[1];
+        });
+        recomputedAt = LocalDateTime.now();
+    }
+
+    // {count, sum, <countsKey>: {group: count}, <sumsKey>: {group: sum}, recomputedAt}
+    public synchronized Map<String, Object> toMap(String sumKey, String countsKey, String sumsKey) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        Map<String, Object> sums = new LinkedHashMap<>();
+        groups.forEach((group, totals) -> {
+            if (totals[0] != 0 || totals[1] != 0) {
+                counts.put(group, totals[0]);
+                sums.put(group, Money.ofMinor(totals[1]).toBigDecimal());
+            }
+        });
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", count);
+        map.put(sumKey, Money.ofMinor(sum).toBigDecimal());
+        map.put(countsKey, counts);
+        map.put(sumsKey, sums);
+        map.put("recomputedAt", recomputedAt == null ? null : recomputedAt.toString());
+        return map;
+    }
+
+    // Runs the change once the surrounding transaction commits, or at once outside one, so a
+    // rolled back write never reaches the totals.
+    public static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static String key(String group) {
+        return group == null || group.isBlank() ? UNSPECIFIED : group;
+    }
+}
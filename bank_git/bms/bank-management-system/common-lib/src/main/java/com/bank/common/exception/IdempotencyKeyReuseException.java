@@ -0,0 +1,7 @@
+package com.bank.common.exception;
+
+public class IdempotencyKeyReuseException extends BankException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
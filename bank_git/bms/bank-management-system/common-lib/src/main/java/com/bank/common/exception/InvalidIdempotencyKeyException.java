@@ -0,0 +1,7 @@
+package com.bank.common.exception;
+
+public class InvalidIdempotencyKeyException extends BankException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,84 @@
+package com.bank.common.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+// Shared instrumentation for every service that depends on common-lib. Per-endpoint timers
+// come from Spring's http.server.requests (tagged with uri, method, status, outcome and
+// exception); this adds the application tag, percentile histograms for those timers and the
+// bank.* ones, JDBC timing for OperationMetrics and connection pool saturation gauges.
+@AutoConfiguration(after = {CompositeMeterRegistryAutoConfiguration.class, DataSourceAutoConfiguration.class})
+@ConditionalOnClass(MeterRegistry.class)
+public class BankMetricsAutoConfiguration {
+
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> applicationTagCustomizer(Environment environment) {
+        String application = environment.getProperty("spring.application.name", "unknown");
+        return registry -> registry.config().commonTags("application", application);
+    }
+
+    @Bean
+    public MeterFilter latencyHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() == Meter.Type.TIMER
+                        && (id.getName().equals("http.server.requests") || id.getName().startsWith("bank."))) {
+                    return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnMissingBean
+    public OperationMetrics operationMetrics(MeterRegistry registry) {
+        return new OperationMetrics(registry);
+    }
+
+    // Static so the post-processor is registered before the DataSource is created.
+    @Bean
+    @ConditionalOnProperty(name = "bank.metrics.db-timing.enabled", matchIfMissing = true)
+    public static BeanPostProcessor dbTimingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+                    return DbTimingDataSource.wrap(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    @ConditionalOnBean(DataSource.class)
+    static class ConnectionPoolMetricsConfiguration {
+
+        @Bean
+        public ConnectionPoolMetrics connectionPoolMetrics(Map<String, DataSource> dataSources) {
+            return new ConnectionPoolMetrics(dataSources);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bank.common.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+// Saturation of each Hikari pool: the share of the maximum pool size in use and the number of
+// threads waiting for a connection. Both read NaN until the pool has started.
+class ConnectionPoolMetrics implements MeterBinder {
+
+    private final Map<String, DataSource> dataSources;
+
+    ConnectionPoolMetrics(Map<String, DataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dataSources.forEach((name, dataSource) -> {
+            HikariDataSource hikari = unwrap(dataSource);
+            if (hikari == null) {
+                return;
+            }
+            Gauge.builder("bank.db.pool.saturation", hikari, ConnectionPoolMetrics::saturation)
+                    .description("Active connections as a fraction of the maximum pool size")
+                    .tag("pool", name)
+                    .register(registry);
+            Gauge.builder("bank.db.pool.awaiting", hikari, ConnectionPoolMetrics::awaiting)
+                    .description("Threads waiting for a connection")
+                    .tag("pool", name)
+                    .register(registry);
+        });
+    }
+
+    private static HikariDataSource unwrap(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? Double.NaN : (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+
+    private static double awaiting(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? Double.NaN : pool.getThreadsAwaitingConnection();
+    }
+}
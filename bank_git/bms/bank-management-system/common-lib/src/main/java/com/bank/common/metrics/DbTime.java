@@ -0,0 +1,19 @@
+package com.bank.common.metrics;
+
+// Nanoseconds the current thread has spent in JDBC calls, accumulated by DbTimingDataSource.
+// Callers read it before and after a unit of work and take the difference.
+public final class DbTime {
+
+    private static final ThreadLocal<long[]> NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private DbTime() {
+    }
+
+    public static long current() {
+        return NANOS.get()[0];
+    }
+
+    static void add(long nanos) {
+        NANOS.get()[0] += nanos;
+    }
+}
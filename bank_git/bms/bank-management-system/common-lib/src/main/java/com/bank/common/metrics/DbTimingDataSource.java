@@ -0,0 +1,75 @@
+package com.bank.common.metrics;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+// Wraps a DataSource so that the time spent borrowing connections, executing statements and
+// committing or rolling back is added to DbTime for the calling thread. unwrap() and
+// isWrapperFor() go straight to the pool, so pool metrics still find the HikariDataSource.
+final class DbTimingDataSource implements InvocationHandler {
+
+    private final Object target;
+
+    private DbTimingDataSource(Object target) {
+        this.target = target;
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        Class<?>[] interfaces = dataSource instanceof Closeable
+                ? new Class<?>[] {DataSource.class, Closeable.class}
+                : new Class<?>[] {DataSource.class};
+        return (DataSource) proxy(dataSource, interfaces);
+    }
+
+    private static Object proxy(Object target, Class<?>... interfaces) {
+        return Proxy.newProxyInstance(DbTimingDataSource.class.getClassLoader(), interfaces,
+                new DbTimingDataSource(target));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        boolean timed = isTimed(method.getName());
+        long start = timed ? System.nanoTime() : 0;
+        try {
+            Object result = method.invoke(target, args);
+            Class<?> type = method.getReturnType();
+            if (result != null && (type == Connection.class || type == Statement.class
+                    || type == PreparedStatement.class || type == CallableStatement.class)) {
+                return proxy(result, type);
+            }
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (timed) {
+                DbTime.add(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private boolean isTimed(String methodName) {
+        if (target instanceof DataSource) {
+            return methodName.equals("getConnection");
+        }
+        if (target instanceof Connection) {
+            return methodName.equals("commit") || methodName.equals("rollback");
+        }
+        return methodName.startsWith("execute");
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Service-level timers. bank.operation is the total time of a call and bank.operation.db the
+// part of it spent in JDBC on the calling thread, both tagged with the operation and outcome.
+// A failed call also increments bank.operation.failures, tagged with the exception as cause.
+public class OperationMetrics {
+
+    private final MeterRegistry registry;
+
+    public OperationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T record(String operation, Supplier<T> work) {
+        long dbStart = DbTime.current();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return work.get();
+        } catch (RuntimeException | Error e) {
+            outcome = "failure";
+            Counter.builder("bank.operation.failures")
+                    .description("Failed service operations by cause")
+                    .tag("operation", operation)
+                    .tag("cause", e.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            long total = System.nanoTime() - start;
+            long db = DbTime.current() - dbStart;
+            timer("bank.operation", "Total time of service operations", operation, outcome)
+                    .record(total, TimeUnit.NANOSECONDS);
+            timer("bank.operation.db", "Time service operations spent in JDBC calls", operation, outcome)
+                    .record(db, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String name, String description, String operation, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.bank.common.money;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amount of money held as a long count of minor units (cents), for arithmetic on the ledger
+// hot path. All arithmetic is overflow-checked and throws ArithmeticException instead of
+// wrapping. Conversion from BigDecimal rounds to two decimal places with HALF_EVEN unless a
+// rounding mode is given; ofExact is for amounts taken from requests and rejects anything
+// that would need rounding. Conversion back to BigDecimal is exact.
+public final class Money implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money ofMajor(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, MINOR_PER_MAJOR));
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_ROUNDING);
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        if (amount == null) {
+            return null;
+        }
+        BigDecimal scaled = amount.setScale(SCALE, rounding);
+        if (scaled.precision() > 18) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return ofMinor(scaled.unscaledValue().longValue());
+    }
+
+    // Request amounts must already be whole cents, so a client asking for 10.005 is refused
+    // rather than silently moved 10.00.
+    public static Money ofExact(BigDecimal amount) {
+        if (amount != null && amount.stripTrailingZeros().scale() > SCALE) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " must have at most "
+                    + SCALE + " decimal places");
+        }
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public Money times(long factor) {
+        return ofMinor(Math.multiplyExact(minorUnits, factor));
+    }
+
+    // For rates and other fractional factors; the result is rounded back to minor units.
+    public Money times(BigDecimal factor, RoundingMode rounding) {
+        return of(toBigDecimal().multiply(factor), rounding);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > other.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && minorUnits == other.minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,220 @@
+package com.bank.common.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Takes snapshots of a file-backed H2 database with BACKUP TO, which copies the store as of a
+// single point in time while the service keeps writing. Snapshots are zip files named
+// <database>-<UTC timestamp>.zip; one is written under a temporary name and renamed when
+// complete, so a crash never leaves a partial snapshot that looks finished. Only the newest
+// `retain` are kept. Snapshots run every `interval` (zero turns that off) and, with
+// onShutdown, once more after the web server has stopped taking requests.
+public class DatabaseSnapshots implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseSnapshots.class);
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private static final String SUFFIX = ".zip";
+
+    private final DataSource dataSource;
+    private final H2DatabaseFiles database;
+    private final Path directory;
+    private final int retain;
+    private final Duration interval;
+    private final boolean onShutdown;
+    private final Timer timer;
+    private ScheduledExecutorService scheduler;
+    private boolean running;
+    private volatile Snapshot latest;
+
+    public DatabaseSnapshots(DataSource dataSource, H2DatabaseFiles database, Path directory, int retain,
+                             Duration interval, boolean onShutdown, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.database = database;
+        this.directory = directory;
+        this.retain = Math.max(1, retain);
+        this.interval = interval;
+        this.onShutdown = onShutdown;
+        this.timer = registry == null ? null : Timer.builder("bank.storage.snapshot")
+                .description("Time to write a database snapshot")
+                .register(registry);
+    }
+
+    public synchronized Snapshot take() {
+        if (database == null) {
+            throw new IllegalStateException("Snapshots need a file-backed H2 database (jdbc:h2:file:...)");
+        }
+        long started = System.nanoTime();
+        Path target = directory.resolve(database.getName() + "-" + STAMP.format(Instant.now()) + SUFFIX);
+        Path partial = directory.resolve(target.getFileName() + ".partial");
+        try {
+            Files.createDirectories(directory);
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("BACKUP TO '" + partial.toString().replace("'", "''") + "'");
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            long nanos = System.nanoTime() - started;
+            if (timer != null) {
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+            latest = new Snapshot(target, Files.size(target), Instant.now(), TimeUnit.NANOSECONDS.toMillis(nanos));
+            log.info("Snapshot {} written in {} ms ({} bytes)", target.getFileName(), latest.getMillis(), latest.getBytes());
+            prune();
+            return latest;
+        } catch (SQLException e) {
+            deleteQuietly(partial);
+            throw new IllegalStateException("Could not snapshot " + database.getName(), e);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException("Could not write snapshot " + target, e);
+        }
+    }
+
+    public Snapshot getLatest() {
+        return latest;
+    }
+
+    // The newest complete snapshot of the named database in the directory, if any.
+    public static Optional<Path> newest(Path directory, String name) throws IOException {
+        List<Path> snapshots = list(directory, name);
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(0));
+    }
+
+    @Override
+    public synchronized void start() {
+        // Running even without the schedule, so stop() still takes the shutdown snapshot
+        running = true;
+        if (database == null) {
+            log.warn("Snapshots are off: the database is not a file-backed H2 database");
+            return;
+        }
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                take();
+            } catch (RuntimeException e) {
+                log.warn("Scheduled snapshot failed", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (onShutdown && database != null) {
+            try {
+                take();
+            } catch (RuntimeException e) {
+                log.warn("Shutdown snapshot failed", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server (phase DEFAULT_PHASE - 2048) so the shutdown snapshot sees
+    // every request that was accepted.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = list(directory, database.getName());
+        for (int i = retain; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    // Newest first; the UTC timestamp in the name sorts chronologically.
+    private static List<Path> list(Path directory, String name) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String prefix = name + "-";
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String fileName = file.getFileName().toString();
+                        return fileName.startsWith(prefix) && fileName.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete {}", file, e);
+        }
+    }
+
+    public static final class Snapshot {
+
+        private final Path file;
+        private final long bytes;
+        private final Instant takenAt;
+        private final long millis;
+
+        Snapshot(Path file, long bytes, Instant takenAt, long millis) {
+            this.file = file;
+            this.bytes = bytes;
+            this.takenAt = takenAt;
+            this.millis = millis;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public Instant getTakenAt() {
+            return takenAt;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.common.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Where an embedded H2 database keeps its data: jdbc:h2:file:./data/accountdb;OPTIONS and
+// jdbc:h2:./data/accountdb both live in ./data as accountdb.mv.db. In-memory and server URLs
+// have no local files, so fromUrl returns null for them.
+public final class H2DatabaseFiles {
+
+    private static final String PREFIX = "jdbc:h2:";
+
+    private final Path directory;
+    private final String name;
+
+    private H2DatabaseFiles(Path directory, String name) {
+        this.directory = directory;
+        this.name = name;
+    }
+
+    public static H2DatabaseFiles fromUrl(String url) {
+        if (url == null || !url.startsWith(PREFIX)) {
+            return null;
+        }
+        String path = url.substring(PREFIX.length());
+        int options = path.indexOf(';');
+        if (options >= 0) {
+            path = path.substring(0, options);
+        }
+        if (path.startsWith("file:")) {
+            path = path.substring("file:".length());
+        } else if (path.startsWith("mem:") || path.startsWith("tcp:") || path.startsWith("ssl:") || path.startsWith("zip:")) {
+            return null;
+        }
+        if (path.startsWith("~")) {
+            path = System.getProperty("user.home") + path.substring(1);
+        }
+        Path file = Paths.get(path).toAbsolutePath().normalize();
+        return new H2DatabaseFiles(file.getParent(), file.getFileName().toString());
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Path getDataFile() {
+        return directory.resolve(name + ".mv.db");
+    }
+
+    public boolean exists() {
+        return Files.exists(getDataFile());
+    }
+}
@@ -0,0 +1,79 @@
+package com.bank.common.storage;
+
+import org.h2.tools.DeleteDbFiles;
+import org.h2.tools.Restore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Unpacks the newest snapshot into place before the DataSource first opens the database, a
+// bulk file copy instead of re-inserting rows. IF_MISSING (the default) restores only when
+// the database file is gone, e.g. after losing the disk; ALWAYS replaces the database with
+// the newest snapshot on every start; NEVER leaves it alone.
+class SnapshotRestorer implements BeanPostProcessor {
+
+    enum Mode {
+        IF_MISSING, ALWAYS, NEVER;
+
+        static Mode parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRestorer.class);
+
+    private final H2DatabaseFiles database;
+    private final Path snapshotDirectory;
+    private final Mode mode;
+    private final StorageReport report = new StorageReport();
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    SnapshotRestorer(H2DatabaseFiles database, Path snapshotDirectory, Mode mode) {
+        this.database = database;
+        this.snapshotDirectory = snapshotDirectory;
+        this.mode = mode;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && done.compareAndSet(false, true)) {
+            restore();
+        }
+        return bean;
+    }
+
+    StorageReport getReport() {
+        return report;
+    }
+
+    private void restore() {
+        if (database == null || mode == Mode.NEVER || (mode == Mode.IF_MISSING && database.exists())) {
+            return;
+        }
+        try {
+            Optional<Path> snapshot = DatabaseSnapshots.newest(snapshotDirectory, database.getName());
+            if (snapshot.isEmpty()) {
+                log.info("No snapshot of {} in {}", database.getName(), snapshotDirectory);
+                return;
+            }
+            long started = System.nanoTime();
+            Files.createDirectories(database.getDirectory());
+            DeleteDbFiles.execute(database.getDirectory().toString(), database.getName(), true);
+            Restore.execute(snapshot.get().toString(), database.getDirectory().toString(), database.getName());
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            report.restored(snapshot.get(), Files.size(snapshot.get()), millis);
+            log.info("Restored {} from {} in {} ms", database.getName(), snapshot.get().getFileName(), millis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore " + database.getName() + " from " + snapshotDirectory, e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.bank.common.storage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+// bank.storage.enabled=true (set by each service's "persistent" profile) adds snapshots of the
+// file-backed H2 database at spring.datasource.url and restores the newest one in bulk when
+// the service starts without its database file. Restore, migration and startup times are
+// logged when the service is ready, exposed at /actuator/storage and published as
+// bank.storage.* gauges.
+@AutoConfiguration(beforeName = {
+        "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+        "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration"})
+@ConditionalOnProperty(name = "bank.storage.enabled", havingValue = "true")
+@ConditionalOnClass(name = "org.h2.tools.Restore")
+public class StorageAutoConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageAutoConfiguration.class);
+
+    // Static so the restore runs before the DataSource is created.
+    @Bean
+    static SnapshotRestorer snapshotRestorer(Environment environment) {
+        return new SnapshotRestorer(H2DatabaseFiles.fromUrl(environment.getProperty("spring.datasource.url")),
+                snapshotDirectory(environment),
+                SnapshotRestorer.Mode.parse(environment.getProperty("bank.storage.restore", "if-missing")));
+    }
+
+    @Bean
+    public StorageReport storageReport(SnapshotRestorer restorer) {
+        return restorer.getReport();
+    }
+
+    @Bean
+    public DatabaseSnapshots databaseSnapshots(DataSource dataSource, Environment environment, ObjectProvider<MeterRegistry> registry) {
+        return new DatabaseSnapshots(dataSource,
+                H2DatabaseFiles.fromUrl(environment.getProperty("spring.datasource.url")),
+                snapshotDirectory(environment),
+                environment.getProperty("bank.storage.snapshot.retain", Integer.class, 3),
+                Duration.ofMinutes(environment.getProperty("bank.storage.snapshot.interval-minutes", Long.class, 60L)),
+                environment.getProperty("bank.storage.snapshot.on-shutdown", Boolean.class, true),
+                registry.getIfAvailable());
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> storageReadyListener(StorageReport report) {
+        return event -> {
+            report.ready(event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis());
+            log.info("Storage: {}", report.summary());
+        };
+    }
+
+    @Bean
+    public MeterBinder storageMetrics(StorageReport report) {
+        return registry -> {
+            gauge(registry, "bank.storage.restore.time", "Time to restore the database from a snapshot at startup",
+                    report, StorageReport::getRestoreMillis);
+            gauge(registry, "bank.storage.migration.time", "Time to apply schema migrations at startup",
+                    report, StorageReport::getMigrationMillis);
+            gauge(registry, "bank.storage.startup.time", "Time from startup until ready to serve",
+                    report, StorageReport::getReadyMillis);
+        };
+    }
+
+    private static void gauge(MeterRegistry registry, String name, String description, StorageReport report,
+                              ToDoubleFunction<StorageReport> millis) {
+        TimeGauge.builder(name, report, TimeUnit.MILLISECONDS, r -> {
+                    double value = millis.applyAsDouble(r);
+                    return value < 0 ? Double.NaN : value;
+                })
+                .description(description)
+                .register(registry);
+    }
+
+    private static Path snapshotDirectory(Environment environment) {
+        return Paths.get(environment.getProperty("bank.storage.snapshot.directory", "data/snapshots")).toAbsolutePath();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Flyway.class)
+    static class MigrationTimingConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public FlywayMigrationStrategy timedFlywayMigrationStrategy(StorageReport report) {
+            return flyway -> {
+                long started = System.nanoTime();
+                MigrateResult result = flyway.migrate();
+                report.migrated(result.migrationsExecuted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            };
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class StorageEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnAvailableEndpoint
+        public StorageEndpoint storageEndpoint(StorageReport report, DatabaseSnapshots snapshots) {
+            return new StorageEndpoint(report, snapshots);
+        }
+    }
+}
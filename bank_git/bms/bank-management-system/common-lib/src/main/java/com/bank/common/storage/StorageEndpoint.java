@@ -0,0 +1,44 @@
+package com.bank.common.storage;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/storage reports the last start (restore, migrations, time to ready) and the
+// newest snapshot taken by this process; POST /actuator/storage takes a snapshot now.
+@Endpoint(id = "storage")
+public class StorageEndpoint {
+
+    private final StorageReport report;
+    private final DatabaseSnapshots snapshots;
+
+    public StorageEndpoint(StorageReport report, DatabaseSnapshots snapshots) {
+        this.report = report;
+        this.snapshots = snapshots;
+    }
+
+    @ReadOperation
+    public Map<String, Object> storage() {
+        Map<String, Object> storage = new LinkedHashMap<>();
+        storage.put("startup", report.toMap());
+        DatabaseSnapshots.Snapshot latest = snapshots.getLatest();
+        storage.put("latestSnapshot", latest == null ? null : describe(latest));
+        return storage;
+    }
+
+    @WriteOperation
+    public Map<String, Object> snapshot() {
+        return describe(snapshots.take());
+    }
+
+    private static Map<String, Object> describe(DatabaseSnapshots.Snapshot snapshot) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("file", snapshot.getFile().toString());
+        description.put("bytes", snapshot.getBytes());
+        description.put("takenAt", snapshot.getTakenAt().toString());
+        description.put("millis", snapshot.getMillis());
+        return description;
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.common.storage;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// How the last start went: whether a snapshot was restored and how long that took, how many
+// schema migrations ran and for how long, and how long after launch the service was ready to
+// serve. Logged once the application is ready and exposed at /actuator/storage. -1 means the
+// step did not run.
+public class StorageReport {
+
+    private volatile String restoredFrom;
+    private volatile long restoredBytes = -1;
+    private volatile long restoreMillis = -1;
+    private volatile int migrationsApplied = -1;
+    private volatile long migrationMillis = -1;
+    private volatile long readyMillis = -1;
+
+    void restored(Path snapshot, long bytes, long millis) {
+        this.restoredFrom = snapshot.getFileName().toString();
+        this.restoredBytes = bytes;
+        this.restoreMillis = millis;
+    }
+
+    void migrated(int applied, long millis) {
+        this.migrationsApplied = applied;
+        this.migrationMillis = millis;
+    }
+
+    void ready(long millis) {
+        this.readyMillis = millis;
+    }
+
+    public long getRestoreMillis() {
+        return restoreMillis;
+    }
+
+    public long getMigrationMillis() {
+        return migrationMillis;
+    }
+
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("restoredFrom", restoredFrom);
+        map.put("restoredBytes", restoredBytes);
+        map.put("restoreMillis", restoreMillis);
+        map.put("migrationsApplied", migrationsApplied);
+        map.put("migrationMillis", migrationMillis);
+        map.put("readyMillis", readyMillis);
+        return map;
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder();
+        if (restoredFrom != null) {
+            summary.append("restored ").append(restoredFrom).append(" (").append(restoredBytes / (1024 * 1024))
+                    .append(" MB) in ").append(restoreMillis).append(" ms, ");
+        } else {
+            summary.append("no restore, ");
+        }
+        if (migrationsApplied >= 0) {
+            summary.append(migrationsApplied).append(" migration(s) in ").append(migrationMillis).append(" ms, ");
+        }
+        return summary.append("ready ").append(readyMillis).append(" ms after launch").toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.bank.common.threads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// The build targets Java 17, so the Java 21 virtual thread API is looked up reflectively and
+// only used when the service runs on a Java 21 runtime (see the java21 Maven profile).
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public static ExecutorService newPerTaskExecutor() {
+        if (!isSupported()) {
+            throw new IllegalStateException("bank.threads.virtual.enabled=true needs Java 21, running on Java "
+                    + Runtime.version().feature());
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+}
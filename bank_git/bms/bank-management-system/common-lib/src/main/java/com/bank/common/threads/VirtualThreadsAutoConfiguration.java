@@ -0,0 +1,106 @@
+package com.bank.common.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+// bank.threads.virtual.enabled=true runs every request, and the @Transactional service calls
+// it makes, on its own virtual thread instead of Tomcat's fixed pool. The database stays the
+// bottleneck, so connections are handed out through ConcurrencyLimitedDataSource and requests
+// beyond the pool size queue for a permit. Pinned virtual threads are reported by
+// PinnedThreadMonitor.
+@AutoConfiguration
+@ConditionalOnProperty(name = "bank.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(ProtocolHandler.class)
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newPerTaskExecutor());
+    }
+
+    // Permits default to the pool's maximum size, so the pool itself never has a queue
+    @Bean
+    @ConditionalOnClass(name = "org.springframework.jdbc.datasource.DelegatingDataSource")
+    public static BeanPostProcessor dbConcurrencyLimiterPostProcessor(Environment environment) {
+        int configuredPermits = environment.getProperty("bank.threads.virtual.db-permits", Integer.class, 0);
+        long acquireTimeoutMillis = environment.getProperty("bank.threads.virtual.db-acquire-timeout-ms", Long.class, 30000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int permits = configuredPermits > 0 ? configuredPermits : poolSize(dataSource);
+                return new ConcurrencyLimitedDataSource(dataSource, permits, acquireTimeoutMillis);
+            }
+        };
+    }
+
+    // A negative threshold switches the monitor off
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(Environment environment, ObjectProvider<MeterRegistry> registry) {
+        long thresholdMillis = environment.getProperty("bank.threads.virtual.pinned-threshold-ms", Long.class, 20L);
+        return new PinnedThreadMonitor(Duration.ofMillis(thresholdMillis), registry.getIfAvailable());
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException | NoClassDefFoundError e) {
+            // fall through to the default
+        }
+        return 10;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class LimiterMetricsConfiguration {
+
+        @Bean
+        public MeterBinder dbConcurrencyLimiterMetrics(Map<String, DataSource> dataSources) {
+            return registry -> dataSources.forEach((name, dataSource) -> {
+                ConcurrencyLimitedDataSource limiter = unwrap(dataSource);
+                if (limiter == null) {
+                    return;
+                }
+                Gauge.builder("bank.db.limiter.in-use", limiter, ConcurrencyLimitedDataSource::getInUse)
+                        .description("Database permits held")
+                        .tag("pool", name)
+                        .register(registry);
+                Gauge.builder("bank.db.limiter.queued", limiter, ConcurrencyLimitedDataSource::getQueued)
+                        .description("Threads waiting for a database permit")
+                        .tag("pool", name)
+                        .register(registry);
+            });
+        }
+
+        private static ConcurrencyLimitedDataSource unwrap(DataSource dataSource) {
+            try {
+                return dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)
+                        ? dataSource.unwrap(ConcurrencyLimitedDataSource.class) : null;
+            } catch (SQLException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bank.common.aggregate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupedTotalsTest {
+
+    @Test
+    void keepsCountsAndSumsPerGroup() {
+        GroupedTotals totals = new GroupedTotals();
+        totals.add("SAVINGS", 10_000);
+        totals.add("SAVINGS", 2_550);
+        totals.add("CURRENT", 500);
+        totals.add(" ", 100);
+        totals.adjust("SAVINGS", -50);
+        totals.move("CURRENT", 500, "SAVINGS", 700);
+        totals.remove(null, 100);
+
+        Map<String, Object> map = totals.toMap("totalBalance", "countsByAccountType", "balanceByAccountType");
+
+        assertThat(map).containsEntry("count", 3L)
+                .containsEntry("totalBalance", new BigDecimal("132.00"))
+                .containsEntry("recomputedAt", null);
+        // CURRENT and the blank group are back to nothing and are left out
+        assertThat(map.get("countsByAccountType")).isEqualTo(Map.of("SAVINGS", 3L));
+        assertThat(map.get("balanceByAccountType")).isEqualTo(Map.of("SAVINGS", new BigDecimal("132.00")));
+    }
+
+    @Test
+    void aRecomputeReplacesEverything() {
+        GroupedTotals totals = new GroupedTotals();
+        totals.add("Clerk", 1_000);
+        Map<String, long[]> recomputed = new HashMap<>();
+        recomputed.put("Manager", new long[] {2, 15_000_000});
+        recomputed.put(null, new long[] {1, 10});
+
+        totals.replaceAll(recomputed);
+        totals.add("", 5);
+
+        Map<String, Object> map = totals.toMap("totalSalary", "countsByDesignation", "salaryByDesignation");
+        assertThat(map).containsEntry("count", 4L)
+                .containsEntry("totalSalary", new BigDecimal("150000.15"))
+                .hasEntrySatisfying("recomputedAt", at -> assertThat(at).isNotNull());
+        assertThat(map.get("countsByDesignation")).isEqualTo(Map.of("Manager", 2L, GroupedTotals.UNSPECIFIED, 2L));
+    }
+
+    @Test
+    void appliesChangesOnlyOnceTheTransactionCommits() {
+        AtomicInteger applied = new AtomicInteger();
+
+        // Outside a transaction the change applies at once
+        GroupedTotals.afterCommit(applied::incrementAndGet);
+        assertThat(applied).hasValue(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            GroupedTotals.afterCommit(applied::incrementAndGet);
+            assertThat(applied).hasValue(1);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertThat(applied).hasValue(1);
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            assertThat(applied).hasValue(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.bank.common.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DbTimingDataSourceTest {
+
+    private HikariDataSource pool;
+
+    @BeforeEach
+    void open() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:dbtiming;DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(4);
+    }
+
+    @AfterEach
+    void close() {
+        pool.close();
+    }
+
+    @Test
+    void addsStatementAndCommitTimeToTheCallingThread() throws Exception {
+        DataSource dataSource = DbTimingDataSource.wrap(pool);
+        long before = DbTime.current();
+
+        try (Connection connection = dataSource.getConnection()) {
+            long afterBorrow = DbTime.current();
+            assertThat(afterBorrow).isGreaterThan(before);
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS timed (id INT)");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO timed VALUES (?)")) {
+                insert.setInt(1, 1);
+                insert.executeUpdate();
+            }
+            long afterStatements = DbTime.current();
+            assertThat(afterStatements).isGreaterThan(afterBorrow);
+            connection.commit();
+            assertThat(DbTime.current()).isGreaterThan(afterStatements);
+
+            try (PreparedStatement select = connection.prepareStatement("SELECT COUNT(*) FROM timed");
+                 ResultSet rows = select.executeQuery()) {
+                assertThat(rows.next()).isTrue();
+                assertThat(rows.getInt(1)).isPositive();
+            }
+        }
+    }
+
+    @Test
+    void stillUnwrapsToThePoolAndCloses() throws Exception {
+        DataSource dataSource = DbTimingDataSource.wrap(pool);
+
+        assertThat(dataSource).isInstanceOf(Closeable.class);
+        assertThat(dataSource.isWrapperFor(HikariDataSource.class)).isTrue();
+        assertThat(dataSource.unwrap(HikariDataSource.class)).isSameAs(pool);
+        assertThat(dataSource).isEqualTo(dataSource).isNotEqualTo(DbTimingDataSource.wrap(pool));
+
+        ((Closeable) dataSource).close();
+        assertThat(pool.isClosed()).isTrue();
+    }
+
+    @Test
+    void poolGaugesReadThroughTheWrapper() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new ConnectionPoolMetrics(Map.of("dataSource", DbTimingDataSource.wrap(pool))).bindTo(registry);
+
+        try (Connection held = pool.getConnection()) {
+            assertThat(registry.get("bank.db.pool.saturation").tag("pool", "dataSource").gauge().value()).isEqualTo(0.25);
+            assertThat(registry.get("bank.db.pool.awaiting").tag("pool", "dataSource").gauge().value()).isZero();
+        }
+    }
+}
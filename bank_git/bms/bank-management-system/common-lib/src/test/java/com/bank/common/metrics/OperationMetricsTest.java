@@ -0,0 +1,56 @@
+package com.bank.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperationMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final OperationMetrics metrics = new OperationMetrics(registry);
+
+    @Test
+    void recordsTotalAndDbTimeByOutcome() {
+        String result = metrics.record("deposit", () -> {
+            DbTime.add(TimeUnit.MILLISECONDS.toNanos(3));
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        Timer total = registry.get("bank.operation").tags("operation", "deposit", "outcome", "success").timer();
+        Timer db = registry.get("bank.operation.db").tags("operation", "deposit", "outcome", "success").timer();
+        assertThat(total.count()).isEqualTo(1);
+        assertThat(db.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(3));
+        assertThat(registry.find("bank.operation.failures").counter()).isNull();
+    }
+
+    @Test
+    void countsFailuresByCauseAndRethrows() {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> metrics.record("transfer", () -> {
+                throw new IllegalStateException("no");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(registry.get("bank.operation.failures")
+                .tags("operation", "transfer", "cause", "IllegalStateException").counter().count()).isEqualTo(2);
+        assertThat(registry.get("bank.operation").tags("operation", "transfer", "outcome", "failure").timer().count())
+                .isEqualTo(2);
+    }
+
+    // Only the JDBC time of this call counts, not what the thread spent before it.
+    @Test
+    void dbTimeIsTheDifferenceAcrossTheCall() {
+        DbTime.add(TimeUnit.SECONDS.toNanos(1));
+
+        metrics.record("withdraw", () -> null);
+
+        assertThat(registry.get("bank.operation.db").tags("operation", "withdraw").timer().totalTime(TimeUnit.NANOSECONDS))
+                .isZero();
+    }
+}
@@ -0,0 +1,91 @@
+package com.bank.common.money;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void convertsToAndFromMinorUnitsExactly() {
+        Money amount = Money.of(new BigDecimal("1234.56"));
+
+        assertThat(amount.getMinorUnits()).isEqualTo(123456);
+        assertThat(amount.toBigDecimal()).isEqualTo(new BigDecimal("1234.56"));
+        assertThat(Money.of(new BigDecimal("7")).toBigDecimal()).isEqualTo(new BigDecimal("7.00"));
+        assertThat(Money.of(new BigDecimal("-0.01")).getMinorUnits()).isEqualTo(-1);
+        assertThat(Money.ofMajor(12).getMinorUnits()).isEqualTo(1200);
+        assertThat(Money.of(null)).isNull();
+    }
+
+    @Test
+    void roundsHalfEvenUnlessToldOtherwise() {
+        assertThat(Money.of(new BigDecimal("0.005")).getMinorUnits()).isZero();
+        assertThat(Money.of(new BigDecimal("0.015")).getMinorUnits()).isEqualTo(2);
+        assertThat(Money.of(new BigDecimal("-0.025")).getMinorUnits()).isEqualTo(-2);
+        assertThat(Money.of(new BigDecimal("0.005"), RoundingMode.HALF_UP).getMinorUnits()).isEqualTo(1);
+        assertThat(Money.of(new BigDecimal("0.019"), RoundingMode.DOWN).getMinorUnits()).isEqualTo(1);
+    }
+
+    @Test
+    void arithmeticMatchesBigDecimal() {
+        Money a = Money.of(new BigDecimal("100.10"));
+        Money b = Money.of(new BigDecimal("0.25"));
+
+        assertThat(a.plus(b).toBigDecimal()).isEqualTo(new BigDecimal("100.35"));
+        assertThat(a.minus(b).toBigDecimal()).isEqualTo(new BigDecimal("99.85"));
+        assertThat(b.minus(a).isNegative()).isTrue();
+        assertThat(b.negate().toBigDecimal()).isEqualTo(new BigDecimal("-0.25"));
+        assertThat(b.times(3).toBigDecimal()).isEqualTo(new BigDecimal("0.75"));
+        // 100.10 * 0.035 = 3.5035
+        assertThat(a.times(new BigDecimal("0.035"), RoundingMode.HALF_EVEN).toBigDecimal()).isEqualTo(new BigDecimal("3.50"));
+        assertThat(a.times(new BigDecimal("0.035"), RoundingMode.UP).toBigDecimal()).isEqualTo(new BigDecimal("3.51"));
+    }
+
+    @Test
+    void overflowThrowsInsteadOfWrapping() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).negate()).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.times(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMajor(Long.MAX_VALUE / 10)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rejectsAmountsBeyondEighteenDigits() {
+        assertThat(Money.of(new BigDecimal("9999999999999999.99")).getMinorUnits()).isEqualTo(999999999999999999L);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("10000000000000000.00"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1E+30"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void exactConversionRefusesToRoundRequestAmounts() {
+        assertThat(Money.ofExact(new BigDecimal("10.5")).getMinorUnits()).isEqualTo(1050);
+        assertThat(Money.ofExact(new BigDecimal("10.0500")).getMinorUnits()).isEqualTo(1005);
+        assertThat(Money.ofExact(new BigDecimal("1E+2")).getMinorUnits()).isEqualTo(10000);
+        assertThat(Money.ofExact(null)).isNull();
+        assertThatThrownBy(() -> Money.ofExact(new BigDecimal("10.005")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("10.005");
+        assertThatThrownBy(() -> Money.ofExact(new BigDecimal("1E+30"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void comparesByValueRegardlessOfScale() {
+        Money a = Money.of(new BigDecimal("5.0"));
+        Money b = Money.of(new BigDecimal("5.00"));
+
+        assertThat(a).isEqualTo(b).hasSameHashCodeAs(b);
+        assertThat(a.compareTo(Money.of(new BigDecimal("5.01")))).isNegative();
+        assertThat(a.isLessThan(Money.of(new BigDecimal("5.01")))).isTrue();
+        assertThat(a.isGreaterThan(Money.ZERO)).isTrue();
+        assertThat(Money.ofMinor(0)).isSameAs(Money.ZERO);
+        assertThat(Money.ZERO.isZero()).isTrue();
+        assertThat(a.toString()).isEqualTo("5.00");
+    }
+}
@@ -0,0 +1,139 @@
+package com.bank.common.storage;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseSnapshotsTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void findsTheFilesOfFileBackedDatabasesOnly() {
+        H2DatabaseFiles files = H2DatabaseFiles.fromUrl("jdbc:h2:file:./data/accountdb;DB_CLOSE_ON_EXIT=FALSE");
+
+        assertThat(files.getName()).isEqualTo("accountdb");
+        assertThat(files.getDirectory()).isEqualTo(Path.of("data").toAbsolutePath());
+        assertThat(files.getDataFile().getFileName()).hasToString("accountdb.mv.db");
+        assertThat(H2DatabaseFiles.fromUrl("jdbc:h2:./data/customerdb").getName()).isEqualTo("customerdb");
+        assertThat(H2DatabaseFiles.fromUrl("jdbc:h2:mem:accountdb")).isNull();
+        assertThat(H2DatabaseFiles.fromUrl("jdbc:h2:tcp://localhost/accountdb")).isNull();
+        assertThat(H2DatabaseFiles.fromUrl("jdbc:postgresql://localhost/accountdb")).isNull();
+    }
+
+    @Test
+    void keepsTheNewestSnapshotsAndNamesOnlyCompleteOnes() throws Exception {
+        H2DatabaseFiles files = H2DatabaseFiles.fromUrl("jdbc:h2:file:" + dir.resolve("db/bankdb"));
+        DataSource dataSource = dataSource(files);
+        execute(dataSource, "CREATE TABLE accounts (id INT PRIMARY KEY)");
+        Path snapshotDirectory = dir.resolve("snapshots");
+        DatabaseSnapshots snapshots = new DatabaseSnapshots(dataSource, files, snapshotDirectory, 2, Duration.ZERO, false, null);
+
+        DatabaseSnapshots.Snapshot first = snapshots.take();
+        Thread.sleep(5);
+        snapshots.take();
+        Thread.sleep(5);
+        DatabaseSnapshots.Snapshot third = snapshots.take();
+
+        assertThat(snapshots.getLatest()).isSameAs(third);
+        assertThat(third.getBytes()).isPositive();
+        try (Stream<Path> written = Files.list(snapshotDirectory)) {
+            assertThat(written).hasSize(2).noneMatch(file -> file.toString().endsWith(".partial"));
+        }
+        assertThat(first.getFile()).doesNotExist();
+        assertThat(DatabaseSnapshots.newest(snapshotDirectory, "bankdb")).contains(third.getFile());
+        assertThat(DatabaseSnapshots.newest(snapshotDirectory, "otherdb")).isEmpty();
+        assertThat(DatabaseSnapshots.newest(dir.resolve("missing"), "bankdb")).isEmpty();
+    }
+
+    // Without a schedule the snapshots are still running, so the shutdown snapshot is taken
+    @Test
+    void takesTheShutdownSnapshotWithoutASchedule() throws Exception {
+        H2DatabaseFiles files = H2DatabaseFiles.fromUrl("jdbc:h2:file:" + dir.resolve("db/bankdb"));
+        DataSource dataSource = dataSource(files);
+        execute(dataSource, "CREATE TABLE accounts (id INT PRIMARY KEY)");
+        DatabaseSnapshots snapshots = new DatabaseSnapshots(dataSource, files, dir.resolve("snapshots"), 3, Duration.ZERO, true, null);
+
+        snapshots.start();
+        assertThat(snapshots.isRunning()).isTrue();
+        assertThat(snapshots.getLatest()).isNull();
+        snapshots.stop();
+
+        assertThat(snapshots.isRunning()).isFalse();
+        assertThat(snapshots.getLatest()).isNotNull();
+        assertThat(DatabaseSnapshots.newest(dir.resolve("snapshots"), "bankdb")).contains(snapshots.getLatest().getFile());
+    }
+
+    @Test
+    void restoresTheNewestSnapshotWhenTheDatabaseIsMissing() throws Exception {
+        H2DatabaseFiles files = H2DatabaseFiles.fromUrl("jdbc:h2:file:" + dir.resolve("db/bankdb"));
+        Path snapshotDirectory = dir.resolve("snapshots");
+        DataSource dataSource = dataSource(files);
+        execute(dataSource, "CREATE TABLE accounts (id INT PRIMARY KEY)");
+        execute(dataSource, "INSERT INTO accounts VALUES (1)");
+        new DatabaseSnapshots(dataSource, files, snapshotDirectory, 3, Duration.ZERO, false, null).take();
+        execute(dataSource, "INSERT INTO accounts VALUES (2)");
+
+        // The database is still there, so if-missing leaves it alone
+        SnapshotRestorer untouched = new SnapshotRestorer(files, snapshotDirectory, SnapshotRestorer.Mode.parse("if-missing"));
+        untouched.postProcessBeforeInitialization(dataSource, "dataSource");
+        assertThat(untouched.getReport().getRestoreMillis()).isEqualTo(-1);
+        assertThat(count(dataSource)).isEqualTo(2);
+
+        execute(dataSource, "SHUTDOWN");
+        Files.delete(files.getDataFile());
+        SnapshotRestorer restorer = new SnapshotRestorer(files, snapshotDirectory, SnapshotRestorer.Mode.IF_MISSING);
+        restorer.postProcessBeforeInitialization(dataSource, "dataSource");
+        // Only the first DataSource triggers a restore
+        restorer.postProcessBeforeInitialization(dataSource, "other");
+
+        assertThat(restorer.getReport().getRestoreMillis()).isNotNegative();
+        assertThat(restorer.getReport().toMap()).containsKey("restoredFrom");
+        assertThat(count(dataSource)).isEqualTo(1);
+
+        execute(dataSource, "INSERT INTO accounts VALUES (3)");
+        execute(dataSource, "SHUTDOWN");
+        new SnapshotRestorer(files, snapshotDirectory, SnapshotRestorer.Mode.parse("always"))
+                .postProcessBeforeInitialization(dataSource, "dataSource");
+        assertThat(count(dataSource)).isEqualTo(1);
+
+        execute(dataSource, "INSERT INTO accounts VALUES (4)");
+        execute(dataSource, "SHUTDOWN");
+        new SnapshotRestorer(files, snapshotDirectory, SnapshotRestorer.Mode.NEVER)
+                .postProcessBeforeInitialization(dataSource, "dataSource");
+        assertThat(count(dataSource)).isEqualTo(2);
+    }
+
+    private static DataSource dataSource(H2DatabaseFiles files) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:file:" + files.getDirectory().resolve(files.getName()));
+        return dataSource;
+    }
+
+    private static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int count(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM accounts")) {
+            rows.next();
+            return rows.getInt(1);
+        }
+    }
+}
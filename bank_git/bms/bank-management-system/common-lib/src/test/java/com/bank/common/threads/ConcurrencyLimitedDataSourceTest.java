@@ -0,0 +1,90 @@
+package com.bank.common.threads;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    @Test
+    void handsOutAtMostThePermitsAndTimesOutBeyondThem() throws Exception {
+        ConcurrencyLimitedDataSource limiter = new ConcurrencyLimitedDataSource(h2(), 2, 50);
+
+        try (Connection first = limiter.getConnection(); Connection second = limiter.getConnection()) {
+            assertThat(limiter.getInUse()).isEqualTo(2);
+            assertThatThrownBy(limiter::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("after 50 ms");
+        }
+
+        assertThat(limiter.getInUse()).isZero();
+    }
+
+    @Test
+    void waitersQueueUntilAConnectionIsClosed() throws Exception {
+        ConcurrencyLimitedDataSource limiter = new ConcurrencyLimitedDataSource(h2(), 1, 10_000);
+        Connection held = limiter.getConnection();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.getQueued()).isEqualTo(1);
+        assertThat(waiter).isNotDone();
+
+        held.close();
+
+        try (Connection next = waiter.get(5, TimeUnit.SECONDS)) {
+            assertThat(next.isValid(1)).isTrue();
+            assertThat(limiter.getQueued()).isZero();
+        }
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws Exception {
+        ConcurrencyLimitedDataSource limiter = new ConcurrencyLimitedDataSource(h2(), 2, 50);
+
+        Connection connection = limiter.getConnection();
+        Connection other = limiter.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(limiter.getInUse()).isEqualTo(1);
+        other.close();
+        assertThat(limiter.getInUse()).isZero();
+    }
+
+    @Test
+    void failedBorrowReturnsThePermit() throws Exception {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("down"));
+        ConcurrencyLimitedDataSource limiter = new ConcurrencyLimitedDataSource(broken, 1, 50);
+
+        assertThatThrownBy(limiter::getConnection).hasMessage("down");
+        assertThatThrownBy(limiter::getConnection).hasMessage("down");
+        assertThat(limiter.getInUse()).isZero();
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:limiter");
+        return dataSource;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.common.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VirtualThreadsAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(VirtualThreadsAutoConfiguration.class))
+            .withPropertyValues("bank.threads.virtual.pinned-threshold-ms=-1")
+            .withBean("dataSource", DataSource.class, () -> {
+                HikariDataSource pool = new HikariDataSource();
+                pool.setJdbcUrl("jdbc:h2:mem:virtual");
+                pool.setMaximumPoolSize(7);
+                return pool;
+            });
+
+    @Test
+    void leavesTheDataSourceAloneWhenDisabled() {
+        runner.run(context -> {
+            assertThat(context).doesNotHaveBean(PinnedThreadMonitor.class);
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+        });
+    }
+
+    @Test
+    void limitsConnectionsToThePoolSize() {
+        runner.withPropertyValues("bank.threads.virtual.enabled=true").run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            assertThat(dataSource).isInstanceOf(ConcurrencyLimitedDataSource.class);
+            assertThat(((ConcurrencyLimitedDataSource) dataSource).getMaxPermits()).isEqualTo(7);
+            assertThat(context).hasSingleBean(PinnedThreadMonitor.class);
+
+            // Bound by the metrics auto-configuration in a running service
+            MeterRegistry registry = new SimpleMeterRegistry();
+            context.getBean(MeterBinder.class).bindTo(registry);
+            try (var connection = dataSource.getConnection()) {
+                assertThat(registry.get("bank.db.limiter.in-use").tag("pool", "dataSource").gauge().value()).isEqualTo(1);
+            }
+            assertThat(registry.get("bank.db.limiter.queued").gauge().value()).isZero();
+        });
+    }
+
+    @Test
+    void permitsCanBeConfigured() {
+        runner.withPropertyValues("bank.threads.virtual.enabled=true", "bank.threads.virtual.db-permits=3").run(context ->
+                assertThat(((ConcurrencyLimitedDataSource) context.getBean(DataSource.class)).getMaxPermits()).isEqualTo(3));
+    }
+
+    @Test
+    void executorNeedsJava21() throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            assertThatThrownBy(VirtualThreads::newPerTaskExecutor)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("needs Java 21");
+            return;
+        }
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+        try {
+            Future<Boolean> virtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            assertThat(virtual.get()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -9,11 +9,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/customers")
-@CrossOrigin(origins = "*")
 public class CustomerController {
     
     @Autowired
@@ -75,6 +75,12 @@ public class CustomerController {
         return ResponseEntity.ok(count);
     }
     
+    // Count and balance totals by account type, kept in memory; no table scan per request.
+    @GetMapping("/aggregates")
+    public ResponseEntity<Map<String, Object>> getAggregates() {
+        return ResponseEntity.ok(customerService.getAggregates());
+    }
+    
     @GetMapping("/exists/account/{accountNumber}")
     public ResponseEntity<Boolean> checkAccountExists(@PathVariable String accountNumber) {
         boolean exists = customerService.existsByAccountNumber(accountNumber);
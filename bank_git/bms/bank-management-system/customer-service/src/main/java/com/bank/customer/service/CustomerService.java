@@ -6,7 +6,9 @@ import com.bank.common.exception.AccountNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -16,12 +18,17 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private CustomerTotals customerTotals;
+    
     public Customer createCustomer(Customer customer) {
         // Set balance to initial deposit if not set
         if (customer.getBalance() == null) {
             customer.setBalance(customer.getInitialDeposit());
         }
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        customerTotals.created(saved);
+        return saved;
     }
     
     public List<Customer> getAllCustomers() {
@@ -39,6 +46,8 @@ public class CustomerService {
     public Customer updateCustomer(String ssnId, Customer customerDetails) {
         Customer customer = customerRepository.findById(ssnId)
                 .orElseThrow(() -> new AccountNotFoundException("Customer not found with SSN ID: " + ssnId));
+        String previousType = customer.getAccountType();
+        BigDecimal previousBalance = customer.getBalance();
         
         customer.setCustomerName(customerDetails.getCustomerName());
         customer.setEmail(customerDetails.getEmail());
@@ -50,14 +59,20 @@ public class CustomerService {
         customer.setGender(customerDetails.getGender());
         customer.setAccountType(customerDetails.getAccountType());
         
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        customerTotals.updated(previousType, previousBalance, saved);
+        return saved;
     }
     
     public void deleteCustomer(String ssnId) {
-        if (!customerRepository.existsById(ssnId)) {
-            throw new AccountNotFoundException("Customer not found with SSN ID: " + ssnId);
-        }
-        customerRepository.deleteById(ssnId);
+        Customer customer = customerRepository.findById(ssnId)
+                .orElseThrow(() -> new AccountNotFoundException("Customer not found with SSN ID: " + ssnId));
+        customerRepository.delete(customer);
+        customerTotals.deleted(customer);
+    }
+    
+    public Map<String, Object> getAggregates() {
+        return customerTotals.getAggregates();
     }
     
     public long getTotalCustomerCount() {
@@ -0,0 +1,75 @@
+package com.bank.customer.service;
+
+import com.bank.common.aggregate.GroupedTotals;
+import com.bank.common.money.Money;
+import com.bank.customer.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+// Customer count and balance totals by account type for the manager dashboard, kept up to date
+// by CustomerService on every create, update and delete and recomputed from the table on
+// startup and every recompute interval.
+@Component
+public class CustomerTotals implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerTotals.class);
+
+    private static final String RECOMPUTE_SQL =
+            "SELECT account_type, COUNT(*), COALESCE(SUM(balance), 0) FROM customers GROUP BY account_type";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final GroupedTotals totals = new GroupedTotals();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recompute();
+    }
+
+    @Scheduled(fixedDelayString = "${customer.aggregates.recompute-interval-ms:300000}",
+            initialDelayString = "${customer.aggregates.recompute-interval-ms:300000}")
+    public void recompute() {
+        Map<String, long[]> recomputed = new HashMap<>();
+        jdbcTemplate.query(RECOMPUTE_SQL, rs -> {
+            recomputed.put(rs.getString(1), new long[] {rs.getLong(2), minor(rs.getBigDecimal(3))});
+        });
+        totals.replaceAll(recomputed);
+        log.debug("Recomputed customer totals: {}", recomputed.keySet());
+    }
+
+    public Map<String, Object> getAggregates() {
+        return totals.toMap("totalBalance", "countsByAccountType", "balanceByAccountType");
+    }
+
+    void created(Customer customer) {
+        String type = customer.getAccountType();
+        long balance = minor(customer.getBalance());
+        GroupedTotals.afterCommit(() -> totals.add(type, balance));
+    }
+
+    void updated(String previousType, BigDecimal previousBalance, Customer customer) {
+        long before = minor(previousBalance);
+        String type = customer.getAccountType();
+        long after = minor(customer.getBalance());
+        GroupedTotals.afterCommit(() -> totals.move(previousType, before, type, after));
+    }
+
+    void deleted(Customer customer) {
+        String type = customer.getAccountType();
+        long balance = minor(customer.getBalance());
+        GroupedTotals.afterCommit(() -> totals.remove(type, balance));
+    }
+
+    private static long minor(BigDecimal amount) {
+        return amount == null ? 0 : Money.of(amount).getMinorUnits();
+    }
+}
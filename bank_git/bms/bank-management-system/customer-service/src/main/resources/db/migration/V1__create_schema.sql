@@ -0,0 +1,23 @@
+-- Schema for the persistent profile, matching the JPA entities (validated at startup)
+
+CREATE TABLE customers (
+    ssn_id VARCHAR(7) NOT NULL,
+    customer_name VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    address VARCHAR(100) NOT NULL,
+    contact_number VARCHAR(10) NOT NULL,
+    aadhar_number VARCHAR(12) NOT NULL,
+    pan_number VARCHAR(10) NOT NULL,
+    account_number VARCHAR(20) NOT NULL,
+    initial_deposit NUMERIC(12,2) NOT NULL,
+    age INTEGER,
+    date_of_birth DATE,
+    city VARCHAR(50),
+    gender VARCHAR(1),
+    account_type VARCHAR(255),
+    balance NUMERIC(12,2),
+    PRIMARY KEY (ssn_id),
+    CONSTRAINT uk_customers_aadhar_number UNIQUE (aadhar_number),
+    CONSTRAINT uk_customers_pan_number UNIQUE (pan_number),
+    CONSTRAINT uk_customers_account_number UNIQUE (account_number)
+);
@@ -0,0 +1,61 @@
+package com.bank.customer.service;
+
+import com.bank.customer.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:customertotals"
+})
+class CustomerTotalsTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerTotals customerTotals;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Creates, a change of account type, a delete and a rolled back create, checked against the
+    // expected figures and against a recompute from the table.
+    @Test
+    void changesMoveTheTotalsOnceCommitted() {
+        customerService.createCustomer(customer("1000001", "Savings", "1000.00"));
+        customerService.createCustomer(customer("1000002", "Savings", "250.50"));
+        customerService.createCustomer(customer("1000003", "Current", "400.00"));
+        customerService.updateCustomer("1000002", customer("1000002", "Current", "0.00"));
+        customerService.deleteCustomer("1000001");
+        transactionTemplate.executeWithoutResult(status -> {
+            customerService.createCustomer(customer("1000004", "Savings", "99.00"));
+            status.setRollbackOnly();
+        });
+
+        Map<String, Object> running = new HashMap<>(customerTotals.getAggregates());
+        assertThat(running).containsEntry("count", 2L).containsEntry("totalBalance", new BigDecimal("650.50"));
+        assertThat(running.get("countsByAccountType")).isEqualTo(Map.of("Current", 2L));
+        assertThat(running.get("balanceByAccountType")).isEqualTo(Map.of("Current", new BigDecimal("650.50")));
+
+        customerTotals.recompute();
+        Map<String, Object> recomputed = new HashMap<>(customerTotals.getAggregates());
+        running.remove("recomputedAt");
+        recomputed.remove("recomputedAt");
+        assertThat(recomputed).isEqualTo(running);
+    }
+
+    private static Customer customer(String ssnId, String accountType, String deposit) {
+        Customer customer = new Customer(ssnId, "Totals " + ssnId, ssnId + "@bank.com", "1 Main Street", "9876543210",
+                "12345" + ssnId, "ABCDE" + ssnId.substring(2), "CT-" + ssnId, new BigDecimal(deposit));
+        customer.setAccountType(accountType);
+        return customer;
+    }
+}
@@ -9,11 +9,11 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/employees")
-@CrossOrigin(origins = "*")
 public class EmployeeController {
     
     @Autowired
@@ -58,6 +58,12 @@ public class EmployeeController {
         }
     }
     
+    // Count and salary totals by designation, kept in memory; no table scan per request.
+    @GetMapping("/aggregates")
+    public ResponseEntity<Map<String, Object>> getAggregates() {
+        return ResponseEntity.ok(employeeService.getAggregates());
+    }
+    
     @GetMapping("/designation/{designation}")
     public ResponseEntity<List<Employee>> getEmployeesByDesignation(@PathVariable String designation) {
         List<Employee> employees = employeeService.getEmployeesByDesignation(designation);
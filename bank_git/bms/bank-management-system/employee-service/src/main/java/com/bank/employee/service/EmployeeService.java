@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -16,8 +17,13 @@ public class EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
     
+    @Autowired
+    private EmployeeTotals employeeTotals;
+    
     public Employee createEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        employeeTotals.created(saved);
+        return saved;
     }
     
     public List<Employee> getAllEmployees() {
@@ -31,6 +37,8 @@ public class EmployeeService {
     public Employee updateEmployee(Long id, Employee employeeDetails) {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        String previousDesignation = employee.getDesignation();
+        BigDecimal previousSalary = employee.getSalary();
         
         employee.setFirstName(employeeDetails.getFirstName());
         employee.setLastName(employeeDetails.getLastName());
@@ -39,11 +47,20 @@ public class EmployeeService {
         employee.setDesignation(employeeDetails.getDesignation());
         employee.setSalary(employeeDetails.getSalary());
         
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        employeeTotals.updated(previousDesignation, previousSalary, saved);
+        return saved;
     }
     
     public void deleteEmployee(Long id) {
-        employeeRepository.deleteById(id);
+        employeeRepository.findById(id).ifPresent(employee -> {
+            employeeRepository.delete(employee);
+            employeeTotals.deleted(employee);
+        });
+    }
+    
+    public Map<String, Object> getAggregates() {
+        return employeeTotals.getAggregates();
     }
     
     public List<Employee> getEmployeesByDesignation(String designation) {
@@ -52,10 +69,12 @@ public class EmployeeService {
     
     public void addSalaryToClerkEmployees(BigDecimal amount) {
         employeeRepository.updateSalaryByDesignation("Clerk", amount);
+        employeeTotals.bulkUpdated();
     }
     
     public void addPercentageSalaryToManagers(BigDecimal percentage) {
         employeeRepository.updateSalaryByPercentage("Manager", percentage);
+        employeeTotals.bulkUpdated();
     }
     
     public List<Employee> getUpdatedEmployeesByDesignation(String designation) {
@@ -0,0 +1,81 @@
+package com.bank.employee.service;
+
+import com.bank.common.aggregate.GroupedTotals;
+import com.bank.common.money.Money;
+import com.bank.employee.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+// Employee count and salary totals by designation for the manager dashboard, kept up to date by
+// EmployeeService on every create, update and delete and recomputed from the table on startup,
+// after bulk salary changes and every recompute interval.
+@Component
+public class EmployeeTotals implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeTotals.class);
+
+    private static final String RECOMPUTE_SQL =
+            "SELECT designation, COUNT(*), COALESCE(SUM(salary), 0) FROM employees GROUP BY designation";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final GroupedTotals totals = new GroupedTotals();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recompute();
+    }
+
+    @Scheduled(fixedDelayString = "${employee.aggregates.recompute-interval-ms:300000}",
+            initialDelayString = "${employee.aggregates.recompute-interval-ms:300000}")
+    public void recompute() {
+        Map<String, long[]> recomputed = new HashMap<>();
+        jdbcTemplate.query(RECOMPUTE_SQL, rs -> {
+            recomputed.put(rs.getString(1), new long[] {rs.getLong(2), minor(rs.getBigDecimal(3))});
+        });
+        totals.replaceAll(recomputed);
+        log.debug("Recomputed employee totals: {}", recomputed.keySet());
+    }
+
+    public Map<String, Object> getAggregates() {
+        return totals.toMap("totalSalary", "countsByDesignation", "salaryByDesignation");
+    }
+
+    void created(Employee employee) {
+        String designation = employee.getDesignation();
+        long salary = minor(employee.getSalary());
+        GroupedTotals.afterCommit(() -> totals.add(designation, salary));
+    }
+
+    void updated(String previousDesignation, BigDecimal previousSalary, Employee employee) {
+        long before = minor(previousSalary);
+        String designation = employee.getDesignation();
+        long after = minor(employee.getSalary());
+        GroupedTotals.afterCommit(() -> totals.move(previousDesignation, before, designation, after));
+    }
+
+    void deleted(Employee employee) {
+        String designation = employee.getDesignation();
+        long salary = minor(employee.getSalary());
+        GroupedTotals.afterCommit(() -> totals.remove(designation, salary));
+    }
+
+    // Bulk salary updates round per row in the database, so their effect is read back rather
+    // than derived.
+    void bulkUpdated() {
+        GroupedTotals.afterCommit(this::recompute);
+    }
+
+    private static long minor(BigDecimal amount) {
+        return amount == null ? 0 : Money.of(amount).getMinorUnits();
+    }
+}
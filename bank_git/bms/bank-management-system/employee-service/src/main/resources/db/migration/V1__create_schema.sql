@@ -0,0 +1,15 @@
+-- Schema for the persistent profile, matching the JPA entities (validated at startup)
+
+CREATE SEQUENCE employees_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE employees (
+    employee_id BIGINT NOT NULL,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    contact_number VARCHAR(10) NOT NULL,
+    designation VARCHAR(255) NOT NULL,
+    salary NUMERIC(12,2) NOT NULL,
+    PRIMARY KEY (employee_id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
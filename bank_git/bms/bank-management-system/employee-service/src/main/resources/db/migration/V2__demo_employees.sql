@@ -0,0 +1,15 @@
+-- Insert demo employee records
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (1, 'John', 'Doe', 'john.doe@bank.com', '1234567890', 'Clerk', 25000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (2, 'Jane', 'Smith', 'jane.smith@bank.com', '1234567891', 'Manager', 75000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (3, 'Mike', 'Johnson', 'mike.johnson@bank.com', '1234567892', 'Accountant', 50000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (4, 'Sarah', 'Williams', 'sarah.williams@bank.com', '1234567893', 'Clerk', 26000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (5, 'David', 'Brown', 'david.brown@bank.com', '1234567894', 'Manager', 80000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (6, 'Lisa', 'Davis', 'lisa.davis@bank.com', '1234567895', 'Clerk', 24000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (7, 'Robert', 'Miller', 'robert.miller@bank.com', '1234567896', 'Accountant', 52000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (8, 'Emily', 'Wilson', 'emily.wilson@bank.com', '1234567897', 'Manager', 78000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (9, 'James', 'Moore', 'james.moore@bank.com', '1234567898', 'Clerk', 27000.00);
+INSERT INTO employees (employee_id, first_name, last_name, email, contact_number, designation, salary) VALUES (10, 'Amanda', 'Taylor', 'amanda.taylor@bank.com', '1234567899', 'Accountant', 48000.00);
+
+-- Hibernate allocates ids in blocks of 50 starting at the value the sequence returns, so
+-- restart it after the seeded ids
+ALTER SEQUENCE employees_seq RESTART WITH 11;
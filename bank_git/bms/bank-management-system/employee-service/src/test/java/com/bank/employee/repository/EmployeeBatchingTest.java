@@ -0,0 +1,53 @@
+package com.bank.employee.repository;
+
+import com.bank.employee.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class EmployeeBatchingTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // 120 rows at batch_size=50 are three insert batches, and pooled-lo ids at allocationSize=50
+    // are at most three sequence calls (the seed data may already have opened a block).
+    @Test
+    void insertsEmployeesInJdbcBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(new Employee("First" + i, "Last" + i, "batch" + i + "@bank.com",
+                    String.format("9%09d", i), "Clerk", new BigDecimal("30000.00")));
+        }
+        employeeRepository.saveAll(employees);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(employees).allSatisfy(e -> assertThat(e.getEmployeeId()).isNotNull());
+    }
+}
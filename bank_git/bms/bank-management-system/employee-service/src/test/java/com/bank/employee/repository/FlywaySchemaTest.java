@@ -0,0 +1,27 @@
+package com.bank.employee.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The "persistent" profile's schema setup on a fresh database: Flyway builds the schema and
+// Hibernate only validates it against the entities.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never"
+})
+class FlywaySchemaTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    void migrationsMatchTheEntitiesAndLoadTheDemoEmployees() {
+        assertThat(employeeRepository.count()).isEqualTo(10);
+        assertThat(employeeRepository.findByDesignation("Manager")).isNotEmpty();
+    }
+}
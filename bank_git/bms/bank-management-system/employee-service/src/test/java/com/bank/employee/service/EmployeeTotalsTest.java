@@ -0,0 +1,63 @@
+package com.bank.employee.service;
+
+import com.bank.employee.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:employeetotals"
+})
+class EmployeeTotalsTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeTotals employeeTotals;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // On top of the seed data (four clerks at 102000.00, three managers at 233000.00, three
+    // accountants at 150000.00): a new hire, a promotion, a delete, a rolled back hire and both
+    // bulk raises, checked against the expected figures and against a recompute.
+    @Test
+    void changesMoveTheTotalsOnceCommitted() {
+        Employee hired = employeeService.createEmployee(employee("hired", "Clerk", "20000.00"));
+        Employee promoted = employeeService.createEmployee(employee("promoted", "Clerk", "30000.00"));
+        employeeService.updateEmployee(promoted.getEmployeeId(), employee("promoted", "Manager", "60000.00"));
+        employeeService.deleteEmployee(hired.getEmployeeId());
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeService.createEmployee(employee("rolledback", "Accountant", "10000.00"));
+            status.setRollbackOnly();
+        });
+        employeeService.addSalaryToClerkEmployees(new BigDecimal("1000.00"));
+        employeeService.addPercentageSalaryToManagers(new BigDecimal("10"));
+
+        Map<String, Object> running = new HashMap<>(employeeTotals.getAggregates());
+        assertThat(running).containsEntry("count", 11L).containsEntry("totalSalary", new BigDecimal("578300.00"));
+        assertThat(running.get("countsByDesignation")).isEqualTo(Map.of("Clerk", 4L, "Manager", 4L, "Accountant", 3L));
+        assertThat(running.get("salaryByDesignation")).isEqualTo(Map.of(
+                "Clerk", new BigDecimal("106000.00"),
+                "Manager", new BigDecimal("322300.00"),
+                "Accountant", new BigDecimal("150000.00")));
+
+        employeeTotals.recompute();
+        Map<String, Object> recomputed = new HashMap<>(employeeTotals.getAggregates());
+        running.remove("recomputedAt");
+        recomputed.remove("recomputedAt");
+        assertThat(recomputed).isEqualTo(running);
+    }
+
+    private static Employee employee(String name, String designation, String salary) {
+        return new Employee(name, "Totals", name + "@bank.com", "9876543210", designation, new BigDecimal(salary));
+    }
+}
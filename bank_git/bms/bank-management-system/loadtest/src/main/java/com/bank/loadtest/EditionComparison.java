@@ -0,0 +1,367 @@
+package com.bank.loadtest;
+
+import com.bank.account.AccountServiceApplication;
+import com.bank.account.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Runs the blocking and the reactive edition of account-service one after the other in this
+// JVM and drives each, closed-loop, with every concurrency level in turn: one worker and one
+// HTTP connection per unit of concurrency, sending balance, history, deposit, withdraw and
+// transfer requests back to back. Reports tail latency per edition and level, and what each
+// open connection costs: heap retained after a GC, live threads and resident memory, each
+// measured under load against the idle service. The load generator's own per-connection cost
+// is included in both editions alike, so it is the difference between them that counts.
+public final class EditionComparison {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -cp loadtest.jar com.bank.loadtest.EditionComparison [options]",
+            "  --editions=E,...        editions to run, in order (default blocking,reactive)",
+            "  --concurrency=N,...     open connections per step (default 256,1024,2048)",
+            "  --duration=D            measured time per step (default 30s)",
+            "  --warmup=D              unmeasured time before each step (default 10s)",
+            "  --accounts=N            accounts seeded before the run (default 1000)",
+            "  --port=N                port the service listens on (default 18083)",
+            "  --output=FILE           JSON results file (default edition-comparison.json)");
+
+    private static final Operation[] MIX = {
+            Operation.BALANCE, Operation.BALANCE, Operation.BALANCE, Operation.BALANCE,
+            Operation.HISTORY, Operation.HISTORY,
+            Operation.DEPOSIT, Operation.WITHDRAW, Operation.TRANSFER, Operation.TRANSFER};
+    private static final String CLIENT_THREAD_PREFIX = "edition-client-";
+
+    private List<String> editions = List.of("blocking", "reactive");
+    private int[] concurrencyLevels = {256, 1024, 2048};
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ofSeconds(10);
+    private int accounts = 1000;
+    private int port = 18083;
+    private Path output = Paths.get("edition-comparison.json");
+
+    private EditionComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(USAGE);
+            return;
+        }
+        EditionComparison comparison;
+        try {
+            comparison = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        comparison.run();
+    }
+
+    private static EditionComparison parse(String[] args) {
+        EditionComparison comparison = new EditionComparison();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "editions" -> comparison.editions = Arrays.asList(value.split(","));
+                case "concurrency" -> comparison.concurrencyLevels = Arrays.stream(value.split(","))
+                        .mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+                case "duration" -> comparison.duration = LoadTestOptions.parseDuration(value);
+                case "warmup" -> comparison.warmup = LoadTestOptions.parseDuration(value);
+                case "accounts" -> comparison.accounts = Integer.parseInt(value);
+                case "port" -> comparison.port = Integer.parseInt(value);
+                case "output" -> comparison.output = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        for (String edition : comparison.editions) {
+            if (!edition.equals("blocking") && !edition.equals("reactive")) {
+                throw new IllegalArgumentException("Unknown edition " + edition + "; expected blocking or reactive");
+            }
+        }
+        if (comparison.accounts < 2 || Arrays.stream(comparison.concurrencyLevels).anyMatch(level -> level <= 0)) {
+            throw new IllegalArgumentException("--accounts must be >= 2 and every --concurrency level > 0");
+        }
+        return comparison;
+    }
+
+    private void run() throws IOException, InterruptedException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("durationSeconds", duration.toSeconds());
+        results.put("warmupSeconds", warmup.toSeconds());
+        results.put("accounts", accounts);
+        List<Map<String, Object>> steps = new ArrayList<>();
+        results.put("steps", steps);
+
+        for (String edition : editions) {
+            try (ConfigurableApplicationContext context = boot(edition)) {
+                List<String> accountNumbers = seed(context, edition);
+                MemorySample idle = MemorySample.take();
+                for (int concurrency : concurrencyLevels) {
+                    steps.add(runStep(edition, concurrency, accountNumbers, idle));
+                }
+            }
+            System.gc();
+        }
+
+        printSummary(steps);
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    // Each edition gets a fresh in-memory database; the reactive one reaches it over R2DBC under
+    // the same name the JPA side creates it with. With its own config name the service does not
+    // read application-reactive.properties, so the web application type is passed here too.
+    private ConfigurableApplicationContext boot(String edition) {
+        long started = System.nanoTime();
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.name=loadtest-account",
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:edition-" + edition));
+        if (edition.equals("reactive")) {
+            args.add("--spring.profiles.active=reactive");
+            args.add("--spring.main.web-application-type=reactive");
+            args.add("--account.reactive.r2dbc-url=r2dbc:h2:mem:///edition-" + edition);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountServiceApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+        System.out.printf("Started the %s edition on port %d in %d ms%n", edition, port, (System.nanoTime() - started) / 1_000_000);
+        return context;
+    }
+
+    // The reactive edition does not serve account creation, so accounts are created through the
+    // service directly in both editions.
+    private List<String> seed(ConfigurableApplicationContext context, String edition) {
+        AccountService accountService = context.getBean(AccountService.class);
+        List<String> accountNumbers = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            String accountNumber = String.format("ED%s%07d", edition.charAt(0) == 'b' ? "B" : "R", i);
+            accountService.createAccount("CURRENT", accountNumber, "Edition Test " + i, new BigDecimal("1000000.00"), "1000000");
+            accountNumbers.add(accountNumber);
+        }
+        return accountNumbers;
+    }
+
+    private Map<String, Object> runStep(String edition, int concurrency, List<String> accountNumbers, MemorySample idle)
+            throws InterruptedException {
+        System.out.printf("%s edition, %d connections: warming up for %ds, measuring for %ds%n",
+                edition, concurrency, warmup.toSeconds(), duration.toSeconds());
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        URI base = URI.create("http://localhost:" + port);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        LatencyRecorder recorder = new LatencyRecorder(measureFrom);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName(CLIENT_THREAD_PREFIX + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int w = 0; w < concurrency; w++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() - end < 0 && !Thread.currentThread().isInterrupted()) {
+                        Operation operation = MIX[ThreadLocalRandom.current().nextInt(MIX.length)];
+                        HttpRequest request = request(base, operation, accountNumbers);
+                        long started = System.nanoTime();
+                        boolean success;
+                        try {
+                            success = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+                        } catch (IOException e) {
+                            success = false;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        recorder.record(operation, started, System.nanoTime(), success);
+                    }
+                });
+            }
+
+            // Memory is sampled halfway through the measured window, with every connection open.
+            long sampleAt = measureFrom + duration.toNanos() / 2;
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, sampleAt - System.nanoTime()));
+            MemorySample loaded = MemorySample.take();
+
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.HOURS);
+            recorder.takeInterval();
+            return step(edition, concurrency, recorder, idle, loaded);
+        } finally {
+            workers.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static HttpRequest request(URI base, Operation operation, List<String> accountNumbers) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String account = accountNumbers.get(random.nextInt(accountNumbers.size()));
+        switch (operation) {
+            case BALANCE:
+                return get(base, "/api/accounts/" + account + "/balance");
+            case HISTORY:
+                return get(base, "/api/accounts/" + account + "/transactions?limit=20");
+            case DEPOSIT:
+                return post(base, "/api/accounts/" + account + "/deposit", "{\"amount\":\"10.00\"}");
+            case WITHDRAW:
+                return post(base, "/api/accounts/" + account + "/withdraw", "{\"amount\":\"5.00\"}");
+            case TRANSFER:
+                String destination = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                while (destination.equals(account)) {
+                    destination = accountNumbers.get(random.nextInt(accountNumbers.size()));
+                }
+                return post(base, "/api/accounts/transfer", "{\"sourceAccount\":\"" + account
+                        + "\",\"destinationAccount\":\"" + destination + "\",\"amount\":\"1.00\"}");
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    private static HttpRequest post(URI base, String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private Map<String, Object> step(String edition, int concurrency, LatencyRecorder recorder, MemorySample idle, MemorySample loaded) {
+        double measuredSeconds = duration.toMillis() / 1000.0;
+        Histogram all = new Histogram(TimeUnit.MINUTES.toMicros(10), 3);
+        long errors = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Operation, Histogram> entry : recorder.getTotals().entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            long operationErrors = recorder.getErrors(entry.getKey());
+            endpoints.put(entry.getKey().key(), ResultsWriter.summary(entry.getValue(), operationErrors, measuredSeconds));
+            all.add(entry.getValue());
+            errors += operationErrors;
+        }
+
+        Map<String, Object> perConnection = new LinkedHashMap<>();
+        perConnection.put("heapBytes", (loaded.heapUsed - idle.heapUsed) / concurrency);
+        perConnection.put("serverThreads", Math.round((double) (loaded.serverThreads - idle.serverThreads) / concurrency * 1000) / 1000.0);
+        perConnection.put("residentBytes", idle.resident < 0 ? -1 : (loaded.resident - idle.resident) / concurrency);
+
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("edition", edition);
+        step.put("concurrency", concurrency);
+        step.put("all", ResultsWriter.summary(all, errors, measuredSeconds));
+        step.put("endpoints", endpoints);
+        step.put("perConnection", perConnection);
+        step.put("serverThreadsUnderLoad", loaded.serverThreads);
+        return step;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printSummary(List<Map<String, Object>> steps) {
+        System.out.printf("%n%-9s %7s %9s %7s %9s %9s %9s %9s %11s %9s %11s%n",
+                "edition", "conns", "req/s", "errors", "p50", "p99", "p99.9", "max",
+                "heap/conn", "thr/conn", "rss/conn");
+        for (Map<String, Object> step : steps) {
+            Map<String, Object> all = (Map<String, Object>) step.get("all");
+            Map<String, Object> latency = (Map<String, Object>) all.get("latencyMs");
+            Map<String, Object> perConnection = (Map<String, Object>) step.get("perConnection");
+            long resident = (Long) perConnection.get("residentBytes");
+            System.out.printf("%-9s %7d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %11s %9.3f %11s%n",
+                    step.get("edition"), step.get("concurrency"), all.get("throughputPerSecond"), all.get("errors"),
+                    latency.get("p50"), latency.get("p99"), latency.get("p99.9"), latency.get("max"),
+                    kilobytes((Long) perConnection.get("heapBytes")), perConnection.get("serverThreads"),
+                    resident < 0 ? "n/a" : kilobytes(resident));
+        }
+        System.out.println("(latencies in ms, memory in KiB per open connection)");
+    }
+
+    private static String kilobytes(long bytes) {
+        return String.format("%.1f", bytes / 1024.0);
+    }
+
+    // Heap retained after a full collection, threads other than the load generator's workers,
+    // and the process's resident set where /proc is available (-1 elsewhere).
+    private static final class MemorySample {
+
+        private final long heapUsed;
+        private final int serverThreads;
+        private final long resident;
+
+        private MemorySample(long heapUsed, int serverThreads, long resident) {
+            this.heapUsed = heapUsed;
+            this.serverThreads = serverThreads;
+            this.resident = resident;
+        }
+
+        static MemorySample take() {
+            System.gc();
+            long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            int serverThreads = (int) Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> !thread.getName().startsWith(CLIENT_THREAD_PREFIX))
+                    .count();
+            return new MemorySample(heapUsed, serverThreads, residentBytes());
+        }
+
+        private static long residentBytes() {
+            Path status = Paths.get("/proc/self/status");
+            if (!Files.isReadable(status)) {
+                return -1;
+            }
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmRSS:")) {
+                        return Long.parseLong(line.substring(6).trim().split("\\s+")[0]) * 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                return -1;
+            }
+            return -1;
+        }
+    }
+}
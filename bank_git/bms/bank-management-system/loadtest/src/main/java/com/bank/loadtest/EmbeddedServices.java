@@ -0,0 +1,52 @@
+package com.bank.loadtest;
+
+import com.bank.account.AccountServiceApplication;
+import com.bank.auth.AuthServiceApplication;
+import com.bank.customer.CustomerServiceApplication;
+import com.bank.employee.EmployeeServiceApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the four services inside the load generator's JVM. Each one gets its own in-memory H2
+// database and Eureka is switched off; the services do not call each other, so discovery is
+// not needed. Each listens on the port of the URL the load generator targets for it.
+final class EmbeddedServices implements AutoCloseable {
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+    static EmbeddedServices start(LoadTestOptions options) {
+        EmbeddedServices services = new EmbeddedServices();
+        try {
+            services.boot(AuthServiceApplication.class, "loadtest-auth", options.getAuthUrl());
+            services.boot(CustomerServiceApplication.class, "loadtest-customer", options.getCustomerUrl());
+            services.boot(AccountServiceApplication.class, "loadtest-account", options.getAccountUrl());
+            services.boot(EmployeeServiceApplication.class, "loadtest-employee", options.getEmployeeUrl());
+        } catch (RuntimeException e) {
+            services.close();
+            throw e;
+        }
+        return services;
+    }
+
+    private void boot(Class<?> application, String configName, URI url) {
+        long started = System.nanoTime();
+        contexts.add(new SpringApplicationBuilder(application)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.config.name=" + configName, "--server.port=" + url.getPort()));
+        System.out.printf("Started %s on port %d in %d ms%n", application.getSimpleName(), url.getPort(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public void close() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+}
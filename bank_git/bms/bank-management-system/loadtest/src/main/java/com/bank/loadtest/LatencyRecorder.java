@@ -0,0 +1,64 @@
+package com.bank.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// One HDR histogram recorder per operation, in microseconds. Latency runs from the request's
+// intended start, which in open-loop mode is its scheduled arrival time, so time spent queued
+// behind a slow system is counted instead of hidden (no coordinated omission). Requests
+// scheduled before the measurement window opens are not recorded.
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final long measureFromNanos;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyRecorder(long measureFromNanos) {
+        this.measureFromNanos = measureFromNanos;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            totals.put(operation, new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long intendedStartNanos, long endNanos, boolean success) {
+        if (intendedStartNanos - measureFromNanos < 0) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(endNanos - intendedStartNanos);
+        recorders.get(operation).recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    // Histograms recorded since the previous call, also added to the run totals.
+    synchronized Map<Operation, Histogram> takeInterval() {
+        Map<Operation, Histogram> intervals = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            Histogram interval = recorders.get(operation).getIntervalHistogram();
+            totals.get(operation).add(interval);
+            intervals.put(operation, interval);
+        }
+        return intervals;
+    }
+
+    synchronized Map<Operation, Histogram> getTotals() {
+        Map<Operation, Histogram> copies = new EnumMap<>(Operation.class);
+        totals.forEach((operation, histogram) -> copies.put(operation, histogram.copy()));
+        return copies;
+    }
+
+    long getErrors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+}
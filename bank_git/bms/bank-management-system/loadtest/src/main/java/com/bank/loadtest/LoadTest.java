@@ -0,0 +1,197 @@
+package com.bank.loadtest;
+
+import org.HdrHistogram.Histogram;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// End-to-end load generator. Drives a weighted mix of logins, customer creation, balance polls,
+// deposits, withdrawals, transfers and employee lookups against the four services, either
+// already running or started in this JVM, and records per-endpoint latency histograms.
+//
+// With --rate > 0 requests arrive open-loop on a fixed schedule regardless of how fast the
+// services answer, which is what exposes queueing and tail latency; --concurrency only caps
+// the requests in flight. With --rate=0 the run is closed-loop: --concurrency workers each
+// send their next request as soon as the previous one completes, which finds the ceiling.
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        EmbeddedServices services = options.isEmbedded() ? EmbeddedServices.start(options) : null;
+        try {
+            run(options);
+        } finally {
+            if (services != null) {
+                services.close();
+            }
+        }
+    }
+
+    private static void run(LoadTestOptions options) throws IOException, InterruptedException {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        try {
+            RequestFactory requests = new RequestFactory(options);
+            System.out.printf("Run %s: creating %d accounts%n", requests.getRunId(), options.getAccounts());
+            requests.prepare(client);
+
+            TrafficMix mix = new TrafficMix(options.getMix());
+            long start = System.nanoTime();
+            long measureFrom = start + options.getWarmup().toNanos();
+            long end = measureFrom + options.getDuration().toNanos();
+            LatencyRecorder recorder = new LatencyRecorder(measureFrom);
+            Instant startedAt = Instant.now();
+
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+            long reportMillis = options.getReportInterval().toMillis();
+            reporter.scheduleAtFixedRate(() -> printProgress(recorder, System.nanoTime() - start, reportMillis),
+                    reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+            try {
+                if (options.getRate() > 0) {
+                    runOpenLoop(options, client, requests, mix, recorder, start, end);
+                } else {
+                    runClosedLoop(options, client, requests, mix, recorder, end);
+                }
+            } finally {
+                reporter.shutdownNow();
+            }
+
+            recorder.takeInterval();
+            Map<Operation, Histogram> totals = recorder.getTotals();
+            double measuredSeconds = options.getDuration().toMillis() / 1000.0;
+            printSummary(totals, recorder, measuredSeconds);
+            ResultsWriter.write(options.getOutput(), options, requests.getRunId(), startedAt, measuredSeconds, totals, recorder);
+            System.out.println("Results written to " + options.getOutput().toAbsolutePath());
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    // Request i is due at start + i / rate. The dispatcher never waits for responses, only for
+    // a free in-flight slot; a late dispatch still counts from the scheduled time.
+    private static void runOpenLoop(LoadTestOptions options, HttpClient client, RequestFactory requests, TrafficMix mix,
+                                    LatencyRecorder recorder, long start, long end) {
+        Semaphore inFlight = new Semaphore(options.getConcurrency());
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended - end >= 0) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = mix.next();
+            HttpRequest request = requests.create(operation);
+            inFlight.acquireUninterruptibly();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                recorder.record(operation, intended, System.nanoTime(), error == null && response.statusCode() / 100 == 2);
+                inFlight.release();
+            });
+        }
+        inFlight.acquireUninterruptibly(options.getConcurrency());
+    }
+
+    private static void runClosedLoop(LoadTestOptions options, HttpClient client, RequestFactory requests, TrafficMix mix,
+                                      LatencyRecorder recorder, long end) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        for (int w = 0; w < options.getConcurrency(); w++) {
+            workers.execute(() -> {
+                while (System.nanoTime() - end < 0 && !Thread.currentThread().isInterrupted()) {
+                    Operation operation = mix.next();
+                    HttpRequest request = requests.create(operation);
+                    long started = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+                    } catch (IOException e) {
+                        success = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    recorder.record(operation, started, System.nanoTime(), success);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private static void printProgress(LatencyRecorder recorder, long elapsedNanos, long intervalMillis) {
+        Map<Operation, Histogram> interval = recorder.takeInterval();
+        long requests = 0;
+        Histogram combined = null;
+        for (Histogram histogram : interval.values()) {
+            requests += histogram.getTotalCount();
+            if (combined == null) {
+                combined = histogram.copy();
+            } else {
+                combined.add(histogram);
+            }
+        }
+        if (requests == 0) {
+            System.out.printf("[%4ds] warming up%n", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+            return;
+        }
+        System.out.printf("[%4ds] %8.1f req/s  p50=%sms  p99=%sms  max=%sms%n",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), requests * 1000.0 / intervalMillis,
+                ResultsWriter.formatMillis(combined.getValueAtPercentile(50)),
+                ResultsWriter.formatMillis(combined.getValueAtPercentile(99)),
+                ResultsWriter.formatMillis(combined.getMaxValue()));
+    }
+
+    private static void printSummary(Map<Operation, Histogram> totals, LatencyRecorder recorder, double measuredSeconds) {
+        System.out.printf("%n%-16s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+        for (Map.Entry<Operation, Histogram> entry : totals.entrySet()) {
+            Histogram h = entry.getValue();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-16s %9d %7d %9.1f %9s %9s %9s %9s %9s %9s%n",
+                    entry.getKey().key(), h.getTotalCount(), recorder.getErrors(entry.getKey()),
+                    h.getTotalCount() / measuredSeconds,
+                    ResultsWriter.formatMillis(h.getValueAtPercentile(50)),
+                    ResultsWriter.formatMillis(h.getValueAtPercentile(90)),
+                    ResultsWriter.formatMillis(h.getValueAtPercentile(99)),
+                    ResultsWriter.formatMillis(h.getValueAtPercentile(99.9)),
+                    ResultsWriter.formatMillis(h.getValueAtPercentile(99.99)),
+                    ResultsWriter.formatMillis(h.getMaxValue()));
+        }
+        System.out.println("(latencies in ms)");
+    }
+}
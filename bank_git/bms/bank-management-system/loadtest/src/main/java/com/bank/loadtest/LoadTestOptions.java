@@ -0,0 +1,168 @@
+package com.bank.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Command line of the load generator. Every option has the form --name=value.
+final class LoadTestOptions {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar loadtest.jar [options]",
+            "  --embedded=true|false   start all four services in this JVM with in-memory databases and",
+            "                          no Eureka (default false: target already running services)",
+            "  --auth-url=URL          default http://localhost:8084",
+            "  --customer-url=URL      default http://localhost:8082",
+            "  --account-url=URL       default http://localhost:8083",
+            "  --employee-url=URL      default http://localhost:8081",
+            "  --rate=N                open-loop arrival rate in requests per second; 0 runs closed-loop,",
+            "                          each of --concurrency workers sending back to back (default 200)",
+            "  --concurrency=N         maximum requests in flight (default 64)",
+            "  --duration=D            measured run time, e.g. 60s or 5m (default 60s)",
+            "  --warmup=D              unmeasured time before the run (default 10s)",
+            "  --report-interval=D     progress line interval (default 5s)",
+            "  --accounts=N            accounts created before the run (default 1000)",
+            "  --mix=op=w,...          traffic weights; operations: login, create-customer, balance,",
+            "                          deposit, withdraw, transfer, history (off by default), employees",
+            "  --output=FILE           JSON results file (default loadtest-results.json)");
+
+    private boolean embedded;
+    private URI authUrl = URI.create("http://localhost:8084");
+    private URI customerUrl = URI.create("http://localhost:8082");
+    private URI accountUrl = URI.create("http://localhost:8083");
+    private URI employeeUrl = URI.create("http://localhost:8081");
+    private double rate = 200;
+    private int concurrency = 64;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration reportInterval = Duration.ofSeconds(5);
+    private int accounts = 1000;
+    private Map<Operation, Integer> mix = defaultMix();
+    private Path output = Paths.get("loadtest-results.json");
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "embedded" -> options.embedded = Boolean.parseBoolean(value);
+                case "auth-url" -> options.authUrl = URI.create(value);
+                case "customer-url" -> options.customerUrl = URI.create(value);
+                case "account-url" -> options.accountUrl = URI.create(value);
+                case "employee-url" -> options.employeeUrl = URI.create(value);
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "report-interval" -> options.reportInterval = parseDuration(value);
+                case "accounts" -> options.accounts = Integer.parseInt(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "output" -> options.output = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.rate < 0 || options.concurrency <= 0 || options.accounts < 2) {
+            throw new IllegalArgumentException("--rate must be >= 0, --concurrency > 0 and --accounts >= 2");
+        }
+        return options;
+    }
+
+    // Accepts 250ms, 30s, 5m and 1h.
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        long amount = Long.parseLong(v.substring(0, v.length() - 1));
+        return switch (v.charAt(v.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration: " + value);
+        };
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected op=weight in --mix but got " + part);
+            }
+            weights.put(Operation.fromKey(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.getDefaultWeight());
+        }
+        return weights;
+    }
+
+    URI urlFor(Operation operation) {
+        return switch (operation.getService()) {
+            case "auth" -> authUrl;
+            case "customer" -> customerUrl;
+            case "employee" -> employeeUrl;
+            default -> accountUrl;
+        };
+    }
+
+    // Echoed into the results file so a run can be reproduced.
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("embedded", embedded);
+        map.put("authUrl", authUrl.toString());
+        map.put("customerUrl", customerUrl.toString());
+        map.put("accountUrl", accountUrl.toString());
+        map.put("employeeUrl", employeeUrl.toString());
+        map.put("rate", rate);
+        map.put("concurrency", concurrency);
+        map.put("durationSeconds", duration.toMillis() / 1000.0);
+        map.put("warmupSeconds", warmup.toMillis() / 1000.0);
+        map.put("accounts", accounts);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.key(), weight));
+        map.put("mix", weights);
+        return map;
+    }
+
+    boolean isEmbedded() { return embedded; }
+
+    URI getAuthUrl() { return authUrl; }
+
+    URI getCustomerUrl() { return customerUrl; }
+
+    URI getAccountUrl() { return accountUrl; }
+
+    URI getEmployeeUrl() { return employeeUrl; }
+
+    double getRate() { return rate; }
+
+    int getConcurrency() { return concurrency; }
+
+    Duration getDuration() { return duration; }
+
+    Duration getWarmup() { return warmup; }
+
+    Duration getReportInterval() { return reportInterval; }
+
+    int getAccounts() { return accounts; }
+
+    Map<Operation, Integer> getMix() { return mix; }
+
+    Path getOutput() { return output; }
+}
@@ -0,0 +1,46 @@
+package com.bank.loadtest;
+
+import java.util.Locale;
+
+// The requests the load generator sends, with the service that answers them and their share
+// of the default traffic mix.
+enum Operation {
+    LOGIN("auth", "POST /api/auth/login", 5),
+    CREATE_CUSTOMER("customer", "POST /api/customers", 2),
+    BALANCE("account", "GET /api/accounts/{accountNumber}/balance", 45),
+    DEPOSIT("account", "POST /api/accounts/{accountNumber}/deposit", 15),
+    WITHDRAW("account", "POST /api/accounts/{accountNumber}/withdraw", 13),
+    TRANSFER("account", "POST /api/accounts/transfer", 18),
+    HISTORY("account", "GET /api/accounts/{accountNumber}/transactions?limit=20", 0),
+    EMPLOYEES("employee", "GET /api/employees/designation/{designation}", 2);
+
+    private final String service;
+    private final String endpoint;
+    private final int defaultWeight;
+
+    Operation(String service, String endpoint, int defaultWeight) {
+        this.service = service;
+        this.endpoint = endpoint;
+        this.defaultWeight = defaultWeight;
+    }
+
+    // Name used in --mix and in the results file, e.g. create-customer.
+    String key() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key().equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in --mix: " + key);
+    }
+
+    String getService() { return service; }
+
+    String getEndpoint() { return endpoint; }
+
+    int getDefaultWeight() { return defaultWeight; }
+}
@@ -0,0 +1,258 @@
+package com.bank.loadtest;
+
+import com.bank.account.AccountServiceApplication;
+import com.bank.common.storage.DatabaseSnapshots;
+import com.bank.common.storage.H2DatabaseFiles;
+import com.bank.common.storage.StorageReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.h2.tools.DeleteDbFiles;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Measures how quickly account-service is serving again with its persistent storage. Seeds a
+// file-backed database with --accounts accounts and --transactions transactions, snapshots
+// it, then times two restarts: with the database file in place, and after deleting it so the
+// service restores the snapshot in bulk. Each restart is timed until the first balance
+// request succeeds, alongside the service's own report of restore, migration and startup
+// time. Restarts happen in this already warm JVM, so a cold process takes somewhat longer;
+// the service logs the same report on every real start.
+public final class RecoveryBenchmark {
+
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -cp loadtest.jar com.bank.loadtest.RecoveryBenchmark [options]",
+            "  --accounts=N            accounts seeded (default 1000000)",
+            "  --transactions=N        transactions seeded (default 2000000)",
+            "  --directory=DIR         working directory for the database and snapshots",
+            "                          (default recovery-benchmark, emptied first)",
+            "  --port=N                port the service listens on (default 18083)",
+            "  --output=FILE           JSON results file (default recovery-benchmark.json)");
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String INSERT_ACCOUNT = "INSERT INTO bank_accounts (account_type, account_number, account_holder_name, "
+            + "balance, customer_ssn, version, opened_at, hot_account, overdraft_limit, maintenance_fee) "
+            + "VALUES ('CURRENT', ?, ?, 1000000.00, '1000000', 0, ?, FALSE, 10000.00, 500.00)";
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (id, source_account, destination_account, amount, "
+            + "transaction_type, timestamp, status, description) "
+            + "VALUES (NEXT VALUE FOR transactions_seq, ?, ?, 1.00, 'TRANSFER', ?, 'SUCCESS', 'Seeded by RecoveryBenchmark')";
+
+    private int accounts = 1_000_000;
+    private int transactions = 2_000_000;
+    private Path directory = Paths.get("recovery-benchmark");
+    private int port = 18083;
+    private Path output = Paths.get("recovery-benchmark.json");
+
+    private RecoveryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(USAGE);
+            return;
+        }
+        RecoveryBenchmark benchmark;
+        try {
+            benchmark = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        benchmark.run();
+    }
+
+    private static RecoveryBenchmark parse(String[] args) {
+        RecoveryBenchmark benchmark = new RecoveryBenchmark();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "accounts" -> benchmark.accounts = Integer.parseInt(value);
+                case "transactions" -> benchmark.transactions = Integer.parseInt(value);
+                case "directory" -> benchmark.directory = Paths.get(value);
+                case "port" -> benchmark.port = Integer.parseInt(value);
+                case "output" -> benchmark.output = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (benchmark.accounts < 2 || benchmark.transactions < 0) {
+            throw new IllegalArgumentException("--accounts must be >= 2 and --transactions >= 0");
+        }
+        return benchmark;
+    }
+
+    private void run() throws IOException, InterruptedException, SQLException {
+        Path workDirectory = directory.toAbsolutePath();
+        Path databaseDirectory = workDirectory.resolve("db");
+        Path snapshotDirectory = workDirectory.resolve("snapshots");
+        Files.createDirectories(databaseDirectory);
+        DeleteDbFiles.execute(databaseDirectory.toString(), "accountdb", true);
+        deleteSnapshots(snapshotDirectory);
+        H2DatabaseFiles database = H2DatabaseFiles.fromUrl(url(databaseDirectory));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("accounts", accounts);
+        results.put("transactions", transactions);
+
+        DatabaseSnapshots.Snapshot snapshot;
+        try (ConfigurableApplicationContext context = boot(databaseDirectory, snapshotDirectory)) {
+            long started = System.nanoTime();
+            seed(context.getBean(DataSource.class));
+            long seedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            System.out.printf("Seeded %d accounts and %d transactions in %d ms%n", accounts, transactions, seedMillis);
+            results.put("seedMillis", seedMillis);
+            snapshot = context.getBean(DatabaseSnapshots.class).take();
+        }
+        results.put("databaseBytes", Files.size(database.getDataFile()));
+        results.put("snapshotBytes", snapshot.getBytes());
+        results.put("snapshotMillis", snapshot.getMillis());
+
+        List<Map<String, Object>> restarts = new ArrayList<>();
+        restarts.add(restart("restart", databaseDirectory, snapshotDirectory));
+        DeleteDbFiles.execute(databaseDirectory.toString(), "accountdb", true);
+        restarts.add(restart("recovery", databaseDirectory, snapshotDirectory));
+        results.put("restarts", restarts);
+
+        System.out.printf("%nDatabase %.1f MB, snapshot %.1f MB written in %d ms%n",
+                (Long) results.get("databaseBytes") / 1048576.0, snapshot.getBytes() / 1048576.0, snapshot.getMillis());
+        System.out.printf("%-9s %12s %12s %12s %16s%n", "start", "restore ms", "migrate ms", "ready ms", "first read ms");
+        for (Map<String, Object> restart : restarts) {
+            System.out.printf("%-9s %12s %12s %12s %16s%n", restart.get("start"), restart.get("restoreMillis"),
+                    restart.get("migrationMillis"), restart.get("readyMillis"), restart.get("firstReadMillis"));
+        }
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    // Timed from the start of the boot until a balance read through HTTP succeeds.
+    private Map<String, Object> restart(String name, Path databaseDirectory, Path snapshotDirectory)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = boot(databaseDirectory, snapshotDirectory)) {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+            String accountNumber = accountNumber(ThreadLocalRandom.current().nextInt(accounts));
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts/" + accountNumber + "/balance"))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long firstReadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            if (status != 200) {
+                throw new IOException("Balance of " + accountNumber + " after " + name + " returned HTTP " + status);
+            }
+            Map<String, Object> restart = new LinkedHashMap<>();
+            restart.put("start", name);
+            restart.putAll(context.getBean(StorageReport.class).toMap());
+            restart.put("firstReadMillis", firstReadMillis);
+            return restart;
+        }
+    }
+
+    private ConfigurableApplicationContext boot(Path databaseDirectory, Path snapshotDirectory) {
+        return new SpringApplicationBuilder(AccountServiceApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.config.name=loadtest-account",
+                        "--server.port=" + port,
+                        "--spring.datasource.url=" + url(databaseDirectory),
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.flyway.enabled=true",
+                        "--bank.storage.enabled=true",
+                        "--bank.storage.restore=if-missing",
+                        "--bank.storage.snapshot.directory=" + snapshotDirectory,
+                        "--bank.storage.snapshot.interval-minutes=0",
+                        "--bank.storage.snapshot.on-shutdown=false",
+                        "--account.snapshot.enabled=false");
+    }
+
+    private void seed(DataSource dataSource) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_ACCOUNT)) {
+                Timestamp openedAt = Timestamp.valueOf(now.minusYears(1));
+                for (int i = 0; i < accounts; i++) {
+                    insert.setString(1, accountNumber(i));
+                    insert.setString(2, "Recovery Test " + i);
+                    insert.setTimestamp(3, openedAt);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_TRANSACTION)) {
+                for (int i = 0; i < transactions; i++) {
+                    int source = random.nextInt(accounts);
+                    int destination = (source + 1 + random.nextInt(accounts - 1)) % accounts;
+                    insert.setString(1, accountNumber(source));
+                    insert.setString(2, accountNumber(destination));
+                    insert.setTimestamp(3, Timestamp.valueOf(now.minusSeconds(transactions - i)));
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    private static String url(Path databaseDirectory) {
+        return "jdbc:h2:file:" + databaseDirectory.resolve("accountdb") + ";DB_CLOSE_ON_EXIT=FALSE";
+    }
+
+    private static String accountNumber(int i) {
+        return String.format("RB%010d", i);
+    }
+
+    private static void deleteSnapshots(Path snapshotDirectory) throws IOException {
+        if (!Files.isDirectory(snapshotDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
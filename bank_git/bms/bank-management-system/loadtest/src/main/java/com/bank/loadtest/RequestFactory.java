@@ -0,0 +1,157 @@
+package com.bank.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Builds the HTTP requests for each operation. prepare() creates the login user and the
+// accounts the money operations work on; everything the run creates is named with a per-run
+// id so repeated runs against the same services do not collide.
+final class RequestFactory {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] DESIGNATIONS = {"Clerk", "Manager", "Accountant"};
+    private static final String PASSWORD = "loadtest";
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId;
+    private final int ssnBase;
+    private final AtomicInteger customerCounter = new AtomicInteger();
+    private final List<String> accountNumbers = new ArrayList<>();
+    private String username;
+
+    RequestFactory(LoadTestOptions options) {
+        this.options = options;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.runId = Long.toString(random.nextLong(36L * 36 * 36 * 36 * 36, 36L * 36 * 36 * 36 * 36 * 36), 36);
+        this.ssnBase = random.nextInt(1_000_000, 9_000_000);
+    }
+
+    void prepare(HttpClient client) throws IOException, InterruptedException {
+        username = "lt" + runId;
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("username", username);
+        user.put("password", PASSWORD);
+        user.put("email", username + "@loadtest.local");
+        user.put("role", "CUSTOMER");
+        expectSuccess(client.send(post(options.getAuthUrl(), "/api/auth/register", user), HttpResponse.BodyHandlers.ofString()),
+                "register the load test user");
+
+        Semaphore inFlight = new Semaphore(options.getConcurrency());
+        List<CompletableFuture<HttpResponse<String>>> creations = new ArrayList<>(options.getAccounts());
+        for (int i = 0; i < options.getAccounts(); i++) {
+            String accountNumber = String.format("LT%s%07d", runId, i);
+            accountNumbers.add(accountNumber);
+            Map<String, Object> account = new LinkedHashMap<>();
+            account.put("accountType", "CURRENT");
+            account.put("accountNumber", accountNumber);
+            account.put("accountHolderName", "Load Test " + i);
+            account.put("initialBalance", "1000000.00");
+            account.put("customerSsn", String.valueOf(ssnBase));
+            inFlight.acquire();
+            creations.add(client.sendAsync(post(options.getAccountUrl(), "/api/accounts", account), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> inFlight.release()));
+        }
+        for (CompletableFuture<HttpResponse<String>> creation : creations) {
+            expectSuccess(creation.join(), "create the load test accounts");
+        }
+    }
+
+    HttpRequest create(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        URI base = options.urlFor(operation);
+        switch (operation) {
+            case LOGIN:
+                return post(base, "/api/auth/login", Map.of("username", username, "password", PASSWORD));
+            case CREATE_CUSTOMER:
+                return post(base, "/api/customers", customer(customerCounter.incrementAndGet()));
+            case BALANCE:
+                return get(base, "/api/accounts/" + anyAccount(random) + "/balance");
+            case DEPOSIT:
+                return post(base, "/api/accounts/" + anyAccount(random) + "/deposit", Map.of("amount", "10.00"));
+            case WITHDRAW:
+                return post(base, "/api/accounts/" + anyAccount(random) + "/withdraw", Map.of("amount", "5.00"));
+            case TRANSFER:
+                int from = random.nextInt(accountNumbers.size());
+                int to = random.nextInt(accountNumbers.size() - 1);
+                if (to >= from) {
+                    to++;
+                }
+                return post(base, "/api/accounts/transfer", Map.of(
+                        "sourceAccount", accountNumbers.get(from),
+                        "destinationAccount", accountNumbers.get(to),
+                        "amount", "1.00"));
+            case HISTORY:
+                return get(base, "/api/accounts/" + anyAccount(random) + "/transactions?limit=20");
+            case EMPLOYEES:
+                return get(base, "/api/employees/designation/" + DESIGNATIONS[random.nextInt(DESIGNATIONS.length)]);
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    String getRunId() {
+        return runId;
+    }
+
+    private Map<String, Object> customer(int n) {
+        Map<String, Object> customer = new LinkedHashMap<>();
+        customer.put("ssnId", String.format("%07d", (ssnBase + n) % 10_000_000));
+        customer.put("customerName", "Load Test " + n);
+        customer.put("email", "c" + n + "." + runId + "@loadtest.local");
+        customer.put("address", "1 Load Test Street");
+        customer.put("contactNumber", "9000000000");
+        customer.put("aadharNumber", String.format("%06d%06d", ssnBase % 1_000_000, n % 1_000_000));
+        customer.put("panNumber", String.format("P%s%06d", runId.substring(0, 3), n % 1_000_000));
+        customer.put("accountNumber", String.format("LC%s%07d", runId, n));
+        customer.put("initialDeposit", "1000.00");
+        customer.put("balance", "1000.00");
+        customer.put("accountType", "Savings");
+        customer.put("age", 30);
+        customer.put("city", "Pune");
+        customer.put("gender", "F");
+        return customer;
+    }
+
+    private String anyAccount(ThreadLocalRandom random) {
+        return accountNumbers.get(random.nextInt(accountNumbers.size()));
+    }
+
+    private HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(URI base, String path, Map<String, ?> body) {
+        try {
+            return HttpRequest.newBuilder(base.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void expectSuccess(HttpResponse<String> response, String action) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Could not " + action + ": HTTP " + response.statusCode() + " from "
+                    + response.uri() + " " + response.body());
+        }
+    }
+}
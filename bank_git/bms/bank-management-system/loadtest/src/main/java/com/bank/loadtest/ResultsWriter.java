@@ -0,0 +1,99 @@
+package com.bank.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Writes a run as JSON: the options, then per endpoint the request and error counts, achieved
+// throughput, latency percentiles in milliseconds and the full histogram in HdrHistogram's
+// compressed base64 form, so runs can be compared or merged without re-running them. The
+// "all" entry combines every endpoint.
+final class ResultsWriter {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private ResultsWriter() {
+    }
+
+    static void write(Path file, LoadTestOptions options, String runId, Instant startedAt, double measuredSeconds,
+                      Map<Operation, Histogram> histograms, LatencyRecorder recorder) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("runId", runId);
+        results.put("startedAt", startedAt.toString());
+        results.put("measuredSeconds", measuredSeconds);
+        results.put("options", options.toMap());
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Histogram all = null;
+        long allErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long errors = recorder.getErrors(entry.getKey());
+            Map<String, Object> endpoint = summary(histogram, errors, measuredSeconds);
+            endpoint.put("endpoint", entry.getKey().getEndpoint());
+            endpoints.put(entry.getKey().key(), endpoint);
+            if (all == null) {
+                all = histogram.copy();
+            } else {
+                all.add(histogram);
+            }
+            allErrors += errors;
+        }
+        results.put("endpoints", endpoints);
+        if (all != null) {
+            results.put("all", summary(all, allErrors, measuredSeconds));
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), results);
+    }
+
+    private static String percentileLabel(double percentile) {
+        return "p" + (percentile == Math.rint(percentile)
+                ? String.valueOf((long) percentile) : String.valueOf(percentile));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    static String formatMillis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+
+    static Map<String, Object> summary(Histogram histogram, long errors, double measuredSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", Math.round(histogram.getTotalCount() / measuredSeconds * 10) / 10.0);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            latency.put(percentileLabel(percentile), millis(histogram.getValueAtPercentile(percentile)));
+        }
+        latency.put("max", millis(histogram.getMaxValue()));
+        latency.put("mean", Math.round(histogram.getMean()) / 1000.0);
+        summary.put("latencyMs", latency);
+
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        summary.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        return summary;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bank.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(100);
+
+    @Test
+    void measuresFromTheIntendedStartAndSkipsTheWarmup() {
+        LatencyRecorder recorder = new LatencyRecorder(START);
+
+        // Scheduled during warmup, finished after the window opened
+        recorder.record(Operation.BALANCE, START - 1, START + millis(5), true);
+        // Sent 40ms late behind a slow request; the queueing time counts
+        recorder.record(Operation.BALANCE, START + millis(10), START + millis(60), true);
+        recorder.record(Operation.DEPOSIT, START + millis(20), START + millis(22), false);
+
+        Map<Operation, Histogram> interval = recorder.takeInterval();
+
+        Histogram balance = interval.get(Operation.BALANCE);
+        assertThat(balance.getTotalCount()).isEqualTo(1);
+        assertThat(balance.getMaxValue()).isBetween(49_900L, 50_100L);
+        assertThat(interval.get(Operation.DEPOSIT).getTotalCount()).isEqualTo(1);
+        assertThat(recorder.getErrors(Operation.DEPOSIT)).isEqualTo(1);
+        assertThat(recorder.getErrors(Operation.BALANCE)).isZero();
+    }
+
+    @Test
+    void intervalsAddUpToTheTotals() {
+        LatencyRecorder recorder = new LatencyRecorder(START);
+
+        recorder.record(Operation.TRANSFER, START, START + millis(1), true);
+        assertThat(recorder.takeInterval().get(Operation.TRANSFER).getTotalCount()).isEqualTo(1);
+
+        recorder.record(Operation.TRANSFER, START, START + millis(2), true);
+        recorder.record(Operation.TRANSFER, START, START + millis(3), true);
+        assertThat(recorder.takeInterval().get(Operation.TRANSFER).getTotalCount()).isEqualTo(2);
+
+        assertThat(recorder.getTotals().get(Operation.TRANSFER).getTotalCount()).isEqualTo(3);
+        assertThat(recorder.getTotals().get(Operation.LOGIN).getTotalCount()).isZero();
+    }
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
@@ -0,0 +1,55 @@
+package com.bank.loadtest;
+
+import org.junit.jupiter.api.Test;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void defaultsToTheLocalServicesAndTheDefaultMix() {
+        LoadTestOptions options = LoadTestOptions.parse(new String[0]);
+
+        assertThat(options.isEmbedded()).isFalse();
+        assertThat(options.urlFor(Operation.LOGIN)).isEqualTo(URI.create("http://localhost:8084"));
+        assertThat(options.urlFor(Operation.TRANSFER)).isEqualTo(URI.create("http://localhost:8083"));
+        assertThat(options.getMix()).containsEntry(Operation.BALANCE, 45).containsEntry(Operation.HISTORY, 0);
+        assertThat(options.getDuration()).isEqualTo(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void parsesEveryOption() {
+        LoadTestOptions options = LoadTestOptions.parse(new String[] {
+                "--embedded=true", "--account-url=http://bank:9000", "--rate=0", "--concurrency=8",
+                "--duration=5m", "--warmup=250ms", "--report-interval=1h", "--accounts=2",
+                "--mix=deposit=3, create-customer=1", "--output=out.json"});
+
+        assertThat(options.isEmbedded()).isTrue();
+        assertThat(options.urlFor(Operation.DEPOSIT)).isEqualTo(URI.create("http://bank:9000"));
+        assertThat(options.getRate()).isZero();
+        assertThat(options.getConcurrency()).isEqualTo(8);
+        assertThat(options.getDuration()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(options.getWarmup()).isEqualTo(Duration.ofMillis(250));
+        assertThat(options.getReportInterval()).isEqualTo(Duration.ofHours(1));
+        assertThat(options.getAccounts()).isEqualTo(2);
+        assertThat(options.getMix()).containsOnlyKeys(Operation.DEPOSIT, Operation.CREATE_CUSTOMER)
+                .containsEntry(Operation.DEPOSIT, 3);
+        assertThat(options.getOutput()).hasToString("out.json");
+        assertThat(options.toMap()).containsEntry("durationSeconds", 300.0).containsEntry("rate", 0.0);
+    }
+
+    @Test
+    void rejectsMalformedOptions() {
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"--rate"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"rate=5"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"--speed=5"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"--duration=5d"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"--mix=deposit"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"--mix=refund=1"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"--concurrency=0"})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTestOptions.parse(new String[] {"--accounts=1"})).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bank.loadtest;
+
+import org.junit.jupiter.api.Test;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrafficMixTest {
+
+    @Test
+    void picksOperationsInProportionToTheirWeights() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        weights.put(Operation.BALANCE, 3);
+        weights.put(Operation.DEPOSIT, 1);
+        weights.put(Operation.HISTORY, 0);
+        TrafficMix mix = new TrafficMix(weights);
+
+        Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        for (int i = 0; i < 40_000; i++) {
+            counts.merge(mix.next(), 1, Integer::sum);
+        }
+
+        assertThat(counts).containsOnlyKeys(Operation.BALANCE, Operation.DEPOSIT);
+        // Expected 30000; five standard deviations is about 430
+        assertThat(counts.get(Operation.BALANCE)).isBetween(29_500, 30_500);
+    }
+
+    @Test
+    void rejectsAMixWithoutPositiveWeights() {
+        assertThatThrownBy(() -> new TrafficMix(Map.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TrafficMix(Map.of(Operation.LOGIN, 0))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
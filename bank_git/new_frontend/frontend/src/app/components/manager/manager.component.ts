@@ -783,11 +783,11 @@ export class ManagerComponent implements OnInit {
   // Statistics
   loadStatistics(): void {
     // Load customer statistics
-    this.customerService.getAllCustomers().subscribe({
-      next: (customers) => {
-        this.totalCustomers = customers.length;
-        this.activeCustomers = customers.length; // Assume all are active
-        this.totalBalance = customers.reduce((sum, c) => sum + c.balance, 0);
+    this.customerService.getCustomerAggregates().subscribe({
+      next: (aggregates) => {
+        this.totalCustomers = aggregates.count;
+        this.activeCustomers = aggregates.count; // Assume all are active
+        this.totalBalance = aggregates.totalBalance;
       },
       error: (error) => {
         console.error('Failed to load customer statistics:', error);
@@ -795,9 +795,9 @@ export class ManagerComponent implements OnInit {
     });
 
     // Load employee statistics
-    this.employeeService.getAllEmployees().subscribe({
-      next: (employees) => {
-        this.totalEmployees = employees.length;
+    this.employeeService.getEmployeeAggregates().subscribe({
+      next: (aggregates) => {
+        this.totalEmployees = aggregates.count;
       },
       error: (error) => {
         console.error('Failed to load employee statistics:', error);
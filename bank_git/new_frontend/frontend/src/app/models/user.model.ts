@@ -63,6 +63,24 @@ export interface Employee {
   salary: number;
 }
 
+// Running totals served by GET /api/customers/aggregates
+export interface CustomerAggregates {
+  count: number;
+  totalBalance: number;
+  countsByAccountType: { [accountType: string]: number };
+  balanceByAccountType: { [accountType: string]: number };
+  recomputedAt: string | null;
+}
+
+// Running totals served by GET /api/employees/aggregates
+export interface EmployeeAggregates {
+  count: number;
+  totalSalary: number;
+  countsByDesignation: { [designation: string]: number };
+  salaryByDesignation: { [designation: string]: number };
+  recomputedAt: string | null;
+}
+
 export interface Manager {
   employeeId: number;
   firstName: string;
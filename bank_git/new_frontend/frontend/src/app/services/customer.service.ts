@@ -2,7 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { BehaviorSubject, Observable, throwError,of } from 'rxjs';
 import { catchError, map } from 'rxjs/operators';
-import { User, Customer, Transaction, CustomerRegistration } from '../models/user.model';
+import { User, Customer, Transaction, CustomerRegistration, CustomerAggregates } from '../models/user.model';
 
 
 
@@ -126,6 +126,16 @@ export class CustomerService {
     );
   }
 
+  // Count and balance totals kept by the server; a few hundred bytes instead of every customer
+  getCustomerAggregates(): Observable<CustomerAggregates> {
+    return this.http.get<CustomerAggregates>(`${this.customerApiUrl}/aggregates`, { withCredentials: true }).pipe(
+      catchError(error => {
+        console.error('Failed to load customer aggregates:', error);
+        return throwError(() => new Error(error.error?.message || 'Failed to load customer aggregates'));
+      })
+    );
+  }
+
   getAllCustomers(): Observable<Customer[]> {
     return this.http.get<Customer[]>(`${this.customerApiUrl}`, { withCredentials: true }).pipe(
       map(customers => {
@@ -2,7 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { BehaviorSubject, Observable, throwError,of } from 'rxjs';
 import { catchError, map } from 'rxjs/operators';
-import { Employee } from '../models/user.model';
+import { Employee, EmployeeAggregates } from '../models/user.model';
 
 @Injectable({
   providedIn: 'root'
@@ -32,6 +32,16 @@ export class EmployeeService {
     );
   }
 
+  // Count and salary totals kept by the server; a few hundred bytes instead of every employee
+  getEmployeeAggregates(): Observable<EmployeeAggregates> {
+    return this.http.get<EmployeeAggregates>(`${this.apiUrl}/aggregates`, { withCredentials: true }).pipe(
+      catchError(error => {
+        console.error('Failed to load employee aggregates:', error);
+        return throwError(() => new Error(error.error?.message || 'Failed to load employee aggregates'));
+      })
+    );
+  }
+
   getAllEmployees(): Observable<Employee[]> {
     return this.http.get<Employee[]>(`${this.apiUrl}`, { withCredentials: true }).pipe(
       map(employees => {